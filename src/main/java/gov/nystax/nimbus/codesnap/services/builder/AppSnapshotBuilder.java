@@ -1,12 +1,16 @@
 package gov.nystax.nimbus.codesnap.services.builder;
 
+import gov.nystax.nimbus.codesnap.services.builder.BuildMetricsRecorder.Stopwatch;
 import gov.nystax.nimbus.codesnap.services.builder.domain.AppTemplateNode;
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildMetrics.Phase;
 import gov.nystax.nimbus.codesnap.services.builder.domain.BuildRequest;
 import gov.nystax.nimbus.codesnap.services.builder.domain.BuildRequest.ServiceCommitInfo;
 import gov.nystax.nimbus.codesnap.services.builder.domain.BuildResult;
 import gov.nystax.nimbus.codesnap.services.builder.domain.BuildResult.FailedServiceInfo;
+import gov.nystax.nimbus.codesnap.services.builder.domain.ChildReference;
 import gov.nystax.nimbus.codesnap.services.builder.domain.FunctionPoolEntry;
 import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService;
+import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.BuildScanSet;
 import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.ScanDataWithMetadata;
 import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ServiceCommitPair;
 import gov.nystax.nimbus.codesnap.services.processor.domain.EntryPointDependencies;
@@ -16,13 +20,21 @@ import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceCallReference
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -31,9 +43,9 @@ import java.util.logging.Logger;
  * 
  * <p>Build process:</p>
  * <ol>
- *   <li>Load all relevant scans from the database</li>
+ *   <li>Resolve the scan status of every service and load the successful scans</li>
  *   <li>Topologically sort services by dependencies</li>
- *   <li>Build the transitive resolution map</li>
+ *   <li>Build the transitive resolution map and pre-load queue names</li>
  *   <li>For each service (in dependency order):
  *     <ul>
  *       <li>Add functions to FunctionPool with direct dependencies</li>
@@ -43,6 +55,11 @@ import java.util.logging.Logger;
  *   </li>
  *   <li>Build the final AppTemplate tree with function refs</li>
  * </ol>
+ *
+ * <p>Each service is first planned independently (queue names, direct dependencies and
+ * transitive resolution) and the plans are then applied to the function pool and app
+ * template in dependency order. When the builder is created with an executor, planning
+ * runs in parallel on it; the output is the same as a serial build.</p>
  */
 public class AppSnapshotBuilder {
 
@@ -51,14 +68,47 @@ public class AppSnapshotBuilder {
     private final ServiceScanService scanService;
     private final QueueNameResolver queueNameResolver;
 
+    // Executor for per-service planning; null builds serially on the calling thread
+    private final Executor buildExecutor;
+
     public AppSnapshotBuilder() {
-        this.scanService = new ServiceScanService();
-        this.queueNameResolver = new QueueNameResolver();
+        this(new ServiceScanService(), new QueueNameResolver());
     }
 
     public AppSnapshotBuilder(ServiceScanService scanService, QueueNameResolver queueNameResolver) {
+        this(scanService, queueNameResolver, null);
+    }
+
+    /**
+     * Creates a builder that plans services in parallel on the given executor, for example
+     * {@code Executors.newVirtualThreadPerTaskExecutor()} or a {@code ForkJoinPool}.
+     * Plans are applied in dependency order on the calling thread, so the result is identical
+     * to a serial build. The executor is not shut down by the builder.
+     *
+     * @param scanService the scan service
+     * @param queueNameResolver the queue name resolver, shared by the worker threads
+     * @param buildExecutor the executor for parallel planning, or null to build serially
+     */
+    public AppSnapshotBuilder(ServiceScanService scanService, QueueNameResolver queueNameResolver,
+                              Executor buildExecutor) {
         this.scanService = scanService;
         this.queueNameResolver = queueNameResolver;
+        this.buildExecutor = buildExecutor;
+    }
+
+    /**
+     * Returns a string identifying the configuration that affects the snapshots this builder
+     * produces, for use in cache keys, see {@link BuildResultCache#keyFor}.
+     */
+    public String configFingerprint() {
+        return queueNameResolver == null ? "resolver=none" : queueNameResolver.configFingerprint();
+    }
+
+    /**
+     * Returns true if this builder plans services in parallel.
+     */
+    public boolean isParallel() {
+        return buildExecutor != null;
     }
 
     /**
@@ -75,26 +125,84 @@ public class AppSnapshotBuilder {
      * @throws BuildException if the build fails
      */
     public BuildResult build(Connection connection, BuildRequest request) throws SQLException {
+        return run(connection, request, null, false, null).getResult();
+    }
+
+    /**
+     * Builds the AppTemplate for the given request, handing each FunctionPool entry to the
+     * sink as soon as it is final instead of collecting the pool in the result.
+     *
+     * <p>Services are applied in dependency order, and a function's entry can only change
+     * while the services exposing that function are applied. Once the last of them has been
+     * applied the entry is removed from the result and passed to the sink, so the pool only
+     * holds the entries of functions still waiting for a later service. The entries are the
+     * same as those of {@link #build(Connection, BuildRequest)}; the returned result has an
+     * empty FunctionPool.</p>
+     *
+     * <p>When the builder plans in parallel, service plans are still computed up front, so
+     * the saving is limited to the merged pool.</p>
+     *
+     * @param connection the database connection
+     * @param request the build request containing app name and service commits
+     * @param sink receives each FunctionPool entry once
+     * @return the build result with the AppTemplate, failures and warnings
+     * @throws SQLException if a database error occurs
+     * @throws BuildException if the build fails
+     */
+    public BuildResult build(Connection connection, BuildRequest request, FunctionPoolSink sink) throws SQLException {
+        if (sink == null) {
+            throw new IllegalArgumentException("Function pool sink cannot be null");
+        }
+        return run(connection, request, null, false, sink).getResult();
+    }
+
+    /**
+     * Builds the AppTemplate and FunctionPool for the given request, reusing the work of a
+     * previous build of the same app.
+     *
+     * <p>A service's plan depends on its own scan and on the scans of every service its
+     * calls reach transitively. Services whose commit changed, or that were added, removed
+     * or whose scan failed since the previous build, are changed. Those services and every
+     * service that reaches one of them through the reverse service-call graph are planned
+     * again; the plans of all other services are reused from the previous build. The result
+     * equals a full build, except that reused plans keep the queue names resolved by the
+     * previous build.</p>
+     *
+     * @param connection the database connection
+     * @param request the build request containing app name and service commits
+     * @param previous the state returned by the previous build of this app, or null for a full build
+     * @return the build result with the state to pass to the next incremental build
+     * @throws SQLException if a database error occurs
+     * @throws BuildException if the build fails
+     */
+    public BuildState buildIncremental(Connection connection, BuildRequest request, BuildState previous)
+            throws SQLException {
+        return run(connection, request, previous, true, null);
+    }
+
+    private BuildState run(Connection connection, BuildRequest request, BuildState previous, boolean retainPlans,
+                           FunctionPoolSink sink) throws SQLException {
         request.validate();
 
         LOGGER.log(Level.INFO, "Starting build for app: {0} with {1} services",
                 new Object[]{request.getAppName(), request.getServices().size()});
 
-        // Clear queue name cache for fresh build
-        queueNameResolver.clearCache();
-
         // Step 1: Convert to service commit pairs
         List<ServiceCommitPair> serviceCommitPairs = convertToServiceCommitPairs(request.getServices());
 
-        // Step 1a: Check for failed scans
-        List<FailedServiceScanRecord> failedScans = scanService.findFailedScans(connection, serviceCommitPairs);
-        Set<String> failedServiceIds = new HashSet<>();
+        BuildMetricsRecorder metrics = new BuildMetricsRecorder();
+
+        // Step 2: Resolve scan status for every pair in one pass (failed scans are excluded)
+        Stopwatch stopwatch = Stopwatch.start(Phase.SCAN_LOAD, request.getAppName());
+        BuildScanSet buildScanSet = scanService.loadBuildScanSet(connection, serviceCommitPairs);
+        metrics.scanLoad(stopwatch, buildScanSet.loadStats());
+        Map<String, ScanDataWithMetadata> scansByServiceId = buildScanSet.scansByServiceId();
+        List<FailedServiceScanRecord> failedScans = buildScanSet.failedScans();
         List<FailedServiceInfo> failedServiceInfoList = new ArrayList<>();
 
         if (!failedScans.isEmpty()) {
             LOGGER.log(Level.WARNING, "Found {0} failed scans among requested services", failedScans.size());
             for (FailedServiceScanRecord failure : failedScans) {
-                failedServiceIds.add(failure.getServiceId());
                 failedServiceInfoList.add(new FailedServiceInfo(
                         failure.getServiceId(),
                         failure.getGitCommitHash(),
@@ -104,31 +212,46 @@ public class AppSnapshotBuilder {
             }
         }
 
-        // Step 1b: Filter out failed services from the request
-        List<ServiceCommitPair> validServiceCommitPairs = new ArrayList<>();
-        for (ServiceCommitPair pair : serviceCommitPairs) {
-            if (!failedServiceIds.contains(pair.serviceId())) {
-                validServiceCommitPairs.add(pair);
-            }
-        }
-
-        // Step 2: Load available scans (excluding failed ones)
-        Map<String, ScanDataWithMetadata> scansByServiceId;
-        if (validServiceCommitPairs.isEmpty()) {
+        if (scansByServiceId.isEmpty() && !failedScans.isEmpty()) {
             LOGGER.log(Level.WARNING, "All services have failed scans, cannot build");
-            scansByServiceId = new HashMap<>();
-        } else {
-            scansByServiceId = scanService.loadScansForBuild(connection, validServiceCommitPairs);
         }
 
         // Step 3: Topologically sort services
+        stopwatch = Stopwatch.start(Phase.TOPOLOGICAL_SORT, request.getAppName());
         List<String> sortedServiceIds = scanService.topologicalSort(scansByServiceId);
+        metrics.phase(stopwatch);
         LOGGER.log(Level.INFO, "Services sorted by dependencies: {0}", sortedServiceIds);
 
         // Step 4: Create transitive resolver
-        TransitiveResolver transitiveResolver = new TransitiveResolver(scansByServiceId, queueNameResolver);
+        stopwatch = Stopwatch.start(Phase.TRANSITIVE_MAP, request.getAppName());
+        TransitiveResolver transitiveResolver = new TransitiveResolver(scansByServiceId, queueNameResolver,
+                metrics.queueLookups());
+        metrics.phase(stopwatch);
+
+        // Work out which services need planning; without a usable previous build, all of them
+        String appName = request.getAppName();
+        Map<String, Set<String>> calledServices = collectCalledServices(scansByServiceId);
+        Set<String> replannedServiceIds = servicesToReplan(scansByServiceId, calledServices, previous, appName);
+        if (previous != null) {
+            LOGGER.log(Level.INFO, "Incremental build for app {0}: planning {1} of {2} services",
+                    new Object[]{appName, replannedServiceIds.size(), scansByServiceId.size()});
+        }
+
+        // Resolve every queue name the planned services can ask for up front, concurrently
+        stopwatch = Stopwatch.start(Phase.QUEUE_PRELOAD, appName);
+        Set<String> preloadServiceIds = reachable(replannedServiceIds, calledServices);
+        Map<String, ScanDataWithMetadata> preloadScans = new HashMap<>();
+        for (String serviceId : preloadServiceIds) {
+            ScanDataWithMetadata scanMetadata = scansByServiceId.get(serviceId);
+            if (scanMetadata != null) {
+                preloadScans.put(serviceId, scanMetadata);
+            }
+        }
+        preloadQueueNames(connection, preloadScans, metrics.queueLookups());
+        metrics.phase(stopwatch);
 
         // Step 5: Build the result
+        stopwatch = Stopwatch.start(Phase.SERVICE_PROCESSING, appName);
         BuildResult result = new BuildResult();
 
         // Add failed services information to the result
@@ -145,29 +268,70 @@ public class AppSnapshotBuilder {
         // Track which functions we've seen (to avoid duplicates in app template)
         Set<String> addedFunctions = new HashSet<>();
 
-        // Process each service in dependency order
-        String appName = request.getAppName();
-        for (String serviceId : sortedServiceIds) {
-            ScanDataWithMetadata scanMetadata = scansByServiceId.get(serviceId);
-            ScanData scanData = scanMetadata.scanData();
-
-            if (scanMetadata.isUiService()) {
-                // Process UI service
-                processUiService(connection, serviceId, scanData, appRoot, transitiveResolver);
-            } else {
-                // Process regular service
-                processRegularService(connection, serviceId, scanData, appRoot, result,
-                        transitiveResolver, addedFunctions, appName);
+        // With a sink, the functions to emit after each position in the dependency order
+        List<List<String>> finalFunctionsByPosition = sink != null
+                ? finalFunctionsByPosition(sortedServiceIds, scansByServiceId)
+                : null;
+        int emittedFunctions = 0;
+
+        // Plan each service (serially or on the build executor), then apply the plans
+        // in dependency order so the output does not depend on the build mode
+        Map<String, ServicePlan> retainedPlans = retainPlans ? new HashMap<>() : null;
+        if (buildExecutor == null) {
+            for (int i = 0; i < sortedServiceIds.size(); i++) {
+                String serviceId = sortedServiceIds.get(i);
+                ServicePlan plan = replannedServiceIds.contains(serviceId)
+                        ? planService(connection, serviceId, scansByServiceId.get(serviceId), transitiveResolver,
+                                metrics)
+                        : previous.plansByServiceId.get(serviceId);
+                applyServicePlan(plan, appRoot, result, addedFunctions, appName, retainPlans);
+                if (retainPlans) {
+                    retainedPlans.put(serviceId, plan);
+                }
+                if (sink != null) {
+                    emittedFunctions += emitFinalFunctions(finalFunctionsByPosition.get(i), result, sink);
+                }
+            }
+        } else {
+            // Worker threads do not share the connection; queue names were preloaded with it
+            List<CompletableFuture<ServicePlan>> plans = new ArrayList<>(sortedServiceIds.size());
+            for (String serviceId : sortedServiceIds) {
+                if (!replannedServiceIds.contains(serviceId)) {
+                    plans.add(CompletableFuture.completedFuture(previous.plansByServiceId.get(serviceId)));
+                    continue;
+                }
+                ScanDataWithMetadata scanMetadata = scansByServiceId.get(serviceId);
+                plans.add(CompletableFuture.supplyAsync(() -> {
+                    long cpuStart = BuildMetricsRecorder.threadCpuNanos();
+                    try {
+                        return planService(null, serviceId, scanMetadata, transitiveResolver, metrics);
+                    } finally {
+                        metrics.addWorkerCpuNanos(BuildMetricsRecorder.threadCpuNanos() - cpuStart);
+                    }
+                }, buildExecutor));
+            }
+            for (int i = 0; i < plans.size(); i++) {
+                ServicePlan plan = awaitPlan(plans, i);
+                applyServicePlan(plan, appRoot, result, addedFunctions, appName, retainPlans);
+                if (retainPlans) {
+                    retainedPlans.put(plan.serviceId(), plan);
+                }
+                if (sink != null) {
+                    emittedFunctions += emitFinalFunctions(finalFunctionsByPosition.get(i), result, sink);
+                }
             }
         }
 
         result.setAppTemplate(appRoot);
+        metrics.serviceProcessing(stopwatch);
+        result.setMetrics(metrics.finish(transitiveResolver));
+        int functionCount = result.getFunctionPool().size() + emittedFunctions;
 
         if (result.isComplete()) {
             LOGGER.log(Level.INFO, "Build completed for app: {0}. Functions: {1}, UI Services: {2}",
                     new Object[]{
                             request.getAppName(),
-                            result.getFunctionPool().size(),
+                            functionCount,
                             countUiServices(appRoot)
                     });
         } else {
@@ -175,82 +339,239 @@ public class AppSnapshotBuilder {
                             "Functions: {1}, UI Services: {2}, Failed Services: {3}",
                     new Object[]{
                             request.getAppName(),
-                            result.getFunctionPool().size(),
+                            functionCount,
                             countUiServices(appRoot),
                             result.getFailedServices().size()
                     });
         }
 
-        return result;
+        Map<String, String> commitsByServiceId = new HashMap<>();
+        for (ScanDataWithMetadata scanMetadata : scansByServiceId.values()) {
+            commitsByServiceId.put(scanMetadata.serviceId(), scanMetadata.gitCommitHash());
+        }
+        return new BuildState(result, appName, commitsByServiceId,
+                retainPlans ? retainedPlans : Map.of(), replannedServiceIds);
+    }
+
+    /**
+     * Groups the FunctionPool keys by the position, in dependency order, of the last regular
+     * service exposing the function; after that service is applied the entry is final.
+     */
+    private List<List<String>> finalFunctionsByPosition(List<String> sortedServiceIds,
+                                                        Map<String, ScanDataWithMetadata> scansByServiceId) {
+        Map<String, Integer> lastPositions = new LinkedHashMap<>();
+        for (int i = 0; i < sortedServiceIds.size(); i++) {
+            ScanDataWithMetadata scanMetadata = scansByServiceId.get(sortedServiceIds.get(i));
+            if (scanMetadata == null || scanMetadata.isUiService()) {
+                continue;
+            }
+            Map<String, String> functionMappings = scanMetadata.scanData().getFunctionMappingsView();
+            if (functionMappings == null) {
+                continue;
+            }
+            for (String functionName : functionMappings.keySet()) {
+                lastPositions.put(functionName.toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        List<List<String>> finalFunctions = new ArrayList<>(sortedServiceIds.size());
+        for (int i = 0; i < sortedServiceIds.size(); i++) {
+            finalFunctions.add(new ArrayList<>());
+        }
+        for (Map.Entry<String, Integer> entry : lastPositions.entrySet()) {
+            finalFunctions.get(entry.getValue()).add(entry.getKey());
+        }
+        return finalFunctions;
+    }
+
+    /**
+     * Moves the given entries from the result's FunctionPool to the sink.
+     *
+     * @return the number of entries emitted
+     */
+    private int emitFinalFunctions(List<String> functionKeys, BuildResult result, FunctionPoolSink sink) {
+        int emitted = 0;
+        for (String functionKey : functionKeys) {
+            FunctionPoolEntry entry = result.removeFunction(functionKey);
+            if (entry != null) {
+                sink.accept(functionKey, entry);
+                emitted++;
+            }
+        }
+        return emitted;
+    }
+
+    /**
+     * Returns the services to plan: all of them for a full build, otherwise the changed
+     * services and every service whose calls reach one of them.
+     */
+    private Set<String> servicesToReplan(Map<String, ScanDataWithMetadata> scansByServiceId,
+                                         Map<String, Set<String>> calledServices,
+                                         BuildState previous,
+                                         String appName) {
+        if (previous == null || !appName.equals(previous.appName)) {
+            return new HashSet<>(scansByServiceId.keySet());
+        }
+
+        Set<String> changed = new HashSet<>();
+        for (ScanDataWithMetadata scanMetadata : scansByServiceId.values()) {
+            String serviceId = scanMetadata.serviceId();
+            if (!scanMetadata.gitCommitHash().equals(previous.commitsByServiceId.get(serviceId))
+                    || !previous.plansByServiceId.containsKey(serviceId)) {
+                changed.add(serviceId);
+            }
+        }
+        for (String serviceId : previous.commitsByServiceId.keySet()) {
+            if (!scansByServiceId.containsKey(serviceId)) {
+                changed.add(serviceId);
+            }
+        }
+        if (changed.isEmpty()) {
+            return changed;
+        }
+
+        // Walk the reverse service-call graph from the changed services
+        Map<String, Set<String>> callers = new HashMap<>();
+        for (Map.Entry<String, Set<String>> entry : calledServices.entrySet()) {
+            for (String calledServiceId : entry.getValue()) {
+                callers.computeIfAbsent(calledServiceId, k -> new HashSet<>()).add(entry.getKey());
+            }
+        }
+        Set<String> replanned = reachable(changed, callers);
+        replanned.retainAll(scansByServiceId.keySet());
+        return replanned;
+    }
+
+    /**
+     * Maps each service to the services its entry points and public methods call.
+     */
+    private Map<String, Set<String>> collectCalledServices(Map<String, ScanDataWithMetadata> scansByServiceId) {
+        Map<String, Set<String>> calledServices = new HashMap<>();
+        for (Map.Entry<String, ScanDataWithMetadata> entry : scansByServiceId.entrySet()) {
+            Set<String> called = new HashSet<>();
+            ScanData scanData = entry.getValue().scanData();
+            collectCalledServices(scanData.getEntryPointChildrenView(), called);
+            collectCalledServices(scanData.getPublicMethodDependenciesView(), called);
+            calledServices.put(entry.getKey(), called);
+        }
+        return calledServices;
+    }
+
+    private void collectCalledServices(Map<String, EntryPointDependencies> dependencies, Set<String> called) {
+        if (dependencies == null) {
+            return;
+        }
+        for (EntryPointDependencies deps : dependencies.values()) {
+            if (deps == null) {
+                continue;
+            }
+            for (ServiceCallReference serviceCall : deps.getServiceCallsView()) {
+                if (serviceCall.getServiceId() != null) {
+                    called.add(serviceCall.getServiceId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the start services and every service reachable from them along the edges.
+     */
+    private static Set<String> reachable(Set<String> start, Map<String, Set<String>> edges) {
+        Set<String> visited = new HashSet<>(start);
+        Deque<String> pending = new ArrayDeque<>(start);
+        while (!pending.isEmpty()) {
+            for (String next : edges.getOrDefault(pending.pop(), Set.of())) {
+                if (visited.add(next)) {
+                    pending.push(next);
+                }
+            }
+        }
+        return visited;
     }
 
     /**
-     * Processes a regular service: adds functions to the pool and app template.
+     * Computes everything a service contributes to the build without touching the shared
+     * result, so that plans for different services can be computed concurrently.
      */
-    private void processRegularService(Connection connection,
-                                        String serviceId,
-                                        ScanData scanData,
-                                        AppTemplateNode appRoot,
-                                        BuildResult result,
-                                        TransitiveResolver transitiveResolver,
-                                        Set<String> addedFunctions,
-                                        String appName) {
-        Map<String, String> functionMappings = scanData.getFunctionMappings();
+    private ServicePlan planService(Connection connection,
+                                    String serviceId,
+                                    ScanDataWithMetadata scanMetadata,
+                                    TransitiveResolver transitiveResolver,
+                                    BuildMetricsRecorder metrics) {
+        ScanData scanData = scanMetadata.scanData();
+        if (scanMetadata.isUiService()) {
+            return new ServicePlan(serviceId, List.of(),
+                    planUiService(connection, serviceId, scanData, transitiveResolver, metrics));
+        }
+        return new ServicePlan(serviceId,
+                planRegularService(connection, serviceId, scanData, transitiveResolver, metrics), null);
+    }
+
+    /**
+     * Plans a regular service: resolves each function's queue name and dependencies.
+     */
+    private List<FunctionPlan> planRegularService(Connection connection,
+                                                  String serviceId,
+                                                  ScanData scanData,
+                                                  TransitiveResolver transitiveResolver,
+                                                  BuildMetricsRecorder metrics) {
+        Map<String, String> functionMappings = scanData.getFunctionMappingsView();
         if (functionMappings == null || functionMappings.isEmpty()) {
             LOGGER.log(Level.FINE, "Service {0} has no function mappings (dependency-only service)", serviceId);
-            return;
+            return List.of();
         }
 
-        Map<String, EntryPointDependencies> entryPointChildren = scanData.getEntryPointChildren();
+        Map<String, EntryPointDependencies> entryPointChildren = scanData.getEntryPointChildrenView();
+        List<FunctionPlan> functionPlans = new ArrayList<>(functionMappings.size());
 
         for (String functionName : functionMappings.keySet()) {
-            // Add to function pool with app name
-            FunctionPoolEntry poolEntry = result.getOrCreateFunction(functionName, appName);
-            if (poolEntry.getQueueName() == null || poolEntry.getQueueName().isBlank()) {
-                String queueName = queueNameResolver.resolveForFunction(connection, functionName);
-                poolEntry.setQueueName(queueName);
-            }
+            long start = System.nanoTime();
+            String queueName = queueNameResolver.resolveForFunction(connection, functionName,
+                    metrics.queueLookups());
 
-            // Get direct dependencies
-            EntryPointDependencies deps = entryPointChildren != null ? 
+            // Collect direct and transitive dependencies as a standalone entry
+            FunctionPoolEntry dependencies = new FunctionPoolEntry();
+            EntryPointDependencies deps = entryPointChildren != null ?
                     entryPointChildren.get(functionName) : null;
 
             if (deps != null) {
-                addDependenciesToPoolEntry(connection, deps, poolEntry, transitiveResolver);
+                addDependenciesToPoolEntry(connection, deps, dependencies, transitiveResolver,
+                        metrics.queueLookups());
             }
 
-            // Add function ref to app template (only once)
-            String lowerFunctionName = functionName.toLowerCase(Locale.ROOT);
-            if (!addedFunctions.contains(lowerFunctionName)) {
-                appRoot.addFunctionRef(functionName);
-                addedFunctions.add(lowerFunctionName);
-            }
+            functionPlans.add(new FunctionPlan(functionName, queueName, dependencies));
+            metrics.entryPoint(serviceId, functionName, System.nanoTime() - start);
         }
 
         LOGGER.log(Level.FINE, "Processed regular service {0}: {1} functions",
                 new Object[]{serviceId, functionMappings.size()});
+        return functionPlans;
     }
 
     /**
-     * Processes a UI service: adds UI service container and methods to app template.
+     * Plans a UI service: builds its UI service container with methods for the app template.
+     *
+     * @return the container node, or null if the service has no UI methods
      */
-    private void processUiService(Connection connection,
-                                   String serviceId,
-                                   ScanData scanData,
-                                   AppTemplateNode appRoot,
-                                   TransitiveResolver transitiveResolver) {
-        Map<String, String> uiMethodMappings = scanData.getUiServiceMethodMappings();
+    private AppTemplateNode planUiService(Connection connection,
+                                          String serviceId,
+                                          ScanData scanData,
+                                          TransitiveResolver transitiveResolver,
+                                          BuildMetricsRecorder metrics) {
+        Map<String, String> uiMethodMappings = scanData.getUiServiceMethodMappingsView();
         if (uiMethodMappings == null || uiMethodMappings.isEmpty()) {
             LOGGER.log(Level.FINE, "UI Service {0} has no UI method mappings", serviceId);
-            return;
+            return null;
         }
 
-        Map<String, EntryPointDependencies> entryPointChildren = scanData.getEntryPointChildren();
+        Map<String, EntryPointDependencies> entryPointChildren = scanData.getEntryPointChildrenView();
 
         // Create UI services container
         AppTemplateNode uiServicesNode = AppTemplateNode.uiServices(serviceId);
 
         for (String methodName : uiMethodMappings.keySet()) {
+            long start = System.nanoTime();
+
             // Create UI service method node
             AppTemplateNode methodNode = AppTemplateNode.uiServiceMethod(methodName);
 
@@ -260,16 +581,96 @@ public class AppSnapshotBuilder {
 
             if (deps != null) {
                 // Add direct function refs to the method node
-                addDependenciesToMethodNode(connection, deps, methodNode, transitiveResolver);
+                addDependenciesToMethodNode(connection, deps, methodNode, transitiveResolver,
+                        metrics.queueLookups());
             }
 
             uiServicesNode.addChild(methodNode);
+            metrics.entryPoint(serviceId, methodName, System.nanoTime() - start);
         }
 
-        appRoot.addChild(uiServicesNode);
-
         LOGGER.log(Level.FINE, "Processed UI service {0}: {1} methods",
                 new Object[]{serviceId, uiMethodMappings.size()});
+        return uiServicesNode;
+    }
+
+    /**
+     * Applies a service plan to the shared function pool and app template.
+     * Must be called in dependency order from a single thread.
+     */
+    private void applyServicePlan(ServicePlan plan,
+                                  AppTemplateNode appRoot,
+                                  BuildResult result,
+                                  Set<String> addedFunctions,
+                                  String appName,
+                                  boolean copyNodes) {
+        if (plan.uiServicesNode() != null) {
+            // Retained plans are reused by later builds, so the result gets its own nodes
+            appRoot.addChild(copyNodes ? plan.uiServicesNode().copy() : plan.uiServicesNode());
+        }
+
+        for (FunctionPlan functionPlan : plan.functions()) {
+            String functionName = functionPlan.functionName();
+
+            // Add to function pool with app name
+            FunctionPoolEntry poolEntry = result.getOrCreateFunction(functionName, appName);
+            if (poolEntry.getQueueName() == null || poolEntry.getQueueName().isBlank()) {
+                poolEntry.setQueueName(functionPlan.queueName());
+            }
+
+            mergeDependencies(functionPlan.dependencies(), poolEntry);
+
+            // Add function ref to app template (only once)
+            String lowerFunctionName = functionName.toLowerCase(Locale.ROOT);
+            if (!addedFunctions.contains(lowerFunctionName)) {
+                appRoot.addFunctionRef(functionName);
+                addedFunctions.add(lowerFunctionName);
+            }
+        }
+    }
+
+    /**
+     * Adds the planned children the pool entry does not already reference, in planned order.
+     */
+    private void mergeDependencies(FunctionPoolEntry dependencies, FunctionPoolEntry poolEntry) {
+        for (ChildReference child : dependencies.getChildren()) {
+            if (child.isSyncRef()) {
+                if (!poolEntry.containsSyncRef(child.getRef())) {
+                    poolEntry.addSyncRef(child.getRef());
+                }
+            } else if (child.isAsyncRef()) {
+                if (!poolEntry.containsAsyncRef(child.getRef())) {
+                    poolEntry.addAsyncRef(child.getRef(), child.getQueueName());
+                }
+            } else if (child.isTopicRef()) {
+                if (!poolEntry.containsTopicRef(child.getTopicName())) {
+                    poolEntry.addTopicRef(child.getTopicName(), child.getQueueName());
+                }
+            }
+        }
+
+        if (dependencies.isUsesLegacyGatewayHttpClient()) {
+            poolEntry.setUsesLegacyGatewayHttpClient(true);
+        }
+    }
+
+    /**
+     * Waits for the plan at the given position. On failure the remaining plans are
+     * cancelled and the cause is rethrown.
+     */
+    private ServicePlan awaitPlan(List<CompletableFuture<ServicePlan>> plans, int index) {
+        try {
+            return plans.get(index).join();
+        } catch (CompletionException | CancellationException e) {
+            for (int i = index + 1; i < plans.size(); i++) {
+                plans.get(i).cancel(false);
+            }
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BuildException("Failed to process services in parallel", cause);
+        }
     }
 
     /**
@@ -278,9 +679,10 @@ public class AppSnapshotBuilder {
     private void addDependenciesToPoolEntry(Connection connection,
                                              EntryPointDependencies deps,
                                              FunctionPoolEntry poolEntry,
-                                             TransitiveResolver transitiveResolver) {
+                                             TransitiveResolver transitiveResolver,
+                                             QueueNameResolver.LookupCounter queueLookups) {
         // Add sync function dependencies
-        Set<String> functions = deps.getFunctions();
+        Set<String> functions = deps.getFunctionsView();
         if (functions != null) {
             for (String funcName : functions) {
                 if (!poolEntry.containsSyncRef(funcName)) {
@@ -290,22 +692,22 @@ public class AppSnapshotBuilder {
         }
 
         // Add async function dependencies
-        Set<String> asyncFunctions = deps.getAsyncFunctions();
+        Set<String> asyncFunctions = deps.getAsyncFunctionsView();
         if (asyncFunctions != null) {
             for (String funcName : asyncFunctions) {
                 if (!poolEntry.containsAsyncRef(funcName)) {
-                    String queueName = queueNameResolver.resolveForFunction(connection, funcName);
+                    String queueName = queueNameResolver.resolveForFunction(connection, funcName, queueLookups);
                     poolEntry.addAsyncRef(funcName, queueName);
                 }
             }
         }
 
         // Add topic dependencies
-        Set<String> topics = deps.getTopics();
+        Set<String> topics = deps.getTopicsView();
         if (topics != null) {
             for (String topicName : topics) {
                 if (!poolEntry.containsTopicRef(topicName)) {
-                    String queueName = queueNameResolver.resolveForTopic(connection, topicName);
+                    String queueName = queueNameResolver.resolveForTopic(connection, topicName, queueLookups);
                     poolEntry.addTopicRef(topicName, queueName);
                 }
             }
@@ -317,7 +719,7 @@ public class AppSnapshotBuilder {
         }
 
         // Resolve service calls transitively
-        List<ServiceCallReference> serviceCalls = deps.getServiceCalls();
+        List<ServiceCallReference> serviceCalls = deps.getServiceCallsView();
         if (serviceCalls != null && !serviceCalls.isEmpty()) {
             transitiveResolver.resolveServiceCalls(connection, serviceCalls, poolEntry);
         }
@@ -329,9 +731,10 @@ public class AppSnapshotBuilder {
     private void addDependenciesToMethodNode(Connection connection,
                                               EntryPointDependencies deps,
                                               AppTemplateNode methodNode,
-                                              TransitiveResolver transitiveResolver) {
+                                              TransitiveResolver transitiveResolver,
+                                              QueueNameResolver.LookupCounter queueLookups) {
         // Add sync function refs
-        Set<String> functions = deps.getFunctions();
+        Set<String> functions = deps.getFunctionsView();
         if (functions != null) {
             for (String funcName : functions) {
                 methodNode.addFunctionRef(funcName);
@@ -339,19 +742,19 @@ public class AppSnapshotBuilder {
         }
 
         // Add async function refs
-        Set<String> asyncFunctions = deps.getAsyncFunctions();
+        Set<String> asyncFunctions = deps.getAsyncFunctionsView();
         if (asyncFunctions != null) {
             for (String funcName : asyncFunctions) {
-                String queueName = queueNameResolver.resolveForFunction(connection, funcName);
+                String queueName = queueNameResolver.resolveForFunction(connection, funcName, queueLookups);
                 methodNode.addAsyncFunctionRef(funcName, queueName);
             }
         }
 
         // Add topic refs
-        Set<String> topics = deps.getTopics();
+        Set<String> topics = deps.getTopicsView();
         if (topics != null) {
             for (String topicName : topics) {
-                String queueName = queueNameResolver.resolveForTopic(connection, topicName);
+                String queueName = queueNameResolver.resolveForTopic(connection, topicName, queueLookups);
                 methodNode.addTopicPublishRef(topicName, queueName);
             }
         }
@@ -362,7 +765,7 @@ public class AppSnapshotBuilder {
         }
 
         // Resolve service calls transitively and add to method node
-        List<ServiceCallReference> serviceCalls = deps.getServiceCalls();
+        List<ServiceCallReference> serviceCalls = deps.getServiceCallsView();
         if (serviceCalls != null && !serviceCalls.isEmpty()) {
             // Create a temporary pool entry to collect transitive dependencies
             FunctionPoolEntry transitiveCollector = new FunctionPoolEntry();
@@ -386,6 +789,48 @@ public class AppSnapshotBuilder {
         }
     }
 
+    /**
+     * Pre-loads the queue names of every function exposed by a regular service and of every
+     * async function and topic referenced by any loaded scan, so that planning hits the cache.
+     */
+    private void preloadQueueNames(Connection connection, Map<String, ScanDataWithMetadata> scansByServiceId,
+                                   QueueNameResolver.LookupCounter queueLookups) {
+        Set<String> functionNames = new LinkedHashSet<>();
+        Set<String> topicNames = new LinkedHashSet<>();
+
+        for (ScanDataWithMetadata scanMetadata : scansByServiceId.values()) {
+            ScanData scanData = scanMetadata.scanData();
+            if (!scanMetadata.isUiService() && scanData.getFunctionMappingsView() != null) {
+                functionNames.addAll(scanData.getFunctionMappingsView().keySet());
+            }
+            collectQueueTargets(scanData.getEntryPointChildrenView(), functionNames, topicNames);
+            collectQueueTargets(scanData.getPublicMethodDependenciesView(), functionNames, topicNames);
+        }
+
+        LOGGER.log(Level.FINE, "Pre-loading queue names for {0} functions and {1} topics",
+                new Object[]{functionNames.size(), topicNames.size()});
+        queueNameResolver.preloadMappings(connection, functionNames, topicNames, queueLookups);
+    }
+
+    private void collectQueueTargets(Map<String, EntryPointDependencies> dependencies,
+                                     Set<String> functionNames,
+                                     Set<String> topicNames) {
+        if (dependencies == null) {
+            return;
+        }
+        for (EntryPointDependencies deps : dependencies.values()) {
+            if (deps == null) {
+                continue;
+            }
+            if (deps.getAsyncFunctionsView() != null) {
+                functionNames.addAll(deps.getAsyncFunctionsView());
+            }
+            if (deps.getTopicsView() != null) {
+                topicNames.addAll(deps.getTopicsView());
+            }
+        }
+    }
+
     /**
      * Converts ServiceCommitInfo list to ServiceCommitPair list for the scan service.
      */
@@ -409,6 +854,59 @@ public class AppSnapshotBuilder {
                 .count();
     }
 
+    /**
+     * A regular service's function: its resolved queue name and its direct and transitive
+     * dependencies collected into a standalone entry.
+     */
+    private record FunctionPlan(String functionName, String queueName, FunctionPoolEntry dependencies) {
+    }
+
+    /**
+     * What a service contributes to the build: functions for the pool (regular services)
+     * or a UI service container for the app template (UI services).
+     */
+    private record ServicePlan(String serviceId, List<FunctionPlan> functions, AppTemplateNode uiServicesNode) {
+    }
+
+    /**
+     * The result of a build together with what an incremental build needs to reuse it:
+     * the commit each loaded service was built at and each service's plan.
+     * Only states returned by {@link #buildIncremental} carry plans.
+     */
+    public static final class BuildState {
+        private final BuildResult result;
+        private final String appName;
+        private final Map<String, String> commitsByServiceId;
+        private final Map<String, ServicePlan> plansByServiceId;
+        private final Set<String> replannedServiceIds;
+
+        private BuildState(BuildResult result,
+                           String appName,
+                           Map<String, String> commitsByServiceId,
+                           Map<String, ServicePlan> plansByServiceId,
+                           Set<String> replannedServiceIds) {
+            this.result = result;
+            this.appName = appName;
+            this.commitsByServiceId = Map.copyOf(commitsByServiceId);
+            this.plansByServiceId = Map.copyOf(plansByServiceId);
+            this.replannedServiceIds = Set.copyOf(replannedServiceIds);
+        }
+
+        /**
+         * Returns the build result.
+         */
+        public BuildResult getResult() {
+            return result;
+        }
+
+        /**
+         * Returns the services that were planned by this build rather than reused.
+         */
+        public Set<String> getReplannedServiceIds() {
+            return replannedServiceIds;
+        }
+    }
+
     /**
      * Exception thrown when the build process fails.
      */
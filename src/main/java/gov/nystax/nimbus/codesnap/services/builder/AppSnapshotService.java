@@ -1,13 +1,22 @@
 package gov.nystax.nimbus.codesnap.services.builder;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import gov.nystax.nimbus.codesnap.services.builder.BuildMetricsRecorder.Stopwatch;
 import gov.nystax.nimbus.codesnap.services.builder.domain.AppTemplateNode;
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildMetrics;
 import gov.nystax.nimbus.codesnap.services.builder.domain.BuildRequest;
 import gov.nystax.nimbus.codesnap.services.builder.domain.BuildResult;
 import gov.nystax.nimbus.codesnap.services.builder.domain.FunctionPoolEntry;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Map;
@@ -17,6 +26,10 @@ import java.util.logging.Logger;
 /**
  * Service class for building app snapshots.
  * Provides JSON serialization of the build results for use by the frontend tree-builder.js.
+ *
+ * <p>Results can be serialized to strings, or streamed to a {@link Writer} or
+ * {@link OutputStream} with the {@code write*} methods so that large snapshots are never
+ * held in memory as text.</p>
  */
 public class AppSnapshotService {
 
@@ -25,22 +38,38 @@ public class AppSnapshotService {
     private final AppSnapshotBuilder builder;
     private final ObjectMapper objectMapper;
 
+    // Cache of serialized results for buildAsJson; null builds every request
+    private final BuildResultCache resultCache;
+
     public AppSnapshotService() {
-        this.builder = new AppSnapshotBuilder();
-        this.objectMapper = createObjectMapper();
+        this(new AppSnapshotBuilder());
     }
 
     public AppSnapshotService(AppSnapshotBuilder builder) {
-        this.builder = builder;
-        this.objectMapper = createObjectMapper();
+        this(builder, createObjectMapper());
     }
 
     public AppSnapshotService(AppSnapshotBuilder builder, ObjectMapper objectMapper) {
+        this(builder, objectMapper, null);
+    }
+
+    /**
+     * Creates a service whose {@link #buildAsJson} serves repeated requests from a cache,
+     * for example {@link BuildResultCache#shared()}. Identical requests that arrive while
+     * one is being built wait for that build instead of starting their own. Only complete
+     * results are cached.
+     *
+     * @param builder the snapshot builder
+     * @param objectMapper the Jackson ObjectMapper for the JSON output
+     * @param resultCache the result cache, or null to build every request
+     */
+    public AppSnapshotService(AppSnapshotBuilder builder, ObjectMapper objectMapper, BuildResultCache resultCache) {
         this.builder = builder;
         this.objectMapper = objectMapper;
+        this.resultCache = resultCache;
     }
 
-    private ObjectMapper createObjectMapper() {
+    private static ObjectMapper createObjectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.enable(SerializationFeature.INDENT_OUTPUT);
         return mapper;
@@ -68,27 +97,114 @@ public class AppSnapshotService {
      * @throws JsonSerializationException if JSON serialization fails
      */
     public BuildResultJson buildAsJson(Connection connection, BuildRequest request) throws SQLException {
-        BuildResult result = builder.build(connection, request);
-        return serializeToJson(result);
+        if (resultCache == null || !resultCache.isEnabled()) {
+            BuildResult result = builder.build(connection, request);
+            BuildResultJson json = serializeToJson(result);
+            logMetrics(result);
+            return json;
+        }
+
+        String key = BuildResultCache.keyFor(request, builder.configFingerprint());
+        return resultCache.getOrLoad(key, () -> {
+            BuildResult result = builder.build(connection, request);
+            if (!result.isComplete()) {
+                LOGGER.log(Level.FINE, "Not caching incomplete build of {0}", request.getAppName());
+            }
+            BuildResultJson json = serializeToJson(result);
+            logMetrics(result);
+            return new BuildResultCache.Loaded(json, result.isComplete());
+        });
+    }
+
+    private void logMetrics(BuildResult result) {
+        if (result.getMetrics() != null) {
+            LOGGER.log(Level.FINE, "Build metrics for {0}: {1}",
+                    new Object[]{result.getAppTemplate().getName(), result.getMetrics()});
+        }
+    }
+
+    /**
+     * Builds the app snapshot and streams it to the output as one JSON object with
+     * {@code functionPool} and {@code appTemplate} fields, in UTF-8. FunctionPool entries are
+     * written as the builder finalizes them (see
+     * {@link AppSnapshotBuilder#build(Connection, BuildRequest, FunctionPoolSink)}), so the
+     * pool is never held in memory as a whole; the AppTemplate follows once the build is
+     * done. The stream is flushed but not closed. If the build fails part-way, the output is
+     * incomplete.
+     *
+     * @param connection the database connection
+     * @param request the build request
+     * @param out the destination
+     * @param layout whether to indent the output
+     * @return the build result with the AppTemplate, failures and warnings and an empty FunctionPool
+     * @throws SQLException if a database error occurs
+     * @throws IOException if writing fails
+     */
+    public BuildResult buildAndWrite(Connection connection, BuildRequest request, OutputStream out,
+                                     JsonLayout layout) throws SQLException, IOException {
+        ObjectWriter writer = writerFor(layout);
+        try (JsonGenerator generator = createGenerator(out)) {
+            if (layout == JsonLayout.INDENTED) {
+                generator.setPrettyPrinter(objectMapper.getSerializationConfig().constructDefaultPrettyPrinter());
+            }
+            generator.writeStartObject();
+            generator.writeFieldName("functionPool");
+            generator.writeStartObject();
+
+            BuildResult result;
+            try {
+                result = builder.build(connection, request, (functionKey, entry) -> {
+                    try {
+                        generator.writeFieldName(functionKey);
+                        writer.writeValue(generator, entry);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            generator.writeEndObject();
+            generator.writeFieldName("appTemplate");
+            writer.writeValue(generator, result.getAppTemplate());
+            generator.writeEndObject();
+            return result;
+        }
     }
 
     /**
-     * Serializes a BuildResult to JSON strings.
+     * Serializes a BuildResult to JSON strings. If the result carries metrics, the time
+     * taken is recorded as its {@link BuildMetrics.Phase#SERIALIZATION} phase.
      *
      * @param result the build result
      * @return JSON representation
      * @throws JsonSerializationException if serialization fails
      */
     public BuildResultJson serializeToJson(BuildResult result) {
+        Stopwatch stopwatch = startSerialization(result);
         try {
             String appTemplateJson = objectMapper.writeValueAsString(result.getAppTemplate());
             String functionPoolJson = objectMapper.writeValueAsString(result.getFunctionPool());
+            recordSerialization(result, stopwatch);
             return new BuildResultJson(appTemplateJson, functionPoolJson);
         } catch (JsonProcessingException e) {
             throw new JsonSerializationException("Failed to serialize build result to JSON", e);
         }
     }
 
+    private static Stopwatch startSerialization(BuildResult result) {
+        AppTemplateNode appTemplate = result.getAppTemplate();
+        return Stopwatch.start(BuildMetrics.Phase.SERIALIZATION, appTemplate != null ? appTemplate.getName() : null);
+    }
+
+    private static void recordSerialization(BuildResult result, Stopwatch stopwatch) {
+        BuildMetrics.PhaseTiming timing = stopwatch.stop();
+        if (result.getMetrics() != null) {
+            result.setMetrics(result.getMetrics().withPhase(BuildMetrics.Phase.SERIALIZATION, timing));
+        }
+    }
+
     /**
      * Serializes just the AppTemplate to JSON.
      *
@@ -119,6 +235,146 @@ public class AppSnapshotService {
         }
     }
 
+    /**
+     * Streams the AppTemplate and FunctionPool of a result as one JSON object with
+     * {@code appTemplate} and {@code functionPool} fields, in UTF-8. The stream is flushed
+     * but not closed.
+     *
+     * @param result the build result
+     * @param out the destination
+     * @param layout whether to indent the output
+     * @throws IOException if writing fails
+     */
+    public void writeBuildResult(BuildResult result, OutputStream out, JsonLayout layout) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            writeBuildResult(result, generator, layout);
+        }
+    }
+
+    /**
+     * Streams the AppTemplate and FunctionPool of a result as one JSON object with
+     * {@code appTemplate} and {@code functionPool} fields. The writer is flushed but not closed.
+     *
+     * @param result the build result
+     * @param writer the destination
+     * @param layout whether to indent the output
+     * @throws IOException if writing fails
+     */
+    public void writeBuildResult(BuildResult result, Writer writer, JsonLayout layout) throws IOException {
+        try (JsonGenerator generator = createGenerator(writer)) {
+            writeBuildResult(result, generator, layout);
+        }
+    }
+
+    /**
+     * Streams the AppTemplate as JSON in UTF-8, producing the same document as
+     * {@link #serializeAppTemplate} when indented. The stream is flushed but not closed.
+     *
+     * @param appTemplate the app template node
+     * @param out the destination
+     * @param layout whether to indent the output
+     * @throws IOException if writing fails
+     */
+    public void writeAppTemplate(AppTemplateNode appTemplate, OutputStream out, JsonLayout layout) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            writerFor(layout).writeValue(generator, appTemplate);
+        }
+    }
+
+    /**
+     * Streams the AppTemplate as JSON, producing the same document as
+     * {@link #serializeAppTemplate} when indented. The writer is flushed but not closed.
+     *
+     * @param appTemplate the app template node
+     * @param writer the destination
+     * @param layout whether to indent the output
+     * @throws IOException if writing fails
+     */
+    public void writeAppTemplate(AppTemplateNode appTemplate, Writer writer, JsonLayout layout) throws IOException {
+        try (JsonGenerator generator = createGenerator(writer)) {
+            writerFor(layout).writeValue(generator, appTemplate);
+        }
+    }
+
+    /**
+     * Streams the FunctionPool as JSON in UTF-8, producing the same document as
+     * {@link #serializeFunctionPool} when indented. The stream is flushed but not closed.
+     *
+     * @param functionPool the function pool
+     * @param out the destination
+     * @param layout whether to indent the output
+     * @throws IOException if writing fails
+     */
+    public void writeFunctionPool(Map<String, FunctionPoolEntry> functionPool, OutputStream out,
+                                  JsonLayout layout) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            writerFor(layout).writeValue(generator, functionPool);
+        }
+    }
+
+    /**
+     * Streams the FunctionPool as JSON, producing the same document as
+     * {@link #serializeFunctionPool} when indented. The writer is flushed but not closed.
+     *
+     * @param functionPool the function pool
+     * @param writer the destination
+     * @param layout whether to indent the output
+     * @throws IOException if writing fails
+     */
+    public void writeFunctionPool(Map<String, FunctionPoolEntry> functionPool, Writer writer,
+                                  JsonLayout layout) throws IOException {
+        try (JsonGenerator generator = createGenerator(writer)) {
+            writerFor(layout).writeValue(generator, functionPool);
+        }
+    }
+
+    private void writeBuildResult(BuildResult result, JsonGenerator generator, JsonLayout layout) throws IOException {
+        if (result == null) {
+            throw new IllegalArgumentException("Build result cannot be null");
+        }
+        Stopwatch stopwatch = startSerialization(result);
+        ObjectWriter writer = writerFor(layout);
+        if (layout == JsonLayout.INDENTED) {
+            generator.setPrettyPrinter(objectMapper.getSerializationConfig().constructDefaultPrettyPrinter());
+        }
+        generator.writeStartObject();
+        generator.writeFieldName("appTemplate");
+        writer.writeValue(generator, result.getAppTemplate());
+        generator.writeFieldName("functionPool");
+        writer.writeValue(generator, result.getFunctionPool());
+        generator.writeEndObject();
+        recordSerialization(result, stopwatch);
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("Output stream cannot be null");
+        }
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private JsonGenerator createGenerator(Writer writer) throws IOException {
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer cannot be null");
+        }
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private ObjectWriter writerFor(JsonLayout layout) {
+        if (layout == null) {
+            throw new IllegalArgumentException("JSON layout cannot be null");
+        }
+        // Values are often written one after another into the same generator; it flushes on close
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return layout == JsonLayout.INDENTED
+                ? writer.with(SerializationFeature.INDENT_OUTPUT)
+                : writer.without(SerializationFeature.INDENT_OUTPUT);
+    }
+
     /**
      * Parses a BuildRequest from JSON.
      *
@@ -134,6 +390,21 @@ public class AppSnapshotService {
         }
     }
 
+    /**
+     * Layout of streamed JSON output.
+     */
+    public enum JsonLayout {
+        /**
+         * Indented with the ObjectMapper's default pretty printer, as the string methods produce.
+         */
+        INDENTED,
+
+        /**
+         * No whitespace between tokens.
+         */
+        COMPACT
+    }
+
     /**
      * Container for JSON-serialized build results.
      */
@@ -0,0 +1,153 @@
+package gov.nystax.nimbus.codesnap.services.builder;
+
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildMetrics;
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildMetrics.EntryPointTiming;
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildMetrics.Phase;
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildMetrics.PhaseTiming;
+import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.ScanLoadStats;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the {@link BuildMetrics} of one build for {@link AppSnapshotBuilder}.
+ *
+ * <p>Phases are recorded on the calling thread. Entry point timings and worker CPU time
+ * may be recorded from the build executor's threads. Queue name counters come from
+ * {@link #queueLookups()}, which the builder passes to every lookup it makes, so concurrent
+ * builds sharing a resolver do not count each other's lookups.</p>
+ */
+final class BuildMetricsRecorder {
+
+    /**
+     * Number of entry points kept in {@link BuildMetrics#getSlowestEntryPoints()}.
+     */
+    static final int SLOWEST_ENTRY_POINTS = 10;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static final Comparator<EntryPointTiming> BY_WALL_TIME =
+            Comparator.comparingLong(EntryPointTiming::wallNanos);
+
+    private final BuildMetrics.Builder metrics = BuildMetrics.builder();
+    private final QueueNameResolver.LookupCounter queueLookups = new QueueNameResolver.LookupCounter();
+    private final LongAdder workerCpuNanos = new LongAdder();
+
+    // Min-heap of the slowest entry points seen so far; guarded by itself
+    private final PriorityQueue<EntryPointTiming> slowestEntryPoints = new PriorityQueue<>(BY_WALL_TIME);
+
+    private int scanRoundTrips;
+
+    /**
+     * Returns the current thread's CPU time in nanoseconds, or 0 if it is not available.
+     */
+    static long threadCpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * Returns the counter for the queue name lookups made by this build.
+     */
+    QueueNameResolver.LookupCounter queueLookups() {
+        return queueLookups;
+    }
+
+    void phase(Stopwatch stopwatch) {
+        metrics.phase(stopwatch.phase, stopwatch.stop());
+    }
+
+    /**
+     * Records the scan load phase and the counters reported by the scan service.
+     */
+    void scanLoad(Stopwatch stopwatch, ScanLoadStats loadStats) {
+        metrics.phase(Phase.SCAN_LOAD, stopwatch.stop());
+        metrics.phase(Phase.JSON_PARSE, new PhaseTiming(loadStats.parseWallNanos(), loadStats.parseCpuNanos()));
+        metrics.cachedScans(loadStats.cachedScans())
+                .clobCharsRead(loadStats.clobCharsRead())
+                .blobBytesRead(loadStats.blobBytesRead());
+        scanRoundTrips = loadStats.roundTrips();
+    }
+
+    /**
+     * Records the service processing phase, adding the CPU time of the worker threads.
+     */
+    void serviceProcessing(Stopwatch stopwatch) {
+        PhaseTiming callingThread = stopwatch.stop();
+        metrics.phase(Phase.SERVICE_PROCESSING,
+                new PhaseTiming(callingThread.wallNanos(), callingThread.cpuNanos() + workerCpuNanos.sum()));
+    }
+
+    void addWorkerCpuNanos(long nanos) {
+        workerCpuNanos.add(nanos);
+    }
+
+    void entryPoint(String serviceId, String entryPoint, long wallNanos) {
+        synchronized (slowestEntryPoints) {
+            if (slowestEntryPoints.size() < SLOWEST_ENTRY_POINTS) {
+                slowestEntryPoints.add(new EntryPointTiming(serviceId, entryPoint, wallNanos));
+            } else if (slowestEntryPoints.peek().wallNanos() < wallNanos) {
+                slowestEntryPoints.poll();
+                slowestEntryPoints.add(new EntryPointTiming(serviceId, entryPoint, wallNanos));
+            }
+        }
+    }
+
+    BuildMetrics finish(TransitiveResolver transitiveResolver) {
+        long mappingQueries = queueLookups.mappingTableQueries();
+        metrics.queueCacheHits(queueLookups.cacheHits())
+                .queueCacheMisses(queueLookups.cacheMisses())
+                .queueEndpointRequests(queueLookups.endpointRequests())
+                .queueMappingQueries(mappingQueries)
+                .dbRoundTrips(scanRoundTrips + mappingQueries);
+        if (transitiveResolver != null) {
+            metrics.transitiveNodeVisits(transitiveResolver.getNodeVisitCount());
+        }
+
+        List<EntryPointTiming> slowest;
+        synchronized (slowestEntryPoints) {
+            slowest = new ArrayList<>(slowestEntryPoints);
+        }
+        slowest.sort(BY_WALL_TIME.reversed());
+        return metrics.slowestEntryPoints(slowest).build();
+    }
+
+    /**
+     * Measures wall-clock and CPU time of the current thread from {@link #start}, and
+     * reports the phase as a {@link BuildPhaseEvent} when stopped.
+     */
+    static final class Stopwatch {
+        private final Phase phase;
+        private final String appName;
+        private final BuildPhaseEvent event = new BuildPhaseEvent();
+        private final long wallStart;
+        private final long cpuStart;
+
+        private Stopwatch(Phase phase, String appName) {
+            this.phase = phase;
+            this.appName = appName;
+            this.event.begin();
+            this.wallStart = System.nanoTime();
+            this.cpuStart = threadCpuNanos();
+        }
+
+        static Stopwatch start(Phase phase, String appName) {
+            return new Stopwatch(phase, appName);
+        }
+
+        PhaseTiming stop() {
+            PhaseTiming timing = new PhaseTiming(System.nanoTime() - wallStart, threadCpuNanos() - cpuStart);
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = phase.name();
+                event.appName = appName;
+                event.commit();
+            }
+            return timing;
+        }
+    }
+}
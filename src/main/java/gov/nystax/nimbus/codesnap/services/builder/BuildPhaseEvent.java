@@ -0,0 +1,32 @@
+package gov.nystax.nimbus.codesnap.services.builder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for one {@link gov.nystax.nimbus.codesnap.services.builder.domain.BuildMetrics.Phase}
+ * of a build, committed when its {@link BuildMetricsRecorder.Stopwatch} is stopped.
+ *
+ * <p>Disabled by default; enable {@value #NAME} in the recording's settings.</p>
+ */
+@Name(BuildPhaseEvent.NAME)
+@Label("Build Phase")
+@Description("One phase of an app snapshot build")
+@Category({"CodeSnap", "Build"})
+@Enabled(false)
+@StackTrace(false)
+final class BuildPhaseEvent extends Event {
+
+    static final String NAME = "gov.nystax.codesnap.BuildPhase";
+
+    @Label("Phase")
+    String phase;
+
+    @Label("App Name")
+    String appName;
+}
@@ -0,0 +1,376 @@
+package gov.nystax.nimbus.codesnap.services.builder;
+
+import gov.nystax.nimbus.codesnap.services.builder.AppSnapshotService.BuildResultJson;
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildRequest;
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildRequest.ServiceCommitInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded in-memory cache of serialized build results keyed by the content of the request.
+ *
+ * <p>The key is a SHA-256 hash of the app name, the request's service@commit pairs in
+ * sorted order, and a fingerprint of the queue name resolver's configuration, see
+ * {@link #keyFor}. Requests for the same app and commits therefore share an entry
+ * whatever order they list their services in. Entries are kept for the time-to-live,
+ * weighed by the length of their JSON, and evicted least recently used first once the
+ * byte budget is exceeded.</p>
+ *
+ * <p>Concurrent lookups of a key that is not cached are coalesced: the first caller
+ * builds the result and the others wait for it. Results the loader marks as not
+ * cacheable, such as incomplete builds, are shared with the waiting callers but not
+ * stored.</p>
+ *
+ * <p>Scans and queue mappings that change within the time-to-live are not seen by cached
+ * entries; call {@link #invalidateAll()} after such changes. This class is thread-safe.</p>
+ */
+public class BuildResultCache {
+
+    private static final Logger LOGGER = Logger.getLogger(BuildResultCache.class.getName());
+
+    /**
+     * System property for the byte budget of the shared cache. Zero disables caching.
+     */
+    public static final String MAX_BYTES_PROPERTY = "codesnap.build.cache.max.bytes";
+
+    /**
+     * System property for the time-to-live of entries in the shared cache, in seconds.
+     */
+    public static final String TTL_SECONDS_PROPERTY = "codesnap.build.cache.ttl.seconds";
+
+    /**
+     * Default byte budget of the shared cache (64 MB).
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    /**
+     * Fixed per-entry overhead added to every weight estimate.
+     */
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    private static final BuildResultCache SHARED = new BuildResultCache(
+            resolveSharedMaxBytes(), resolveSharedTtl());
+
+    private final long maxWeightBytes;
+    private final Duration ttl;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    // Builds currently running, keyed like the entries, so identical requests share one build
+    private final Map<String, CompletableFuture<BuildResultJson>> loadsInFlight = new ConcurrentHashMap<>();
+
+    private long totalWeightBytes;
+    private long hitCount;
+    private long missCount;
+    private long sharedLoadCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxWeightBytes maximum total weight of cached entries; zero disables storing
+     * @param ttl how long an entry is served
+     * @throws IllegalArgumentException if maxWeightBytes is negative or ttl is null or negative
+     */
+    public BuildResultCache(long maxWeightBytes, Duration ttl) {
+        this(maxWeightBytes, ttl, Clock.systemUTC());
+    }
+
+    BuildResultCache(long maxWeightBytes, Duration ttl, Clock clock) {
+        if (maxWeightBytes < 0) {
+            throw new IllegalArgumentException("Max weight bytes cannot be negative");
+        }
+        if (ttl == null || ttl.isNegative()) {
+            throw new IllegalArgumentException("Cache time-to-live cannot be null or negative");
+        }
+        this.maxWeightBytes = maxWeightBytes;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the process-wide cache. It is not used unless passed to an
+     * {@link AppSnapshotService}.
+     */
+    public static BuildResultCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Computes the cache key of a request.
+     *
+     * @param request the build request
+     * @param configFingerprint identifies the configuration that affects the result, see
+     *                          {@link AppSnapshotBuilder#configFingerprint()}
+     * @return the hex-encoded SHA-256 of the canonical request
+     */
+    public static String keyFor(BuildRequest request, String configFingerprint) {
+        if (request == null) {
+            throw new IllegalArgumentException("Build request cannot be null");
+        }
+
+        List<String> pairs = new ArrayList<>();
+        if (request.getServices() != null) {
+            for (ServiceCommitInfo service : request.getServices()) {
+                pairs.add(service.getServiceId() + "@" + service.getGitCommitHash());
+            }
+        }
+        pairs.sort(null);
+
+        // Length-prefix every field so that no two requests produce the same text
+        StringBuilder canonical = new StringBuilder();
+        appendField(canonical, request.getAppName());
+        canonical.append(pairs.size()).append('\n');
+        for (String pair : pairs) {
+            appendField(canonical, pair);
+        }
+        appendField(canonical, configFingerprint);
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Returns the cached result for the key, or loads it. Concurrent calls for the same key
+     * share a single load; if it fails, every caller gets the failure.
+     *
+     * @param key the request key, see {@link #keyFor}
+     * @param loader builds the result when it is not cached
+     * @return the cached or newly built result
+     * @throws SQLException if the load fails with a database error
+     */
+    public BuildResultJson getOrLoad(String key, Loader loader) throws SQLException {
+        if (key == null || loader == null) {
+            throw new IllegalArgumentException("Key and loader cannot be null");
+        }
+
+        BuildResultJson cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<BuildResultJson> load = new CompletableFuture<>();
+        CompletableFuture<BuildResultJson> running = loadsInFlight.putIfAbsent(key, load);
+        if (running != null) {
+            synchronized (this) {
+                sharedLoadCount++;
+            }
+            return await(running);
+        }
+
+        try {
+            // Another caller may have stored the result and finished its load after our
+            // miss but before we registered ours
+            BuildResultJson loadedMeanwhile = peek(key);
+            if (loadedMeanwhile != null) {
+                synchronized (this) {
+                    sharedLoadCount++;
+                }
+                load.complete(loadedMeanwhile);
+                return loadedMeanwhile;
+            }
+
+            Loaded loaded = loader.load();
+            if (loaded.cacheable()) {
+                put(key, loaded.result());
+            }
+            load.complete(loaded.result());
+            return loaded.result();
+        } catch (SQLException | RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadsInFlight.remove(key, load);
+        }
+    }
+
+    /**
+     * Returns the cached result for the key, or null if it is absent or expired.
+     */
+    public synchronized BuildResultJson get(String key) {
+        BuildResultJson result = peek(key);
+        if (result == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached result for the key, or null if it is absent or expired, without
+     * counting a hit or miss.
+     */
+    private synchronized BuildResultJson peek(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!clock.instant().isBefore(entry.expiresAt())) {
+            entries.remove(key);
+            totalWeightBytes -= entry.weightBytes();
+            return null;
+        }
+        return entry.result();
+    }
+
+    /**
+     * Caches a result, evicting least-recently-used entries as needed.
+     * Results heavier than the whole budget are not cached.
+     */
+    public synchronized void put(String key, BuildResultJson result) {
+        if (key == null || result == null) {
+            throw new IllegalArgumentException("Key and result cannot be null");
+        }
+        long weightBytes = ENTRY_OVERHEAD_BYTES
+                + 2L * (result.appTemplateJson().length() + result.functionPoolJson().length());
+        if (weightBytes > maxWeightBytes) {
+            return;
+        }
+
+        Entry previous = entries.put(key, new Entry(result, clock.instant().plus(ttl), weightBytes));
+        if (previous != null) {
+            totalWeightBytes -= previous.weightBytes();
+        }
+        totalWeightBytes += weightBytes;
+
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalWeightBytes > maxWeightBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> evicted = eldest.next();
+            eldest.remove();
+            totalWeightBytes -= evicted.getValue().weightBytes();
+            evictionCount++;
+            LOGGER.log(Level.FINE, "Evicted cached build result {0}", evicted.getKey());
+        }
+    }
+
+    /**
+     * Removes every cached result. Statistics are kept.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        totalWeightBytes = 0;
+    }
+
+    /**
+     * Returns true if caching is enabled (the budget is non-zero).
+     */
+    public boolean isEnabled() {
+        return maxWeightBytes > 0;
+    }
+
+    /**
+     * Returns a snapshot of the cache statistics.
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(hitCount, missCount, sharedLoadCount, evictionCount, entries.size(), totalWeightBytes);
+    }
+
+    private static BuildResultJson await(CompletableFuture<BuildResultJson> running) throws SQLException {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Shared build failed", cause);
+        }
+    }
+
+    private static void appendField(StringBuilder canonical, String value) {
+        if (value == null) {
+            canonical.append("-1\n");
+            return;
+        }
+        canonical.append(value.length()).append(':').append(value).append('\n');
+    }
+
+    private static long resolveSharedMaxBytes() {
+        String configured = System.getProperty(MAX_BYTES_PROPERTY);
+        if (configured == null || configured.isBlank()) {
+            return DEFAULT_MAX_BYTES;
+        }
+        try {
+            return Math.max(0, Long.parseLong(configured.trim()));
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Ignoring invalid {0} value: {1}",
+                    new Object[]{MAX_BYTES_PROPERTY, configured});
+            return DEFAULT_MAX_BYTES;
+        }
+    }
+
+    private static Duration resolveSharedTtl() {
+        String configured = System.getProperty(TTL_SECONDS_PROPERTY);
+        if (configured == null || configured.isBlank()) {
+            return DEFAULT_TTL;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(configured.trim())));
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Ignoring invalid {0} value: {1}",
+                    new Object[]{TTL_SECONDS_PROPERTY, configured});
+            return DEFAULT_TTL;
+        }
+    }
+
+    private record Entry(BuildResultJson result, Instant expiresAt, long weightBytes) {
+    }
+
+    /**
+     * Builds a result that is not cached.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        Loaded load() throws SQLException;
+    }
+
+    /**
+     * A newly built result and whether it may be stored.
+     */
+    public record Loaded(BuildResultJson result, boolean cacheable) {
+        public Loaded {
+            if (result == null) {
+                throw new IllegalArgumentException("Result cannot be null");
+            }
+        }
+    }
+
+    /**
+     * Point-in-time cache statistics; sharedLoadCount counts callers that waited on another
+     * caller's build instead of building.
+     */
+    public record CacheStats(long hitCount, long missCount, long sharedLoadCount, long evictionCount,
+                             int entryCount, long weightBytes) {
+    }
+}
@@ -0,0 +1,25 @@
+package gov.nystax.nimbus.codesnap.services.builder;
+
+import gov.nystax.nimbus.codesnap.services.builder.domain.FunctionPoolEntry;
+
+/**
+ * Receives FunctionPool entries from {@link AppSnapshotBuilder#build(java.sql.Connection,
+ * gov.nystax.nimbus.codesnap.services.builder.domain.BuildRequest, FunctionPoolSink)} as soon
+ * as they are final.
+ *
+ * <p>Entries are delivered on the thread that called {@code build}, one at a time, and each
+ * function exactly once. A sink that writes to a stream or database should wrap its checked
+ * exceptions, for example in {@link java.io.UncheckedIOException}; the exception ends the
+ * build and is rethrown to the caller.</p>
+ */
+@FunctionalInterface
+public interface FunctionPoolSink {
+
+    /**
+     * Accepts a finished entry.
+     *
+     * @param functionKey the entry's key in the FunctionPool (the lower-cased function name)
+     * @param entry the entry; the builder does not modify or retain it afterwards
+     */
+    void accept(String functionKey, FunctionPoolEntry entry);
+}
@@ -0,0 +1,248 @@
+package gov.nystax.nimbus.codesnap.services.builder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded in-memory cache of resolved queue names that survives across builds.
+ *
+ * <p>Names resolved by an endpoint or the QUEUE_MAPPING table are kept for the
+ * time-to-live. After that they can still be served for the stale window while
+ * {@link QueueNameResolver} refreshes them in the background. Names that could not
+ * be resolved get the generated default queue name. Those entries are kept for the
+ * shorter negative time-to-live and are never served stale, so a mapping added later
+ * is picked up quickly. Once the entry limit is exceeded, the least recently used
+ * entries are evicted first.</p>
+ *
+ * <p>A refresh can complete while a build is still resolving names. Builds pass a
+ * {@link QueueNameResolver.LookupCounter}, which pins the first name the build saw for
+ * each target, so the refreshed name is only used by later builds.</p>
+ *
+ * <p>Keys are the target type ({@code FUNCTION} or {@code TOPIC}) and the normalized
+ * target name. This class is thread-safe.</p>
+ */
+public class QueueNameCache {
+
+    private static final Logger LOGGER = Logger.getLogger(QueueNameCache.class.getName());
+
+    /**
+     * System property for the time-to-live of resolved names in the shared cache, in seconds.
+     */
+    public static final String TTL_SECONDS_PROPERTY = "codesnap.queue.cache.ttl.seconds";
+
+    /**
+     * System property for the time-to-live of unresolved names in the shared cache, in seconds.
+     */
+    public static final String NEGATIVE_TTL_SECONDS_PROPERTY = "codesnap.queue.cache.negative.ttl.seconds";
+
+    /**
+     * System property for how long past its time-to-live a resolved name may be served
+     * while it is refreshed, in seconds.
+     */
+    public static final String STALE_SECONDS_PROPERTY = "codesnap.queue.cache.stale.seconds";
+
+    /**
+     * System property for the maximum number of entries in the shared cache.
+     */
+    public static final String MAX_ENTRIES_PROPERTY = "codesnap.queue.cache.max.entries";
+
+    public static final Duration DEFAULT_TTL = Duration.ofHours(6);
+    public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_STALE_WHILE_REVALIDATE = Duration.ofHours(1);
+    public static final int DEFAULT_MAX_ENTRIES = 50_000;
+
+    private static final QueueNameCache SHARED = new QueueNameCache(
+            resolveDuration(TTL_SECONDS_PROPERTY, DEFAULT_TTL),
+            resolveDuration(NEGATIVE_TTL_SECONDS_PROPERTY, DEFAULT_NEGATIVE_TTL),
+            resolveDuration(STALE_SECONDS_PROPERTY, DEFAULT_STALE_WHILE_REVALIDATE),
+            resolveMaxEntries());
+
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Duration staleWhileRevalidate;
+    private final int maxEntries;
+    private final Clock clock;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private long hitCount;
+    private long staleHitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache with the default settings.
+     */
+    public QueueNameCache() {
+        this(DEFAULT_TTL, DEFAULT_NEGATIVE_TTL, DEFAULT_STALE_WHILE_REVALIDATE, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param ttl how long a resolved name is fresh
+     * @param negativeTtl how long an unresolved (default) name is kept
+     * @param staleWhileRevalidate how long past its ttl a resolved name may be served while refreshing
+     * @param maxEntries maximum number of cached names
+     * @throws IllegalArgumentException if a duration is negative or maxEntries is not positive
+     */
+    public QueueNameCache(Duration ttl, Duration negativeTtl, Duration staleWhileRevalidate, int maxEntries) {
+        this(ttl, negativeTtl, staleWhileRevalidate, maxEntries, Clock.systemUTC());
+    }
+
+    QueueNameCache(Duration ttl, Duration negativeTtl, Duration staleWhileRevalidate, int maxEntries, Clock clock) {
+        if (ttl == null || ttl.isNegative() || negativeTtl == null || negativeTtl.isNegative()
+                || staleWhileRevalidate == null || staleWhileRevalidate.isNegative()) {
+            throw new IllegalArgumentException("Cache durations cannot be null or negative");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the process-wide cache shared by default-constructed resolvers.
+     */
+    public static QueueNameCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Looks up a cached queue name.
+     *
+     * @param targetType FUNCTION or TOPIC
+     * @param cacheKey the normalized target name
+     * @return the cached name, marked stale if it should be refreshed, or null if absent or expired
+     */
+    public synchronized Lookup lookup(String targetType, String cacheKey) {
+        Key key = new Key(targetType, cacheKey);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+
+        Instant now = clock.instant();
+        if (now.isBefore(entry.freshUntil())) {
+            hitCount++;
+            return new Lookup(entry.queueName(), false);
+        }
+        if (now.isBefore(entry.servableUntil())) {
+            staleHitCount++;
+            return new Lookup(entry.queueName(), true);
+        }
+
+        entries.remove(key);
+        missCount++;
+        return null;
+    }
+
+    /**
+     * Caches a queue name, evicting least-recently-used entries beyond the entry limit.
+     *
+     * @param targetType FUNCTION or TOPIC
+     * @param cacheKey the normalized target name
+     * @param queueName the queue name
+     * @param resolved true if the name came from an endpoint or the database, false if it is
+     *                 the generated default for an unresolved target
+     */
+    public synchronized void put(String targetType, String cacheKey, String queueName, boolean resolved) {
+        if (targetType == null || cacheKey == null || queueName == null) {
+            throw new IllegalArgumentException("Target type, cache key and queue name cannot be null");
+        }
+
+        Instant now = clock.instant();
+        Instant freshUntil = now.plus(resolved ? ttl : negativeTtl);
+        Instant servableUntil = resolved ? freshUntil.plus(staleWhileRevalidate) : freshUntil;
+        entries.put(new Key(targetType, cacheKey), new Entry(queueName, freshUntil, servableUntil));
+
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            Map.Entry<Key, Entry> evicted = eldest.next();
+            eldest.remove();
+            evictionCount++;
+            LOGGER.log(Level.FINE, "Evicted cached queue name for {0} {1}",
+                    new Object[]{evicted.getKey().targetType(), evicted.getKey().cacheKey()});
+        }
+    }
+
+    /**
+     * Removes the cached name for the target, if any.
+     */
+    public synchronized void invalidate(String targetType, String cacheKey) {
+        entries.remove(new Key(targetType, cacheKey));
+    }
+
+    /**
+     * Removes every cached name. Statistics are kept.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Returns a snapshot of the cache statistics.
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(hitCount, staleHitCount, missCount, evictionCount, entries.size());
+    }
+
+    private static Duration resolveDuration(String propertyName, Duration defaultValue) {
+        String configured = System.getProperty(propertyName);
+        if (configured == null || configured.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(configured.trim())));
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Ignoring invalid {0} value: {1}", new Object[]{propertyName, configured});
+            return defaultValue;
+        }
+    }
+
+    private static int resolveMaxEntries() {
+        String configured = System.getProperty(MAX_ENTRIES_PROPERTY);
+        if (configured == null || configured.isBlank()) {
+            return DEFAULT_MAX_ENTRIES;
+        }
+        try {
+            int maxEntries = Integer.parseInt(configured.trim());
+            if (maxEntries > 0) {
+                return maxEntries;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the warning below
+        }
+        LOGGER.log(Level.WARNING, "Ignoring invalid {0} value: {1}", new Object[]{MAX_ENTRIES_PROPERTY, configured});
+        return DEFAULT_MAX_ENTRIES;
+    }
+
+    private record Key(String targetType, String cacheKey) {
+    }
+
+    private record Entry(String queueName, Instant freshUntil, Instant servableUntil) {
+    }
+
+    /**
+     * A cached queue name; stale names are still usable but should be refreshed.
+     */
+    public record Lookup(String queueName, boolean stale) {
+    }
+
+    /**
+     * Point-in-time cache statistics.
+     */
+    public record CacheStats(long hitCount, long staleHitCount, long missCount,
+                             long evictionCount, int entryCount) {
+    }
+}
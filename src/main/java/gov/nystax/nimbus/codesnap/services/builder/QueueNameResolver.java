@@ -2,6 +2,7 @@ package gov.nystax.nimbus.codesnap.services.builder;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.nystax.nimbus.codesnap.services.processor.dao.QueueMappingDAO;
 
 import java.io.IOException;
 import java.net.URI;
@@ -12,19 +13,43 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.time.Duration;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Resolves queue names for functions and topics through REST endpoints.
  * Uses in-memory caching and bounded retries with backoff to avoid overloading endpoints.
+ *
+ * <p>Resolved names are kept in a {@link QueueNameCache} that outlives a single build;
+ * default-constructed resolvers share {@link QueueNameCache#shared()}. When a
+ * {@link QueueMappingDAO} is configured, the QUEUE_MAPPING table is read before the
+ * endpoints are called.</p>
+ *
+ * <p>Concurrent lookups of the same name are coalesced into one endpoint call.
+ * {@link #preloadMappings} resolves a batch of names asynchronously with at most
+ * a fixed number of requests in flight, so a build can warm the cache up front
+ * instead of waiting on one blocking call per name.</p>
+ *
+ * <p>Callers sharing a resolver, such as concurrent builds, can pass their own
+ * {@link LookupCounter} to count only the cache lookups and requests made on their behalf.</p>
+ *
+ * <p>This class is safe to use from the worker threads of a parallel build.</p>
  */
 public class QueueNameResolver {
 
@@ -35,10 +60,13 @@ public class QueueNameResolver {
     private static final String FUNCTION_ENDPOINT_ENV_VAR = "CODESNAP_QUEUE_FUNCTION_RESOLVER_URL";
     private static final String TOPIC_ENDPOINT_SYSTEM_PROPERTY = "codesnap.queue.topic.resolver.url";
     private static final String TOPIC_ENDPOINT_ENV_VAR = "CODESNAP_QUEUE_TOPIC_RESOLVER_URL";
+    private static final String MAX_CONCURRENT_REQUESTS_SYSTEM_PROPERTY = "codesnap.queue.resolver.max.concurrent.requests";
+    private static final String QUEUE_MAPPING_LOOKUP_SYSTEM_PROPERTY = "codesnap.queue.resolver.use.queue.mapping";
     private static final String FUNCTION_QUEUE_NAME_KEY = "async_url";
     private static final String TOPIC_QUEUE_NAME_KEY = "MQ_QUEUE";
     private static final String QUEUE_PREFIX_TO_REMOVE = "OCP.DEV.";
     private static final int MAX_ENDPOINT_ATTEMPTS = 3;
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 16;
     private static final long INITIAL_BACKOFF_MS = 200L;
     private static final Duration HTTP_TIMEOUT = Duration.ofSeconds(2);
 
@@ -47,112 +75,383 @@ public class QueueNameResolver {
     private final URI functionResolverEndpoint;
     private final URI topicResolverEndpoint;
 
-    private final Map<String, String> functionQueueCache;
-    private final Map<String, String> topicQueueCache;
+    // Shared across builds; see QueueNameCache for expiry and stale-while-revalidate rules
+    private final QueueNameCache queueNameCache;
+
+    // Optional read-through to the QUEUE_MAPPING table, consulted before the endpoints
+    private final QueueMappingDAO queueMappingDAO;
+
+    // Lookups currently running, keyed by normalized name, so duplicate requests share one call
+    private final Map<String, CompletableFuture<String>> functionLookupsInFlight;
+    private final Map<String, CompletableFuture<String>> topicLookupsInFlight;
+
+    // Bounds the number of asynchronous endpoint calls in flight during preloading
+    private final Semaphore asyncRequestPermits;
+
+    // Requests made to the endpoints and the mapping table since creation, see requestCounts()
+    private final LongAdder endpointRequests = new LongAdder();
+    private final LongAdder mappingTableQueries = new LongAdder();
 
     public QueueNameResolver() {
         this(HttpClient.newBuilder().connectTimeout(HTTP_TIMEOUT).build(),
                 resolveConfiguredEndpoint(FUNCTION_ENDPOINT_SYSTEM_PROPERTY, FUNCTION_ENDPOINT_ENV_VAR),
-                resolveConfiguredEndpoint(TOPIC_ENDPOINT_SYSTEM_PROPERTY, TOPIC_ENDPOINT_ENV_VAR));
+                resolveConfiguredEndpoint(TOPIC_ENDPOINT_SYSTEM_PROPERTY, TOPIC_ENDPOINT_ENV_VAR),
+                resolveConfiguredMaxConcurrentRequests(),
+                QueueNameCache.shared(),
+                Boolean.getBoolean(QUEUE_MAPPING_LOOKUP_SYSTEM_PROPERTY) ? new QueueMappingDAO() : null);
     }
 
     public QueueNameResolver(HttpClient httpClient, URI functionResolverEndpoint, URI topicResolverEndpoint) {
+        this(httpClient, functionResolverEndpoint, topicResolverEndpoint, DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
+
+    /**
+     * Creates a resolver with an explicit bound on concurrent asynchronous endpoint calls
+     * and its own queue name cache.
+     *
+     * @param httpClient the HTTP client
+     * @param functionResolverEndpoint the function queue endpoint, or null to use default names
+     * @param topicResolverEndpoint the topic queue endpoint, or null to use default names
+     * @param maxConcurrentRequests the maximum number of asynchronous calls in flight
+     * @throws IllegalArgumentException if maxConcurrentRequests is not positive
+     */
+    public QueueNameResolver(HttpClient httpClient, URI functionResolverEndpoint, URI topicResolverEndpoint,
+                             int maxConcurrentRequests) {
+        this(httpClient, functionResolverEndpoint, topicResolverEndpoint, maxConcurrentRequests,
+                new QueueNameCache(), null);
+    }
+
+    /**
+     * Creates a fully configured resolver.
+     *
+     * @param httpClient the HTTP client
+     * @param functionResolverEndpoint the function queue endpoint, or null to use default names
+     * @param topicResolverEndpoint the topic queue endpoint, or null to use default names
+     * @param maxConcurrentRequests the maximum number of asynchronous calls in flight
+     * @param queueNameCache the cache to use, typically {@link QueueNameCache#shared()}
+     * @param queueMappingDAO DAO for reading QUEUE_MAPPING before calling the endpoints, or null
+     * @throws IllegalArgumentException if maxConcurrentRequests is not positive
+     */
+    public QueueNameResolver(HttpClient httpClient, URI functionResolverEndpoint, URI topicResolverEndpoint,
+                             int maxConcurrentRequests, QueueNameCache queueNameCache,
+                             QueueMappingDAO queueMappingDAO) {
+        if (maxConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("Max concurrent requests must be positive");
+        }
         this.httpClient = Objects.requireNonNull(httpClient, "httpClient cannot be null");
         this.objectMapper = new ObjectMapper();
         this.functionResolverEndpoint = functionResolverEndpoint;
         this.topicResolverEndpoint = topicResolverEndpoint;
-        this.functionQueueCache = new HashMap<>();
-        this.topicQueueCache = new HashMap<>();
+        this.queueNameCache = Objects.requireNonNull(queueNameCache, "queueNameCache cannot be null");
+        this.queueMappingDAO = queueMappingDAO;
+        this.functionLookupsInFlight = new ConcurrentHashMap<>();
+        this.topicLookupsInFlight = new ConcurrentHashMap<>();
+        this.asyncRequestPermits = new Semaphore(maxConcurrentRequests);
     }
 
     /**
      * Resolves the queue name for an async function call.
      *
-     * @param connection unused, kept for interface compatibility
+     * @param connection used for QUEUE_MAPPING lookups when a DAO is configured; may be null
      * @param functionName the function name
      * @return resolved queue name, or generated default when unresolved
      */
     public String resolveForFunction(Connection connection, String functionName) {
-        String cacheKey = normalizeCacheKey(functionName);
-        if (functionQueueCache.containsKey(cacheKey)) {
-            return functionQueueCache.get(cacheKey);
-        }
-
-        String queueName = resolveFromEndpointWithRetry(
-                functionResolverEndpoint,
-                functionName,
-                "function",
-                FUNCTION_QUEUE_NAME_KEY,
-                HttpMethod.POST)
-                .orElseGet(() -> generateDefaultQueueName(functionName));
+        return resolveForFunction(connection, functionName, LookupCounter.NONE);
+    }
 
-        functionQueueCache.put(cacheKey, queueName);
-        return queueName;
+    /**
+     * Resolves the queue name for an async function call, counting the work in the given counter.
+     *
+     * @param connection used for QUEUE_MAPPING lookups when a DAO is configured; may be null
+     * @param functionName the function name
+     * @param counter the counter to record cache lookups and requests in
+     * @return resolved queue name, or generated default when unresolved
+     */
+    public String resolveForFunction(Connection connection, String functionName, LookupCounter counter) {
+        return resolve(connection, TargetKind.FUNCTION, functionName, counter);
     }
 
     /**
      * Resolves the queue name for a topic publish.
      *
-     * @param connection unused, kept for interface compatibility
+     * @param connection used for QUEUE_MAPPING lookups when a DAO is configured; may be null
      * @param topicName the topic name
      * @return resolved queue name, or generated default when unresolved
      */
     public String resolveForTopic(Connection connection, String topicName) {
-        String cacheKey = normalizeCacheKey(topicName);
-        if (topicQueueCache.containsKey(cacheKey)) {
-            return topicQueueCache.get(cacheKey);
-        }
+        return resolveForTopic(connection, topicName, LookupCounter.NONE);
+    }
 
-        String queueName = resolveFromEndpointWithRetry(
-                topicResolverEndpoint,
-                topicName,
-                "topic",
-                TOPIC_QUEUE_NAME_KEY,
-                HttpMethod.GET)
-                .orElseGet(() -> generateDefaultQueueName(topicName));
+    /**
+     * Resolves the queue name for a topic publish, counting the work in the given counter.
+     *
+     * @param connection used for QUEUE_MAPPING lookups when a DAO is configured; may be null
+     * @param topicName the topic name
+     * @param counter the counter to record cache lookups and requests in
+     * @return resolved queue name, or generated default when unresolved
+     */
+    public String resolveForTopic(Connection connection, String topicName, LookupCounter counter) {
+        return resolve(connection, TargetKind.TOPIC, topicName, counter);
+    }
 
-        topicQueueCache.put(cacheKey, queueName);
-        return queueName;
+    /**
+     * Resolves the queue name for an async function call without blocking on the endpoint.
+     * The caller may block briefly while the number of calls in flight is at its limit.
+     *
+     * @param functionName the function name
+     * @return a future completed with the resolved or generated default queue name
+     */
+    public CompletableFuture<String> resolveForFunctionAsync(String functionName) {
+        return resolveAsync(null, TargetKind.FUNCTION, functionName, LookupCounter.NONE);
+    }
+
+    /**
+     * Resolves the queue name for a topic publish without blocking on the endpoint.
+     * The caller may block briefly while the number of calls in flight is at its limit.
+     *
+     * @param topicName the topic name
+     * @return a future completed with the resolved or generated default queue name
+     */
+    public CompletableFuture<String> resolveForTopicAsync(String topicName) {
+        return resolveAsync(null, TargetKind.TOPIC, topicName, LookupCounter.NONE);
     }
 
     /**
      * Pre-loads queue names for a batch of functions and topics.
+     * Lookups run concurrently; this method returns once every name is cached.
+     * The connection is only used on the calling thread.
      */
     public void preloadMappings(Connection connection,
                                 Iterable<String> functionNames,
                                 Iterable<String> topicNames) {
+        preloadMappings(connection, functionNames, topicNames, LookupCounter.NONE);
+    }
+
+    /**
+     * Pre-loads queue names for a batch of functions and topics, counting the work in the
+     * given counter. See {@link #preloadMappings(Connection, Iterable, Iterable)}.
+     */
+    public void preloadMappings(Connection connection,
+                                Iterable<String> functionNames,
+                                Iterable<String> topicNames,
+                                LookupCounter counter) {
+        List<CompletableFuture<String>> lookups = new ArrayList<>();
         for (String functionName : functionNames) {
-            resolveForFunction(connection, functionName);
+            lookups.add(resolveAsync(connection, TargetKind.FUNCTION, functionName, counter));
         }
 
         for (String topicName : topicNames) {
-            resolveForTopic(connection, topicName);
+            lookups.add(resolveAsync(connection, TargetKind.TOPIC, topicName, counter));
         }
+
+        CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[0])).join();
+        LOGGER.log(Level.FINE, "Preloaded {0} queue names", lookups.size());
     }
 
     /**
-     * Clears in-memory queue name cache.
+     * Clears the queue name cache. When the resolver uses the shared cache, this affects
+     * every resolver sharing it.
      */
     public void clearCache() {
-        functionQueueCache.clear();
-        topicQueueCache.clear();
+        queueNameCache.invalidateAll();
     }
 
-    private Optional<String> resolveFromEndpointWithRetry(URI endpoint,
-                                                          String targetName,
-                                                          String targetType,
-                                                          String queueNameKey,
-                                                          HttpMethod httpMethod) {
+    /**
+     * Returns a string identifying the configuration that decides which queue names this
+     * resolver produces: its endpoints, whether it reads the mapping table, and the default
+     * naming rules. Two resolvers with the same fingerprint resolve names the same way.
+     */
+    public String configFingerprint() {
+        return "function=" + functionResolverEndpoint
+                + ";topic=" + topicResolverEndpoint
+                + ";mappingTable=" + (queueMappingDAO != null)
+                + ";suffix=" + DEFAULT_QUEUE_SUFFIX
+                + ";removedPrefix=" + QUEUE_PREFIX_TO_REMOVE;
+    }
+
+    /**
+     * Returns the number of endpoint requests (including retries) and QUEUE_MAPPING queries
+     * this resolver has made since it was created.
+     */
+    public RequestCounts requestCounts() {
+        return new RequestCounts(endpointRequests.sum(), mappingTableQueries.sum());
+    }
+
+    /**
+     * Returns the cache backing this resolver.
+     */
+    public QueueNameCache getQueueNameCache() {
+        return queueNameCache;
+    }
+
+    private String resolve(Connection connection, TargetKind kind, String targetName, LookupCounter counter) {
+        String cacheKey = normalizeCacheKey(targetName);
+        String pinned = counter.pinnedQueueName(kind, cacheKey);
+        if (pinned != null) {
+            counter.recordCacheLookup(true);
+            return pinned;
+        }
+        return counter.pin(kind, cacheKey, resolveUnpinned(connection, kind, targetName, cacheKey, counter));
+    }
+
+    private String resolveUnpinned(Connection connection, TargetKind kind, String targetName, String cacheKey,
+                                   LookupCounter counter) {
+        QueueNameCache.Lookup cached = queueNameCache.lookup(kind.mappingType, cacheKey);
+        counter.recordCacheLookup(cached != null);
+        if (cached != null) {
+            if (cached.stale()) {
+                refreshAsync(connection, kind, targetName, cached.queueName(), counter);
+            }
+            return cached.queueName();
+        }
+
+        CompletableFuture<String> lookup = new CompletableFuture<>();
+        CompletableFuture<String> inFlight = lookupsInFlightFor(kind).putIfAbsent(cacheKey, lookup);
+        if (inFlight != null) {
+            return inFlight.join();
+        }
+
+        try {
+            Optional<String> resolved = findInQueueMappingTable(connection, kind, targetName, counter);
+            if (resolved.isEmpty()) {
+                resolved = resolveFromEndpointWithRetry(endpointFor(kind), targetName, kind, counter);
+            }
+            String queueName = resolved.orElseGet(() -> generateDefaultQueueName(targetName));
+            queueNameCache.put(kind.mappingType, cacheKey, queueName, resolved.isPresent());
+            lookup.complete(queueName);
+            return queueName;
+        } catch (RuntimeException e) {
+            lookup.completeExceptionally(e);
+            throw e;
+        } finally {
+            lookupsInFlightFor(kind).remove(cacheKey, lookup);
+        }
+    }
+
+    private CompletableFuture<String> resolveAsync(Connection connection, TargetKind kind, String targetName,
+                                                   LookupCounter counter) {
+        String cacheKey = normalizeCacheKey(targetName);
+        String pinned = counter.pinnedQueueName(kind, cacheKey);
+        if (pinned != null) {
+            counter.recordCacheLookup(true);
+            return CompletableFuture.completedFuture(pinned);
+        }
+
+        QueueNameCache.Lookup cached = queueNameCache.lookup(kind.mappingType, cacheKey);
+        counter.recordCacheLookup(cached != null);
+        if (cached != null) {
+            if (cached.stale()) {
+                refreshAsync(connection, kind, targetName, cached.queueName(), counter);
+            }
+            return CompletableFuture.completedFuture(counter.pin(kind, cacheKey, cached.queueName()));
+        }
+        return lookupAsync(connection, kind, targetName, null, counter)
+                .thenApply(queueName -> counter.pin(kind, cacheKey, queueName));
+    }
+
+    /**
+     * Re-resolves a stale name in the background. If the refresh fails, the stale name is
+     * kept for the negative time-to-live instead of being replaced by the default name.
+     */
+    private void refreshAsync(Connection connection, TargetKind kind, String targetName, String staleQueueName,
+                              LookupCounter counter) {
+        LOGGER.log(Level.FINE, "Refreshing stale {0} queue name for {1}", new Object[]{kind.type, targetName});
+        lookupAsync(connection, kind, targetName, staleQueueName, counter);
+    }
+
+    private CompletableFuture<String> lookupAsync(Connection connection, TargetKind kind, String targetName,
+                                                  String staleQueueName, LookupCounter counter) {
+        String cacheKey = normalizeCacheKey(targetName);
+        CompletableFuture<String> lookup = new CompletableFuture<>();
+        CompletableFuture<String> inFlight = lookupsInFlightFor(kind).putIfAbsent(cacheKey, lookup);
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        Optional<String> stored = findInQueueMappingTable(connection, kind, targetName, counter);
+        URI endpoint = endpointFor(kind);
+        if (stored.isPresent() || endpoint == null) {
+            if (stored.isEmpty()) {
+                LOGGER.log(Level.FINE,
+                        "No {0} queue resolver endpoint configured for target {1}",
+                        new Object[]{kind.type, targetName});
+            }
+            completeLookup(kind, targetName, cacheKey, lookup, stored, staleQueueName);
+            return lookup;
+        }
+
+        try {
+            asyncRequestPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.log(Level.WARNING,
+                    "Interrupted while waiting to call " + kind.type + " queue resolver for " + targetName, e);
+            lookupsInFlightFor(kind).remove(cacheKey, lookup);
+            lookup.complete(staleQueueName != null ? staleQueueName : generateDefaultQueueName(targetName));
+            return lookup;
+        }
+
+        // Whatever happens, the permit must be released and the in-flight lookup completed,
+        // or later lookups of the same name would wait on it forever
+        CompletableFuture<Optional<String>> resolution;
+        try {
+            resolution = resolveFromEndpointAsync(endpoint, targetName, kind, 1, 0, counter);
+        } catch (RuntimeException e) {
+            resolution = CompletableFuture.failedFuture(e);
+        }
+        resolution
+                .whenComplete((result, error) -> {
+                    asyncRequestPermits.release();
+                    if (error != null) {
+                        LOGGER.log(Level.WARNING,
+                                "Error calling " + kind.type + " queue resolver for " + targetName, error);
+                    }
+                    completeLookup(kind, targetName, cacheKey, lookup,
+                            error == null ? result : Optional.empty(), staleQueueName);
+                });
+        return lookup;
+    }
+
+    private void completeLookup(TargetKind kind, String targetName, String cacheKey,
+                                CompletableFuture<String> lookup, Optional<String> resolved,
+                                String staleQueueName) {
+        String queueName = resolved.orElseGet(() ->
+                staleQueueName != null ? staleQueueName : generateDefaultQueueName(targetName));
+        queueNameCache.put(kind.mappingType, cacheKey, queueName, resolved.isPresent());
+        lookupsInFlightFor(kind).remove(cacheKey, lookup);
+        lookup.complete(queueName);
+    }
+
+    private Optional<String> findInQueueMappingTable(Connection connection, TargetKind kind, String targetName,
+                                                     LookupCounter counter) {
+        if (queueMappingDAO == null || connection == null || targetName == null) {
+            return Optional.empty();
+        }
+        try {
+            mappingTableQueries.increment();
+            counter.mappingTableQueries.increment();
+            return queueMappingDAO.findQueueNameByTarget(connection, kind.mappingType, targetName);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING,
+                    "Error reading QUEUE_MAPPING for " + kind.type + " " + targetName, e);
+            return Optional.empty();
+        }
+    }
+
+    private Optional<String> resolveFromEndpointWithRetry(URI endpoint, String targetName, TargetKind kind,
+                                                          LookupCounter counter) {
         if (endpoint == null) {
             LOGGER.log(Level.FINE,
                     "No {0} queue resolver endpoint configured for target {1}",
-                    new Object[]{targetType, targetName});
+                    new Object[]{kind.type, targetName});
             return Optional.empty();
         }
 
+        long backoffMs = 0;
         for (int attempt = 1; attempt <= MAX_ENDPOINT_ATTEMPTS; attempt++) {
-            EndpointLookupResult result = callResolverEndpoint(
-                    endpoint, targetName, targetType, queueNameKey, httpMethod);
+            EndpointLookupResult result = callResolverEndpoint(endpoint, targetName, kind, attempt, backoffMs,
+                    counter);
             if (result.queueName() != null) {
                 return Optional.of(result.queueName());
             }
@@ -161,7 +460,8 @@ public class QueueNameResolver {
                 break;
             }
 
-            if (!sleepBeforeRetry(targetType, targetName, attempt)) {
+            backoffMs = retryDelayMs(kind.type, targetName, attempt);
+            if (!sleepBeforeRetry(kind.type, targetName, backoffMs)) {
                 break;
             }
         }
@@ -169,63 +469,148 @@ public class QueueNameResolver {
         return Optional.empty();
     }
 
-    private EndpointLookupResult callResolverEndpoint(URI endpoint,
-                                                      String targetName,
-                                                      String targetType,
-                                                      String queueNameKey,
-                                                      HttpMethod httpMethod) {
+    /**
+     * Asynchronous counterpart of {@link #resolveFromEndpointWithRetry}. Retries are
+     * scheduled after the backoff delay instead of sleeping on the calling thread.
+     *
+     * @param backoffMs the delay before this attempt, reported in its {@link QueueResolverRequestEvent}
+     */
+    private CompletableFuture<Optional<String>> resolveFromEndpointAsync(URI endpoint,
+                                                                         String targetName,
+                                                                         TargetKind kind,
+                                                                         int attempt,
+                                                                         long backoffMs,
+                                                                         LookupCounter counter) {
+        HttpRequest request;
         try {
-            URI requestUri = buildRequestUri(endpoint, targetName);
-            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(requestUri)
-                    .timeout(HTTP_TIMEOUT);
-
-            if (httpMethod == HttpMethod.POST) {
-                requestBuilder.POST(HttpRequest.BodyPublishers.noBody());
-            } else {
-                requestBuilder.GET();
-            }
+            request = buildRequest(endpoint, targetName, kind);
+        } catch (URISyntaxException e) {
+            LOGGER.log(Level.WARNING,
+                    "Invalid " + kind.type + " queue resolver request URI for " + targetName, e);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
 
-            HttpRequest request = requestBuilder.build();
+        endpointRequests.increment();
+        counter.endpointRequests.increment();
+        QueueResolverRequestEvent event = QueueResolverRequestEvent.start();
+        CompletableFuture<HttpResponse<String>> sent;
+        try {
+            sent = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        return sent
+                .handle((response, error) -> {
+                    event.finish(kind.type, targetName, response != null ? response.statusCode() : -1,
+                            attempt, backoffMs);
+                    return error == null
+                            ? interpretResponse(response, targetName, kind)
+                            : interpretAsyncFailure(error, targetName, kind);
+                })
+                .thenCompose(result -> {
+                    if (result.queueName() != null) {
+                        return CompletableFuture.completedFuture(Optional.of(result.queueName()));
+                    }
+                    if (!result.retryable() || attempt == MAX_ENDPOINT_ATTEMPTS) {
+                        return CompletableFuture.completedFuture(Optional.<String>empty());
+                    }
+
+                    long delayMs = retryDelayMs(kind.type, targetName, attempt);
+                    Executor delayed = CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS);
+                    return CompletableFuture.supplyAsync(() -> attempt + 1, delayed)
+                            .thenCompose(nextAttempt ->
+                                    resolveFromEndpointAsync(endpoint, targetName, kind, nextAttempt, delayMs,
+                                            counter));
+                });
+    }
 
+    private EndpointLookupResult callResolverEndpoint(URI endpoint, String targetName, TargetKind kind,
+                                                      int attempt, long backoffMs, LookupCounter counter) {
+        QueueResolverRequestEvent event = QueueResolverRequestEvent.start();
+        int status = -1;
+        try {
+            HttpRequest request = buildRequest(endpoint, targetName, kind);
+            endpointRequests.increment();
+            counter.endpointRequests.increment();
             HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            int statusCode = response.statusCode();
-
-            if (statusCode >= 200 && statusCode < 300) {
-                Optional<String> queueName = parseQueueName(response.body(), queueNameKey);
-                if (queueName.isPresent()) {
-                    return EndpointLookupResult.success(normalizeResolvedQueueName(queueName.get()));
-                }
-                LOGGER.log(Level.WARNING,
-                        "Queue resolver response missing key {0} for {1} {2}",
-                        new Object[]{queueNameKey, targetType, targetName});
-                return EndpointLookupResult.nonRetryableFailure();
-            }
-
-            if (statusCode == 429 || statusCode >= 500) {
-                LOGGER.log(Level.WARNING,
-                        "Transient {0} queue resolver status={1} for {2}",
-                        new Object[]{targetType, statusCode, targetName});
-                return EndpointLookupResult.retryableFailure();
-            }
-
-            LOGGER.log(Level.WARNING,
-                    "Non-retryable {0} queue resolver status={1} for {2}",
-                    new Object[]{targetType, statusCode, targetName});
-            return EndpointLookupResult.nonRetryableFailure();
+            status = response.statusCode();
+            return interpretResponse(response, targetName, kind);
         } catch (IOException e) {
             LOGGER.log(Level.WARNING,
-                    "Error calling " + targetType + " queue resolver for " + targetName, e);
+                    "Error calling " + kind.type + " queue resolver for " + targetName, e);
             return EndpointLookupResult.retryableFailure();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             LOGGER.log(Level.WARNING,
-                    "Interrupted while calling " + targetType + " queue resolver for " + targetName, e);
+                    "Interrupted while calling " + kind.type + " queue resolver for " + targetName, e);
             return EndpointLookupResult.nonRetryableFailure();
         } catch (URISyntaxException e) {
             LOGGER.log(Level.WARNING,
-                    "Invalid " + targetType + " queue resolver request URI for " + targetName, e);
+                    "Invalid " + kind.type + " queue resolver request URI for " + targetName, e);
+            return EndpointLookupResult.nonRetryableFailure();
+        } finally {
+            event.finish(kind.type, targetName, status, attempt, backoffMs);
+        }
+    }
+
+    private HttpRequest buildRequest(URI endpoint, String targetName, TargetKind kind) throws URISyntaxException {
+        URI requestUri = buildRequestUri(endpoint, targetName);
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(requestUri)
+                .timeout(HTTP_TIMEOUT);
+
+        if (kind.httpMethod == HttpMethod.POST) {
+            requestBuilder.POST(HttpRequest.BodyPublishers.noBody());
+        } else {
+            requestBuilder.GET();
+        }
+
+        return requestBuilder.build();
+    }
+
+    private EndpointLookupResult interpretResponse(HttpResponse<String> response, String targetName, TargetKind kind) {
+        int statusCode = response.statusCode();
+
+        if (statusCode >= 200 && statusCode < 300) {
+            Optional<String> queueName = parseQueueName(response.body(), kind.queueNameKey);
+            if (queueName.isPresent()) {
+                return EndpointLookupResult.success(normalizeResolvedQueueName(queueName.get()));
+            }
+            LOGGER.log(Level.WARNING,
+                    "Queue resolver response missing key {0} for {1} {2}",
+                    new Object[]{kind.queueNameKey, kind.type, targetName});
             return EndpointLookupResult.nonRetryableFailure();
         }
+
+        if (statusCode == 429 || statusCode >= 500) {
+            LOGGER.log(Level.WARNING,
+                    "Transient {0} queue resolver status={1} for {2}",
+                    new Object[]{kind.type, statusCode, targetName});
+            return EndpointLookupResult.retryableFailure();
+        }
+
+        LOGGER.log(Level.WARNING,
+                "Non-retryable {0} queue resolver status={1} for {2}",
+                new Object[]{kind.type, statusCode, targetName});
+        return EndpointLookupResult.nonRetryableFailure();
+    }
+
+    private EndpointLookupResult interpretAsyncFailure(Throwable error, String targetName, TargetKind kind) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        LOGGER.log(Level.WARNING,
+                "Error calling " + kind.type + " queue resolver for " + targetName, cause);
+        return cause instanceof IOException
+                ? EndpointLookupResult.retryableFailure()
+                : EndpointLookupResult.nonRetryableFailure();
+    }
+
+    private Map<String, CompletableFuture<String>> lookupsInFlightFor(TargetKind kind) {
+        return kind == TargetKind.FUNCTION ? functionLookupsInFlight : topicLookupsInFlight;
+    }
+
+    private URI endpointFor(TargetKind kind) {
+        return kind == TargetKind.FUNCTION ? functionResolverEndpoint : topicResolverEndpoint;
     }
 
     private URI buildRequestUri(URI baseEndpoint, String targetName) throws URISyntaxException {
@@ -272,7 +657,18 @@ public class QueueNameResolver {
         }
     }
 
-    private boolean sleepBeforeRetry(String targetType, String targetName, int attempt) {
+    private boolean sleepBeforeRetry(String targetType, String targetName, long delayMs) {
+        try {
+            Thread.sleep(delayMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.log(Level.WARNING, "Retry sleep interrupted for " + targetType + " " + targetName, e);
+            return false;
+        }
+    }
+
+    private long retryDelayMs(String targetType, String targetName, int attempt) {
         long exponentialDelay = INITIAL_BACKOFF_MS * (1L << (attempt - 1));
         long jitterMs = ThreadLocalRandom.current().nextLong(50L);
         long totalDelayMs = exponentialDelay + jitterMs;
@@ -280,15 +676,25 @@ public class QueueNameResolver {
         LOGGER.log(Level.FINE,
                 "Retrying {0} queue resolver for {1} in {2}ms (attempt {3}/{4})",
                 new Object[]{targetType, targetName, totalDelayMs, attempt + 1, MAX_ENDPOINT_ATTEMPTS});
+        return totalDelayMs;
+    }
 
+    private static int resolveConfiguredMaxConcurrentRequests() {
+        String configured = System.getProperty(MAX_CONCURRENT_REQUESTS_SYSTEM_PROPERTY);
+        if (configured == null || configured.isBlank()) {
+            return DEFAULT_MAX_CONCURRENT_REQUESTS;
+        }
         try {
-            Thread.sleep(totalDelayMs);
-            return true;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            LOGGER.log(Level.WARNING, "Retry sleep interrupted for " + targetType + " " + targetName, e);
-            return false;
+            int maxConcurrentRequests = Integer.parseInt(configured.trim());
+            if (maxConcurrentRequests > 0) {
+                return maxConcurrentRequests;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the warning below
         }
+        LOGGER.log(Level.WARNING, "Ignoring invalid {0} value: {1}",
+                new Object[]{MAX_CONCURRENT_REQUESTS_SYSTEM_PROPERTY, configured});
+        return DEFAULT_MAX_CONCURRENT_REQUESTS;
     }
 
     private static URI resolveConfiguredEndpoint(String systemPropertyName, String envVarName) {
@@ -328,6 +734,90 @@ public class QueueNameResolver {
         return targetName.toLowerCase(Locale.ROOT);
     }
 
+    /**
+     * Cumulative request counts of a resolver.
+     *
+     * @param endpointRequests HTTP requests sent to the resolver endpoints, including retries
+     * @param mappingTableQueries lookups in the QUEUE_MAPPING table
+     */
+    public record RequestCounts(long endpointRequests, long mappingTableQueries) {
+    }
+
+    /**
+     * Counts the queue name cache lookups and the requests made for one caller, such as one
+     * build. Lookups coalesced into another caller's request count as misses but not as
+     * requests. Safe to update from several threads.
+     *
+     * <p>The counter also pins the first name it sees for each target. Later lookups with
+     * the same counter return the pinned name, even if a background refresh has since
+     * replaced it in the cache, so one build never mixes old and new names for a target.
+     * Lookups served from the pinned names count as cache hits.</p>
+     */
+    public static final class LookupCounter {
+
+        // Used by the methods that take no counter; never read, and pins nothing
+        private static final LookupCounter NONE = new LookupCounter(false);
+
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder cacheMisses = new LongAdder();
+        private final LongAdder endpointRequests = new LongAdder();
+        private final LongAdder mappingTableQueries = new LongAdder();
+        private final Map<String, String> pinnedQueueNames;
+
+        public LookupCounter() {
+            this(true);
+        }
+
+        private LookupCounter(boolean pinsQueueNames) {
+            this.pinnedQueueNames = pinsQueueNames ? new ConcurrentHashMap<>() : null;
+        }
+
+        /**
+         * Returns the number of cache lookups that found a name, fresh or stale.
+         */
+        public long cacheHits() {
+            return cacheHits.sum();
+        }
+
+        public long cacheMisses() {
+            return cacheMisses.sum();
+        }
+
+        /**
+         * Returns the number of HTTP requests sent to the resolver endpoints, including retries.
+         */
+        public long endpointRequests() {
+            return endpointRequests.sum();
+        }
+
+        /**
+         * Returns the number of lookups in the QUEUE_MAPPING table.
+         */
+        public long mappingTableQueries() {
+            return mappingTableQueries.sum();
+        }
+
+        private void recordCacheLookup(boolean hit) {
+            (hit ? cacheHits : cacheMisses).increment();
+        }
+
+        private String pinnedQueueName(TargetKind kind, String cacheKey) {
+            return pinnedQueueNames == null ? null : pinnedQueueNames.get(kind.mappingType + ':' + cacheKey);
+        }
+
+        /**
+         * Pins the name unless another name is already pinned for the target, and returns
+         * the pinned name.
+         */
+        private String pin(TargetKind kind, String cacheKey, String queueName) {
+            if (pinnedQueueNames == null) {
+                return queueName;
+            }
+            String pinned = pinnedQueueNames.putIfAbsent(kind.mappingType + ':' + cacheKey, queueName);
+            return pinned != null ? pinned : queueName;
+        }
+    }
+
     private record EndpointLookupResult(String queueName, boolean retryable) {
         private static EndpointLookupResult success(String queueName) {
             return new EndpointLookupResult(queueName, false);
@@ -346,4 +836,21 @@ public class QueueNameResolver {
         GET,
         POST
     }
+
+    private enum TargetKind {
+        FUNCTION("function", QueueMappingDAO.TARGET_TYPE_FUNCTION, FUNCTION_QUEUE_NAME_KEY, HttpMethod.POST),
+        TOPIC("topic", QueueMappingDAO.TARGET_TYPE_TOPIC, TOPIC_QUEUE_NAME_KEY, HttpMethod.GET);
+
+        private final String type;
+        private final String mappingType;
+        private final String queueNameKey;
+        private final HttpMethod httpMethod;
+
+        TargetKind(String type, String mappingType, String queueNameKey, HttpMethod httpMethod) {
+            this.type = type;
+            this.mappingType = mappingType;
+            this.queueNameKey = queueNameKey;
+            this.httpMethod = httpMethod;
+        }
+    }
 }
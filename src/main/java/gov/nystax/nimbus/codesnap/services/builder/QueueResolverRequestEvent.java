@@ -0,0 +1,67 @@
+package gov.nystax.nimbus.codesnap.services.builder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder event for one HTTP attempt made by {@link QueueNameResolver},
+ * retries included.
+ *
+ * <p>Disabled by default; enable {@value #NAME} in the recording's settings.</p>
+ */
+@Name(QueueResolverRequestEvent.NAME)
+@Label("Queue Resolver Request")
+@Description("One HTTP attempt to a queue name resolver endpoint")
+@Category({"CodeSnap", "Queue Names"})
+@Enabled(false)
+@StackTrace(false)
+final class QueueResolverRequestEvent extends Event {
+
+    static final String NAME = "gov.nystax.codesnap.QueueResolverRequest";
+
+    @Label("Target Type")
+    String targetType;
+
+    @Label("Target")
+    String target;
+
+    @Label("Status")
+    @Description("HTTP status code, or -1 if no response was received")
+    int status;
+
+    @Label("Attempt")
+    @Description("1 for the first attempt")
+    int attempt;
+
+    @Label("Backoff")
+    @Description("Delay before this attempt was sent")
+    @Timespan(Timespan.MILLISECONDS)
+    long backoff;
+
+    static QueueResolverRequestEvent start() {
+        QueueResolverRequestEvent event = new QueueResolverRequestEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it if it is enabled and over its threshold.
+     */
+    void finish(String targetType, String target, int status, int attempt, long backoffMs) {
+        end();
+        if (shouldCommit()) {
+            this.targetType = targetType;
+            this.target = target;
+            this.status = status;
+            this.attempt = attempt;
+            this.backoff = backoffMs;
+            commit();
+        }
+    }
+}
@@ -8,10 +8,17 @@ import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceCallReference
 import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.ScanDataWithMetadata;
 
 import java.sql.Connection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -27,6 +34,11 @@ import java.util.logging.Logger;
  *   <li>Add ServiceB's direct function/async/topic dependencies to Function A</li>
  *   <li>If ServiceB.methodR calls ServiceC, recursively resolve</li>
  * </ol>
+ *
+ * <p>The leaves reachable from each (serviceId, interfaceMethod) are computed once and
+ * memoized, with call cycles collapsed into strongly connected components, so a method
+ * shared by many entry points is only walked once per build. Resolving a call then adds
+ * the memoized leaves the target entry does not already have.</p>
  */
 public class TransitiveResolver {
 
@@ -34,15 +46,33 @@ public class TransitiveResolver {
 
     private final Map<String, ScanDataWithMetadata> scansByServiceId;
     private final QueueNameResolver queueNameResolver;
+    private final QueueNameResolver.LookupCounter queueLookups;
 
     // Maps: serviceId -> (interfaceMethod -> dependencies)
     // Built from publicMethodDependencies during initialization
     private final Map<String, Map<String, EntryPointDependencies>> transitiveResolutionMap;
 
+    // Maps: (serviceId, interfaceMethod) -> leaf dependencies reachable from it
+    // Filled lazily; each method's closure is computed once per resolver (i.e. per build)
+    private final Map<MethodKey, Closure> closures = new ConcurrentHashMap<>();
+
+    // Methods visited while computing closures, see getNodeVisitCount()
+    private final LongAdder nodeVisits = new LongAdder();
+
     public TransitiveResolver(Map<String, ScanDataWithMetadata> scansByServiceId,
                                QueueNameResolver queueNameResolver) {
+        this(scansByServiceId, queueNameResolver, new QueueNameResolver.LookupCounter());
+    }
+
+    /**
+     * Creates a resolver that records its queue name lookups in the given counter.
+     */
+    public TransitiveResolver(Map<String, ScanDataWithMetadata> scansByServiceId,
+                               QueueNameResolver queueNameResolver,
+                               QueueNameResolver.LookupCounter queueLookups) {
         this.scansByServiceId = scansByServiceId;
         this.queueNameResolver = queueNameResolver;
+        this.queueLookups = queueLookups;
         this.transitiveResolutionMap = buildTransitiveResolutionMap();
     }
 
@@ -57,8 +87,8 @@ public class TransitiveResolver {
             String serviceId = entry.getKey();
             ScanData scanData = entry.getValue().scanData();
 
-            Map<String, String> methodImplMapping = scanData.getMethodImplementationMapping();
-            Map<String, EntryPointDependencies> publicMethodDeps = scanData.getPublicMethodDependencies();
+            Map<String, String> methodImplMapping = scanData.getMethodImplementationMappingView();
+            Map<String, EntryPointDependencies> publicMethodDeps = scanData.getPublicMethodDependenciesView();
 
             if (methodImplMapping == null || publicMethodDeps == null) {
                 continue;
@@ -96,8 +126,8 @@ public class TransitiveResolver {
     public void resolveServiceCall(Connection connection,
                                     ServiceCallReference serviceCall,
                                     FunctionPoolEntry targetEntry) {
-        resolveServiceCallRecursive(connection, serviceCall.getServiceId(), 
-                serviceCall.getInterfaceMethod(), targetEntry, new HashSet<>());
+        Closure closure = closureOf(new MethodKey(serviceCall.getServiceId(), serviceCall.getInterfaceMethod()));
+        applyClosure(connection, closure, targetEntry);
     }
 
     /**
@@ -120,79 +150,200 @@ public class TransitiveResolver {
     }
 
     /**
-     * Recursive helper for transitive resolution with cycle detection.
+     * Adds the leaves of a closure that the target does not already reference.
+     * Queue names are resolved here rather than in the closure so that only leaves
+     * actually added trigger a lookup.
      */
-    private void resolveServiceCallRecursive(Connection connection,
-                                              String serviceId,
-                                              String interfaceMethod,
-                                              FunctionPoolEntry targetEntry,
-                                              Set<String> visited) {
-        // Cycle detection
-        String visitKey = serviceId + "::" + interfaceMethod;
-        if (visited.contains(visitKey)) {
-            LOGGER.log(Level.WARNING, "Cycle detected in transitive resolution: {0}", visitKey);
-            return;
+    private void applyClosure(Connection connection, Closure closure, FunctionPoolEntry targetEntry) {
+        for (Leaf leaf : closure.leaves()) {
+            switch (leaf.kind()) {
+                case FUNCTION -> {
+                    if (!targetEntry.containsSyncRef(leaf.name())) {
+                        targetEntry.addSyncRef(leaf.name());
+                    }
+                }
+                case ASYNC_FUNCTION -> {
+                    if (!targetEntry.containsAsyncRef(leaf.name())) {
+                        String queueName = queueNameResolver.resolveForFunction(connection, leaf.name(), queueLookups);
+                        targetEntry.addAsyncRef(leaf.name(), queueName);
+                    }
+                }
+                case TOPIC -> {
+                    if (!targetEntry.containsTopicRef(leaf.name())) {
+                        String queueName = queueNameResolver.resolveForTopic(connection, leaf.name(), queueLookups);
+                        targetEntry.addTopicRef(leaf.name(), queueName);
+                    }
+                }
+            }
         }
-        visited.add(visitKey);
 
-        // Get the method dependencies for this service
-        Map<String, EntryPointDependencies> serviceMethods = transitiveResolutionMap.get(serviceId);
+        // Propagate legacy gateway HTTP client flag
+        if (closure.usesLegacyGatewayHttpClient()) {
+            targetEntry.setUsesLegacyGatewayHttpClient(true);
+        }
+    }
+
+    /**
+     * Returns the memoized closure of a method, computing it and the closures of
+     * everything it reaches on first use.
+     */
+    private Closure closureOf(MethodKey key) {
+        Closure closure = closures.get(key);
+        if (closure != null) {
+            return closure;
+        }
+        synchronized (closures) {
+            closure = closures.get(key);
+            if (closure == null) {
+                new SccWalker().strongConnect(key);
+                closure = closures.get(key);
+            }
+            return closure;
+        }
+    }
+
+    /**
+     * Returns the dependencies recorded for a method, or null if there are none.
+     */
+    private EntryPointDependencies dependenciesOf(MethodKey key) {
+        Map<String, EntryPointDependencies> serviceMethods = transitiveResolutionMap.get(key.serviceId());
         if (serviceMethods == null) {
-            LOGGER.log(Level.FINE, "No transitive resolution data for service: {0}", serviceId);
-            return;
+            LOGGER.log(Level.FINE, "No transitive resolution data for service: {0}", key.serviceId());
+            return null;
+        }
+
+        EntryPointDependencies deps = serviceMethods.get(key.interfaceMethod());
+        if (deps == null) {
+            LOGGER.log(Level.FINE, "No dependencies found for {0}.{1}",
+                    new Object[]{key.serviceId(), key.interfaceMethod()});
         }
+        return deps;
+    }
 
-        EntryPointDependencies deps = serviceMethods.get(interfaceMethod);
+    private List<MethodKey> successorsOf(EntryPointDependencies deps) {
+        List<MethodKey> successors = new ArrayList<>();
+        if (deps != null && deps.getServiceCallsView() != null) {
+            for (ServiceCallReference call : deps.getServiceCallsView()) {
+                successors.add(new MethodKey(call.getServiceId(), call.getInterfaceMethod()));
+            }
+        }
+        return successors;
+    }
+
+    private static void addDirectLeaves(EntryPointDependencies deps, Set<Leaf> leaves) {
         if (deps == null) {
-            LOGGER.log(Level.FINE, "No dependencies found for {0}.{1}", 
-                    new Object[]{serviceId, interfaceMethod});
             return;
         }
+        addLeaves(LeafKind.FUNCTION, deps.getFunctionsView(), leaves);
+        addLeaves(LeafKind.ASYNC_FUNCTION, deps.getAsyncFunctionsView(), leaves);
+        addLeaves(LeafKind.TOPIC, deps.getTopicsView(), leaves);
+    }
 
-        // Add sync function dependencies
-        Set<String> functions = deps.getFunctions();
-        if (functions != null) {
-            for (String funcName : functions) {
-                if (!targetEntry.containsSyncRef(funcName)) {
-                    targetEntry.addSyncRef(funcName);
-                }
+    private static void addLeaves(LeafKind kind, Set<String> names, Set<Leaf> leaves) {
+        if (names != null) {
+            for (String name : names) {
+                leaves.add(new Leaf(kind, name));
             }
         }
+    }
+
+    /**
+     * Tarjan's strongly connected components over the (serviceId, interfaceMethod) call graph.
+     * Components complete in reverse topological order, so every call leaving a component
+     * already has its closure memoized when the component itself is closed.
+     */
+    private final class SccWalker {
+        private final Map<MethodKey, Integer> index = new HashMap<>();
+        private final Map<MethodKey, Integer> lowLink = new HashMap<>();
+        private final Map<MethodKey, EntryPointDependencies> depsByKey = new HashMap<>();
+        private final Deque<MethodKey> stack = new ArrayDeque<>();
+        private final Set<MethodKey> onStack = new HashSet<>();
+
+        void strongConnect(MethodKey key) {
+            nodeVisits.increment();
+            int keyIndex = index.size();
+            index.put(key, keyIndex);
+            lowLink.put(key, keyIndex);
+            stack.push(key);
+            onStack.add(key);
 
-        // Add async function dependencies
-        Set<String> asyncFunctions = deps.getAsyncFunctions();
-        if (asyncFunctions != null) {
-            for (String funcName : asyncFunctions) {
-                if (!targetEntry.containsAsyncRef(funcName)) {
-                    String queueName = queueNameResolver.resolveForFunction(connection, funcName);
-                    targetEntry.addAsyncRef(funcName, queueName);
+            EntryPointDependencies deps = dependenciesOf(key);
+            depsByKey.put(key, deps);
+
+            for (MethodKey successor : successorsOf(deps)) {
+                if (closures.containsKey(successor)) {
+                    continue;
+                }
+                if (!index.containsKey(successor)) {
+                    strongConnect(successor);
+                    lowLink.put(key, Math.min(lowLink.get(key), lowLink.get(successor)));
+                } else if (onStack.contains(successor)) {
+                    lowLink.put(key, Math.min(lowLink.get(key), index.get(successor)));
                 }
             }
+
+            if (lowLink.get(key).intValue() == keyIndex) {
+                Set<MethodKey> component = new LinkedHashSet<>();
+                MethodKey member;
+                do {
+                    member = stack.pop();
+                    onStack.remove(member);
+                    component.add(member);
+                } while (!member.equals(key));
+                closeComponent(component);
+            }
         }
 
-        // Add topic dependencies
-        Set<String> topics = deps.getTopics();
-        if (topics != null) {
-            for (String topicName : topics) {
-                if (!targetEntry.containsTopicRef(topicName)) {
-                    String queueName = queueNameResolver.resolveForTopic(connection, topicName);
-                    targetEntry.addTopicRef(topicName, queueName);
+        private void closeComponent(Set<MethodKey> component) {
+            MethodKey first = component.iterator().next();
+            boolean cyclic = component.size() > 1 || successorsOf(depsByKey.get(first)).contains(first);
+
+            if (!cyclic) {
+                EntryPointDependencies deps = depsByKey.get(first);
+                Set<Leaf> leaves = new LinkedHashSet<>();
+                boolean legacy = deps != null && deps.isUsesLegacyGatewayHttpClient();
+                addDirectLeaves(deps, leaves);
+                for (MethodKey successor : successorsOf(deps)) {
+                    Closure successorClosure = closures.get(successor);
+                    leaves.addAll(successorClosure.leaves());
+                    legacy |= successorClosure.usesLegacyGatewayHttpClient();
                 }
+                closures.put(first, new Closure(List.copyOf(leaves), legacy));
+                return;
             }
-        }
 
-        // Propagate legacy gateway HTTP client flag
-        if (deps.isUsesLegacyGatewayHttpClient()) {
-            targetEntry.setUsesLegacyGatewayHttpClient(true);
+            LOGGER.log(Level.WARNING, "Cycle detected in transitive resolution: {0}", component);
+
+            // Every member reaches the same leaves, but the order they are listed in depends on
+            // where the walk enters the cycle, so each member gets its own depth-first walk.
+            // Calls leaving the component reuse the closures memoized for them.
+            for (MethodKey entry : component) {
+                Set<Leaf> leaves = new LinkedHashSet<>();
+                boolean legacy = walkComponent(entry, component, new HashSet<>(), leaves);
+                closures.put(entry, new Closure(List.copyOf(leaves), legacy));
+            }
         }
 
-        // Recursively resolve nested service calls
-        List<ServiceCallReference> serviceCalls = deps.getServiceCalls();
-        if (serviceCalls != null) {
-            for (ServiceCallReference nestedCall : serviceCalls) {
-                resolveServiceCallRecursive(connection, nestedCall.getServiceId(),
-                        nestedCall.getInterfaceMethod(), targetEntry, visited);
+        private boolean walkComponent(MethodKey key, Set<MethodKey> component,
+                                      Set<MethodKey> visited, Set<Leaf> leaves) {
+            nodeVisits.increment();
+            visited.add(key);
+            EntryPointDependencies deps = depsByKey.get(key);
+            boolean legacy = deps != null && deps.isUsesLegacyGatewayHttpClient();
+            addDirectLeaves(deps, leaves);
+
+            for (MethodKey successor : successorsOf(deps)) {
+                if (component.contains(successor)) {
+                    if (!visited.contains(successor)) {
+                        legacy |= walkComponent(successor, component, visited, leaves);
+                    }
+                } else {
+                    Closure successorClosure = closures.get(successor);
+                    leaves.addAll(successorClosure.leaves());
+                    legacy |= successorClosure.usesLegacyGatewayHttpClient();
+                }
             }
+            return legacy;
         }
     }
 
@@ -209,4 +360,43 @@ public class TransitiveResolver {
     public int getResolutionDataCount() {
         return transitiveResolutionMap.size();
     }
+
+    /**
+     * Gets the number of method visits made while computing closures so far. Memoized
+     * closures are not walked again, so this grows with the size of the call graph rather
+     * than with the number of calls resolved.
+     */
+    public long getNodeVisitCount() {
+        return nodeVisits.sum();
+    }
+
+    /**
+     * Gets the number of (serviceId, interfaceMethod) closures computed so far.
+     */
+    public int getClosureCount() {
+        return closures.size();
+    }
+
+    private record MethodKey(String serviceId, String interfaceMethod) {
+        @Override
+        public String toString() {
+            return serviceId + "::" + interfaceMethod;
+        }
+    }
+
+    private enum LeafKind {
+        FUNCTION,
+        ASYNC_FUNCTION,
+        TOPIC
+    }
+
+    private record Leaf(LeafKind kind, String name) {
+    }
+
+    /**
+     * The leaf dependencies reachable from a method, in the order a depth-first walk
+     * first reaches them, and whether any method on the way uses the legacy gateway client.
+     */
+    private record Closure(List<Leaf> leaves, boolean usesLegacyGatewayHttpClient) {
+    }
 }
@@ -144,6 +144,28 @@ public class AppTemplateNode {
         addChild(topicPublishRef(topicName, queueName));
     }
 
+    /**
+     * Returns a deep copy of this node and its children.
+     */
+    public AppTemplateNode copy() {
+        AppTemplateNode copy = new AppTemplateNode();
+        copy.name = name;
+        copy.type = type;
+        copy.ref = ref;
+        copy.async = async;
+        copy.queueName = queueName;
+        copy.topicName = topicName;
+        copy.topicPublish = topicPublish;
+        copy.usesLegacyGatewayHttpClient = usesLegacyGatewayHttpClient;
+        if (children != null) {
+            copy.children = new ArrayList<>(children.size());
+            for (AppTemplateNode child : children) {
+                copy.children.add(child == null ? null : child.copy());
+            }
+        }
+        return copy;
+    }
+
     // Getters and setters
 
     public String getName() {
@@ -0,0 +1,313 @@
+package gov.nystax.nimbus.codesnap.services.builder.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings and counters collected while building an app snapshot.
+ *
+ * <p>Each {@link Phase} records wall-clock and CPU time. CPU time covers the calling thread
+ * and, for service processing in a parallel build, the worker threads; it is zero where the
+ * JVM does not support thread CPU time. The counters describe the database, queue name
+ * resolution and transitive resolution work of the build. Queue name counters only cover
+ * the lookups made for the build, even when other builds share the resolver.</p>
+ *
+ * <p>Instances are immutable; use {@link #builder()} or {@link #withPhase}.</p>
+ */
+public final class BuildMetrics {
+
+    /**
+     * The phases of a build, in the order they run.
+     */
+    public enum Phase {
+        /**
+         * Combined status query: the failed-scan check and the scan load, including parsing.
+         */
+        SCAN_LOAD,
+
+        /**
+         * The part of {@link #SCAN_LOAD} spent streaming and parsing scan data.
+         */
+        JSON_PARSE,
+
+        TOPOLOGICAL_SORT,
+
+        /**
+         * Building the transitive resolution map from the loaded scans.
+         */
+        TRANSITIVE_MAP,
+
+        QUEUE_PRELOAD,
+
+        /**
+         * Planning and applying every service.
+         */
+        SERVICE_PROCESSING,
+
+        /**
+         * Serializing the result to JSON, recorded by {@code AppSnapshotService}.
+         */
+        SERIALIZATION
+    }
+
+    private final Map<Phase, PhaseTiming> phases;
+    private final long dbRoundTrips;
+    private final int cachedScans;
+    private final long clobCharsRead;
+    private final long blobBytesRead;
+    private final long queueCacheHits;
+    private final long queueCacheMisses;
+    private final long queueEndpointRequests;
+    private final long queueMappingQueries;
+    private final long transitiveNodeVisits;
+    private final List<EntryPointTiming> slowestEntryPoints;
+
+    private BuildMetrics(Builder builder) {
+        this.phases = Collections.unmodifiableMap(new EnumMap<>(builder.phases));
+        this.dbRoundTrips = builder.dbRoundTrips;
+        this.cachedScans = builder.cachedScans;
+        this.clobCharsRead = builder.clobCharsRead;
+        this.blobBytesRead = builder.blobBytesRead;
+        this.queueCacheHits = builder.queueCacheHits;
+        this.queueCacheMisses = builder.queueCacheMisses;
+        this.queueEndpointRequests = builder.queueEndpointRequests;
+        this.queueMappingQueries = builder.queueMappingQueries;
+        this.transitiveNodeVisits = builder.transitiveNodeVisits;
+        this.slowestEntryPoints = List.copyOf(builder.slowestEntryPoints);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a copy with the timing of one phase replaced.
+     */
+    public BuildMetrics withPhase(Phase phase, PhaseTiming timing) {
+        Builder builder = toBuilder();
+        builder.phase(phase, timing);
+        return builder.build();
+    }
+
+    /**
+     * Returns a builder initialized with these metrics.
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.phases.putAll(phases);
+        builder.dbRoundTrips = dbRoundTrips;
+        builder.cachedScans = cachedScans;
+        builder.clobCharsRead = clobCharsRead;
+        builder.blobBytesRead = blobBytesRead;
+        builder.queueCacheHits = queueCacheHits;
+        builder.queueCacheMisses = queueCacheMisses;
+        builder.queueEndpointRequests = queueEndpointRequests;
+        builder.queueMappingQueries = queueMappingQueries;
+        builder.transitiveNodeVisits = transitiveNodeVisits;
+        builder.slowestEntryPoints.addAll(slowestEntryPoints);
+        return builder;
+    }
+
+    /**
+     * Returns the timing of a phase, or {@link PhaseTiming#ZERO} if it was not recorded.
+     */
+    public PhaseTiming getPhase(Phase phase) {
+        return phases.getOrDefault(phase, PhaseTiming.ZERO);
+    }
+
+    /**
+     * Returns the recorded phases in phase order.
+     */
+    public Map<Phase, PhaseTiming> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Returns the number of statements sent to the database to load scans and read queue
+     * mappings.
+     */
+    public long getDbRoundTrips() {
+        return dbRoundTrips;
+    }
+
+    /**
+     * Returns the number of scans served from the scan data cache instead of the database.
+     */
+    public int getCachedScans() {
+        return cachedScans;
+    }
+
+    /**
+     * Returns the number of characters read from SCAN_DATA_JSON CLOBs.
+     */
+    public long getClobCharsRead() {
+        return clobCharsRead;
+    }
+
+    /**
+     * Returns the number of bytes read from SCAN_DATA_BINARY BLOBs.
+     */
+    public long getBlobBytesRead() {
+        return blobBytesRead;
+    }
+
+    /**
+     * Returns the number of queue name cache hits, fresh or stale.
+     */
+    public long getQueueCacheHits() {
+        return queueCacheHits;
+    }
+
+    public long getQueueCacheMisses() {
+        return queueCacheMisses;
+    }
+
+    /**
+     * Returns the number of HTTP requests sent to the queue resolver endpoints, including retries.
+     */
+    public long getQueueEndpointRequests() {
+        return queueEndpointRequests;
+    }
+
+    /**
+     * Returns the number of QUEUE_MAPPING lookups.
+     */
+    public long getQueueMappingQueries() {
+        return queueMappingQueries;
+    }
+
+    /**
+     * Returns the number of method visits made by transitive resolution.
+     */
+    public long getTransitiveNodeVisits() {
+        return transitiveNodeVisits;
+    }
+
+    /**
+     * Returns the most expensive entry points, slowest first.
+     */
+    public List<EntryPointTiming> getSlowestEntryPoints() {
+        return slowestEntryPoints;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("BuildMetrics{");
+        for (Map.Entry<Phase, PhaseTiming> entry : phases.entrySet()) {
+            sb.append(entry.getKey()).append('=').append(entry.getValue()).append(", ");
+        }
+        return sb.append("dbRoundTrips=").append(dbRoundTrips)
+                .append(", cachedScans=").append(cachedScans)
+                .append(", clobCharsRead=").append(clobCharsRead)
+                .append(", blobBytesRead=").append(blobBytesRead)
+                .append(", queueCacheHits=").append(queueCacheHits)
+                .append(", queueCacheMisses=").append(queueCacheMisses)
+                .append(", queueEndpointRequests=").append(queueEndpointRequests)
+                .append(", queueMappingQueries=").append(queueMappingQueries)
+                .append(", transitiveNodeVisits=").append(transitiveNodeVisits)
+                .append(", slowestEntryPoints=").append(slowestEntryPoints)
+                .append('}')
+                .toString();
+    }
+
+    /**
+     * Wall-clock and CPU time of a phase, in nanoseconds.
+     */
+    public record PhaseTiming(long wallNanos, long cpuNanos) {
+        public static final PhaseTiming ZERO = new PhaseTiming(0, 0);
+
+        @Override
+        public String toString() {
+            return TimeUnit.NANOSECONDS.toMillis(wallNanos) + "ms wall/"
+                    + TimeUnit.NANOSECONDS.toMillis(cpuNanos) + "ms cpu";
+        }
+    }
+
+    /**
+     * Time spent planning one function or UI service method.
+     */
+    public record EntryPointTiming(String serviceId, String entryPoint, long wallNanos) {
+        @Override
+        public String toString() {
+            return serviceId + "." + entryPoint + "=" + TimeUnit.NANOSECONDS.toMillis(wallNanos) + "ms";
+        }
+    }
+
+    public static class Builder {
+        private final Map<Phase, PhaseTiming> phases = new EnumMap<>(Phase.class);
+        private final List<EntryPointTiming> slowestEntryPoints = new ArrayList<>();
+        private long dbRoundTrips;
+        private int cachedScans;
+        private long clobCharsRead;
+        private long blobBytesRead;
+        private long queueCacheHits;
+        private long queueCacheMisses;
+        private long queueEndpointRequests;
+        private long queueMappingQueries;
+        private long transitiveNodeVisits;
+
+        public Builder phase(Phase phase, PhaseTiming timing) {
+            phases.put(phase, timing);
+            return this;
+        }
+
+        public Builder dbRoundTrips(long dbRoundTrips) {
+            this.dbRoundTrips = dbRoundTrips;
+            return this;
+        }
+
+        public Builder cachedScans(int cachedScans) {
+            this.cachedScans = cachedScans;
+            return this;
+        }
+
+        public Builder clobCharsRead(long clobCharsRead) {
+            this.clobCharsRead = clobCharsRead;
+            return this;
+        }
+
+        public Builder blobBytesRead(long blobBytesRead) {
+            this.blobBytesRead = blobBytesRead;
+            return this;
+        }
+
+        public Builder queueCacheHits(long queueCacheHits) {
+            this.queueCacheHits = queueCacheHits;
+            return this;
+        }
+
+        public Builder queueCacheMisses(long queueCacheMisses) {
+            this.queueCacheMisses = queueCacheMisses;
+            return this;
+        }
+
+        public Builder queueEndpointRequests(long queueEndpointRequests) {
+            this.queueEndpointRequests = queueEndpointRequests;
+            return this;
+        }
+
+        public Builder queueMappingQueries(long queueMappingQueries) {
+            this.queueMappingQueries = queueMappingQueries;
+            return this;
+        }
+
+        public Builder transitiveNodeVisits(long transitiveNodeVisits) {
+            this.transitiveNodeVisits = transitiveNodeVisits;
+            return this;
+        }
+
+        public Builder slowestEntryPoints(List<EntryPointTiming> slowestEntryPoints) {
+            this.slowestEntryPoints.clear();
+            this.slowestEntryPoints.addAll(slowestEntryPoints);
+            return this;
+        }
+
+        public BuildMetrics build() {
+            return new BuildMetrics(this);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package gov.nystax.nimbus.codesnap.services.builder.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.ArrayList;
@@ -34,6 +35,10 @@ public class BuildResult {
     @JsonProperty("warnings")
     private List<String> warnings;
 
+    // Diagnostics only: not serialized and not part of equality
+    @JsonIgnore
+    private BuildMetrics metrics;
+
     public BuildResult() {
         this.functionPool = new HashMap<>();
         this.failedServices = new ArrayList<>();
@@ -95,6 +100,16 @@ public class BuildResult {
         return functionPool.computeIfAbsent(key, k -> new FunctionPoolEntry(appName, functionName));
     }
 
+    /**
+     * Removes a function from the pool.
+     *
+     * @param functionName the function name, in any case
+     * @return the removed entry, or null if the pool did not contain the function
+     */
+    public FunctionPoolEntry removeFunction(String functionName) {
+        return functionPool.remove(functionName.toLowerCase(Locale.ROOT));
+    }
+
     /**
      * Checks if the function pool contains a function.
      */
@@ -165,6 +180,18 @@ public class BuildResult {
         this.warnings.add(warning);
     }
 
+    /**
+     * Returns the timings and counters of the build that produced this result, or null
+     * if the result was not produced by a build.
+     */
+    public BuildMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(BuildMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Returns whether there are any failed services.
      */
@@ -1,17 +1,24 @@
 package gov.nystax.nimbus.codesnap.services.builder.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Represents a function entry in the FunctionPool.
  * Contains the function's children (other functions, async refs, topic refs)
  * and the app this function belongs to.
  *
+ * <p>Children keep their insertion order; per-kind name indexes make the
+ * {@code contains*Ref} checks constant time, so de-duplicating while adding
+ * thousands of children stays linear.</p>
+ *
  * <p>JSON output format:</p>
  * <pre>
  * {
@@ -45,6 +52,16 @@ public class FunctionPoolEntry {
     @JsonProperty("children")
     private List<ChildReference> children;
 
+    // Per-kind membership indexes over children, kept in step with the list
+    @JsonIgnore
+    private final Set<String> syncRefs = new HashSet<>();
+
+    @JsonIgnore
+    private final Set<String> asyncRefs = new HashSet<>();
+
+    @JsonIgnore
+    private final Set<String> topicRefs = new HashSet<>();
+
     public FunctionPoolEntry() {
         this.children = new ArrayList<>();
     }
@@ -95,43 +112,41 @@ public class FunctionPoolEntry {
     public void addChild(ChildReference child) {
         if (child != null) {
             this.children.add(child);
+            index(child);
         }
     }
 
     public void addSyncRef(String functionName) {
-        this.children.add(ChildReference.syncRef(functionName));
+        addChild(ChildReference.syncRef(functionName));
     }
 
     public void addAsyncRef(String functionName, String queueName) {
-        this.children.add(ChildReference.asyncRef(functionName, queueName));
+        addChild(ChildReference.asyncRef(functionName, queueName));
     }
 
     public void addTopicRef(String topicName, String queueName) {
-        this.children.add(ChildReference.topicPublishRef(topicName, queueName));
+        addChild(ChildReference.topicPublishRef(topicName, queueName));
     }
 
     /**
      * Checks if this function entry already contains a reference to the given function.
      */
     public boolean containsSyncRef(String functionName) {
-        return children.stream()
-                .anyMatch(c -> c.isSyncRef() && functionName.equals(c.getRef()));
+        return syncRefs.contains(functionName);
     }
 
     /**
      * Checks if this function entry already contains an async reference to the given function.
      */
     public boolean containsAsyncRef(String functionName) {
-        return children.stream()
-                .anyMatch(c -> c.isAsyncRef() && functionName.equals(c.getRef()));
+        return asyncRefs.contains(functionName);
     }
 
     /**
      * Checks if this function entry already contains a topic reference.
      */
     public boolean containsTopicRef(String topicName) {
-        return children.stream()
-                .anyMatch(c -> c.isTopicRef() && topicName.equals(c.getTopicName()));
+        return topicRefs.contains(topicName);
     }
 
     public List<ChildReference> getChildren() {
@@ -140,6 +155,24 @@ public class FunctionPoolEntry {
 
     public void setChildren(List<ChildReference> children) {
         this.children = children == null ? new ArrayList<>() : new ArrayList<>(children);
+        syncRefs.clear();
+        asyncRefs.clear();
+        topicRefs.clear();
+        for (ChildReference child : this.children) {
+            if (child != null) {
+                index(child);
+            }
+        }
+    }
+
+    private void index(ChildReference child) {
+        if (child.isSyncRef()) {
+            syncRefs.add(child.getRef());
+        } else if (child.isAsyncRef()) {
+            asyncRefs.add(child.getRef());
+        } else if (child.isTopicRef()) {
+            topicRefs.add(child.getTopicName());
+        }
     }
 
     public boolean isEmpty() {
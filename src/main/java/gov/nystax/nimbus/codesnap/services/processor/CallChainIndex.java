@@ -0,0 +1,182 @@
+package gov.nystax.nimbus.codesnap.services.processor;
+
+import gov.nystax.nimbus.codesnap.services.processor.domain.EntryPointDependencies;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.MethodReference;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves which dependency entries a call chain contributes to, for {@link ScanDataProcessor}.
+ *
+ * <p>A usage found at the end of a call chain is added to the entryPointChildren of every
+ * entry point the chain passes through (its owners) and to the publicMethodDependencies of
+ * every public method in the chain. Method signatures are interned in a
+ * {@link MethodSymbolTable}, and each distinct method is resolved once by indexing the owner
+ * table with its id. Call chains are then walked through a prefix tree whose nodes hold the
+ * resolved targets of the chain up to that point, so the many chains that start with the
+ * same methods share that work.</p>
+ *
+ * <p>publicMethodDependencies entries are created as public methods are first seen.</p>
+ */
+final class CallChainIndex {
+
+    /**
+     * Interning slots per signature: one per access modifier plus one for a null modifier.
+     */
+    private static final int ACCESS_SLOTS = MethodReference.MethodAccessModifier.values().length + 1;
+
+    private final MethodSymbolTable symbols;
+    private final int[] ownerOf;
+    private final EntryPointDependencies[] entryPointDeps;
+    private final Map<String, EntryPointDependencies> publicMethodDependencies;
+
+    private MethodTargets[] methods = new MethodTargets[256];
+    private int methodCount;
+    private final PrefixNode root = new PrefixNode(List.of());
+    private int prefixCount;
+
+    /**
+     * @param symbols the scan's method signatures, extended in place with chain-only methods
+     * @param ownerOf method id -> index into entryPointDeps, or -1; ids at or past its
+     *                length have no owner
+     * @param entryPointDeps the dependencies of each entry point, updated in place
+     * @param publicMethodDependencies implementation method -> dependencies, updated in place
+     */
+    CallChainIndex(MethodSymbolTable symbols,
+                   int[] ownerOf,
+                   EntryPointDependencies[] entryPointDeps,
+                   Map<String, EntryPointDependencies> publicMethodDependencies) {
+        this.symbols = symbols;
+        this.ownerOf = ownerOf;
+        this.entryPointDeps = entryPointDeps;
+        this.publicMethodDependencies = publicMethodDependencies;
+    }
+
+    /**
+     * Returns the distinct dependency entries a usage at the end of the call chain must be
+     * added to. Null elements in the chain are skipped.
+     *
+     * @param callChain a non-empty call chain
+     * @return the owners' entryPointChildren and the public methods' dependencies, in the
+     *         order they first appear in the chain
+     */
+    List<EntryPointDependencies> targetsOf(List<MethodReference> callChain) {
+        PrefixNode node = root;
+        for (MethodReference methodRef : callChain) {
+            if (methodRef == null) {
+                continue;
+            }
+            MethodTargets method = intern(methodRef);
+            PrefixNode parent = node;
+            node = parent.children.get(method);
+            if (node == null) {
+                node = parent.extend(method);
+                parent.children.put(method, node);
+                prefixCount++;
+            }
+        }
+        return node.targets;
+    }
+
+    /**
+     * Returns the number of distinct methods seen so far.
+     */
+    int getMethodCount() {
+        return methodCount;
+    }
+
+    /**
+     * Returns the number of distinct call-chain prefixes seen so far.
+     */
+    int getPrefixCount() {
+        return prefixCount;
+    }
+
+    private MethodTargets intern(MethodReference methodRef) {
+        int id = symbols.intern(methodRef.getMethodName());
+        MethodReference.MethodAccessModifier access = methodRef.getAccessModifier();
+        int key = id * ACCESS_SLOTS + (access == null ? ACCESS_SLOTS - 1 : access.ordinal());
+        if (key >= methods.length) {
+            methods = Arrays.copyOf(methods, Math.max(key + 1, methods.length * 2));
+        }
+        MethodTargets targets = methods[key];
+        if (targets != null) {
+            return targets;
+        }
+
+        EntryPointDependencies owner = null;
+        if (id < ownerOf.length && ownerOf[id] >= 0) {
+            owner = entryPointDeps[ownerOf[id]];
+        }
+
+        EntryPointDependencies publicDeps = null;
+        if (access == MethodReference.MethodAccessModifier.PUBLIC) {
+            publicDeps = publicMethodDependencies.computeIfAbsent(
+                    symbols.nameOf(id), k -> new EntryPointDependencies());
+        }
+
+        targets = new MethodTargets(owner, publicDeps);
+        methods[key] = targets;
+        methodCount++;
+        return targets;
+    }
+
+    /**
+     * The dependency entries a single method contributes; either may be null. Each method
+     * has exactly one instance, so instances are compared by identity.
+     */
+    private static final class MethodTargets {
+        private final EntryPointDependencies owner;
+        private final EntryPointDependencies publicDeps;
+
+        MethodTargets(EntryPointDependencies owner, EntryPointDependencies publicDeps) {
+            this.owner = owner;
+            this.publicDeps = publicDeps;
+        }
+    }
+
+    /**
+     * A call-chain prefix and the distinct dependency entries it resolves to.
+     */
+    private static final class PrefixNode {
+        private final List<EntryPointDependencies> targets;
+        private final Map<MethodTargets, PrefixNode> children = new HashMap<>(4);
+
+        PrefixNode(List<EntryPointDependencies> targets) {
+            this.targets = targets;
+        }
+
+        PrefixNode extend(MethodTargets method) {
+            boolean addOwner = method.owner != null && !containsInstance(method.owner);
+            boolean addPublic = method.publicDeps != null && !containsInstance(method.publicDeps);
+            if (!addOwner && !addPublic) {
+                // Nothing new, so the child shares this prefix's targets
+                return new PrefixNode(targets);
+            }
+
+            List<EntryPointDependencies> extended = new ArrayList<>(targets.size() + 2);
+            extended.addAll(targets);
+            if (addOwner) {
+                extended.add(method.owner);
+            }
+            if (addPublic) {
+                extended.add(method.publicDeps);
+            }
+            return new PrefixNode(Collections.unmodifiableList(extended));
+        }
+
+        private boolean containsInstance(EntryPointDependencies deps) {
+            for (EntryPointDependencies target : targets) {
+                if (target == deps) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
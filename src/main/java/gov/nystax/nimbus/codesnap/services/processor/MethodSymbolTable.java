@@ -0,0 +1,73 @@
+package gov.nystax.nimbus.codesnap.services.processor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-scan dictionary of method signatures, for {@link ScanDataProcessor}.
+ *
+ * <p>Each distinct signature gets a dense int id in the order it is first interned, so
+ * per-method lookup tables can be plain arrays indexed by id. Signatures are hashed once,
+ * when they are interned or looked up; everything after that works on ids. Not
+ * thread-safe; parallel shards each work on their own {@link #copy()}.</p>
+ */
+final class MethodSymbolTable {
+
+    private final Map<String, Integer> ids;
+    private final List<String> names;
+
+    MethodSymbolTable() {
+        this.ids = new HashMap<>();
+        this.names = new ArrayList<>();
+    }
+
+    private MethodSymbolTable(MethodSymbolTable other) {
+        this.ids = new HashMap<>(other.ids);
+        this.names = new ArrayList<>(other.names);
+    }
+
+    /**
+     * Returns the id of the signature, assigning the next id if it has none yet.
+     */
+    int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        int newId = names.size();
+        ids.put(name, newId);
+        names.add(name);
+        return newId;
+    }
+
+    /**
+     * Returns the id of the signature, or -1 if it has not been interned.
+     */
+    int find(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the signature with the given id.
+     */
+    String nameOf(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Returns the number of interned signatures; ids run from 0 to size - 1.
+     */
+    int size() {
+        return names.size();
+    }
+
+    /**
+     * Returns an independent copy with the same ids.
+     */
+    MethodSymbolTable copy() {
+        return new MethodSymbolTable(this);
+    }
+}
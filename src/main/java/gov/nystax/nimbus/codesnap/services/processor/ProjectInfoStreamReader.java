@@ -0,0 +1,265 @@
+package gov.nystax.nimbus.codesnap.services.processor;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ScanData;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.EventPublisherInvocation;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.FunctionInvocation;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.LegacyGatewayHttpClientInvocation;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.ProjectInfo;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.ServiceInvocation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads scanner output (ProjectInfo JSON) straight into {@link ScanDataProcessor} without
+ * materializing the usage lists.
+ *
+ * <p>The usage lists ({@code functionUsages}, {@code serviceUsages},
+ * {@code eventPublisherInvocations} and {@code legacyGatewayHttpClientInvocations}) hold
+ * almost all of a scan. Their invocations are read one at a time, added to the processor's
+ * accumulator and dropped, so only the mappings and the resulting {@link ScanData} are kept
+ * in memory. The result is the same as parsing the whole document and calling
+ * {@link ScanDataProcessor#process(ProjectInfo)}, except that it is always processed on the
+ * calling thread.</p>
+ *
+ * <p>Invocations can only be added once the three mapping fields have been read. The scanner
+ * writes them first; usage lists that appear before them are buffered as JSON trees and
+ * processed at the end of the document.</p>
+ */
+public class ProjectInfoStreamReader {
+
+    private static final Logger LOGGER = Logger.getLogger(ProjectInfoStreamReader.class.getName());
+
+    private static final String FUNCTION_MAPPINGS = "functionMappings";
+    private static final String UI_SERVICE_METHOD_MAPPINGS = "uiServiceMethodMappings";
+    private static final String METHOD_IMPLEMENTATION_MAPPING = "methodImplementationMapping";
+    private static final String FUNCTION_USAGES = "functionUsages";
+    private static final String SERVICE_USAGES = "serviceUsages";
+    private static final String EVENT_PUBLISHER_INVOCATIONS = "eventPublisherInvocations";
+    private static final String LEGACY_GATEWAY_HTTP_CLIENT_INVOCATIONS = "legacyGatewayHttpClientInvocations";
+
+    private final ScanDataProcessor processor;
+    private final ObjectMapper objectMapper;
+
+    public ProjectInfoStreamReader() {
+        this(new ScanDataProcessor(), new ObjectMapper());
+    }
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param processor the processor that resolves each invocation
+     * @param objectMapper the Jackson ObjectMapper for reading the JSON
+     */
+    public ProjectInfoStreamReader(ScanDataProcessor processor, ObjectMapper objectMapper) {
+        if (processor == null || objectMapper == null) {
+            throw new IllegalArgumentException("Processor and ObjectMapper cannot be null");
+        }
+        this.processor = processor;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads and processes a ProjectInfo JSON document. The stream is not closed.
+     *
+     * @param in the ProjectInfo JSON
+     * @return the scan's ProjectInfo without its usage lists, and the processed ScanData
+     * @throws IOException if the stream cannot be read or is not a ProjectInfo document
+     */
+    public StreamedScan read(InputStream in) throws IOException {
+        if (in == null) {
+            throw new IllegalArgumentException("Input stream cannot be null");
+        }
+
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("ProjectInfo JSON must be an object");
+            }
+
+            ObjectNode header = objectMapper.createObjectNode();
+            Map<String, JsonNode> deferredUsages = new LinkedHashMap<>();
+            ScanDataProcessor.Accumulator accumulator = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                parser.nextToken();
+                if (!isUsageField(fieldName)) {
+                    header.set(fieldName, parser.readValueAsTree());
+                    continue;
+                }
+
+                if (accumulator == null && hasMappings(header)) {
+                    accumulator = processor.startScan(objectMapper.treeToValue(header, ProjectInfo.class));
+                }
+                if (accumulator != null) {
+                    readUsages(fieldName, parser, accumulator);
+                } else {
+                    deferredUsages.put(fieldName, parser.readValueAsTree());
+                }
+            }
+
+            ProjectInfo projectInfo = objectMapper.treeToValue(header, ProjectInfo.class);
+            if (accumulator == null) {
+                accumulator = processor.startScan(projectInfo);
+            }
+            if (!deferredUsages.isEmpty()) {
+                LOGGER.log(Level.FINE, "Usages of {0} appeared before its mappings and were buffered: {1}",
+                        new Object[]{projectInfo.getArtifactId(), deferredUsages.keySet()});
+            }
+            for (Map.Entry<String, JsonNode> deferred : deferredUsages.entrySet()) {
+                try (JsonParser deferredParser = objectMapper.treeAsTokens(deferred.getValue())) {
+                    deferredParser.nextToken();
+                    readUsages(deferred.getKey(), deferredParser, accumulator);
+                }
+            }
+
+            return new StreamedScan(projectInfo, accumulator.finish(projectInfo.getArtifactId()));
+        }
+    }
+
+    /**
+     * Reads one usage list, positioned at its first token.
+     */
+    private void readUsages(String fieldName, JsonParser parser,
+                            ScanDataProcessor.Accumulator accumulator) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected an array for " + fieldName + " but found " + parser.currentToken());
+        }
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (fieldName) {
+                case FUNCTION_USAGES -> readFunctionUsage(parser, accumulator);
+                case SERVICE_USAGES -> readServiceUsage(parser, accumulator);
+                case EVENT_PUBLISHER_INVOCATIONS -> accumulator.addEventPublisherInvocation(
+                        parser.readValueAs(EventPublisherInvocation.class));
+                case LEGACY_GATEWAY_HTTP_CLIENT_INVOCATIONS -> accumulator.addLegacyGatewayHttpClientInvocation(
+                        parser.readValueAs(LegacyGatewayHttpClientInvocation.class));
+                default -> throw new IllegalStateException("Not a usage field: " + fieldName);
+            }
+        }
+    }
+
+    /**
+     * Reads a FunctionUsage object, adding each invocation under its functionId.
+     */
+    private void readFunctionUsage(JsonParser parser, ScanDataProcessor.Accumulator accumulator) throws IOException {
+        String functionId = null;
+        JsonNode bufferedInvocations = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+            if ("functionId".equals(fieldName)) {
+                functionId = parser.getValueAsString();
+            } else if ("invocations".equals(fieldName)) {
+                if (functionId != null) {
+                    readFunctionInvocations(functionId, parser, accumulator);
+                } else {
+                    bufferedInvocations = parser.readValueAsTree();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (bufferedInvocations != null) {
+            try (JsonParser buffered = objectMapper.treeAsTokens(bufferedInvocations)) {
+                buffered.nextToken();
+                readFunctionInvocations(functionId, buffered, accumulator);
+            }
+        }
+    }
+
+    private void readFunctionInvocations(String functionId, JsonParser parser,
+                                         ScanDataProcessor.Accumulator accumulator) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.VALUE_NULL) {
+                accumulator.addFunctionInvocation(functionId, parser.readValueAs(FunctionInvocation.class));
+            }
+        }
+    }
+
+    /**
+     * Reads a ServiceUsage object, adding each invocation under its serviceId.
+     */
+    private void readServiceUsage(JsonParser parser, ScanDataProcessor.Accumulator accumulator) throws IOException {
+        String serviceId = null;
+        JsonNode bufferedInvocations = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+            if ("serviceId".equals(fieldName)) {
+                serviceId = parser.getValueAsString();
+            } else if ("invocations".equals(fieldName)) {
+                if (serviceId != null) {
+                    readServiceInvocations(serviceId, parser, accumulator);
+                } else {
+                    bufferedInvocations = parser.readValueAsTree();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (bufferedInvocations != null) {
+            try (JsonParser buffered = objectMapper.treeAsTokens(bufferedInvocations)) {
+                buffered.nextToken();
+                readServiceInvocations(serviceId, buffered, accumulator);
+            }
+        }
+    }
+
+    private void readServiceInvocations(String serviceId, JsonParser parser,
+                                        ScanDataProcessor.Accumulator accumulator) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.VALUE_NULL) {
+                accumulator.addServiceInvocation(serviceId, parser.readValueAs(ServiceInvocation.class));
+            }
+        }
+    }
+
+    private static boolean isUsageField(String fieldName) {
+        return FUNCTION_USAGES.equals(fieldName)
+                || SERVICE_USAGES.equals(fieldName)
+                || EVENT_PUBLISHER_INVOCATIONS.equals(fieldName)
+                || LEGACY_GATEWAY_HTTP_CLIENT_INVOCATIONS.equals(fieldName);
+    }
+
+    private static boolean hasMappings(ObjectNode header) {
+        return header.has(FUNCTION_MAPPINGS)
+                && header.has(UI_SERVICE_METHOD_MAPPINGS)
+                && header.has(METHOD_IMPLEMENTATION_MAPPING);
+    }
+
+    /**
+     * A streamed scan.
+     *
+     * @param projectInfo the scanner output without its usage lists
+     * @param scanData the processed scan data
+     */
+    public record StreamedScan(ProjectInfo projectInfo, ScanData scanData) {
+    }
+}
@@ -0,0 +1,271 @@
+package gov.nystax.nimbus.codesnap.services.processor;
+
+import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.ScanDataWithMetadata;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ServiceCommitPair;
+import gov.nystax.nimbus.codesnap.services.processor.domain.EntryPointDependencies;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ScanData;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceCallReference;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded in-memory cache of parsed scans keyed by service ID and git commit hash.
+ *
+ * <p>A scan stored for a (SERVICE_ID, GIT_COMMIT_HASH) pair never changes, so repeated
+ * builds can reuse the parsed {@link ScanDataWithMetadata} instead of re-reading the
+ * CLOB and re-running Jackson. Entries are weighed by approximate heap size and evicted
+ * least-recently-used first once the configured byte budget is exceeded.</p>
+ *
+ * <p>Writes go through {@link ServiceScanService}, which invalidates the affected key
+ * whenever a scan is stored, replaced or recorded as failed. Rows changed by another
+ * process are not seen until the entry is evicted or {@link #invalidateAll()} is called.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ */
+public class ScanDataCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ScanDataCache.class.getName());
+
+    /**
+     * System property for the byte budget of the shared cache. Zero disables caching.
+     */
+    public static final String MAX_BYTES_PROPERTY = "codesnap.scan.cache.max.bytes";
+
+    /**
+     * Default byte budget when the system property is not set (256 MB).
+     */
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * Fixed per-entry overhead added to every weight estimate.
+     */
+    private static final long ENTRY_OVERHEAD_BYTES = 512;
+
+    /**
+     * Rough heap cost of a String header plus its backing array header.
+     */
+    private static final long STRING_OVERHEAD_BYTES = 40;
+
+    /**
+     * Rough heap cost of one hash map or linked set node.
+     */
+    private static final long MAP_ENTRY_BYTES = 40;
+
+    /**
+     * Rough heap cost of an empty EntryPointDependencies with its collections.
+     */
+    private static final long DEPENDENCIES_BYTES = 256;
+
+    private static final ScanDataCache SHARED = new ScanDataCache(configuredMaxBytes());
+
+    private final long maxWeightBytes;
+    private final LinkedHashMap<ServiceCommitPair, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long totalWeightBytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache with the given byte budget.
+     *
+     * @param maxWeightBytes maximum total weight of cached entries; zero disables caching
+     */
+    public ScanDataCache(long maxWeightBytes) {
+        if (maxWeightBytes < 0) {
+            throw new IllegalArgumentException("Max weight bytes cannot be negative");
+        }
+        this.maxWeightBytes = maxWeightBytes;
+    }
+
+    /**
+     * Returns the process-wide cache that services use unless given their own.
+     * Entries are keyed only by service ID and commit, so a service reading a different
+     * database should be given a separate cache.
+     */
+    public static ScanDataCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Estimates the heap footprint of a parsed scan from the strings it holds.
+     * The estimate does not depend on the storage format the scan was read from.
+     *
+     * @param scanData the parsed scan data
+     * @return the approximate weight in bytes
+     */
+    public static long estimateWeight(ScanData scanData) {
+        long weight = ENTRY_OVERHEAD_BYTES;
+        if (scanData == null) {
+            return weight;
+        }
+        weight += weighStringMap(scanData.getFunctionMappingsView());
+        weight += weighStringMap(scanData.getUiServiceMethodMappingsView());
+        weight += weighStringMap(scanData.getMethodImplementationMappingView());
+        weight += weighDependencyMap(scanData.getEntryPointChildrenView());
+        weight += weighDependencyMap(scanData.getPublicMethodDependenciesView());
+        return weight;
+    }
+
+    /**
+     * Returns the cached scan for the pair, or null if it is not cached.
+     */
+    public synchronized ScanDataWithMetadata get(ServiceCommitPair key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value();
+    }
+
+    /**
+     * Caches a parsed scan, evicting least-recently-used entries as needed.
+     * Entries heavier than the whole budget are not cached.
+     *
+     * @param key the service/commit pair
+     * @param value the parsed scan
+     * @param weightBytes the approximate heap size of the value, see {@link #estimateWeight}
+     */
+    public synchronized void put(ServiceCommitPair key, ScanDataWithMetadata value, long weightBytes) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value cannot be null");
+        }
+        if (weightBytes > maxWeightBytes) {
+            return;
+        }
+
+        Entry previous = entries.put(key, new Entry(value, weightBytes));
+        if (previous != null) {
+            totalWeightBytes -= previous.weightBytes();
+        }
+        totalWeightBytes += weightBytes;
+
+        Iterator<Map.Entry<ServiceCommitPair, Entry>> eldest = entries.entrySet().iterator();
+        while (totalWeightBytes > maxWeightBytes && eldest.hasNext()) {
+            Map.Entry<ServiceCommitPair, Entry> evicted = eldest.next();
+            eldest.remove();
+            totalWeightBytes -= evicted.getValue().weightBytes();
+            evictionCount++;
+            LOGGER.log(Level.FINE, "Evicted cached scan {0}@{1}",
+                    new Object[]{evicted.getKey().serviceId(), evicted.getKey().gitCommitHash()});
+        }
+    }
+
+    /**
+     * Removes the cached scan for the given service and commit, if any.
+     */
+    public synchronized void invalidate(String serviceId, String gitCommitHash) {
+        if (serviceId == null || serviceId.isBlank() || gitCommitHash == null || gitCommitHash.isBlank()) {
+            return;
+        }
+        Entry removed = entries.remove(new ServiceCommitPair(serviceId, gitCommitHash));
+        if (removed != null) {
+            totalWeightBytes -= removed.weightBytes();
+        }
+    }
+
+    /**
+     * Removes every cached scan. Statistics are kept.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        totalWeightBytes = 0;
+    }
+
+    /**
+     * Returns true if caching is enabled (the budget is non-zero).
+     */
+    public boolean isEnabled() {
+        return maxWeightBytes > 0;
+    }
+
+    /**
+     * Returns a snapshot of the cache statistics.
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(hitCount, missCount, evictionCount, entries.size(), totalWeightBytes);
+    }
+
+    private static long weighStringMap(Map<String, String> map) {
+        long weight = 0;
+        if (map != null) {
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                weight += MAP_ENTRY_BYTES + weighString(entry.getKey()) + weighString(entry.getValue());
+            }
+        }
+        return weight;
+    }
+
+    private static long weighDependencyMap(Map<String, EntryPointDependencies> map) {
+        long weight = 0;
+        if (map == null) {
+            return weight;
+        }
+        for (Map.Entry<String, EntryPointDependencies> entry : map.entrySet()) {
+            weight += MAP_ENTRY_BYTES + weighString(entry.getKey()) + DEPENDENCIES_BYTES;
+            EntryPointDependencies deps = entry.getValue();
+            if (deps == null) {
+                continue;
+            }
+            for (String value : deps.getFunctionsView()) {
+                weight += MAP_ENTRY_BYTES + weighString(value);
+            }
+            for (String value : deps.getAsyncFunctionsView()) {
+                weight += MAP_ENTRY_BYTES + weighString(value);
+            }
+            for (String value : deps.getTopicsView()) {
+                weight += MAP_ENTRY_BYTES + weighString(value);
+            }
+            for (ServiceCallReference call : deps.getServiceCallsView()) {
+                weight += MAP_ENTRY_BYTES + weighString(call.getServiceId())
+                        + weighString(call.getInterfaceMethod());
+            }
+        }
+        return weight;
+    }
+
+    private static long weighString(String value) {
+        return value == null ? 0 : STRING_OVERHEAD_BYTES + value.length();
+    }
+
+    /**
+     * Returns the byte budget set by {@link #MAX_BYTES_PROPERTY}, or {@link #DEFAULT_MAX_BYTES}.
+     */
+    public static long configuredMaxBytes() {
+        String configured = System.getProperty(MAX_BYTES_PROPERTY);
+        if (configured == null || configured.isBlank()) {
+            return DEFAULT_MAX_BYTES;
+        }
+        try {
+            return Math.max(0, Long.parseLong(configured.trim()));
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Ignoring invalid {0} value: {1}",
+                    new Object[]{MAX_BYTES_PROPERTY, configured});
+            return DEFAULT_MAX_BYTES;
+        }
+    }
+
+    private record Entry(ScanDataWithMetadata value, long weightBytes) {
+    }
+
+    /**
+     * Point-in-time cache statistics.
+     */
+    public record CacheStats(long hitCount, long missCount, long evictionCount,
+                             int entryCount, long weightBytes) {
+
+        /**
+         * Returns the fraction of lookups served from the cache, or 0 if there were none.
+         */
+        public double hitRate() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 0.0 : (double) hitCount / requests;
+        }
+    }
+}
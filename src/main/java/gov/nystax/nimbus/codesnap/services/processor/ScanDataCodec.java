@@ -0,0 +1,384 @@
+package gov.nystax.nimbus.codesnap.services.processor;
+
+import gov.nystax.nimbus.codesnap.services.processor.domain.EntryPointDependencies;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ScanData;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceCallReference;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Compact binary encoding of {@link ScanData}, stored in SERVICE_SCAN.SCAN_DATA_BINARY
+ * when the record's format is {@code COMPACT_V1}.
+ *
+ * <p>Layout: the 4-byte header {@code 'S' 'D' 'C' 0x01} followed by a deflate stream
+ * containing a string dictionary and the body. Every string in the body (method
+ * signatures, function names, topics, service IDs) is written once to the dictionary
+ * and referenced by a varint index, so the fully qualified method names repeated
+ * across {@code methodImplementationMapping} and {@code publicMethodDependencies}
+ * cost a few bytes per occurrence. Index 0 encodes null; collection sizes are written
+ * as {@code size + 1} with 0 encoding a null collection.</p>
+ *
+ * <p>Decoding preserves the iteration order of every set and list, so a round trip
+ * yields a {@link ScanData} equal to the original.</p>
+ */
+public final class ScanDataCodec {
+
+    private static final byte[] HEADER = {'S', 'D', 'C', 1};
+
+    /**
+     * Most elements allocated up front for a decoded count; larger collections grow as
+     * their elements are read, so a corrupt count cannot exhaust the heap.
+     */
+    private static final int MAX_PREALLOCATED_ELEMENTS = 1024;
+
+    private ScanDataCodec() {
+    }
+
+    /**
+     * Encodes the scan data.
+     *
+     * @param scanData the scan data to encode
+     * @return the encoded bytes
+     * @throws IllegalArgumentException if scanData is null
+     */
+    public static byte[] encode(ScanData scanData) {
+        if (scanData == null) {
+            throw new IllegalArgumentException("ScanData cannot be null");
+        }
+
+        Encoder encoder = new Encoder();
+        encoder.writeStringMap(scanData.getFunctionMappingsView());
+        encoder.writeStringMap(scanData.getUiServiceMethodMappingsView());
+        encoder.writeStringMap(scanData.getMethodImplementationMappingView());
+        encoder.writeDependencyMap(scanData.getEntryPointChildrenView());
+        encoder.writeDependencyMap(scanData.getPublicMethodDependenciesView());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(encoder.body.size() / 2 + 64);
+        out.writeBytes(HEADER);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater)) {
+            encoder.writeDictionary(deflated);
+            encoder.body.writeTo(deflated);
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException("Failed to encode ScanData", e);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes scan data previously produced by {@link #encode}.
+     *
+     * @param encoded the encoded bytes
+     * @return the decoded scan data
+     * @throws MalformedEncodingException if the data is truncated or not in this format
+     * @throws IOException if the data cannot be read
+     */
+    public static ScanData decode(byte[] encoded) throws IOException {
+        if (encoded == null) {
+            throw new IllegalArgumentException("Encoded data cannot be null");
+        }
+        return decode(new ByteArrayInputStream(encoded));
+    }
+
+    /**
+     * Decodes scan data from a stream positioned at the header. The stream is not closed.
+     *
+     * @param in the encoded stream
+     * @return the decoded scan data
+     * @throws MalformedEncodingException if the data is truncated or not in this format
+     * @throws IOException if the stream cannot be read
+     */
+    public static ScanData decode(InputStream in) throws IOException {
+        byte[] header = in.readNBytes(HEADER.length);
+        if (header.length != HEADER.length
+                || header[0] != HEADER[0] || header[1] != HEADER[1] || header[2] != HEADER[2]) {
+            throw new MalformedEncodingException("Not a compact ScanData encoding");
+        }
+        if (header[3] != HEADER[3]) {
+            throw new MalformedEncodingException("Unsupported compact ScanData version: " + header[3]);
+        }
+
+        try {
+            InflaterInputStream inflated = new InflaterInputStream(in);
+            Decoder decoder = new Decoder(new DataInputStream(inflated));
+            decoder.readDictionary();
+
+            ScanData scanData = new ScanData();
+            scanData.setFunctionMappings(decoder.readStringMap());
+            scanData.setUiServiceMethodMappings(decoder.readStringMap());
+            scanData.setMethodImplementationMapping(decoder.readStringMap());
+            scanData.setEntryPointChildren(decoder.readDependencyMap());
+            scanData.setPublicMethodDependencies(decoder.readDependencyMap());
+
+            // Reading to the end verifies the deflate checksum
+            if (inflated.read() != -1) {
+                throw new MalformedEncodingException("Unexpected data after compact ScanData body");
+            }
+            return scanData;
+        } catch (EOFException | ZipException e) {
+            throw new MalformedEncodingException("Truncated or corrupt compact ScanData encoding", e);
+        }
+    }
+
+    /**
+     * Writes the body to a buffer while assigning dictionary indexes on first use.
+     */
+    private static final class Encoder {
+        private final Map<String, Integer> dictionary = new LinkedHashMap<>();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(4096);
+
+        void writeStringMap(Map<String, String> map) {
+            if (writeSize(map == null ? -1 : map.size())) {
+                for (Map.Entry<String, String> entry : map.entrySet()) {
+                    writeString(entry.getKey());
+                    writeString(entry.getValue());
+                }
+            }
+        }
+
+        void writeDependencyMap(Map<String, EntryPointDependencies> map) {
+            if (writeSize(map == null ? -1 : map.size())) {
+                for (Map.Entry<String, EntryPointDependencies> entry : map.entrySet()) {
+                    writeString(entry.getKey());
+                    writeDependencies(entry.getValue());
+                }
+            }
+        }
+
+        void writeDependencies(EntryPointDependencies deps) {
+            if (deps == null) {
+                body.write(0);
+                return;
+            }
+            body.write(deps.isUsesLegacyGatewayHttpClient() ? 2 : 1);
+            writeStrings(deps.getFunctionsView());
+            writeStrings(deps.getAsyncFunctionsView());
+            writeStrings(deps.getTopicsView());
+            List<ServiceCallReference> serviceCalls = deps.getServiceCallsView();
+            if (writeSize(serviceCalls == null ? -1 : serviceCalls.size())) {
+                for (ServiceCallReference call : serviceCalls) {
+                    writeString(call.getServiceId());
+                    writeString(call.getInterfaceMethod());
+                }
+            }
+        }
+
+        void writeStrings(Collection<String> values) {
+            if (writeSize(values == null ? -1 : values.size())) {
+                for (String value : values) {
+                    writeString(value);
+                }
+            }
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(body, 0);
+                return;
+            }
+            Integer index = dictionary.get(value);
+            if (index == null) {
+                index = dictionary.size() + 1;
+                dictionary.put(value, index);
+            }
+            writeVarint(body, index);
+        }
+
+        /**
+         * Writes {@code size + 1}, or 0 for a null collection.
+         *
+         * @return true if the collection is non-null and its elements should follow
+         */
+        boolean writeSize(int size) {
+            writeVarint(body, size + 1);
+            return size >= 0;
+        }
+
+        void writeDictionary(OutputStream out) throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            writeVarint(buffer, dictionary.size());
+            for (String value : dictionary.keySet()) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                writeVarint(buffer, utf8.length);
+                buffer.writeBytes(utf8);
+            }
+            buffer.writeTo(out);
+        }
+    }
+
+    /**
+     * Reads the dictionary, then resolves body references against it.
+     *
+     * <p>Counts and lengths come from the input, so none is trusted for an allocation:
+     * collections are presized to at most {@link #MAX_PREALLOCATED_ELEMENTS} and strings
+     * are only as large as the bytes actually read.</p>
+     */
+    private static final class Decoder {
+        private final DataInputStream in;
+        private final List<String> dictionary = new ArrayList<>();
+
+        Decoder(DataInputStream in) {
+            this.in = in;
+        }
+
+        void readDictionary() throws IOException {
+            int count = readLength("Dictionary size");
+            dictionary.add(null);
+            for (int i = 1; i <= count; i++) {
+                int length = readLength("String length");
+                byte[] utf8 = in.readNBytes(length);
+                if (utf8.length != length) {
+                    throw new EOFException("Truncated compact ScanData string");
+                }
+                dictionary.add(new String(utf8, StandardCharsets.UTF_8));
+            }
+        }
+
+        Map<String, String> readStringMap() throws IOException {
+            int size = readSize();
+            if (size < 0) {
+                return null;
+            }
+            Map<String, String> map = new HashMap<>(capacityFor(size));
+            for (int i = 0; i < size; i++) {
+                map.put(readString(), readString());
+            }
+            return map;
+        }
+
+        Map<String, EntryPointDependencies> readDependencyMap() throws IOException {
+            int size = readSize();
+            if (size < 0) {
+                return null;
+            }
+            Map<String, EntryPointDependencies> map = new HashMap<>(capacityFor(size));
+            for (int i = 0; i < size; i++) {
+                map.put(readString(), readDependencies());
+            }
+            return map;
+        }
+
+        EntryPointDependencies readDependencies() throws IOException {
+            int marker = in.readUnsignedByte();
+            if (marker == 0) {
+                return null;
+            }
+            EntryPointDependencies deps = new EntryPointDependencies();
+            deps.setUsesLegacyGatewayHttpClient(marker == 2);
+            deps.setFunctions(readStrings());
+            deps.setAsyncFunctions(readStrings());
+            deps.setTopics(readStrings());
+
+            int callCount = readSize();
+            if (callCount >= 0) {
+                List<ServiceCallReference> serviceCalls = new ArrayList<>(
+                        Math.min(callCount, MAX_PREALLOCATED_ELEMENTS));
+                for (int i = 0; i < callCount; i++) {
+                    serviceCalls.add(new ServiceCallReference(readString(), readString()));
+                }
+                deps.setServiceCalls(serviceCalls);
+            }
+            return deps;
+        }
+
+        Set<String> readStrings() throws IOException {
+            int size = readSize();
+            if (size < 0) {
+                return null;
+            }
+            Set<String> values = new LinkedHashSet<>(capacityFor(size));
+            for (int i = 0; i < size; i++) {
+                values.add(readString());
+            }
+            return values;
+        }
+
+        String readString() throws IOException {
+            int index = readVarint(in);
+            if (index < 0 || index >= dictionary.size()) {
+                throw new MalformedEncodingException("String reference " + index + " is outside the dictionary");
+            }
+            return dictionary.get(index);
+        }
+
+        /**
+         * Reads a collection size, or -1 for a null collection.
+         */
+        int readSize() throws IOException {
+            return readLength("Collection size") - 1;
+        }
+
+        private int readLength(String what) throws IOException {
+            int length = readVarint(in);
+            if (length < 0) {
+                throw new MalformedEncodingException(what + " " + Integer.toUnsignedString(length)
+                        + " is out of range");
+            }
+            return length;
+        }
+
+        private static int capacityFor(int size) {
+            return (int) (Math.min(size, MAX_PREALLOCATED_ELEMENTS) / 0.75f) + 1;
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.write(remaining);
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated compact ScanData varint");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new MalformedEncodingException("Malformed varint in compact ScanData encoding");
+    }
+
+    /**
+     * Thrown when the bytes are not a valid compact encoding, as opposed to an
+     * I/O failure while reading them.
+     */
+    public static class MalformedEncodingException extends IOException {
+        public MalformedEncodingException(String message) {
+            super(message);
+        }
+
+        public MalformedEncodingException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
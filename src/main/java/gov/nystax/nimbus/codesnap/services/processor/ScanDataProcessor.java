@@ -12,11 +12,15 @@ import gov.nystax.nimbus.codesnap.services.scanner.domain.ServiceInvocation;
 import gov.nystax.nimbus.codesnap.services.scanner.domain.ServiceUsage;
 import gov.nystax.nimbus.codesnap.services.scanner.domain.TopicResolution;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.ToIntFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -27,10 +31,18 @@ import java.util.logging.Logger;
  * <p>This processor performs the following transformations:</p>
  * <ul>
  *   <li>Builds reverse lookup maps for method resolution</li>
- *   <li>Determines ownership of each usage by analyzing call chains</li>
+ *   <li>Determines ownership of each usage by analyzing call chains, resolving each
+ *       distinct call-chain prefix once through a {@link CallChainIndex}</li>
  *   <li>Pre-computes entryPointChildren for direct dependency lookup</li>
  *   <li>Builds publicMethodDependencies for transitive resolution</li>
  * </ul>
+ *
+ * <p>When constructed with a {@link ForkJoinPool}, inputs with at least
+ * {@link #DEFAULT_PARALLEL_THRESHOLD} invocations are processed in parallel. Each usage
+ * list is split into contiguous slices, one per shard. Each shard collects its slices
+ * into its own dependency maps, and the shards are then merged in slice order. Merging
+ * preserves the order in which every dependency was first seen, so the result equals
+ * the serial result.</p>
  */
 public class ScanDataProcessor {
 
@@ -45,6 +57,49 @@ public class ScanDataProcessor {
      */
     public static final String UNKNOWN_TOPIC_PLACEHOLDER = "<unknown-topic>";
 
+    /**
+     * Minimum number of invocations before a parallel processor splits the work.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 5_000;
+
+    /**
+     * Pool used for parallel processing, or null to always process serially.
+     */
+    private final ForkJoinPool forkJoinPool;
+    private final int parallelThreshold;
+
+    /**
+     * Creates a serial processor.
+     */
+    public ScanDataProcessor() {
+        this(null, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Creates a processor that processes large inputs in parallel on the given pool.
+     * Inputs are split into one shard per unit of the pool's parallelism.
+     *
+     * @param forkJoinPool the pool to process on, or null to process serially
+     */
+    public ScanDataProcessor(ForkJoinPool forkJoinPool) {
+        this(forkJoinPool, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    ScanDataProcessor(ForkJoinPool forkJoinPool, int parallelThreshold) {
+        if (parallelThreshold < 0) {
+            throw new IllegalArgumentException("Parallel threshold cannot be negative");
+        }
+        this.forkJoinPool = forkJoinPool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Returns true if this processor can process inputs in parallel.
+     */
+    public boolean isParallel() {
+        return forkJoinPool != null;
+    }
+
     /**
      * Processes a ProjectInfo scan result into pre-processed ScanData.
      *
@@ -57,6 +112,86 @@ public class ScanDataProcessor {
             throw new IllegalArgumentException("ProjectInfo cannot be null");
         }
 
+        ScanProcessEvent event = new ScanProcessEvent();
+        event.begin();
+        Accumulator accumulator = startScan(projectInfo);
+
+        // Process all usages, resolving each distinct call-chain prefix once
+        UsageSlice usages = new UsageSlice(
+                nullToEmpty(projectInfo.getFunctionUsages()),
+                nullToEmpty(projectInfo.getServiceUsages()),
+                nullToEmpty(projectInfo.getEventPublisherInvocations()),
+                nullToEmpty(projectInfo.getLegacyGatewayHttpClientInvocations()));
+        int invocationCount = usages.invocationCount();
+        boolean parallel = forkJoinPool != null && invocationCount >= parallelThreshold
+                && forkJoinPool.getParallelism() > 1;
+        if (parallel) {
+            processInParallel(projectInfo.getArtifactId(), usages, accumulator);
+        } else {
+            accumulator.addUsages(usages);
+        }
+
+        ScanData scanData = accumulator.finish(projectInfo.getArtifactId());
+        event.end();
+        if (event.shouldCommit()) {
+            event.artifactId = projectInfo.getArtifactId();
+            event.functionInvocations = usages.functionInvocationCount();
+            event.serviceInvocations = usages.serviceInvocationCount();
+            event.eventPublisherInvocations = usages.eventPublisherInvocations().size();
+            event.legacyGatewayInvocations = usages.legacyGatewayHttpClientInvocations().size();
+            event.parallel = parallel;
+            event.commit();
+        }
+        return scanData;
+    }
+
+    /**
+     * Processes a scan unless nothing changed since its parent commit, in which case the
+     * parent's ScanData is returned as is.
+     *
+     * <p>ScanData does not record which source file contributed each dependency, so a
+     * change cannot be applied file by file: if any file changed, or the mappings differ
+     * from the parent's, the scan is processed in full.</p>
+     *
+     * @param previous the parent commit's ScanData, or null if there is none
+     * @param projectInfo the raw scanner output for the new commit
+     * @param changedFiles the files changed since the parent commit, or null if unknown
+     * @return the parent's ScanData if it still applies, otherwise newly processed ScanData
+     * @throws IllegalArgumentException if projectInfo is null
+     */
+    public ScanData processIncremental(ScanData previous, ProjectInfo projectInfo, Set<String> changedFiles) {
+        if (projectInfo == null) {
+            throw new IllegalArgumentException("ProjectInfo cannot be null");
+        }
+
+        String reason;
+        if (previous == null) {
+            reason = "no parent scan";
+        } else if (changedFiles == null) {
+            reason = "changed files unknown";
+        } else if (changedFiles.stream().anyMatch(path -> path != null && !path.isBlank())) {
+            reason = "files changed";
+        } else if (!mappingsMatch(previous, projectInfo)) {
+            reason = "mappings changed";
+        } else {
+            LOGGER.log(Level.INFO, "Reusing parent scan data for service {0}: no files changed",
+                    projectInfo.getArtifactId());
+            return previous;
+        }
+
+        LOGGER.log(Level.FINE, "Fully processing service {0}: {1}",
+                new Object[]{projectInfo.getArtifactId(), reason});
+        return process(projectInfo);
+    }
+
+    /**
+     * Starts processing a scan whose invocations are added one at a time, as they are read.
+     * Only the mappings of the given ProjectInfo are used; its usage lists are ignored.
+     *
+     * @param projectInfo the scanner output's mappings
+     * @return an accumulator to add the invocations to
+     */
+    Accumulator startScan(ProjectInfo projectInfo) {
         LOGGER.log(Level.INFO, "Processing scan data for service: {0}", projectInfo.getArtifactId());
 
         ScanData scanData = new ScanData();
@@ -64,28 +199,35 @@ public class ScanDataProcessor {
         // Copy basic mappings
         copyBasicMappings(projectInfo, scanData);
 
-        // Build reverse lookup maps
+        // Every exposed entry point gets an entry, even if nothing is found for it
+        Set<String> entryPointNames = new LinkedHashSet<>();
+        if (scanData.getFunctionMappingsView() != null) {
+            entryPointNames.addAll(scanData.getFunctionMappingsView().keySet());
+        }
+        if (scanData.getUiServiceMethodMappingsView() != null) {
+            entryPointNames.addAll(scanData.getUiServiceMethodMappingsView().keySet());
+        }
+        List<String> entryPoints = List.copyOf(entryPointNames);
+
+        // Resolve impl -> interface -> entry point once per implementation method, by id
         Map<String, String> implToInterface = buildImplToInterfaceMap(projectInfo);
         Map<String, String> interfaceToEntryPoint = buildInterfaceToEntryPointMap(projectInfo);
+        MethodSymbolTable symbols = new MethodSymbolTable();
+        for (String implMethod : implToInterface.keySet()) {
+            symbols.intern(implMethod);
+        }
+        Map<String, Integer> entryPointIndexes = new HashMap<>();
+        for (int i = 0; i < entryPoints.size(); i++) {
+            entryPointIndexes.put(entryPoints.get(i), i);
+        }
+        int[] ownerOf = new int[symbols.size()];
+        for (Map.Entry<String, String> entry : implToInterface.entrySet()) {
+            String entryPoint = interfaceToEntryPoint.get(entry.getValue());
+            Integer entryPointIndex = entryPoint == null ? null : entryPointIndexes.get(entryPoint);
+            ownerOf[symbols.find(entry.getKey())] = entryPointIndex == null ? -1 : entryPointIndex;
+        }
 
-        // Initialize entry point children for all exposed entry points
-        initializeEntryPointChildren(scanData);
-
-        // Process all usages
-        processFunctionUsages(projectInfo, scanData, implToInterface, interfaceToEntryPoint);
-        processServiceUsages(projectInfo, scanData, implToInterface, interfaceToEntryPoint);
-        processEventPublisherInvocations(projectInfo, scanData, implToInterface, interfaceToEntryPoint);
-        processLegacyGatewayHttpClientInvocations(projectInfo, scanData, implToInterface, interfaceToEntryPoint);
-
-        LOGGER.log(Level.INFO, "Completed processing scan data for service: {0}. " +
-                        "Entry points: {1}, Public methods with deps: {2}",
-                new Object[]{
-                        projectInfo.getArtifactId(),
-                        scanData.getEntryPointChildren().size(),
-                        scanData.getPublicMethodDependencies().size()
-                });
-
-        return scanData;
+        return new Accumulator(scanData, symbols, ownerOf, entryPoints);
     }
 
     /**
@@ -157,179 +299,221 @@ public class ScanDataProcessor {
     }
 
     /**
-     * Initializes empty EntryPointDependencies for all exposed entry points.
+     * Processes the usages as one shard per unit of pool parallelism and merges the
+     * shards into the accumulator in slice order.
      */
-    private void initializeEntryPointChildren(ScanData scanData) {
-        Map<String, EntryPointDependencies> entryPointChildren = new HashMap<>();
-
-        // Initialize for all functions
-        Map<String, String> functionMappings = scanData.getFunctionMappings();
-        if (functionMappings != null) {
-            for (String funcName : functionMappings.keySet()) {
-                entryPointChildren.put(funcName, new EntryPointDependencies());
-            }
+    private void processInParallel(String serviceId, UsageSlice usages, Accumulator accumulator) {
+        int shardCount = forkJoinPool.getParallelism();
+        List<UsageSlice> slices = usages.split(shardCount);
+
+        List<ForkJoinTask<Accumulator>> tasks = new ArrayList<>(shardCount);
+        for (UsageSlice slice : slices) {
+            tasks.add(forkJoinPool.submit(() -> {
+                Accumulator shard = accumulator.newShard();
+                shard.addUsages(slice);
+                return shard;
+            }));
         }
 
-        // Initialize for all UI service methods
-        Map<String, String> uiServiceMethodMappings = scanData.getUiServiceMethodMappings();
-        if (uiServiceMethodMappings != null) {
-            for (String methodName : uiServiceMethodMappings.keySet()) {
-                entryPointChildren.put(methodName, new EntryPointDependencies());
+        for (int i = 0; i < tasks.size(); i++) {
+            Accumulator shard;
+            try {
+                shard = tasks.get(i).join();
+            } catch (RuntimeException e) {
+                for (int j = i + 1; j < tasks.size(); j++) {
+                    tasks.get(j).cancel(true);
+                }
+                throw e;
             }
+            accumulator.merge(shard);
         }
 
-        scanData.setEntryPointChildren(entryPointChildren);
+        LOGGER.log(Level.FINE, "Processed {0} invocations for service {1} in {2} shards",
+                new Object[]{usages.invocationCount(), serviceId, shardCount});
+    }
+
+    private static boolean mappingsMatch(ScanData previous, ProjectInfo projectInfo) {
+        return mapsMatch(previous.getFunctionMappingsView(), projectInfo.getFunctionMappings())
+                && mapsMatch(previous.getUiServiceMethodMappingsView(), projectInfo.getUIServiceMethodMappings())
+                && mapsMatch(previous.getMethodImplementationMappingView(),
+                projectInfo.getMethodImplementationMappings());
     }
 
     /**
-     * Processes function usages and updates both entryPointChildren and publicMethodDependencies.
+     * Compares a stored mapping with a scanned one; ScanData keeps an empty map where
+     * the scanner reported none.
      */
-    private void processFunctionUsages(ProjectInfo projectInfo,
-                                        ScanData scanData,
-                                        Map<String, String> implToInterface,
-                                        Map<String, String> interfaceToEntryPoint) {
-        List<FunctionUsage> functionUsages = projectInfo.getFunctionUsages();
-        if (functionUsages == null) {
-            return;
-        }
-
-        Map<String, EntryPointDependencies> entryPointChildren = scanData.getEntryPointChildren();
-        Map<String, EntryPointDependencies> publicMethodDeps = scanData.getPublicMethodDependencies();
-        if (publicMethodDeps == null) {
-            publicMethodDeps = new HashMap<>();
-        }
-
-        for (FunctionUsage usage : functionUsages) {
-            String functionId = usage.getFunctionId();
-            List<FunctionInvocation> invocations = usage.getInvocations();
-
-            if (invocations == null) {
-                continue;
-            }
+    private static boolean mapsMatch(Map<String, String> stored, Map<String, String> scanned) {
+        Map<String, String> storedOrEmpty = stored == null ? Map.of() : stored;
+        Map<String, String> scannedOrEmpty = scanned == null ? Map.of() : scanned;
+        return storedOrEmpty.equals(scannedOrEmpty);
+    }
 
-            for (FunctionInvocation invocation : invocations) {
-                boolean isAsync = INVOCATION_TYPE_EXECUTE_ASYNC.equals(invocation.getInvocationType());
-                List<MethodReference> callChain = invocation.getCallChain();
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list == null ? List.of() : list;
+    }
 
-                if (callChain == null || callChain.isEmpty()) {
-                    LOGGER.log(Level.WARNING, "Function usage {0} has empty call chain at {1}",
-                            new Object[]{functionId, invocation.getInvocationSite()});
-                    continue;
-                }
+    private static int sizeOf(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
 
-                // Find owners and add to entryPointChildren
-                Set<String> owners = findOwners(callChain, implToInterface, interfaceToEntryPoint);
-                for (String owner : owners) {
-                    EntryPointDependencies deps = entryPointChildren.get(owner);
-                    if (deps != null) {
-                        if (isAsync) {
-                            deps.addAsyncFunction(functionId);
-                        } else {
-                            deps.addFunction(functionId);
-                        }
-                    }
-                }
+    /**
+     * Splits the items into {@code count} contiguous slices of roughly equal total weight.
+     */
+    private static <T> List<List<T>> split(List<T> items, int count, ToIntFunction<T> weigher) {
+        long totalWeight = 0;
+        int[] weights = new int[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            weights[i] = Math.max(1, weigher.applyAsInt(items.get(i)));
+            totalWeight += weights[i];
+        }
 
-                // Add to publicMethodDependencies for all PUBLIC methods in call chain
-                for (MethodReference methodRef : callChain) {
-                    if (isPublicMethod(methodRef)) {
-                        String implMethod = methodRef.getMethodName();
-                        EntryPointDependencies methodDeps = publicMethodDeps.computeIfAbsent(
-                                implMethod, k -> new EntryPointDependencies());
-                        if (isAsync) {
-                            methodDeps.addAsyncFunction(functionId);
-                        } else {
-                            methodDeps.addFunction(functionId);
-                        }
-                    }
-                }
+        List<List<T>> slices = new ArrayList<>(count);
+        int start = 0;
+        long consumed = 0;
+        for (int slice = 1; slice <= count; slice++) {
+            long limit = totalWeight * slice / count;
+            int end = start;
+            while (end < items.size() && (consumed < limit || slice == count)) {
+                consumed += weights[end++];
             }
+            slices.add(items.subList(start, end));
+            start = end;
         }
-
-        scanData.setEntryPointChildren(entryPointChildren);
-        scanData.setPublicMethodDependencies(publicMethodDeps);
+        return slices;
     }
 
     /**
-     * Processes service usages and updates both entryPointChildren and publicMethodDependencies.
+     * The usages of each kind processed by one shard, or all of them when processing serially.
      */
-    private void processServiceUsages(ProjectInfo projectInfo,
-                                       ScanData scanData,
-                                       Map<String, String> implToInterface,
-                                       Map<String, String> interfaceToEntryPoint) {
-        List<ServiceUsage> serviceUsages = projectInfo.getServiceUsages();
-        if (serviceUsages == null) {
-            return;
+    private record UsageSlice(List<FunctionUsage> functionUsages,
+                              List<ServiceUsage> serviceUsages,
+                              List<EventPublisherInvocation> eventPublisherInvocations,
+                              List<LegacyGatewayHttpClientInvocation> legacyGatewayHttpClientInvocations) {
+
+        int invocationCount() {
+            return functionInvocationCount() + serviceInvocationCount()
+                    + eventPublisherInvocations.size() + legacyGatewayHttpClientInvocations.size();
         }
 
-        Map<String, EntryPointDependencies> entryPointChildren = scanData.getEntryPointChildren();
-        Map<String, EntryPointDependencies> publicMethodDeps = scanData.getPublicMethodDependencies();
-        if (publicMethodDeps == null) {
-            publicMethodDeps = new HashMap<>();
+        int functionInvocationCount() {
+            int count = 0;
+            for (FunctionUsage usage : functionUsages) {
+                count += sizeOf(usage.getInvocations());
+            }
+            return count;
         }
 
-        for (ServiceUsage usage : serviceUsages) {
-            String targetServiceId = usage.getServiceId();
-            List<ServiceInvocation> invocations = usage.getInvocations();
+        int serviceInvocationCount() {
+            int count = 0;
+            for (ServiceUsage usage : serviceUsages) {
+                count += sizeOf(usage.getInvocations());
+            }
+            return count;
+        }
 
-            if (invocations == null) {
-                continue;
+        List<UsageSlice> split(int count) {
+            List<List<FunctionUsage>> functionSlices =
+                    ScanDataProcessor.split(functionUsages, count, usage -> sizeOf(usage.getInvocations()));
+            List<List<ServiceUsage>> serviceSlices =
+                    ScanDataProcessor.split(serviceUsages, count, usage -> sizeOf(usage.getInvocations()));
+            List<List<EventPublisherInvocation>> eventSlices =
+                    ScanDataProcessor.split(eventPublisherInvocations, count, invocation -> 1);
+            List<List<LegacyGatewayHttpClientInvocation>> legacySlices =
+                    ScanDataProcessor.split(legacyGatewayHttpClientInvocations, count, invocation -> 1);
+
+            List<UsageSlice> slices = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                slices.add(new UsageSlice(functionSlices.get(i), serviceSlices.get(i),
+                        eventSlices.get(i), legacySlices.get(i)));
             }
+            return slices;
+        }
+    }
 
-            for (ServiceInvocation invocation : invocations) {
-                String invokedMethod = invocation.getInvokedMethod();
-                List<MethodReference> callChain = invocation.getCallChain();
+    /**
+     * Collects the dependencies of one scan as its invocations are added.
+     *
+     * <p>Each invocation is added to the entryPointChildren of the entry points that own
+     * its call chain and to the publicMethodDependencies of every public method in it, and
+     * can be dropped once it has been added. Not thread-safe; parallel processing gives each
+     * thread its own shard and combines them with {@link #merge}.</p>
+     */
+    static final class Accumulator {
+        private final ScanData scanData;
+        private final MethodSymbolTable symbols;
+        private final int[] ownerOf;
+        private final List<String> entryPoints;
+        private final Map<String, EntryPointDependencies> entryPointChildren = new HashMap<>();
+        private final Map<String, EntryPointDependencies> publicMethodDependencies = new HashMap<>();
+        private final CallChainIndex callChainIndex;
+
+        /**
+         * @param symbols the scan's implementation methods; the accumulator works on a copy
+         * @param ownerOf method id -> index into entryPoints, or -1
+         * @param entryPoints every exposed entry point
+         */
+        private Accumulator(ScanData scanData,
+                            MethodSymbolTable symbols,
+                            int[] ownerOf,
+                            List<String> entryPoints) {
+            this.scanData = scanData;
+            this.symbols = symbols;
+            this.ownerOf = ownerOf;
+            this.entryPoints = entryPoints;
+            EntryPointDependencies[] entryPointDeps = new EntryPointDependencies[entryPoints.size()];
+            for (int i = 0; i < entryPointDeps.length; i++) {
+                entryPointDeps[i] = new EntryPointDependencies();
+                entryPointChildren.put(entryPoints.get(i), entryPointDeps[i]);
+            }
+            this.callChainIndex = new CallChainIndex(
+                    symbols.copy(), ownerOf, entryPointDeps, publicMethodDependencies);
+        }
 
-                if (callChain == null || callChain.isEmpty()) {
-                    LOGGER.log(Level.WARNING, "Service usage {0}.{1} has empty call chain at {2}",
-                            new Object[]{targetServiceId, invokedMethod, invocation.getInvocationSite()});
-                    continue;
-                }
+        /**
+         * Adds a call to a function; {@code executeAsync} invocations are asynchronous calls.
+         */
+        void addFunctionInvocation(String functionId, FunctionInvocation invocation) {
+            boolean isAsync = INVOCATION_TYPE_EXECUTE_ASYNC.equals(invocation.getInvocationType());
+            List<MethodReference> callChain = invocation.getCallChain();
 
-                // Find owners and add to entryPointChildren
-                Set<String> owners = findOwners(callChain, implToInterface, interfaceToEntryPoint);
-                for (String owner : owners) {
-                    EntryPointDependencies deps = entryPointChildren.get(owner);
-                    if (deps != null) {
-                        deps.addServiceCall(targetServiceId, invokedMethod);
-                    }
-                }
+            if (callChain == null || callChain.isEmpty()) {
+                LOGGER.log(Level.WARNING, "Function usage {0} has empty call chain at {1}",
+                        new Object[]{functionId, invocation.getInvocationSite()});
+                return;
+            }
 
-                // Add to publicMethodDependencies for all PUBLIC methods in call chain
-                for (MethodReference methodRef : callChain) {
-                    if (isPublicMethod(methodRef)) {
-                        String implMethod = methodRef.getMethodName();
-                        EntryPointDependencies methodDeps = publicMethodDeps.computeIfAbsent(
-                                implMethod, k -> new EntryPointDependencies());
-                        methodDeps.addServiceCall(targetServiceId, invokedMethod);
-                    }
+            for (EntryPointDependencies deps : callChainIndex.targetsOf(callChain)) {
+                if (isAsync) {
+                    deps.addAsyncFunction(functionId);
+                } else {
+                    deps.addFunction(functionId);
                 }
             }
         }
 
-        scanData.setEntryPointChildren(entryPointChildren);
-        scanData.setPublicMethodDependencies(publicMethodDeps);
-    }
+        /**
+         * Adds a call to another service's method.
+         */
+        void addServiceInvocation(String targetServiceId, ServiceInvocation invocation) {
+            String invokedMethod = invocation.getInvokedMethod();
+            List<MethodReference> callChain = invocation.getCallChain();
 
-    /**
-     * Processes event publisher invocations and updates both entryPointChildren and publicMethodDependencies.
-     */
-    private void processEventPublisherInvocations(ProjectInfo projectInfo,
-                                                   ScanData scanData,
-                                                   Map<String, String> implToInterface,
-                                                   Map<String, String> interfaceToEntryPoint) {
-        List<EventPublisherInvocation> invocations = projectInfo.getEventPublisherInvocations();
-        if (invocations == null) {
-            return;
-        }
+            if (callChain == null || callChain.isEmpty()) {
+                LOGGER.log(Level.WARNING, "Service usage {0}.{1} has empty call chain at {2}",
+                        new Object[]{targetServiceId, invokedMethod, invocation.getInvocationSite()});
+                return;
+            }
 
-        Map<String, EntryPointDependencies> entryPointChildren = scanData.getEntryPointChildren();
-        Map<String, EntryPointDependencies> publicMethodDeps = scanData.getPublicMethodDependencies();
-        if (publicMethodDeps == null) {
-            publicMethodDeps = new HashMap<>();
+            for (EntryPointDependencies deps : callChainIndex.targetsOf(callChain)) {
+                deps.addServiceCall(targetServiceId, invokedMethod);
+            }
         }
 
-        for (EventPublisherInvocation invocation : invocations) {
+        /**
+         * Adds a published topic.
+         */
+        void addEventPublisherInvocation(EventPublisherInvocation invocation) {
             // Determine the topic name based on resolution status
             String topic;
             if (invocation.getTopicResolution() == TopicResolution.RESOLVED) {
@@ -347,123 +531,107 @@ public class ScanDataProcessor {
             if (callChain == null || callChain.isEmpty()) {
                 LOGGER.log(Level.WARNING, "Event publisher invocation for topic {0} has empty call chain at {1}",
                         new Object[]{topic, invocation.getInvocationSite()});
-                continue;
+                return;
             }
 
-            // Find owners and add to entryPointChildren
-            Set<String> owners = findOwners(callChain, implToInterface, interfaceToEntryPoint);
-            for (String owner : owners) {
-                EntryPointDependencies deps = entryPointChildren.get(owner);
-                if (deps != null) {
-                    deps.addTopic(topic);
-                }
+            for (EntryPointDependencies deps : callChainIndex.targetsOf(callChain)) {
+                deps.addTopic(topic);
             }
-
-            // Add to publicMethodDependencies for all PUBLIC methods in call chain
-            for (MethodReference methodRef : callChain) {
-                if (isPublicMethod(methodRef)) {
-                    String implMethod = methodRef.getMethodName();
-                    EntryPointDependencies methodDeps = publicMethodDeps.computeIfAbsent(
-                            implMethod, k -> new EntryPointDependencies());
-                    methodDeps.addTopic(topic);
-                }
-            }
-        }
-
-        scanData.setEntryPointChildren(entryPointChildren);
-        scanData.setPublicMethodDependencies(publicMethodDeps);
-    }
-
-    /**
-     * Processes legacy gateway HTTP client invocations and updates both entryPointChildren
-     * and publicMethodDependencies with the usesLegacyGatewayHttpClient flag.
-     */
-    private void processLegacyGatewayHttpClientInvocations(ProjectInfo projectInfo,
-                                                            ScanData scanData,
-                                                            Map<String, String> implToInterface,
-                                                            Map<String, String> interfaceToEntryPoint) {
-        List<LegacyGatewayHttpClientInvocation> invocations = projectInfo.getLegacyGatewayHttpClientInvocations();
-        if (invocations == null) {
-            return;
         }
 
-        Map<String, EntryPointDependencies> entryPointChildren = scanData.getEntryPointChildren();
-        Map<String, EntryPointDependencies> publicMethodDeps = scanData.getPublicMethodDependencies();
-        if (publicMethodDeps == null) {
-            publicMethodDeps = new HashMap<>();
-        }
-
-        for (LegacyGatewayHttpClientInvocation invocation : invocations) {
+        /**
+         * Sets the usesLegacyGatewayHttpClient flag along the invocation's call chain.
+         */
+        void addLegacyGatewayHttpClientInvocation(LegacyGatewayHttpClientInvocation invocation) {
             List<MethodReference> callChain = invocation.getCallChain();
 
             if (callChain == null || callChain.isEmpty()) {
                 LOGGER.log(Level.WARNING, "Legacy gateway HTTP client invocation has empty call chain at {0}",
                         invocation.getInvocationSite());
-                continue;
+                return;
             }
 
-            // Find owners and set the flag on entryPointChildren
-            Set<String> owners = findOwners(callChain, implToInterface, interfaceToEntryPoint);
-            for (String owner : owners) {
-                EntryPointDependencies deps = entryPointChildren.get(owner);
-                if (deps != null) {
-                    deps.setUsesLegacyGatewayHttpClient(true);
-                }
+            for (EntryPointDependencies deps : callChainIndex.targetsOf(callChain)) {
+                deps.setUsesLegacyGatewayHttpClient(true);
             }
+        }
 
-            // Set the flag on publicMethodDependencies for all PUBLIC methods in call chain
-            for (MethodReference methodRef : callChain) {
-                if (isPublicMethod(methodRef)) {
-                    String implMethod = methodRef.getMethodName();
-                    EntryPointDependencies methodDeps = publicMethodDeps.computeIfAbsent(
-                            implMethod, k -> new EntryPointDependencies());
-                    methodDeps.setUsesLegacyGatewayHttpClient(true);
+        /**
+         * Adds every invocation in the slice.
+         */
+        void addUsages(UsageSlice usages) {
+            for (FunctionUsage usage : usages.functionUsages()) {
+                List<FunctionInvocation> invocations = usage.getInvocations();
+                if (invocations != null) {
+                    for (FunctionInvocation invocation : invocations) {
+                        addFunctionInvocation(usage.getFunctionId(), invocation);
+                    }
+                }
+            }
+            for (ServiceUsage usage : usages.serviceUsages()) {
+                List<ServiceInvocation> invocations = usage.getInvocations();
+                if (invocations != null) {
+                    for (ServiceInvocation invocation : invocations) {
+                        addServiceInvocation(usage.getServiceId(), invocation);
+                    }
                 }
             }
+            for (EventPublisherInvocation invocation : usages.eventPublisherInvocations()) {
+                addEventPublisherInvocation(invocation);
+            }
+            for (LegacyGatewayHttpClientInvocation invocation : usages.legacyGatewayHttpClientInvocations()) {
+                addLegacyGatewayHttpClientInvocation(invocation);
+            }
         }
 
-        scanData.setEntryPointChildren(entryPointChildren);
-        scanData.setPublicMethodDependencies(publicMethodDeps);
-    }
-
-    /**
-     * Finds all entry point owners for a given call chain.
-     * An owner is an exposed function or UI method that the call chain traces back to.
-     *
-     * @param callChain the call chain from the invocation
-     * @param implToInterface map from implementation method to interface method
-     * @param interfaceToEntryPoint map from interface method to entry point name
-     * @return set of owner entry point names
-     */
-    private Set<String> findOwners(List<MethodReference> callChain,
-                                    Map<String, String> implToInterface,
-                                    Map<String, String> interfaceToEntryPoint) {
-        Set<String> owners = new HashSet<>();
-
-        for (MethodReference methodRef : callChain) {
-            String implMethod = methodRef.getMethodName();
-
-            // Step 1: impl method -> interface method
-            String interfaceMethod = implToInterface.get(implMethod);
-            if (interfaceMethod == null) {
-                continue;
-            }
+        /**
+         * Returns an empty accumulator for the same scan, to be combined with {@link #merge}.
+         */
+        Accumulator newShard() {
+            return new Accumulator(null, symbols, ownerOf, entryPoints);
+        }
 
-            // Step 2: interface method -> entry point name
-            String entryPoint = interfaceToEntryPoint.get(interfaceMethod);
-            if (entryPoint != null) {
-                owners.add(entryPoint);
-            }
+        /**
+         * Merges a shard into this accumulator. Dependencies the shard found that this
+         * accumulator has not seen yet are appended after the ones it has.
+         */
+        void merge(Accumulator shard) {
+            mergeInto(entryPointChildren, shard.entryPointChildren);
+            mergeInto(publicMethodDependencies, shard.publicMethodDependencies);
         }
 
-        return owners;
-    }
+        /**
+         * Stores the collected dependencies in the scan data and returns it.
+         *
+         * @param serviceId the scanned service, for logging
+         */
+        ScanData finish(String serviceId) {
+            scanData.setEntryPointChildren(entryPointChildren);
+            scanData.setPublicMethodDependencies(publicMethodDependencies);
+
+            LOGGER.log(Level.FINE, "Indexed {0} distinct methods in {1} call-chain prefixes for service: {2}",
+                    new Object[]{callChainIndex.getMethodCount(), callChainIndex.getPrefixCount(), serviceId});
+            LOGGER.log(Level.INFO, "Completed processing scan data for service: {0}. " +
+                            "Entry points: {1}, Public methods with deps: {2}",
+                    new Object[]{
+                            serviceId,
+                            entryPointChildren.size(),
+                            publicMethodDependencies.size()
+                    });
+            return scanData;
+        }
 
-    /**
-     * Checks if a method reference is a public method.
-     */
-    private boolean isPublicMethod(MethodReference methodRef) {
-        return methodRef != null &&
-                methodRef.getAccessModifier() == MethodReference.MethodAccessModifier.PUBLIC;
+        private static void mergeInto(Map<String, EntryPointDependencies> target,
+                                      Map<String, EntryPointDependencies> shard) {
+            for (Map.Entry<String, EntryPointDependencies> entry : shard.entrySet()) {
+                EntryPointDependencies deps = entry.getValue();
+                EntryPointDependencies existing = target.get(entry.getKey());
+                if (existing == null) {
+                    target.put(entry.getKey(), deps);
+                } else if (!deps.isEmpty()) {
+                    existing.merge(deps);
+                }
+            }
+        }
     }
 }
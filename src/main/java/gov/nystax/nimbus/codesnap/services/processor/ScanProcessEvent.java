@@ -0,0 +1,43 @@
+package gov.nystax.nimbus.codesnap.services.processor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for one {@link ScanDataProcessor#process} call.
+ *
+ * <p>Disabled by default; enable {@value #NAME} in the recording's settings.</p>
+ */
+@Name(ScanProcessEvent.NAME)
+@Label("Scan Process")
+@Description("Processing of one scanner output into ScanData")
+@Category({"CodeSnap", "Scan"})
+@Enabled(false)
+@StackTrace(false)
+final class ScanProcessEvent extends Event {
+
+    static final String NAME = "gov.nystax.codesnap.ScanProcess";
+
+    @Label("Artifact ID")
+    String artifactId;
+
+    @Label("Function Invocations")
+    int functionInvocations;
+
+    @Label("Service Invocations")
+    int serviceInvocations;
+
+    @Label("Event Publisher Invocations")
+    int eventPublisherInvocations;
+
+    @Label("Legacy Gateway Invocations")
+    int legacyGatewayInvocations;
+
+    @Label("Parallel")
+    boolean parallel;
+}
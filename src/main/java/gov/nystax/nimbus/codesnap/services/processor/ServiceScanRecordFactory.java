@@ -2,14 +2,19 @@ package gov.nystax.nimbus.codesnap.services.processor;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.nystax.nimbus.codesnap.services.processor.ProjectInfoStreamReader.StreamedScan;
 import gov.nystax.nimbus.codesnap.services.processor.domain.ScanData;
 import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceScanRecord;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceScanRecord.ScanDataFormat;
 import gov.nystax.nimbus.codesnap.services.scanner.domain.ProjectInfo;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -22,7 +27,7 @@ import java.util.regex.Pattern;
  * <ul>
  *   <li>UUID generation for scan ID</li>
  *   <li>Service dependency extraction from Maven coordinates</li>
- *   <li>ScanData processing and JSON serialization</li>
+ *   <li>ScanData processing and JSON or compact binary serialization</li>
  * </ul>
  */
 public class ServiceScanRecordFactory {
@@ -36,23 +41,47 @@ public class ServiceScanRecordFactory {
     private static final Pattern DEPENDENCY_ARTIFACT_PATTERN = 
             Pattern.compile("^[^:]+:([^:]+):");
 
+    /**
+     * System property selecting the storage format of new records
+     * ({@code JSON} or {@code COMPACT_V1}). Defaults to {@code JSON}.
+     */
+    public static final String STORAGE_FORMAT_PROPERTY = "codesnap.scan.storage.format";
+
     private final ScanDataProcessor scanDataProcessor;
     private final ObjectMapper objectMapper;
+    private final String storageFormat;
 
     public ServiceScanRecordFactory() {
         this.scanDataProcessor = new ScanDataProcessor();
         this.objectMapper = new ObjectMapper();
+        this.storageFormat = resolveStorageFormat(System.getProperty(STORAGE_FORMAT_PROPERTY));
     }
 
     /**
-     * Constructor for dependency injection.
+     * Constructor for dependency injection. Records are stored as JSON.
      *
      * @param scanDataProcessor the processor for transforming ProjectInfo to ScanData
      * @param objectMapper the Jackson ObjectMapper for JSON serialization
      */
     public ServiceScanRecordFactory(ScanDataProcessor scanDataProcessor, ObjectMapper objectMapper) {
+        this(scanDataProcessor, objectMapper, ScanDataFormat.JSON);
+    }
+
+    /**
+     * Constructor for dependency injection with an explicit storage format.
+     *
+     * @param scanDataProcessor the processor for transforming ProjectInfo to ScanData
+     * @param objectMapper the Jackson ObjectMapper for JSON serialization
+     * @param storageFormat one of the {@link ScanDataFormat} constants
+     */
+    public ServiceScanRecordFactory(ScanDataProcessor scanDataProcessor, ObjectMapper objectMapper,
+                                    String storageFormat) {
+        if (!ScanDataFormat.JSON.equals(storageFormat) && !ScanDataFormat.COMPACT_V1.equals(storageFormat)) {
+            throw new IllegalArgumentException("Unsupported scan data storage format: " + storageFormat);
+        }
         this.scanDataProcessor = scanDataProcessor;
         this.objectMapper = objectMapper;
+        this.storageFormat = storageFormat;
     }
 
     /**
@@ -77,8 +106,76 @@ public class ServiceScanRecordFactory {
         // Process the scan data
         ScanData scanData = scanDataProcessor.process(projectInfo);
 
-        // Serialize to JSON
-        String scanDataJson = serializeScanData(scanData);
+        return buildRecord(projectInfo, scanData, gitCommitHash);
+    }
+
+    /**
+     * Creates a ServiceScanRecord for a commit whose parent commit has already been scanned,
+     * reusing the parent's ScanData when no file changed, see
+     * {@link ScanDataProcessor#processIncremental}.
+     *
+     * @param projectInfo the scanner output
+     * @param previousScanData the parent commit's ScanData, or null if there is none
+     * @param changedFiles the files changed since the parent commit, or null if unknown
+     * @param gitCommitHash the git commit hash of the scanned code
+     * @return a fully populated ServiceScanRecord ready for database insertion
+     * @throws ScanDataProcessingException if processing or serialization fails
+     */
+    public ServiceScanRecord createIncrementalRecord(ProjectInfo projectInfo, ScanData previousScanData,
+                                                     Set<String> changedFiles, String gitCommitHash) {
+        if (projectInfo == null) {
+            throw new IllegalArgumentException("ProjectInfo cannot be null");
+        }
+        if (gitCommitHash == null || gitCommitHash.isBlank()) {
+            throw new IllegalArgumentException("Git commit hash cannot be null or blank");
+        }
+
+        LOGGER.log(Level.INFO, "Creating incremental ServiceScanRecord for {0} at commit {1}",
+                new Object[]{projectInfo.getArtifactId(), gitCommitHash});
+
+        ScanData scanData = scanDataProcessor.processIncremental(previousScanData, projectInfo, changedFiles);
+
+        return buildRecord(projectInfo, scanData, gitCommitHash);
+    }
+
+    /**
+     * Creates a ServiceScanRecord from ProjectInfo JSON without materializing its usage
+     * lists, see {@link ProjectInfoStreamReader}. The stream is not closed.
+     *
+     * @param projectInfoJson the scanner output as JSON
+     * @param gitCommitHash the git commit hash of the scanned code
+     * @return a fully populated ServiceScanRecord ready for database insertion
+     * @throws ScanDataProcessingException if reading, processing or serialization fails
+     */
+    public ServiceScanRecord createRecord(InputStream projectInfoJson, String gitCommitHash) {
+        if (projectInfoJson == null) {
+            throw new IllegalArgumentException("ProjectInfo JSON cannot be null");
+        }
+        if (gitCommitHash == null || gitCommitHash.isBlank()) {
+            throw new IllegalArgumentException("Git commit hash cannot be null or blank");
+        }
+
+        StreamedScan streamed;
+        try {
+            streamed = new ProjectInfoStreamReader(scanDataProcessor, objectMapper).read(projectInfoJson);
+        } catch (IOException e) {
+            throw new ScanDataProcessingException("Failed to read ProjectInfo JSON", e);
+        }
+
+        LOGGER.log(Level.INFO, "Creating ServiceScanRecord for {0} at commit {1} from streamed scan",
+                new Object[]{streamed.projectInfo().getArtifactId(), gitCommitHash});
+
+        return buildRecord(streamed.projectInfo(), streamed.scanData(), gitCommitHash);
+    }
+
+    /**
+     * Serializes the processed scan data and builds the record.
+     */
+    private ServiceScanRecord buildRecord(ProjectInfo projectInfo, ScanData scanData, String gitCommitHash) {
+        // Serialize in the configured storage format
+        boolean compact = ScanDataFormat.COMPACT_V1.equals(storageFormat);
+        String scanDataJson = compact ? null : serializeScanData(scanData);
+        byte[] scanDataBinary = compact ? ScanDataCodec.encode(scanData) : null;
 
         // Extract service dependencies
         String serviceDependencies = extractServiceDependencies(projectInfo.getServiceDependencies());
@@ -94,9 +191,26 @@ public class ServiceScanRecordFactory {
                 .version(projectInfo.getVersion())
                 .serviceDependencies(serviceDependencies)
                 .scanDataJson(scanDataJson)
+                .scanDataFormat(storageFormat)
+                .scanDataBinary(scanDataBinary)
                 .build();
     }
 
+    /**
+     * Maps the storage format property to a format constant, defaulting to JSON.
+     */
+    private static String resolveStorageFormat(String configured) {
+        if (configured != null && ScanDataFormat.COMPACT_V1.equalsIgnoreCase(configured.trim())) {
+            return ScanDataFormat.COMPACT_V1;
+        }
+        if (configured != null && !configured.isBlank()
+                && !ScanDataFormat.JSON.equalsIgnoreCase(configured.trim())) {
+            LOGGER.log(Level.WARNING, "Ignoring unknown {0} value: {1}",
+                    new Object[]{STORAGE_FORMAT_PROPERTY, configured});
+        }
+        return ScanDataFormat.JSON;
+    }
+
     /**
      * Serializes ScanData to JSON string.
      *
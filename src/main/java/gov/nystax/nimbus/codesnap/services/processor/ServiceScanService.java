@@ -4,20 +4,35 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import gov.nystax.nimbus.codesnap.services.processor.dao.FailedServiceScanDAO;
 import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.LoadedScan;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ScanDataReader;
 import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ServiceCommitPair;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanStatusDAO;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanStatusDAO.ParsedScanStatusRecords;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanStatusDAO.ScanStatusRecords;
 import gov.nystax.nimbus.codesnap.services.processor.domain.FailedServiceScanRecord;
 import gov.nystax.nimbus.codesnap.services.processor.domain.ScanData;
 import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceScanRecord;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceScanRecord.ScanDataFormat;
 import gov.nystax.nimbus.codesnap.services.scanner.domain.ProjectInfo;
 
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -43,25 +58,47 @@ public class ServiceScanService {
     private final ServiceScanRecordFactory recordFactory;
     private final ServiceScanDAO serviceScanDAO;
     private final FailedServiceScanDAO failedServiceScanDAO;
+    private final ServiceScanStatusDAO scanStatusDAO;
+    private final ScanDataCache scanDataCache;
     private final ObjectMapper objectMapper;
+    private final StreamingScanDataReader scanDataReader = new StreamingScanDataReader();
 
     public ServiceScanService() {
         this.recordFactory = new ServiceScanRecordFactory();
         this.serviceScanDAO = new ServiceScanDAO();
         this.failedServiceScanDAO = new FailedServiceScanDAO();
+        this.scanStatusDAO = new ServiceScanStatusDAO();
+        this.scanDataCache = ScanDataCache.shared();
         this.objectMapper = new ObjectMapper();
     }
 
     /**
-     * Constructor for dependency injection.
+     * Constructor for dependency injection. The service uses the shared scan data cache.
      */
     public ServiceScanService(ServiceScanRecordFactory recordFactory,
                                ServiceScanDAO serviceScanDAO,
                                FailedServiceScanDAO failedServiceScanDAO,
                                ObjectMapper objectMapper) {
+        this(recordFactory, serviceScanDAO, failedServiceScanDAO, new ServiceScanStatusDAO(),
+                ScanDataCache.shared(), objectMapper);
+    }
+
+    /**
+     * Constructor for dependency injection, including the combined status DAO and
+     * the parsed scan cache. Pass a separate {@link ScanDataCache} for a service that reads
+     * a different database, since the shared cache is keyed only by service ID and commit.
+     */
+    public ServiceScanService(ServiceScanRecordFactory recordFactory,
+                               ServiceScanDAO serviceScanDAO,
+                               FailedServiceScanDAO failedServiceScanDAO,
+                               ServiceScanStatusDAO scanStatusDAO,
+                               ScanDataCache scanDataCache,
+                               ObjectMapper objectMapper) {
         this.recordFactory = recordFactory;
         this.serviceScanDAO = serviceScanDAO;
         this.failedServiceScanDAO = failedServiceScanDAO;
+        this.scanStatusDAO = scanStatusDAO;
+        this.scanDataCache = scanDataCache;
         this.objectMapper = objectMapper;
     }
 
@@ -82,29 +119,118 @@ public class ServiceScanService {
         LOGGER.log(Level.INFO, "Processing and storing scan for service: {0}, commit: {1}",
                 new Object[]{projectInfo.getArtifactId(), gitCommitHash});
 
+        return store(connection, recordFactory.createRecord(projectInfo, gitCommitHash));
+    }
+
+    /**
+     * Processes a scan from ProjectInfo JSON and stores it in the database, without
+     * materializing the scan's usage lists. The stream is read fully but not closed.
+     * If a scan already exists for the service/commit pair, it will be replaced.
+     *
+     * @param connection the database connection (transaction managed by caller)
+     * @param projectInfoJson the scanner output as JSON
+     * @param gitCommitHash the git commit hash of the scanned code
+     * @return the created ServiceScanRecord
+     * @throws SQLException if a database error occurs
+     * @throws ServiceScanRecordFactory.ScanDataProcessingException if reading or processing fails
+     */
+    public ServiceScanRecord processAndStore(Connection connection,
+                                              InputStream projectInfoJson,
+                                              String gitCommitHash) throws SQLException {
+        ServiceScanRecord record = recordFactory.createRecord(projectInfoJson, gitCommitHash);
+        LOGGER.log(Level.INFO, "Storing streamed scan for service: {0}, commit: {1}",
+                new Object[]{record.getServiceId(), gitCommitHash});
+
+        return store(connection, record);
+    }
+
+    /**
+     * Processes a scan against the stored scan of its parent commit and stores it in the
+     * database. The parent's ScanData is reused only when no file changed, see
+     * {@link ScanDataProcessor#processIncremental}; otherwise, or if the parent has no
+     * stored scan, the scan is processed in full.
+     * If a scan already exists for the service/commit pair, it will be replaced.
+     *
+     * @param connection the database connection (transaction managed by caller)
+     * @param projectInfo the scanner output
+     * @param gitCommitHash the git commit hash of the scanned code
+     * @param parentCommitHash the git commit hash of the parent commit
+     * @param changedFiles the files changed between the parent commit and this one
+     * @return the created ServiceScanRecord
+     * @throws SQLException if a database error occurs
+     * @throws ServiceScanRecordFactory.ScanDataProcessingException if processing fails
+     */
+    public ServiceScanRecord processAndStoreIncremental(Connection connection,
+                                                        ProjectInfo projectInfo,
+                                                        String gitCommitHash,
+                                                        String parentCommitHash,
+                                                        Set<String> changedFiles) throws SQLException {
+        if (projectInfo == null) {
+            throw new IllegalArgumentException("ProjectInfo cannot be null");
+        }
+        LOGGER.log(Level.INFO, "Processing and storing incremental scan for service: {0}, commit: {1}, parent: {2}",
+                new Object[]{projectInfo.getArtifactId(), gitCommitHash, parentCommitHash});
+
+        ScanData previousScanData = findScanData(connection, projectInfo.getArtifactId(), parentCommitHash);
+        if (previousScanData == null) {
+            LOGGER.log(Level.INFO, "No stored scan for parent {0}@{1}, processing in full",
+                    new Object[]{projectInfo.getArtifactId(), parentCommitHash});
+        }
+
+        return store(connection, recordFactory.createIncrementalRecord(
+                projectInfo, previousScanData, changedFiles, gitCommitHash));
+    }
+
+    /**
+     * Returns the stored ScanData for the service and commit, from the cache if possible,
+     * or null if there is no successful scan for them.
+     */
+    private ScanData findScanData(Connection connection, String serviceId, String gitCommitHash)
+            throws SQLException {
+        if (serviceId == null || serviceId.isBlank() || gitCommitHash == null || gitCommitHash.isBlank()) {
+            return null;
+        }
+        ServiceCommitPair pair = new ServiceCommitPair(serviceId, gitCommitHash);
+        ScanDataWithMetadata cached = scanDataCache.get(pair);
+        if (cached != null) {
+            return cached.scanData();
+        }
+
+        List<LoadedScan<ScanData>> loadedScans = serviceScanDAO.findParsedByServiceCommitPairs(
+                connection, List.of(pair), scanDataReader);
+        if (loadedScans.isEmpty()) {
+            return null;
+        }
+        return toCachedScanDataWithMetadata(loadedScans.get(0)).scanData();
+    }
+
+    /**
+     * Stores a new scan record, replacing any existing scan and clearing any failure
+     * recorded for its service/commit pair.
+     */
+    private ServiceScanRecord store(Connection connection, ServiceScanRecord record) throws SQLException {
+        String serviceId = record.getServiceId();
+        String gitCommitHash = record.getGitCommitHash();
+
         // Check if a scan already exists
-        boolean exists = serviceScanDAO.existsByServiceAndCommit(
-                connection, projectInfo.getArtifactId(), gitCommitHash);
+        boolean exists = serviceScanDAO.existsByServiceAndCommit(connection, serviceId, gitCommitHash);
 
         if (exists) {
             LOGGER.log(Level.INFO, "Scan already exists for {0}@{1}, replacing",
-                    new Object[]{projectInfo.getArtifactId(), gitCommitHash});
-            serviceScanDAO.deleteByServiceAndCommit(
-                    connection, projectInfo.getArtifactId(), gitCommitHash);
+                    new Object[]{serviceId, gitCommitHash});
+            serviceScanDAO.deleteByServiceAndCommit(connection, serviceId, gitCommitHash);
         }
 
         // Clear any previous failure record for this service/commit since scan is now successful
-        if (failedServiceScanDAO.existsByServiceAndCommit(
-                connection, projectInfo.getArtifactId(), gitCommitHash)) {
+        if (failedServiceScanDAO.existsByServiceAndCommit(connection, serviceId, gitCommitHash)) {
             LOGGER.log(Level.INFO, "Clearing previous failure record for {0}@{1}",
-                    new Object[]{projectInfo.getArtifactId(), gitCommitHash});
-            failedServiceScanDAO.deleteByServiceAndCommit(
-                    connection, projectInfo.getArtifactId(), gitCommitHash);
+                    new Object[]{serviceId, gitCommitHash});
+            failedServiceScanDAO.deleteByServiceAndCommit(connection, serviceId, gitCommitHash);
         }
 
-        // Create and store the new record
-        ServiceScanRecord record = recordFactory.createRecord(projectInfo, gitCommitHash);
+        // Store the new record
         serviceScanDAO.insert(connection, record);
+        scanDataCache.invalidate(serviceId, gitCommitHash);
 
         return record;
     }
@@ -138,6 +264,7 @@ public class ServiceScanService {
 
         // Clear any existing successful scan for this service/commit
         serviceScanDAO.deleteByServiceAndCommit(connection, serviceId, gitCommitHash);
+        scanDataCache.invalidate(serviceId, gitCommitHash);
 
         // Clear any existing failure record
         if (failedServiceScanDAO.existsByServiceAndCommit(connection, serviceId, gitCommitHash)) {
@@ -253,18 +380,35 @@ public class ServiceScanService {
 
         LOGGER.log(Level.INFO, "Loading {0} scans for build", serviceCommits.size());
 
-        List<ServiceScanRecord> records = serviceScanDAO.findByServiceCommitPairs(
-                connection, serviceCommits);
+        // Serve what we can from the cache and only query the rest
+        Map<String, ScanDataWithMetadata> result = new HashMap<>();
+        List<ServiceCommitPair> uncachedPairs = new ArrayList<>();
+        for (ServiceCommitPair pair : serviceCommits) {
+            ScanDataWithMetadata cached = scanDataCache.get(pair);
+            if (cached != null) {
+                result.put(pair.serviceId(), cached);
+            } else {
+                uncachedPairs.add(pair);
+            }
+        }
+
+        if (uncachedPairs.isEmpty()) {
+            return result;
+        }
+
+        // Scan data is parsed while the CLOB is streamed, without an intermediate String
+        List<LoadedScan<ScanData>> loadedScans = serviceScanDAO.findParsedByServiceCommitPairs(
+                connection, uncachedPairs, scanDataReader);
 
         // Check for missing scans
         Set<String> requestedKeys = new HashSet<>();
-        for (ServiceCommitPair pair : serviceCommits) {
+        for (ServiceCommitPair pair : uncachedPairs) {
             requestedKeys.add(pair.serviceId() + "@" + pair.gitCommitHash());
         }
 
         Set<String> foundKeys = new HashSet<>();
-        for (ServiceScanRecord record : records) {
-            foundKeys.add(record.getServiceId() + "@" + record.getGitCommitHash());
+        for (LoadedScan<ScanData> loadedScan : loadedScans) {
+            foundKeys.add(loadedScan.record().getServiceId() + "@" + loadedScan.record().getGitCommitHash());
         }
 
         Set<String> missingKeys = new HashSet<>(requestedKeys);
@@ -275,23 +419,165 @@ public class ServiceScanService {
             throw new MissingScanException("Missing scans for services: " + missingKeys);
         }
 
-        // Parse and return
-        Map<String, ScanDataWithMetadata> result = new HashMap<>();
-        for (ServiceScanRecord record : records) {
-            ScanData scanData = parseScanDataJson(record.getScanDataJson());
-            ScanDataWithMetadata metadata = new ScanDataWithMetadata(
-                    record.getServiceId(),
-                    record.getGitCommitHash(),
-                    record.isUiService(),
-                    record.getServiceDependencies(),
-                    scanData
-            );
-            result.put(record.getServiceId(), metadata);
+        // Cache and return
+        for (LoadedScan<ScanData> loadedScan : loadedScans) {
+            result.put(loadedScan.record().getServiceId(), toCachedScanDataWithMetadata(loadedScan));
         }
 
         return result;
     }
 
+    /**
+     * Resolves every requested pair for a build in a single combined status pass
+     * and parses the scans that can be built.
+     *
+     * <p>A service with a failure record is reported in {@link BuildScanSet#failedScans()}
+     * and excluded from the loaded scans, matching the failed-scan check that runs
+     * before loading. Pairs served from the cache are still checked for failure records,
+     * since a failure can be recorded after the scan was cached. Pairs found in neither
+     * table are treated as missing.</p>
+     *
+     * @param connection the database connection
+     * @param serviceCommits list of service ID and commit hash pairs
+     * @return the parsed scans keyed by service ID and the failure records
+     * @throws SQLException if a database error occurs
+     * @throws MissingScanException if a pair has neither a scan nor a failure record
+     * @throws ScanDataParseException if JSON parsing fails
+     */
+    public BuildScanSet loadBuildScanSet(Connection connection,
+                                         List<ServiceCommitPair> serviceCommits) throws SQLException {
+        LOGGER.log(Level.INFO, "Loading scan status for {0} services", serviceCommits.size());
+
+        // Cached pairs are known to have a successful scan, so only the rest need a status lookup
+        Map<String, ScanDataWithMetadata> scansByServiceId = new HashMap<>();
+        List<ServiceCommitPair> cachedPairs = new ArrayList<>();
+        List<ServiceCommitPair> uncachedPairs = new ArrayList<>();
+        for (ServiceCommitPair pair : serviceCommits) {
+            ScanDataWithMetadata cached = scanDataCache.get(pair);
+            if (cached != null) {
+                scansByServiceId.putIfAbsent(pair.serviceId(), cached);
+                cachedPairs.add(pair);
+            } else {
+                uncachedPairs.add(pair);
+            }
+        }
+
+        int cachedScans = scansByServiceId.size();
+
+        // They still need the failed-scan check
+        List<FailedServiceScanRecord> failedScans = new ArrayList<>(
+                failedServiceScanDAO.findByServiceCommitPairs(connection, cachedPairs));
+
+        ParsedScanStatusRecords<ScanData> statusRecords = new ParsedScanStatusRecords<>(List.of(), List.of(), 0);
+        MeteredScanDataReader meteredReader = new MeteredScanDataReader(scanDataReader);
+        if (!uncachedPairs.isEmpty()) {
+            statusRecords = scanStatusDAO.findParsedByServiceCommitPairs(connection, uncachedPairs, meteredReader);
+            failedScans.addAll(statusRecords.failedScans());
+        }
+
+        Set<String> failedServiceIds = new HashSet<>();
+        for (FailedServiceScanRecord failure : failedScans) {
+            failedServiceIds.add(failure.getServiceId());
+        }
+        scansByServiceId.keySet().removeAll(failedServiceIds);
+
+        Map<String, LoadedScan<ScanData>> scansByKey = new HashMap<>();
+        for (LoadedScan<ScanData> loadedScan : statusRecords.successfulScans()) {
+            ServiceScanRecord record = loadedScan.record();
+            scansByKey.put(record.getServiceId() + "@" + record.getGitCommitHash(), loadedScan);
+        }
+
+        Set<String> missingKeys = new LinkedHashSet<>();
+        for (ServiceCommitPair pair : uncachedPairs) {
+            if (failedServiceIds.contains(pair.serviceId())) {
+                continue;
+            }
+            String key = pair.serviceId() + "@" + pair.gitCommitHash();
+            LoadedScan<ScanData> loadedScan = scansByKey.get(key);
+            if (loadedScan == null) {
+                missingKeys.add(key);
+            } else if (!scansByServiceId.containsKey(pair.serviceId())) {
+                scansByServiceId.put(pair.serviceId(), toCachedScanDataWithMetadata(loadedScan));
+            }
+        }
+
+        if (!missingKeys.isEmpty()) {
+            LOGGER.log(Level.WARNING, "Missing scans for: {0}", missingKeys);
+            throw new MissingScanException("Missing scans for services: " + missingKeys);
+        }
+
+        return new BuildScanSet(scansByServiceId, failedScans,
+                meteredReader.toStats(cachedScans, statusRecords.roundTrips()));
+    }
+
+    /**
+     * Resolves the status of every requested pair in one combined pass over both
+     * scan tables.
+     *
+     * <p>As with {@link #findByServiceAndCommit}, a successful scan takes precedence
+     * over a failure record for the same pair.</p>
+     *
+     * @param connection the database connection
+     * @param serviceCommits list of service ID and commit hash pairs
+     * @return the result for each distinct pair, in request order
+     * @throws SQLException if a database error occurs
+     */
+    public Map<ServiceCommitPair, ServiceScanResult> findScanStatuses(
+            Connection connection,
+            List<ServiceCommitPair> serviceCommits) throws SQLException {
+
+        ScanStatusRecords statusRecords = scanStatusDAO.findByServiceCommitPairs(connection, serviceCommits);
+
+        Map<ServiceCommitPair, ServiceScanResult> results = new HashMap<>();
+        for (FailedServiceScanRecord failure : statusRecords.failedScans()) {
+            results.put(new ServiceCommitPair(failure.getServiceId(), failure.getGitCommitHash()),
+                    new ServiceScanResult.FailedScan(failure));
+        }
+        for (ServiceScanRecord record : statusRecords.successfulScans()) {
+            results.put(new ServiceCommitPair(record.getServiceId(), record.getGitCommitHash()),
+                    new ServiceScanResult.SuccessfulScan(record));
+        }
+
+        Map<ServiceCommitPair, ServiceScanResult> ordered = new LinkedHashMap<>();
+        for (ServiceCommitPair pair : serviceCommits) {
+            ServiceScanResult result = results.get(pair);
+            ordered.put(pair, result != null
+                    ? result
+                    : new ServiceScanResult.NotFound(pair.serviceId(), pair.gitCommitHash()));
+        }
+
+        return ordered;
+    }
+
+    /**
+     * Returns the scan data cache used by this service.
+     */
+    public ScanDataCache getScanDataCache() {
+        return scanDataCache;
+    }
+
+    /**
+     * Converts a streamed record into the build-time representation and caches it.
+     */
+    private ScanDataWithMetadata toCachedScanDataWithMetadata(LoadedScan<ScanData> loadedScan) {
+        ServiceScanRecord record = loadedScan.record();
+        ScanData scanData = loadedScan.scanData();
+        if (scanData == null) {
+            throw new ScanDataParseException("Scan data is null for "
+                    + record.getServiceId() + "@" + record.getGitCommitHash());
+        }
+        ScanDataWithMetadata metadata = new ScanDataWithMetadata(
+                record.getServiceId(),
+                record.getGitCommitHash(),
+                record.isUiService(),
+                record.getServiceDependencies(),
+                scanData
+        );
+        scanDataCache.put(new ServiceCommitPair(record.getServiceId(), record.getGitCommitHash()),
+                metadata, ScanDataCache.estimateWeight(scanData));
+        return metadata;
+    }
+
     /**
      * Performs topological sort of services based on their dependencies.
      * Services with no dependencies come first, dependent services come after their dependencies.
@@ -390,17 +676,153 @@ public class ServiceScanService {
     }
 
     /**
-     * Parses the SCAN_DATA_JSON CLOB into a ScanData object.
+     * Parses the scan data stream of a SERVICE_SCAN row into a ScanData object.
+     * I/O errors on the stream propagate; malformed or empty data is reported
+     * as a {@link ScanDataParseException}.
      */
-    private ScanData parseScanDataJson(String json) {
-        if (json == null || json.isBlank()) {
-            throw new ScanDataParseException("Scan data JSON is null or blank");
+    private final class StreamingScanDataReader implements ScanDataReader<ScanData> {
+
+        @Override
+        public ScanData readJson(Reader json) throws IOException {
+            try {
+                return objectMapper.readValue(json, ScanData.class);
+            } catch (JsonProcessingException e) {
+                throw new ScanDataParseException("Failed to parse scan data JSON", e);
+            }
         }
 
-        try {
-            return objectMapper.readValue(json, ScanData.class);
-        } catch (JsonProcessingException e) {
-            throw new ScanDataParseException("Failed to parse scan data JSON", e);
+        @Override
+        public ScanData readCompact(String format, InputStream compact) throws IOException {
+            if (!ScanDataFormat.COMPACT_V1.equals(format)) {
+                throw new ScanDataParseException("Unsupported scan data format: " + format);
+            }
+            try {
+                return ScanDataCodec.decode(compact);
+            } catch (ScanDataCodec.MalformedEncodingException e) {
+                throw new ScanDataParseException("Failed to decode compact scan data", e);
+            }
+        }
+    }
+
+    /**
+     * Wraps the scan data reader for one build load, counting what is streamed from the
+     * scan data columns and the time spent parsing it. Parse time includes reading the
+     * stream, since parsing pulls the data from the database as it goes.
+     */
+    private static final class MeteredScanDataReader implements ScanDataReader<ScanData> {
+
+        private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+        private final ScanDataReader<ScanData> delegate;
+        private long charsRead;
+        private long bytesRead;
+        private long parseWallNanos;
+        private long parseCpuNanos;
+
+        MeteredScanDataReader(ScanDataReader<ScanData> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ScanData readJson(Reader json) throws IOException {
+            CountingReader counting = new CountingReader(json);
+            long wallStart = System.nanoTime();
+            long cpuStart = threadCpuNanos();
+            try {
+                return delegate.readJson(counting);
+            } finally {
+                parseWallNanos += System.nanoTime() - wallStart;
+                parseCpuNanos += threadCpuNanos() - cpuStart;
+                charsRead += counting.count;
+            }
+        }
+
+        @Override
+        public ScanData readCompact(String format, InputStream compact) throws IOException {
+            CountingInputStream counting = new CountingInputStream(compact);
+            long wallStart = System.nanoTime();
+            long cpuStart = threadCpuNanos();
+            try {
+                return delegate.readCompact(format, counting);
+            } finally {
+                parseWallNanos += System.nanoTime() - wallStart;
+                parseCpuNanos += threadCpuNanos() - cpuStart;
+                bytesRead += counting.count;
+            }
+        }
+
+        ScanLoadStats toStats(int cachedScans, int roundTrips) {
+            return new ScanLoadStats(cachedScans, roundTrips, charsRead, bytesRead, parseWallNanos, parseCpuNanos);
+        }
+
+        private static long threadCpuNanos() {
+            return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+        }
+    }
+
+    private static final class CountingReader extends FilterReader {
+        private long count;
+
+        CountingReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c >= 0) {
+                count++;
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
         }
     }
 
@@ -408,8 +830,8 @@ public class ServiceScanService {
      * Finds a service scan by service ID and commit hash, checking both successful
      * scans and failed scans tables.
      *
-     * <p>The method first checks the SERVICE_SCAN table for successful scans. If not found,
-     * it checks the FAILED_SERVICE_SCAN table. If not found in either, returns NotFound.
+     * <p>Both tables are probed in a single combined query. A successful scan takes
+     * precedence over a failure record; if neither exists, returns NotFound.
      *
      * @param connection the database connection
      * @param serviceId the service artifact ID
@@ -423,29 +845,12 @@ public class ServiceScanService {
         LOGGER.log(Level.FINE, "Finding service scan for {0}@{1}",
                 new Object[]{serviceId, gitCommitHash});
 
-        // First check for successful scan
-        Optional<ServiceScanRecord> successfulScan = serviceScanDAO.findByServiceAndCommit(
-                connection, serviceId, gitCommitHash);
-
-        if (successfulScan.isPresent()) {
-            LOGGER.log(Level.FINE, "Found successful scan for {0}@{1}",
-                    new Object[]{serviceId, gitCommitHash});
-            return new ServiceScanResult.SuccessfulScan(successfulScan.get());
-        }
-
-        // Check for failed scan
-        Optional<FailedServiceScanRecord> failedScan = failedServiceScanDAO.findByServiceAndCommit(
-                connection, serviceId, gitCommitHash);
-
-        if (failedScan.isPresent()) {
-            LOGGER.log(Level.FINE, "Found failed scan for {0}@{1}",
-                    new Object[]{serviceId, gitCommitHash});
-            return new ServiceScanResult.FailedScan(failedScan.get());
-        }
+        ServiceCommitPair pair = new ServiceCommitPair(serviceId, gitCommitHash);
+        ServiceScanResult result = findScanStatuses(connection, List.of(pair)).get(pair);
 
-        LOGGER.log(Level.FINE, "No scan found for {0}@{1}",
-                new Object[]{serviceId, gitCommitHash});
-        return new ServiceScanResult.NotFound(serviceId, gitCommitHash);
+        LOGGER.log(Level.FINE, "Scan lookup for {0}@{1} resolved to {2}",
+                new Object[]{serviceId, gitCommitHash, result.getClass().getSimpleName()});
+        return result;
     }
 
     /**
@@ -557,6 +962,43 @@ public class ServiceScanService {
         }
     }
 
+    /**
+     * Scans and failure records resolved for a build by {@link #loadBuildScanSet},
+     * and what loading them cost.
+     */
+    public record BuildScanSet(
+            Map<String, ScanDataWithMetadata> scansByServiceId,
+            List<FailedServiceScanRecord> failedScans,
+            ScanLoadStats loadStats
+    ) {
+        public BuildScanSet {
+            scansByServiceId = scansByServiceId != null ? scansByServiceId : new HashMap<>();
+            failedScans = failedScans != null ? failedScans : List.of();
+            loadStats = loadStats != null ? loadStats : ScanLoadStats.NONE;
+        }
+
+        public BuildScanSet(Map<String, ScanDataWithMetadata> scansByServiceId,
+                            List<FailedServiceScanRecord> failedScans) {
+            this(scansByServiceId, failedScans, ScanLoadStats.NONE);
+        }
+    }
+
+    /**
+     * Counters for loading a build's scans.
+     *
+     * @param cachedScans scans served from the scan data cache
+     * @param roundTrips statements sent to the database by the status query, not counting
+     *                   the failed-scan check for cached scans
+     * @param clobCharsRead characters streamed from SCAN_DATA_JSON
+     * @param blobBytesRead bytes streamed from SCAN_DATA_BINARY
+     * @param parseWallNanos wall time spent parsing scan data, including streaming it
+     * @param parseCpuNanos CPU time spent parsing scan data
+     */
+    public record ScanLoadStats(int cachedScans, int roundTrips, long clobCharsRead, long blobBytesRead,
+                                long parseWallNanos, long parseCpuNanos) {
+        public static final ScanLoadStats NONE = new ScanLoadStats(0, 0, 0, 0, 0, 0);
+    }
+
     /**
      * Exception thrown when requested scans are not found in the database.
      */
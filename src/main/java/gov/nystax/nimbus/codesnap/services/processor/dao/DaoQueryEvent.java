@@ -0,0 +1,56 @@
+package gov.nystax.nimbus.codesnap.services.processor.dao;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for one statement sent by a DAO. The event's duration is the
+ * statement's latency, including reading its rows.
+ *
+ * <p>Disabled by default; enable {@value #NAME} in the recording's settings.</p>
+ */
+@Name(DaoQueryEvent.NAME)
+@Label("DAO Query")
+@Description("One statement executed by a CodeSnap DAO")
+@Category({"CodeSnap", "Database"})
+@Enabled(false)
+@StackTrace(false)
+final class DaoQueryEvent extends Event {
+
+    static final String NAME = "gov.nystax.codesnap.DaoQuery";
+
+    @Label("SQL ID")
+    @Description("The DAO and SQL constant the statement was prepared from")
+    String sqlId;
+
+    @Label("Row Count")
+    @Description("Rows read, or rows affected for updates and batches; -1 if the statement failed")
+    long rowCount;
+
+    /**
+     * Creates and begins an event for the statement prepared from the given SQL.
+     */
+    static DaoQueryEvent start(String sqlId) {
+        DaoQueryEvent event = new DaoQueryEvent();
+        event.begin();
+        event.sqlId = sqlId;
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it if it is enabled and over its threshold. Call it from
+     * a finally block, with a row count of -1 if the statement failed.
+     */
+    void finish(long rowCount) {
+        end();
+        if (shouldCommit()) {
+            this.rowCount = rowCount;
+            commit();
+        }
+    }
+}
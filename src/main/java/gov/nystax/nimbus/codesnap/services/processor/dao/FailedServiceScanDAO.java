@@ -64,6 +64,56 @@ public class FailedServiceScanDAO {
             WHERE (SERVICE_ID, GIT_COMMIT_HASH) IN (
             """;
 
+    private static final String SELECT_BY_SERVICE_COMMIT_PREDICATES_SQL_PREFIX = """
+            SELECT FAILURE_ID, SERVICE_ID, GIT_COMMIT_HASH, FAILURE_TIMESTAMP,
+                   GROUP_ID, VERSION, ERROR_TYPE, ERROR_MESSAGE, STACK_TRACE
+            FROM FAILED_SERVICE_SCAN
+            WHERE
+            """;
+
+    private static final String SELECT_BY_KEYS_TEMP_TABLE_SQL = """
+            SELECT f.FAILURE_ID, f.SERVICE_ID, f.GIT_COMMIT_HASH, f.FAILURE_TIMESTAMP,
+                   f.GROUP_ID, f.VERSION, f.ERROR_TYPE, f.ERROR_MESSAGE, f.STACK_TRACE
+            FROM FAILED_SERVICE_SCAN f
+            INNER JOIN SESSION.SERVICE_COMMIT_KEYS k
+                ON f.SERVICE_ID = k.SERVICE_ID AND f.GIT_COMMIT_HASH = k.GIT_COMMIT_HASH
+            """;
+
+    private static final ServiceCommitPairQueries.PairLookupSql PAIR_LOOKUP_SQL =
+            new ServiceCommitPairQueries.PairLookupSql(
+                    "FailedServiceScanDAO.SELECT_BY_SERVICE_COMMIT_PAIRS",
+                    SELECT_BY_SERVICE_COMMIT_PAIRS_SQL_PREFIX,
+                    SELECT_BY_SERVICE_COMMIT_PREDICATES_SQL_PREFIX,
+                    SELECT_BY_KEYS_TEMP_TABLE_SQL);
+
+    private final PairLookupStrategy pairLookupStrategy;
+    private final int batchSize;
+
+    /**
+     * Creates a DAO that loads pairs with chunked row-value IN lists.
+     */
+    public FailedServiceScanDAO() {
+        this(PairLookupStrategy.ROW_VALUE_IN, ServiceCommitPairQueries.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a DAO with an explicit pair lookup strategy.
+     *
+     * @param pairLookupStrategy how {@link #findByServiceCommitPairs} loads its rows;
+     *                           use {@link PairLookupStrategy#OR_PREDICATES} on databases
+     *                           without row value expressions
+     * @param batchSize          maximum number of pairs per statement (or per insert batch
+     *                           for {@link PairLookupStrategy#TEMP_TABLE_JOIN})
+     */
+    public FailedServiceScanDAO(PairLookupStrategy pairLookupStrategy, int batchSize) {
+        if (pairLookupStrategy == null) {
+            throw new IllegalArgumentException("Pair lookup strategy cannot be null");
+        }
+        ServiceCommitPairQueries.validateBatchSize(batchSize);
+        this.pairLookupStrategy = pairLookupStrategy;
+        this.batchSize = batchSize;
+    }
+
     /**
      * Inserts a new failed service scan record into the database.
      *
@@ -99,7 +149,13 @@ public class FailedServiceScanDAO {
                 stmt.setNull(paramIndex++, java.sql.Types.CLOB);
             }
 
-            int rowsAffected = stmt.executeUpdate();
+            DaoQueryEvent event = DaoQueryEvent.start("FailedServiceScanDAO.INSERT");
+            int rowsAffected = -1;
+            try {
+                rowsAffected = stmt.executeUpdate();
+            } finally {
+                event.finish(rowsAffected);
+            }
             if (rowsAffected != 1) {
                 throw new SQLException("Expected 1 row affected, but got " + rowsAffected);
             }
@@ -128,12 +184,16 @@ public class FailedServiceScanDAO {
             stmt.setString(1, serviceId);
             stmt.setString(2, gitCommitHash);
 
+            DaoQueryEvent event = DaoQueryEvent.start("FailedServiceScanDAO.SELECT_BY_SERVICE_AND_COMMIT");
+            long rowCount = -1;
+            Optional<FailedServiceScanRecord> found;
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapResultSetToRecord(rs));
-                }
-                return Optional.empty();
+                found = rs.next() ? Optional.of(mapResultSetToRecord(rs)) : Optional.empty();
+                rowCount = found.isPresent() ? 1 : 0;
+            } finally {
+                event.finish(rowCount);
             }
+            return found;
         }
     }
 
@@ -151,12 +211,16 @@ public class FailedServiceScanDAO {
         try (PreparedStatement stmt = connection.prepareStatement(SELECT_BY_FAILURE_ID_SQL)) {
             stmt.setString(1, failureId);
 
+            DaoQueryEvent event = DaoQueryEvent.start("FailedServiceScanDAO.SELECT_BY_FAILURE_ID");
+            long rowCount = -1;
+            Optional<FailedServiceScanRecord> found;
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapResultSetToRecord(rs));
-                }
-                return Optional.empty();
+                found = rs.next() ? Optional.of(mapResultSetToRecord(rs)) : Optional.empty();
+                rowCount = found.isPresent() ? 1 : 0;
+            } finally {
+                event.finish(rowCount);
             }
+            return found;
         }
     }
 
@@ -164,6 +228,10 @@ public class FailedServiceScanDAO {
      * Finds multiple failed service scan records by their service ID and commit hash pairs.
      * This is used during build time to check for failed scans.
      *
+     * <p>Duplicate pairs are collapsed and the rest are loaded in chunks of at most
+     * {@code batchSize} pairs per statement, so a build pays a handful of queries
+     * instead of one per service.</p>
+     *
      * @param connection         the database connection
      * @param serviceCommitPairs list of service ID and commit hash pairs
      * @return list of found failed records (order not guaranteed)
@@ -175,19 +243,18 @@ public class FailedServiceScanDAO {
             return new ArrayList<>();
         }
 
-        LOGGER.log(Level.INFO, "Finding failed scans for {0} service/commit pairs",
-                serviceCommitPairs.size());
+        List<ServiceScanDAO.ServiceCommitPair> distinctPairs =
+                ServiceCommitPairQueries.distinct(serviceCommitPairs);
 
-        List<FailedServiceScanRecord> results = new ArrayList<>();
+        LOGGER.log(Level.INFO, "Finding failed scans for {0} service/commit pairs using {1}",
+                new Object[]{distinctPairs.size(), pairLookupStrategy});
 
-        for (ServiceScanDAO.ServiceCommitPair pair : serviceCommitPairs) {
-            Optional<FailedServiceScanRecord> record = findByServiceAndCommit(
-                    connection, pair.serviceId(), pair.gitCommitHash());
-            record.ifPresent(results::add);
-        }
+        List<FailedServiceScanRecord> results = ServiceCommitPairQueries.findByPairs(
+                connection, distinctPairs, pairLookupStrategy, batchSize, PAIR_LOOKUP_SQL,
+                this::mapResultSetToRecord);
 
         LOGGER.log(Level.INFO, "Found {0} failed scans of {1} requested",
-                new Object[]{results.size(), serviceCommitPairs.size()});
+                new Object[]{results.size(), distinctPairs.size()});
 
         return results;
     }
@@ -208,9 +275,16 @@ public class FailedServiceScanDAO {
             stmt.setString(1, serviceId);
             stmt.setString(2, gitCommitHash);
 
+            DaoQueryEvent event = DaoQueryEvent.start("FailedServiceScanDAO.EXISTS_BY_SERVICE_AND_COMMIT");
+            long rowCount = -1;
+            boolean exists;
             try (ResultSet rs = stmt.executeQuery()) {
-                return rs.next();
+                exists = rs.next();
+                rowCount = exists ? 1 : 0;
+            } finally {
+                event.finish(rowCount);
             }
+            return exists;
         }
     }
 
@@ -234,7 +308,13 @@ public class FailedServiceScanDAO {
             stmt.setString(1, serviceId);
             stmt.setString(2, gitCommitHash);
 
-            int rowsAffected = stmt.executeUpdate();
+            DaoQueryEvent event = DaoQueryEvent.start("FailedServiceScanDAO.DELETE_BY_SERVICE_AND_COMMIT");
+            int rowsAffected = -1;
+            try {
+                rowsAffected = stmt.executeUpdate();
+            } finally {
+                event.finish(rowsAffected);
+            }
             if (rowsAffected > 0) {
                 LOGGER.log(Level.INFO, "Deleted FailedServiceScanRecord: serviceId={0}, gitCommitHash={1}",
                         new Object[]{serviceId, gitCommitHash});
@@ -261,7 +341,7 @@ public class FailedServiceScanDAO {
         // Handle CLOB
         Clob clob = rs.getClob("STACK_TRACE");
         if (clob != null) {
-            record.setStackTrace(clob.getSubString(1, (int) clob.length()));
+            record.setStackTrace(LobSupport.readString(clob));
         }
 
         return record;
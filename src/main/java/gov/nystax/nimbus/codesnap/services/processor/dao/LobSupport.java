@@ -0,0 +1,92 @@
+package gov.nystax.nimbus.codesnap.services.processor.dao;
+
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ScanDataReader;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceScanRecord;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+
+/**
+ * CLOB and BLOB helpers shared by the DAOs.
+ *
+ * <p>Every method frees the LOB before returning so that drivers holding LOB
+ * locators (DB2 does by default) can release them without waiting for the
+ * result set or connection to close.</p>
+ */
+final class LobSupport {
+
+    private LobSupport() {
+    }
+
+    /**
+     * Materializes the CLOB as a String.
+     *
+     * @throws SQLException if the CLOB is too long to fit in a String or cannot be read
+     */
+    static String readString(Clob clob) throws SQLException {
+        try {
+            long length = clob.length();
+            if (length > Integer.MAX_VALUE) {
+                throw new SQLException("CLOB of " + length
+                        + " characters is too large to read into a String");
+            }
+            return length == 0 ? "" : clob.getSubString(1, (int) length);
+        } finally {
+            clob.free();
+        }
+    }
+
+    /**
+     * Streams the CLOB's character stream into the reader without building an
+     * intermediate String.
+     *
+     * @throws SQLException if the character stream cannot be read
+     */
+    static <T> T read(Clob clob, ScanDataReader<T> scanDataReader) throws SQLException {
+        try (Reader reader = clob.getCharacterStream()) {
+            return scanDataReader.readJson(reader);
+        } catch (IOException e) {
+            throw new SQLException("Failed to read CLOB character stream", e);
+        } finally {
+            clob.free();
+        }
+    }
+
+    /**
+     * Materializes the BLOB as a byte array.
+     *
+     * @throws SQLException if the BLOB is too long to fit in an array or cannot be read
+     */
+    static byte[] readBytes(Blob blob) throws SQLException {
+        try {
+            long length = blob.length();
+            if (length > Integer.MAX_VALUE) {
+                throw new SQLException("BLOB of " + length
+                        + " bytes is too large to read into an array");
+            }
+            return length == 0 ? new byte[0] : blob.getBytes(1, (int) length);
+        } finally {
+            blob.free();
+        }
+    }
+
+    /**
+     * Streams the BLOB's binary stream into the reader's compact path.
+     *
+     * @throws SQLException if the binary stream cannot be read
+     */
+    static <T> T read(Blob blob, ServiceScanRecord record, ScanDataReader<T> scanDataReader)
+            throws SQLException {
+        try (InputStream in = blob.getBinaryStream()) {
+            return scanDataReader.readCompact(record.getScanDataFormat(), in);
+        } catch (IOException e) {
+            throw new SQLException("Failed to read BLOB binary stream", e);
+        } finally {
+            blob.free();
+        }
+    }
+}
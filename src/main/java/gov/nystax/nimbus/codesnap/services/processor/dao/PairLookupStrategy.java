@@ -0,0 +1,36 @@
+package gov.nystax.nimbus.codesnap.services.processor.dao;
+
+/**
+ * Strategy used by the DAOs to load many rows by their (SERVICE_ID, GIT_COMMIT_HASH)
+ * composite key in a bounded number of statements.
+ *
+ * <p>The right choice depends on the database dialect:</p>
+ * <ul>
+ *   <li>{@link #ROW_VALUE_IN} - for databases that support row value expressions
+ *       (DB2 LUW, DB2 for z/OS, PostgreSQL, MySQL). Pairs are sent as chunked
+ *       {@code (SERVICE_ID, GIT_COMMIT_HASH) IN ((?, ?), ...)} lists.</li>
+ *   <li>{@link #TEMP_TABLE_JOIN} - for DB2 installations with a user temporary tablespace.
+ *       Pairs are batch-inserted into a declared global temporary table and joined
+ *       in a single select, regardless of how many pairs are requested.</li>
+ *   <li>{@link #OR_PREDICATES} - fallback for databases without row value expressions
+ *       (Derby, SQL Server, H2 in some modes). Pairs are sent as chunked
+ *       {@code (SERVICE_ID = ? AND GIT_COMMIT_HASH = ?) OR ...} predicates.</li>
+ * </ul>
+ */
+public enum PairLookupStrategy {
+
+    /**
+     * Chunked row-value IN lists, one select per chunk.
+     */
+    ROW_VALUE_IN,
+
+    /**
+     * Session temporary table populated by batch insert, joined in one select.
+     */
+    TEMP_TABLE_JOIN,
+
+    /**
+     * Chunked OR-of-AND predicates, one select per chunk.
+     */
+    OR_PREDICATES
+}
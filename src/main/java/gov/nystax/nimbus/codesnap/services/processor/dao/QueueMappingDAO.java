@@ -62,12 +62,16 @@ public class QueueMappingDAO {
             stmt.setString(1, targetType);
             stmt.setString(2, targetName);
 
+            DaoQueryEvent event = DaoQueryEvent.start("QueueMappingDAO.SELECT_BY_TARGET");
+            long rowCount = -1;
+            Optional<String> found;
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(rs.getString("QUEUE_NAME"));
-                }
-                return Optional.empty();
+                found = rs.next() ? Optional.of(rs.getString("QUEUE_NAME")) : Optional.empty();
+                rowCount = found.isPresent() ? 1 : 0;
+            } finally {
+                event.finish(rowCount);
             }
+            return found;
         }
     }
 
@@ -110,16 +114,21 @@ public class QueueMappingDAO {
         try (PreparedStatement stmt = connection.prepareStatement(SELECT_BY_QUEUE_NAME_SQL)) {
             stmt.setString(1, queueName);
 
+            DaoQueryEvent event = DaoQueryEvent.start("QueueMappingDAO.SELECT_BY_QUEUE_NAME");
+            long rowCount = -1;
+            Optional<QueueMapping> found;
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(new QueueMapping(
-                            rs.getString("QUEUE_NAME"),
-                            rs.getString("TARGET_TYPE"),
-                            rs.getString("TARGET_NAME")
-                    ));
-                }
-                return Optional.empty();
+                found = rs.next()
+                        ? Optional.of(new QueueMapping(
+                                rs.getString("QUEUE_NAME"),
+                                rs.getString("TARGET_TYPE"),
+                                rs.getString("TARGET_NAME")))
+                        : Optional.empty();
+                rowCount = found.isPresent() ? 1 : 0;
+            } finally {
+                event.finish(rowCount);
             }
+            return found;
         }
     }
 
@@ -148,7 +157,13 @@ public class QueueMappingDAO {
             stmt.setString(2, targetType);
             stmt.setString(3, targetName);
 
-            int rowsAffected = stmt.executeUpdate();
+            DaoQueryEvent event = DaoQueryEvent.start("QueueMappingDAO.INSERT");
+            int rowsAffected = -1;
+            try {
+                rowsAffected = stmt.executeUpdate();
+            } finally {
+                event.finish(rowsAffected);
+            }
             if (rowsAffected != 1) {
                 throw new SQLException("Expected 1 row affected, but got " + rowsAffected);
             }
@@ -180,7 +195,13 @@ public class QueueMappingDAO {
             stmt.setString(2, targetName);
             stmt.setString(3, queueName);
 
-            int rowsAffected = stmt.executeUpdate();
+            DaoQueryEvent event = DaoQueryEvent.start("QueueMappingDAO.UPDATE");
+            int rowsAffected = -1;
+            try {
+                rowsAffected = stmt.executeUpdate();
+            } finally {
+                event.finish(rowsAffected);
+            }
             if (rowsAffected > 0) {
                 LOGGER.log(Level.INFO, "Updated QueueMapping: queueName={0}", queueName);
             }
@@ -221,7 +242,13 @@ public class QueueMappingDAO {
         try (PreparedStatement stmt = connection.prepareStatement(DELETE_SQL)) {
             stmt.setString(1, queueName);
 
-            int rowsAffected = stmt.executeUpdate();
+            DaoQueryEvent event = DaoQueryEvent.start("QueueMappingDAO.DELETE");
+            int rowsAffected = -1;
+            try {
+                rowsAffected = stmt.executeUpdate();
+            } finally {
+                event.finish(rowsAffected);
+            }
             if (rowsAffected > 0) {
                 LOGGER.log(Level.INFO, "Deleted QueueMapping: queueName={0}", queueName);
             }
@@ -0,0 +1,265 @@
+package gov.nystax.nimbus.codesnap.services.processor.dao;
+
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ServiceCommitPair;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * SQL helpers shared by the DAOs for batched lookups on the
+ * (SERVICE_ID, GIT_COMMIT_HASH) composite key.
+ *
+ * <p>Pairs are de-duplicated before they are sent so that repeated keys in a
+ * build request do not inflate the statement or the result set.</p>
+ */
+final class ServiceCommitPairQueries {
+
+    /**
+     * Default number of pairs per statement. Two parameters are bound per pair,
+     * which keeps each statement well below DB2's parameter marker limit.
+     */
+    static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * Session temporary table holding the keys for {@link PairLookupStrategy#TEMP_TABLE_JOIN}.
+     */
+    static final String KEYS_TEMP_TABLE = "SESSION.SERVICE_COMMIT_KEYS";
+
+    private static final String DECLARE_KEYS_TEMP_TABLE_SQL = """
+            DECLARE GLOBAL TEMPORARY TABLE SESSION.SERVICE_COMMIT_KEYS (
+                SERVICE_ID      VARCHAR(100) NOT NULL,
+                GIT_COMMIT_HASH VARCHAR(64)  NOT NULL
+            ) ON COMMIT PRESERVE ROWS NOT LOGGED WITH REPLACE
+            """;
+
+    private static final String INSERT_KEY_SQL = """
+            INSERT INTO SESSION.SERVICE_COMMIT_KEYS (SERVICE_ID, GIT_COMMIT_HASH)
+            VALUES (?, ?)
+            """;
+
+    private ServiceCommitPairQueries() {
+    }
+
+    /**
+     * Maps the current row of a result set to a record.
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * The per-table SQL needed by each {@link PairLookupStrategy}.
+     *
+     * @param sqlId identifies the lookup in {@link DaoQueryEvent}s; the strategy is appended
+     * @param rowValueInPrefix select ending in {@code (SERVICE_ID, GIT_COMMIT_HASH) IN (}
+     * @param orPredicatePrefix select ending in {@code WHERE}
+     * @param tempTableJoinSql select joining the table against {@link #KEYS_TEMP_TABLE}
+     */
+    record PairLookupSql(String sqlId, String rowValueInPrefix, String orPredicatePrefix, String tempTableJoinSql) {
+    }
+
+    /**
+     * Loads every row matching one of the pairs using the given strategy.
+     * The pairs are expected to be distinct already.
+     */
+    static <T> List<T> findByPairs(Connection connection,
+                                   List<ServiceCommitPair> pairs,
+                                   PairLookupStrategy strategy,
+                                   int batchSize,
+                                   PairLookupSql sql,
+                                   RowMapper<T> rowMapper) throws SQLException {
+        List<T> results = new ArrayList<>();
+        if (pairs.isEmpty()) {
+            return results;
+        }
+
+        if (strategy == PairLookupStrategy.TEMP_TABLE_JOIN) {
+            loadKeysTempTable(connection, pairs, batchSize);
+            DaoQueryEvent event = DaoQueryEvent.start(sql.sqlId() + "." + strategy);
+            long rowCount = -1;
+            try (PreparedStatement stmt = connection.prepareStatement(sql.tempTableJoinSql());
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(rowMapper.map(rs));
+                }
+                rowCount = results.size();
+            } finally {
+                event.finish(rowCount);
+            }
+            return results;
+        }
+
+        for (List<ServiceCommitPair> chunk : partition(pairs, batchSize)) {
+            String chunkSql = strategy == PairLookupStrategy.ROW_VALUE_IN
+                    ? rowValueInSql(sql.rowValueInPrefix(), chunk.size())
+                    : orPredicateSql(sql.orPredicatePrefix(), chunk.size());
+
+            try (PreparedStatement stmt = connection.prepareStatement(chunkSql)) {
+                bindPairs(stmt, chunk, 1);
+
+                DaoQueryEvent event = DaoQueryEvent.start(sql.sqlId() + "." + strategy);
+                long rowCount = -1;
+                int rowsBefore = results.size();
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        results.add(rowMapper.map(rs));
+                    }
+                    rowCount = results.size() - rowsBefore;
+                } finally {
+                    event.finish(rowCount);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Removes duplicate pairs while preserving the order of first occurrence.
+     */
+    static List<ServiceCommitPair> distinct(List<ServiceCommitPair> pairs) {
+        return new ArrayList<>(new LinkedHashSet<>(pairs));
+    }
+
+    /**
+     * Splits the pairs into consecutive chunks of at most {@code batchSize} entries.
+     */
+    static List<List<ServiceCommitPair>> partition(List<ServiceCommitPair> pairs, int batchSize) {
+        validateBatchSize(batchSize);
+        List<List<ServiceCommitPair>> chunks = new ArrayList<>();
+        for (int start = 0; start < pairs.size(); start += batchSize) {
+            chunks.add(pairs.subList(start, Math.min(start + batchSize, pairs.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Completes a select prefix ending in {@code (SERVICE_ID, GIT_COMMIT_HASH) IN (}
+     * with one {@code (?, ?)} row value per pair and the closing parenthesis.
+     */
+    static String rowValueInSql(String sqlPrefix, int pairCount) {
+        if (pairCount <= 0) {
+            throw new IllegalArgumentException("Pair count must be positive");
+        }
+        StringBuilder sql = new StringBuilder(sqlPrefix.length() + pairCount * 8);
+        sql.append(sqlPrefix);
+        for (int i = 0; i < pairCount; i++) {
+            sql.append(i == 0 ? "    (?, ?)" : ", (?, ?)");
+        }
+        sql.append("\n)");
+        return sql.toString();
+    }
+
+    /**
+     * Completes a select prefix ending in {@code WHERE} with one
+     * {@code (SERVICE_ID = ? AND GIT_COMMIT_HASH = ?)} predicate per pair, joined by OR.
+     */
+    static String orPredicateSql(String sqlPrefix, int pairCount) {
+        if (pairCount <= 0) {
+            throw new IllegalArgumentException("Pair count must be positive");
+        }
+        StringBuilder sql = new StringBuilder(sqlPrefix.length() + pairCount * 48);
+        sql.append(sqlPrefix);
+        for (int i = 0; i < pairCount; i++) {
+            sql.append(i == 0 ? "    " : "\n OR ");
+            sql.append("(SERVICE_ID = ? AND GIT_COMMIT_HASH = ?)");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Builds a stand-alone WHERE predicate matching {@code pairCount} pairs, for
+     * statements that need the pair filter in more than one place.
+     *
+     * @param strategy {@link PairLookupStrategy#ROW_VALUE_IN} or {@link PairLookupStrategy#OR_PREDICATES}
+     */
+    static String pairPredicate(PairLookupStrategy strategy, int pairCount) {
+        return switch (strategy) {
+            case ROW_VALUE_IN -> rowValueInSql("(SERVICE_ID, GIT_COMMIT_HASH) IN (\n", pairCount);
+            case OR_PREDICATES -> "(\n" + orPredicateSql("", pairCount) + "\n)";
+            case TEMP_TABLE_JOIN -> throw new IllegalArgumentException(
+                    "Temp table lookups do not use an inline pair predicate");
+        };
+    }
+
+    /**
+     * Binds the pairs as consecutive (serviceId, gitCommitHash) parameters.
+     *
+     * @return the next free parameter index
+     */
+    static int bindPairs(PreparedStatement stmt, List<ServiceCommitPair> pairs, int startIndex)
+            throws SQLException {
+        int paramIndex = startIndex;
+        for (ServiceCommitPair pair : pairs) {
+            stmt.setString(paramIndex++, pair.serviceId());
+            stmt.setString(paramIndex++, pair.gitCommitHash());
+        }
+        return paramIndex;
+    }
+
+    /**
+     * (Re)declares {@link #KEYS_TEMP_TABLE} for the current session and batch-inserts
+     * the pairs into it, flushing every {@code batchSize} rows.
+     *
+     * <p>Requires a USER TEMPORARY tablespace on the DB2 instance.</p>
+     *
+     * @return the number of statements sent to the database
+     */
+    static int loadKeysTempTable(Connection connection, List<ServiceCommitPair> pairs, int batchSize)
+            throws SQLException {
+        validateBatchSize(batchSize);
+        try (Statement declare = connection.createStatement()) {
+            DaoQueryEvent event = DaoQueryEvent.start("ServiceCommitPairQueries.DECLARE_KEYS_TEMP_TABLE");
+            long rowCount = -1;
+            try {
+                declare.execute(DECLARE_KEYS_TEMP_TABLE_SQL);
+                rowCount = 0;
+            } finally {
+                event.finish(rowCount);
+            }
+        }
+        int roundTrips = 1;
+
+        try (PreparedStatement stmt = connection.prepareStatement(INSERT_KEY_SQL)) {
+            int pending = 0;
+            for (ServiceCommitPair pair : pairs) {
+                stmt.setString(1, pair.serviceId());
+                stmt.setString(2, pair.gitCommitHash());
+                stmt.addBatch();
+                if (++pending == batchSize) {
+                    executeKeyBatch(stmt, pending);
+                    roundTrips++;
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                executeKeyBatch(stmt, pending);
+                roundTrips++;
+            }
+        }
+        return roundTrips;
+    }
+
+    private static void executeKeyBatch(PreparedStatement stmt, int rows) throws SQLException {
+        DaoQueryEvent event = DaoQueryEvent.start("ServiceCommitPairQueries.INSERT_KEY");
+        long rowCount = -1;
+        try {
+            stmt.executeBatch();
+            rowCount = rows;
+        } finally {
+            event.finish(rowCount);
+        }
+    }
+
+    static void validateBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+    }
+}
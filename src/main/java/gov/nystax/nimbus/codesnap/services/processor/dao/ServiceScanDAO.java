@@ -2,6 +2,10 @@ package gov.nystax.nimbus.codesnap.services.processor.dao;
 
 import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceScanRecord;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -28,20 +32,48 @@ public class ServiceScanDAO {
     private static final String INSERT_SQL = """
             INSERT INTO SERVICE_SCAN (
                 SCAN_ID, SERVICE_ID, GIT_COMMIT_HASH, SCAN_TIMESTAMP,
-                IS_UI_SERVICE, GROUP_ID, VERSION, SERVICE_DEPENDENCIES, SCAN_DATA_JSON
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                IS_UI_SERVICE, GROUP_ID, VERSION, SERVICE_DEPENDENCIES, SCAN_DATA_JSON,
+                SCAN_DATA_FORMAT, SCAN_DATA_BINARY
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             """;
 
     private static final String SELECT_BY_SERVICE_AND_COMMIT_SQL = """
             SELECT SCAN_ID, SERVICE_ID, GIT_COMMIT_HASH, SCAN_TIMESTAMP,
-                   IS_UI_SERVICE, GROUP_ID, VERSION, SERVICE_DEPENDENCIES, SCAN_DATA_JSON
+                   IS_UI_SERVICE, GROUP_ID, VERSION, SERVICE_DEPENDENCIES, SCAN_DATA_JSON,
+                   SCAN_DATA_FORMAT, SCAN_DATA_BINARY
             FROM SERVICE_SCAN
             WHERE SERVICE_ID = ? AND GIT_COMMIT_HASH = ?
             """;
 
+    private static final String SELECT_BY_SERVICE_COMMIT_PAIRS_SQL_PREFIX = """
+            SELECT SCAN_ID, SERVICE_ID, GIT_COMMIT_HASH, SCAN_TIMESTAMP,
+                   IS_UI_SERVICE, GROUP_ID, VERSION, SERVICE_DEPENDENCIES, SCAN_DATA_JSON,
+                   SCAN_DATA_FORMAT, SCAN_DATA_BINARY
+            FROM SERVICE_SCAN
+            WHERE (SERVICE_ID, GIT_COMMIT_HASH) IN (
+            """;
+
+    private static final String SELECT_BY_SERVICE_COMMIT_PREDICATES_SQL_PREFIX = """
+            SELECT SCAN_ID, SERVICE_ID, GIT_COMMIT_HASH, SCAN_TIMESTAMP,
+                   IS_UI_SERVICE, GROUP_ID, VERSION, SERVICE_DEPENDENCIES, SCAN_DATA_JSON,
+                   SCAN_DATA_FORMAT, SCAN_DATA_BINARY
+            FROM SERVICE_SCAN
+            WHERE
+            """;
+
+    private static final String SELECT_BY_KEYS_TEMP_TABLE_SQL = """
+            SELECT s.SCAN_ID, s.SERVICE_ID, s.GIT_COMMIT_HASH, s.SCAN_TIMESTAMP,
+                   s.IS_UI_SERVICE, s.GROUP_ID, s.VERSION, s.SERVICE_DEPENDENCIES, s.SCAN_DATA_JSON,
+                   s.SCAN_DATA_FORMAT, s.SCAN_DATA_BINARY
+            FROM SERVICE_SCAN s
+            INNER JOIN SESSION.SERVICE_COMMIT_KEYS k
+                ON s.SERVICE_ID = k.SERVICE_ID AND s.GIT_COMMIT_HASH = k.GIT_COMMIT_HASH
+            """;
+
     private static final String SELECT_BY_SCAN_ID_SQL = """
             SELECT SCAN_ID, SERVICE_ID, GIT_COMMIT_HASH, SCAN_TIMESTAMP,
-                   IS_UI_SERVICE, GROUP_ID, VERSION, SERVICE_DEPENDENCIES, SCAN_DATA_JSON
+                   IS_UI_SERVICE, GROUP_ID, VERSION, SERVICE_DEPENDENCIES, SCAN_DATA_JSON,
+                   SCAN_DATA_FORMAT, SCAN_DATA_BINARY
             FROM SERVICE_SCAN
             WHERE SCAN_ID = ?
             """;
@@ -57,6 +89,39 @@ public class ServiceScanDAO {
             WHERE SERVICE_ID = ? AND GIT_COMMIT_HASH = ?
             """;
 
+    private static final ServiceCommitPairQueries.PairLookupSql PAIR_LOOKUP_SQL =
+            new ServiceCommitPairQueries.PairLookupSql(
+                    "ServiceScanDAO.SELECT_BY_SERVICE_COMMIT_PAIRS",
+                    SELECT_BY_SERVICE_COMMIT_PAIRS_SQL_PREFIX,
+                    SELECT_BY_SERVICE_COMMIT_PREDICATES_SQL_PREFIX,
+                    SELECT_BY_KEYS_TEMP_TABLE_SQL);
+
+    private final PairLookupStrategy pairLookupStrategy;
+    private final int batchSize;
+
+    /**
+     * Creates a DAO that loads pairs with chunked row-value IN lists.
+     */
+    public ServiceScanDAO() {
+        this(PairLookupStrategy.ROW_VALUE_IN, ServiceCommitPairQueries.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a DAO with an explicit pair lookup strategy.
+     *
+     * @param pairLookupStrategy how {@link #findByServiceCommitPairs} loads its rows
+     * @param batchSize maximum number of pairs per statement (or per insert batch
+     *                  for {@link PairLookupStrategy#TEMP_TABLE_JOIN})
+     */
+    public ServiceScanDAO(PairLookupStrategy pairLookupStrategy, int batchSize) {
+        if (pairLookupStrategy == null) {
+            throw new IllegalArgumentException("Pair lookup strategy cannot be null");
+        }
+        ServiceCommitPairQueries.validateBatchSize(batchSize);
+        this.pairLookupStrategy = pairLookupStrategy;
+        this.batchSize = batchSize;
+    }
+
     /**
      * Inserts a new service scan record into the database.
      *
@@ -71,6 +136,8 @@ public class ServiceScanDAO {
         LOGGER.log(Level.FINE, "Inserting ServiceScanRecord: serviceId={0}, gitCommitHash={1}",
                 new Object[]{record.getServiceId(), record.getGitCommitHash()});
 
+        Clob clob = null;
+        Blob blob = null;
         try (PreparedStatement stmt = connection.prepareStatement(INSERT_SQL)) {
             int paramIndex = 1;
             stmt.setString(paramIndex++, record.getScanId());
@@ -85,20 +152,48 @@ public class ServiceScanDAO {
             // Handle CLOB for scan data JSON
             String scanDataJson = record.getScanDataJson();
             if (scanDataJson != null) {
-                Clob clob = connection.createClob();
+                clob = connection.createClob();
                 clob.setString(1, scanDataJson);
                 stmt.setClob(paramIndex++, clob);
             } else {
                 stmt.setNull(paramIndex++, java.sql.Types.CLOB);
             }
 
-            int rowsAffected = stmt.executeUpdate();
+            // Handle BLOB for compact scan data
+            stmt.setString(paramIndex++, record.getScanDataFormat());
+            byte[] scanDataBinary = record.getScanDataBinary();
+            if (scanDataBinary != null) {
+                blob = connection.createBlob();
+                blob.setBytes(1, scanDataBinary);
+                stmt.setBlob(paramIndex++, blob);
+            } else {
+                stmt.setNull(paramIndex++, java.sql.Types.BLOB);
+            }
+
+            DaoQueryEvent event = DaoQueryEvent.start("ServiceScanDAO.INSERT");
+            int rowsAffected = -1;
+            try {
+                rowsAffected = stmt.executeUpdate();
+            } finally {
+                event.finish(rowsAffected);
+            }
             if (rowsAffected != 1) {
                 throw new SQLException("Expected 1 row affected, but got " + rowsAffected);
             }
 
             LOGGER.log(Level.INFO, "Successfully inserted ServiceScanRecord: scanId={0}",
                     record.getScanId());
+        } finally {
+            // Release the LOB locators once the driver has sent them
+            try {
+                if (clob != null) {
+                    clob.free();
+                }
+            } finally {
+                if (blob != null) {
+                    blob.free();
+                }
+            }
         }
     }
 
@@ -121,12 +216,16 @@ public class ServiceScanDAO {
             stmt.setString(1, serviceId);
             stmt.setString(2, gitCommitHash);
 
+            DaoQueryEvent event = DaoQueryEvent.start("ServiceScanDAO.SELECT_BY_SERVICE_AND_COMMIT");
+            long rowCount = -1;
+            Optional<ServiceScanRecord> found;
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapResultSetToRecord(rs));
-                }
-                return Optional.empty();
+                found = rs.next() ? Optional.of(mapResultSetToRecord(rs)) : Optional.empty();
+                rowCount = found.isPresent() ? 1 : 0;
+            } finally {
+                event.finish(rowCount);
             }
+            return found;
         }
     }
 
@@ -144,12 +243,16 @@ public class ServiceScanDAO {
         try (PreparedStatement stmt = connection.prepareStatement(SELECT_BY_SCAN_ID_SQL)) {
             stmt.setString(1, scanId);
 
+            DaoQueryEvent event = DaoQueryEvent.start("ServiceScanDAO.SELECT_BY_SCAN_ID");
+            long rowCount = -1;
+            Optional<ServiceScanRecord> found;
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapResultSetToRecord(rs));
-                }
-                return Optional.empty();
+                found = rs.next() ? Optional.of(mapResultSetToRecord(rs)) : Optional.empty();
+                rowCount = found.isPresent() ? 1 : 0;
+            } finally {
+                event.finish(rowCount);
             }
+            return found;
         }
     }
 
@@ -157,6 +260,11 @@ public class ServiceScanDAO {
      * Finds multiple service scan records by their service ID and commit hash pairs.
      * This is the main method used during build time to load all relevant scans.
      *
+     * <p>Duplicate pairs are collapsed, and the remaining pairs are loaded in
+     * {@code ceil(N / batchSize)} statements with {@link PairLookupStrategy#ROW_VALUE_IN}
+     * or {@link PairLookupStrategy#OR_PREDICATES}, or with one batch-populated temp table
+     * and a single join with {@link PairLookupStrategy#TEMP_TABLE_JOIN}.</p>
+     *
      * @param connection the database connection
      * @param serviceCommitPairs list of service ID and commit hash pairs
      * @return list of found records (order not guaranteed)
@@ -168,23 +276,56 @@ public class ServiceScanDAO {
             return new ArrayList<>();
         }
 
-        LOGGER.log(Level.INFO, "Finding {0} ServiceScanRecords by service/commit pairs",
-                serviceCommitPairs.size());
-
-        // Build dynamic IN clause for composite key lookup
-        // Note: DB2 supports row value expressions, but for compatibility we use individual queries
-        // For large batches, consider using a temporary table approach
-        
-        List<ServiceScanRecord> results = new ArrayList<>();
-        
-        for (ServiceCommitPair pair : serviceCommitPairs) {
-            Optional<ServiceScanRecord> record = findByServiceAndCommit(
-                    connection, pair.serviceId(), pair.gitCommitHash());
-            record.ifPresent(results::add);
+        List<ServiceCommitPair> distinctPairs = ServiceCommitPairQueries.distinct(serviceCommitPairs);
+
+        LOGGER.log(Level.INFO, "Finding {0} ServiceScanRecords by service/commit pairs using {1}",
+                new Object[]{distinctPairs.size(), pairLookupStrategy});
+
+        List<ServiceScanRecord> results = ServiceCommitPairQueries.findByPairs(
+                connection, distinctPairs, pairLookupStrategy, batchSize, PAIR_LOOKUP_SQL,
+                this::mapResultSetToRecord);
+
+        LOGGER.log(Level.INFO, "Found {0} of {1} requested ServiceScanRecords",
+                new Object[]{results.size(), distinctPairs.size()});
+
+        return results;
+    }
+
+    /**
+     * Finds multiple service scan records and parses their scan data while it is
+     * streamed from the database.
+     *
+     * <p>The LOB's stream is handed straight to {@code scanDataReader} and freed
+     * afterwards, so the stored JSON or binary is never held on the heap in full. The
+     * returned records therefore have no {@code scanDataJson} or {@code scanDataBinary}.</p>
+     *
+     * @param connection the database connection
+     * @param serviceCommitPairs list of service ID and commit hash pairs
+     * @param scanDataReader parses the scan data stream of each row
+     * @return list of found records with their parsed scan data (order not guaranteed)
+     * @throws SQLException if a database error occurs
+     */
+    public <T> List<LoadedScan<T>> findParsedByServiceCommitPairs(Connection connection,
+                                                                  List<ServiceCommitPair> serviceCommitPairs,
+                                                                  ScanDataReader<T> scanDataReader) throws SQLException {
+        if (scanDataReader == null) {
+            throw new IllegalArgumentException("Scan data reader cannot be null");
+        }
+        if (serviceCommitPairs == null || serviceCommitPairs.isEmpty()) {
+            return new ArrayList<>();
         }
 
+        List<ServiceCommitPair> distinctPairs = ServiceCommitPairQueries.distinct(serviceCommitPairs);
+
+        LOGGER.log(Level.INFO, "Streaming {0} ServiceScanRecords by service/commit pairs using {1}",
+                new Object[]{distinctPairs.size(), pairLookupStrategy});
+
+        List<LoadedScan<T>> results = ServiceCommitPairQueries.findByPairs(
+                connection, distinctPairs, pairLookupStrategy, batchSize, PAIR_LOOKUP_SQL,
+                rs -> mapResultSetToLoadedScan(rs, scanDataReader));
+
         LOGGER.log(Level.INFO, "Found {0} of {1} requested ServiceScanRecords",
-                new Object[]{results.size(), serviceCommitPairs.size()});
+                new Object[]{results.size(), distinctPairs.size()});
 
         return results;
     }
@@ -205,9 +346,16 @@ public class ServiceScanDAO {
             stmt.setString(1, serviceId);
             stmt.setString(2, gitCommitHash);
 
+            DaoQueryEvent event = DaoQueryEvent.start("ServiceScanDAO.EXISTS_BY_SERVICE_AND_COMMIT");
+            long rowCount = -1;
+            boolean exists;
             try (ResultSet rs = stmt.executeQuery()) {
-                return rs.next();
+                exists = rs.next();
+                rowCount = exists ? 1 : 0;
+            } finally {
+                event.finish(rowCount);
             }
+            return exists;
         }
     }
 
@@ -231,7 +379,13 @@ public class ServiceScanDAO {
             stmt.setString(1, serviceId);
             stmt.setString(2, gitCommitHash);
 
-            int rowsAffected = stmt.executeUpdate();
+            DaoQueryEvent event = DaoQueryEvent.start("ServiceScanDAO.DELETE_BY_SERVICE_AND_COMMIT");
+            int rowsAffected = -1;
+            try {
+                rowsAffected = stmt.executeUpdate();
+            } finally {
+                event.finish(rowsAffected);
+            }
             if (rowsAffected > 0) {
                 LOGGER.log(Level.INFO, "Deleted ServiceScanRecord: serviceId={0}, gitCommitHash={1}",
                         new Object[]{serviceId, gitCommitHash});
@@ -244,6 +398,60 @@ public class ServiceScanDAO {
      * Maps a ResultSet row to a ServiceScanRecord.
      */
     private ServiceScanRecord mapResultSetToRecord(ResultSet rs) throws SQLException {
+        ServiceScanRecord record = mapColumns(rs);
+        readScanDataColumns(rs, record);
+        return record;
+    }
+
+    /**
+     * Maps a ResultSet row to a ServiceScanRecord, streaming the scan data into the reader.
+     */
+    private <T> LoadedScan<T> mapResultSetToLoadedScan(ResultSet rs,
+                                                       ScanDataReader<T> scanDataReader) throws SQLException {
+        ServiceScanRecord record = mapColumns(rs);
+        return new LoadedScan<>(record, readScanData(rs, record, scanDataReader));
+    }
+
+    /**
+     * Reads SCAN_DATA_FORMAT and materializes whichever scan data column it selects
+     * onto the record.
+     */
+    static void readScanDataColumns(ResultSet rs, ServiceScanRecord record) throws SQLException {
+        record.setScanDataFormat(rs.getString("SCAN_DATA_FORMAT"));
+        if (record.isCompactFormat()) {
+            Blob blob = rs.getBlob("SCAN_DATA_BINARY");
+            if (blob != null) {
+                record.setScanDataBinary(LobSupport.readBytes(blob));
+            }
+        } else {
+            Clob clob = rs.getClob("SCAN_DATA_JSON");
+            if (clob != null) {
+                record.setScanDataJson(LobSupport.readString(clob));
+            }
+        }
+    }
+
+    /**
+     * Reads SCAN_DATA_FORMAT onto the record and streams the scan data column it selects
+     * into the reader.
+     *
+     * @return the parsed scan data, or null if the column is NULL
+     */
+    static <T> T readScanData(ResultSet rs, ServiceScanRecord record,
+                              ScanDataReader<T> scanDataReader) throws SQLException {
+        record.setScanDataFormat(rs.getString("SCAN_DATA_FORMAT"));
+        if (record.isCompactFormat()) {
+            Blob blob = rs.getBlob("SCAN_DATA_BINARY");
+            return blob == null ? null : LobSupport.read(blob, record, scanDataReader);
+        }
+        Clob clob = rs.getClob("SCAN_DATA_JSON");
+        return clob == null ? null : LobSupport.read(clob, scanDataReader);
+    }
+
+    /**
+     * Maps every column except the scan data columns.
+     */
+    private ServiceScanRecord mapColumns(ResultSet rs) throws SQLException {
         ServiceScanRecord record = new ServiceScanRecord();
 
         record.setScanId(rs.getString("SCAN_ID"));
@@ -255,12 +463,6 @@ public class ServiceScanDAO {
         record.setVersion(rs.getString("VERSION"));
         record.setServiceDependencies(rs.getString("SERVICE_DEPENDENCIES"));
 
-        // Handle CLOB
-        Clob clob = rs.getClob("SCAN_DATA_JSON");
-        if (clob != null) {
-            record.setScanDataJson(clob.getSubString(1, (int) clob.length()));
-        }
-
         return record;
     }
 
@@ -285,6 +487,36 @@ public class ServiceScanDAO {
         }
     }
 
+    /**
+     * Parses scan data while it is streamed from whichever column the row's
+     * SCAN_DATA_FORMAT selects.
+     *
+     * @param <T> the parsed type
+     */
+    public interface ScanDataReader<T> {
+
+        /**
+         * Parses SCAN_DATA_JSON ({@code JSON} format).
+         */
+        T readJson(Reader json) throws IOException;
+
+        /**
+         * Parses SCAN_DATA_BINARY (compact formats).
+         *
+         * @param format the SCAN_DATA_FORMAT value
+         */
+        T readCompact(String format, InputStream compact) throws IOException;
+    }
+
+    /**
+     * A record loaded together with its streamed and parsed scan data.
+     *
+     * @param record the record, without {@code scanDataJson} or {@code scanDataBinary}
+     * @param scanData the parsed scan data, or null if the column was NULL
+     */
+    public record LoadedScan<T>(ServiceScanRecord record, T scanData) {
+    }
+
     /**
      * Record representing a service ID and git commit hash pair for batch lookups.
      */
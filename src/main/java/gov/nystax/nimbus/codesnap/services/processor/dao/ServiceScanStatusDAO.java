@@ -0,0 +1,311 @@
+package gov.nystax.nimbus.codesnap.services.processor.dao;
+
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.LoadedScan;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ScanDataReader;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ServiceCommitPair;
+import gov.nystax.nimbus.codesnap.services.processor.domain.FailedServiceScanRecord;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceScanRecord;
+
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Data Access Object that reads SERVICE_SCAN and FAILED_SERVICE_SCAN together.
+ * Uses JDBC with prepared statements for DB2 compatibility.
+ *
+ * <p>Both tables are queried in one UNION ALL statement per chunk of pairs, so
+ * resolving the status of every service in a build costs a single DB phase
+ * instead of a failed-scan pass followed by a successful-scan pass.</p>
+ *
+ * <p>This class does not manage transactions - the caller is responsible
+ * for transaction management.</p>
+ */
+public class ServiceScanStatusDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(ServiceScanStatusDAO.class.getName());
+
+    private static final String SOURCE_SUCCESSFUL = "S";
+    private static final String SOURCE_FAILED = "F";
+
+    /**
+     * Unified projection over both tables. Columns that only exist in one table
+     * are filled with typed NULLs in the other branch. Both {@code %1$s}
+     * placeholders receive the same pair filter.
+     */
+    private static final String SELECT_STATUS_BY_PAIRS_SQL_TEMPLATE = """
+            SELECT 'S' AS RECORD_SOURCE, SCAN_ID AS RECORD_ID, SERVICE_ID, GIT_COMMIT_HASH,
+                   SCAN_TIMESTAMP AS RECORD_TIMESTAMP, IS_UI_SERVICE, GROUP_ID, VERSION,
+                   SERVICE_DEPENDENCIES, SCAN_DATA_JSON, SCAN_DATA_FORMAT, SCAN_DATA_BINARY,
+                   CAST(NULL AS VARCHAR(50)) AS ERROR_TYPE,
+                   CAST(NULL AS VARCHAR(1000)) AS ERROR_MESSAGE,
+                   CAST(NULL AS CLOB(1M)) AS STACK_TRACE
+            FROM SERVICE_SCAN
+            WHERE %1$s
+            UNION ALL
+            SELECT 'F' AS RECORD_SOURCE, FAILURE_ID AS RECORD_ID, SERVICE_ID, GIT_COMMIT_HASH,
+                   FAILURE_TIMESTAMP AS RECORD_TIMESTAMP, CAST(NULL AS CHAR(1)) AS IS_UI_SERVICE,
+                   GROUP_ID, VERSION,
+                   CAST(NULL AS VARCHAR(2000)) AS SERVICE_DEPENDENCIES,
+                   CAST(NULL AS CLOB(10M)) AS SCAN_DATA_JSON,
+                   CAST(NULL AS VARCHAR(16)) AS SCAN_DATA_FORMAT,
+                   CAST(NULL AS BLOB(10M)) AS SCAN_DATA_BINARY,
+                   ERROR_TYPE, ERROR_MESSAGE, STACK_TRACE
+            FROM FAILED_SERVICE_SCAN
+            WHERE %1$s
+            """;
+
+    private static final String SELECT_STATUS_BY_KEYS_TEMP_TABLE_SQL = """
+            SELECT 'S' AS RECORD_SOURCE, s.SCAN_ID AS RECORD_ID, s.SERVICE_ID, s.GIT_COMMIT_HASH,
+                   s.SCAN_TIMESTAMP AS RECORD_TIMESTAMP, s.IS_UI_SERVICE, s.GROUP_ID, s.VERSION,
+                   s.SERVICE_DEPENDENCIES, s.SCAN_DATA_JSON, s.SCAN_DATA_FORMAT, s.SCAN_DATA_BINARY,
+                   CAST(NULL AS VARCHAR(50)) AS ERROR_TYPE,
+                   CAST(NULL AS VARCHAR(1000)) AS ERROR_MESSAGE,
+                   CAST(NULL AS CLOB(1M)) AS STACK_TRACE
+            FROM SERVICE_SCAN s
+            INNER JOIN SESSION.SERVICE_COMMIT_KEYS k
+                ON s.SERVICE_ID = k.SERVICE_ID AND s.GIT_COMMIT_HASH = k.GIT_COMMIT_HASH
+            UNION ALL
+            SELECT 'F' AS RECORD_SOURCE, f.FAILURE_ID AS RECORD_ID, f.SERVICE_ID, f.GIT_COMMIT_HASH,
+                   f.FAILURE_TIMESTAMP AS RECORD_TIMESTAMP, CAST(NULL AS CHAR(1)) AS IS_UI_SERVICE,
+                   f.GROUP_ID, f.VERSION,
+                   CAST(NULL AS VARCHAR(2000)) AS SERVICE_DEPENDENCIES,
+                   CAST(NULL AS CLOB(10M)) AS SCAN_DATA_JSON,
+                   CAST(NULL AS VARCHAR(16)) AS SCAN_DATA_FORMAT,
+                   CAST(NULL AS BLOB(10M)) AS SCAN_DATA_BINARY,
+                   f.ERROR_TYPE, f.ERROR_MESSAGE, f.STACK_TRACE
+            FROM FAILED_SERVICE_SCAN f
+            INNER JOIN SESSION.SERVICE_COMMIT_KEYS k
+                ON f.SERVICE_ID = k.SERVICE_ID AND f.GIT_COMMIT_HASH = k.GIT_COMMIT_HASH
+            """;
+
+    private final PairLookupStrategy pairLookupStrategy;
+    private final int batchSize;
+
+    /**
+     * Creates a DAO that loads pairs with chunked row-value IN lists.
+     */
+    public ServiceScanStatusDAO() {
+        this(PairLookupStrategy.ROW_VALUE_IN, ServiceCommitPairQueries.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a DAO with an explicit pair lookup strategy.
+     *
+     * @param pairLookupStrategy how {@link #findByServiceCommitPairs} loads its rows
+     * @param batchSize          maximum number of pairs per statement (or per insert batch
+     *                           for {@link PairLookupStrategy#TEMP_TABLE_JOIN})
+     */
+    public ServiceScanStatusDAO(PairLookupStrategy pairLookupStrategy, int batchSize) {
+        if (pairLookupStrategy == null) {
+            throw new IllegalArgumentException("Pair lookup strategy cannot be null");
+        }
+        ServiceCommitPairQueries.validateBatchSize(batchSize);
+        this.pairLookupStrategy = pairLookupStrategy;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Loads the successful and failed scan records for the given pairs in one pass.
+     * A pair found in neither list was not found in either table.
+     *
+     * @param connection         the database connection
+     * @param serviceCommitPairs list of service ID and commit hash pairs
+     * @return the records found in each table (order not guaranteed)
+     * @throws SQLException if a database error occurs
+     */
+    public ScanStatusRecords findByServiceCommitPairs(Connection connection,
+                                                      List<ServiceCommitPair> serviceCommitPairs) throws SQLException {
+        ParsedScanStatusRecords<Void> loaded = load(connection, serviceCommitPairs, null);
+
+        List<ServiceScanRecord> successfulScans = new ArrayList<>();
+        for (LoadedScan<Void> scan : loaded.successfulScans()) {
+            successfulScans.add(scan.record());
+        }
+        return new ScanStatusRecords(successfulScans, loaded.failedScans());
+    }
+
+    /**
+     * Loads the scan status for the given pairs in one pass, parsing the scan data
+     * of each successful scan while it is streamed from the database.
+     *
+     * @param connection         the database connection
+     * @param serviceCommitPairs list of service ID and commit hash pairs
+     * @param scanDataReader     parses the scan data stream of each successful scan
+     * @return the parsed successful scans and the failure records (order not guaranteed)
+     * @throws SQLException if a database error occurs
+     */
+    public <T> ParsedScanStatusRecords<T> findParsedByServiceCommitPairs(Connection connection,
+                                                                         List<ServiceCommitPair> serviceCommitPairs,
+                                                                         ScanDataReader<T> scanDataReader) throws SQLException {
+        if (scanDataReader == null) {
+            throw new IllegalArgumentException("Scan data reader cannot be null");
+        }
+        return load(connection, serviceCommitPairs, scanDataReader);
+    }
+
+    /**
+     * Runs the combined status query. With a null reader the scan data is materialized
+     * on the record instead of being parsed.
+     */
+    private <T> ParsedScanStatusRecords<T> load(Connection connection,
+                                                List<ServiceCommitPair> serviceCommitPairs,
+                                                ScanDataReader<T> scanDataReader) throws SQLException {
+        List<LoadedScan<T>> successfulScans = new ArrayList<>();
+        List<FailedServiceScanRecord> failedScans = new ArrayList<>();
+
+        if (serviceCommitPairs == null || serviceCommitPairs.isEmpty()) {
+            return new ParsedScanStatusRecords<>(successfulScans, failedScans, 0);
+        }
+
+        List<ServiceCommitPair> distinctPairs = ServiceCommitPairQueries.distinct(serviceCommitPairs);
+
+        LOGGER.log(Level.INFO, "Finding scan status for {0} service/commit pairs using {1}",
+                new Object[]{distinctPairs.size(), pairLookupStrategy});
+
+        int roundTrips = 0;
+        if (pairLookupStrategy == PairLookupStrategy.TEMP_TABLE_JOIN) {
+            roundTrips += ServiceCommitPairQueries.loadKeysTempTable(connection, distinctPairs, batchSize);
+            DaoQueryEvent event = DaoQueryEvent.start("ServiceScanStatusDAO.SELECT_STATUS_BY_KEYS_TEMP_TABLE");
+            long rowCount = -1;
+            try (PreparedStatement stmt = connection.prepareStatement(SELECT_STATUS_BY_KEYS_TEMP_TABLE_SQL);
+                 ResultSet rs = stmt.executeQuery()) {
+                roundTrips++;
+                collectRows(rs, scanDataReader, successfulScans, failedScans);
+                rowCount = successfulScans.size() + failedScans.size();
+            } finally {
+                event.finish(rowCount);
+            }
+        } else {
+            for (List<ServiceCommitPair> chunk : ServiceCommitPairQueries.partition(distinctPairs, batchSize)) {
+                String predicate = ServiceCommitPairQueries.pairPredicate(pairLookupStrategy, chunk.size());
+                String sql = SELECT_STATUS_BY_PAIRS_SQL_TEMPLATE.formatted(predicate);
+
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    int paramIndex = ServiceCommitPairQueries.bindPairs(stmt, chunk, 1);
+                    ServiceCommitPairQueries.bindPairs(stmt, chunk, paramIndex);
+
+                    DaoQueryEvent event = DaoQueryEvent.start("ServiceScanStatusDAO.SELECT_STATUS_BY_PAIRS."
+                            + pairLookupStrategy);
+                    long rowCount = -1;
+                    int rowsBefore = successfulScans.size() + failedScans.size();
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        roundTrips++;
+                        collectRows(rs, scanDataReader, successfulScans, failedScans);
+                        rowCount = successfulScans.size() + failedScans.size() - rowsBefore;
+                    } finally {
+                        event.finish(rowCount);
+                    }
+                }
+            }
+        }
+
+        LOGGER.log(Level.INFO, "Found {0} successful and {1} failed scans of {2} requested",
+                new Object[]{successfulScans.size(), failedScans.size(), distinctPairs.size()});
+
+        return new ParsedScanStatusRecords<>(successfulScans, failedScans, roundTrips);
+    }
+
+    /**
+     * Routes each row of the unified projection to the matching record list.
+     */
+    private <T> void collectRows(ResultSet rs,
+                                 ScanDataReader<T> scanDataReader,
+                                 List<LoadedScan<T>> successfulScans,
+                                 List<FailedServiceScanRecord> failedScans) throws SQLException {
+        while (rs.next()) {
+            String source = rs.getString("RECORD_SOURCE");
+            if (SOURCE_SUCCESSFUL.equals(source)) {
+                successfulScans.add(mapSuccessfulScan(rs, scanDataReader));
+            } else if (SOURCE_FAILED.equals(source)) {
+                failedScans.add(mapFailedScan(rs));
+            } else {
+                throw new SQLException("Unexpected RECORD_SOURCE value: " + source);
+            }
+        }
+    }
+
+    /**
+     * Maps a SERVICE_SCAN branch row to a ServiceScanRecord.
+     */
+    private <T> LoadedScan<T> mapSuccessfulScan(ResultSet rs,
+                                                ScanDataReader<T> scanDataReader) throws SQLException {
+        ServiceScanRecord record = new ServiceScanRecord();
+
+        record.setScanId(rs.getString("RECORD_ID"));
+        record.setServiceId(rs.getString("SERVICE_ID"));
+        record.setGitCommitHash(rs.getString("GIT_COMMIT_HASH"));
+        record.setScanTimestamp(rs.getTimestamp("RECORD_TIMESTAMP"));
+        record.setIsUiServiceFromDbValue(rs.getString("IS_UI_SERVICE"));
+        record.setGroupId(rs.getString("GROUP_ID"));
+        record.setVersion(rs.getString("VERSION"));
+        record.setServiceDependencies(rs.getString("SERVICE_DEPENDENCIES"));
+
+        // Handle scan data LOBs: stream them into the reader when there is one
+        if (scanDataReader == null) {
+            ServiceScanDAO.readScanDataColumns(rs, record);
+            return new LoadedScan<>(record, null);
+        }
+        return new LoadedScan<>(record, ServiceScanDAO.readScanData(rs, record, scanDataReader));
+    }
+
+    /**
+     * Maps a FAILED_SERVICE_SCAN branch row to a FailedServiceScanRecord.
+     */
+    private FailedServiceScanRecord mapFailedScan(ResultSet rs) throws SQLException {
+        FailedServiceScanRecord record = new FailedServiceScanRecord();
+
+        record.setFailureId(rs.getString("RECORD_ID"));
+        record.setServiceId(rs.getString("SERVICE_ID"));
+        record.setGitCommitHash(rs.getString("GIT_COMMIT_HASH"));
+        record.setFailureTimestamp(rs.getTimestamp("RECORD_TIMESTAMP"));
+        record.setGroupId(rs.getString("GROUP_ID"));
+        record.setVersion(rs.getString("VERSION"));
+        record.setErrorType(rs.getString("ERROR_TYPE"));
+        record.setErrorMessage(rs.getString("ERROR_MESSAGE"));
+
+        // Handle CLOB
+        Clob clob = rs.getClob("STACK_TRACE");
+        if (clob != null) {
+            record.setStackTrace(LobSupport.readString(clob));
+        }
+
+        return record;
+    }
+
+    /**
+     * Records found in each table for a status lookup.
+     */
+    public record ScanStatusRecords(List<ServiceScanRecord> successfulScans,
+                                    List<FailedServiceScanRecord> failedScans) {
+        public ScanStatusRecords {
+            successfulScans = successfulScans != null ? List.copyOf(successfulScans) : List.of();
+            failedScans = failedScans != null ? List.copyOf(failedScans) : List.of();
+        }
+    }
+
+    /**
+     * Parsed successful scans and failure records for a status lookup.
+     *
+     * @param roundTrips the number of statements the lookup sent to the database
+     */
+    public record ParsedScanStatusRecords<T>(List<LoadedScan<T>> successfulScans,
+                                             List<FailedServiceScanRecord> failedScans,
+                                             int roundTrips) {
+        public ParsedScanStatusRecords {
+            successfulScans = successfulScans != null ? List.copyOf(successfulScans) : List.of();
+            failedScans = failedScans != null ? List.copyOf(failedScans) : List.of();
+        }
+
+        public ParsedScanStatusRecords(List<LoadedScan<T>> successfulScans,
+                                       List<FailedServiceScanRecord> failedScans) {
+            this(successfulScans, failedScans, 0);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package gov.nystax.nimbus.codesnap.services.processor.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
@@ -11,6 +14,12 @@ import java.util.Set;
 /**
  * Represents all dependencies for an entry point (function or UI service method).
  * Used in both entryPointChildren and publicMethodDependencies.
+ *
+ * <p>As in {@link ScanData}, the {@code get*View} accessors return unmodifiable views
+ * of the backing collections for read-only callers.</p>
+ *
+ * <p>Service calls are kept in a list, in the order they were first added, and are
+ * also indexed in a hash set so that duplicate checks do not scan the list.</p>
  */
 public class EntryPointDependencies {
 
@@ -41,6 +50,12 @@ public class EntryPointDependencies {
     @JsonProperty("serviceCalls")
     private List<ServiceCallReference> serviceCalls;
 
+    /**
+     * The entries of {@link #serviceCalls}, for constant-time duplicate checks.
+     */
+    @JsonIgnore
+    private Set<ServiceCallReference> serviceCallIndex;
+
     /**
      * Whether this entry point (directly or transitively) invokes the legacy gateway HTTP client.
      */
@@ -52,6 +67,7 @@ public class EntryPointDependencies {
         this.asyncFunctions = new LinkedHashSet<>();
         this.topics = new LinkedHashSet<>();
         this.serviceCalls = new ArrayList<>();
+        this.serviceCallIndex = new HashSet<>();
     }
 
     /**
@@ -62,9 +78,11 @@ public class EntryPointDependencies {
         copy.functions = new LinkedHashSet<>(this.functions);
         copy.asyncFunctions = new LinkedHashSet<>(this.asyncFunctions);
         copy.topics = new LinkedHashSet<>(this.topics);
-        copy.serviceCalls = new ArrayList<>();
+        copy.serviceCalls = new ArrayList<>(this.serviceCalls.size());
         for (ServiceCallReference call : this.serviceCalls) {
-            copy.serviceCalls.add(call.copy());
+            ServiceCallReference callCopy = call.copy();
+            copy.serviceCalls.add(callCopy);
+            copy.serviceCallIndex.add(callCopy);
         }
         copy.usesLegacyGatewayHttpClient = this.usesLegacyGatewayHttpClient;
         return copy;
@@ -85,11 +103,8 @@ public class EntryPointDependencies {
 
         // For service calls, avoid duplicates based on serviceId + interfaceMethod
         for (ServiceCallReference otherCall : other.serviceCalls) {
-            boolean exists = this.serviceCalls.stream()
-                    .anyMatch(existing -> existing.getServiceId().equals(otherCall.getServiceId()) &&
-                            existing.getInterfaceMethod().equals(otherCall.getInterfaceMethod()));
-            if (!exists) {
-                this.serviceCalls.add(otherCall.copy());
+            if (!this.serviceCallIndex.contains(otherCall)) {
+                appendServiceCall(otherCall.copy());
             }
         }
     }
@@ -97,6 +112,7 @@ public class EntryPointDependencies {
     /**
      * Checks if this dependency set is empty (has no dependencies).
      */
+    @JsonIgnore
     public boolean isEmpty() {
         return functions.isEmpty() &&
                asyncFunctions.isEmpty() &&
@@ -120,14 +136,16 @@ public class EntryPointDependencies {
     public void addServiceCall(String serviceId, String interfaceMethod) {
         ServiceCallReference call = new ServiceCallReference(serviceId, interfaceMethod);
         // Avoid duplicates
-        boolean exists = this.serviceCalls.stream()
-                .anyMatch(existing -> existing.getServiceId().equals(serviceId) &&
-                        existing.getInterfaceMethod().equals(interfaceMethod));
-        if (!exists) {
-            this.serviceCalls.add(call);
+        if (!this.serviceCallIndex.contains(call)) {
+            appendServiceCall(call);
         }
     }
 
+    private void appendServiceCall(ServiceCallReference call) {
+        this.serviceCalls.add(call);
+        this.serviceCallIndex.add(call);
+    }
+
     public Set<String> getFunctions() {
         return functions == null ? null : new LinkedHashSet<>(functions);
     }
@@ -136,6 +154,14 @@ public class EntryPointDependencies {
         this.functions = functions == null ? new LinkedHashSet<>() : new LinkedHashSet<>(functions);
     }
 
+    /**
+     * Returns an unmodifiable view of {@code functions}.
+     */
+    @JsonIgnore
+    public Set<String> getFunctionsView() {
+        return functions == null ? null : Collections.unmodifiableSet(functions);
+    }
+
     public Set<String> getAsyncFunctions() {
         return asyncFunctions == null ? null : new LinkedHashSet<>(asyncFunctions);
     }
@@ -144,6 +170,14 @@ public class EntryPointDependencies {
         this.asyncFunctions = asyncFunctions == null ? new LinkedHashSet<>() : new LinkedHashSet<>(asyncFunctions);
     }
 
+    /**
+     * Returns an unmodifiable view of {@code asyncFunctions}.
+     */
+    @JsonIgnore
+    public Set<String> getAsyncFunctionsView() {
+        return asyncFunctions == null ? null : Collections.unmodifiableSet(asyncFunctions);
+    }
+
     public Set<String> getTopics() {
         return topics == null ? null : new LinkedHashSet<>(topics);
     }
@@ -152,12 +186,29 @@ public class EntryPointDependencies {
         this.topics = topics == null ? new LinkedHashSet<>() : new LinkedHashSet<>(topics);
     }
 
+    /**
+     * Returns an unmodifiable view of {@code topics}.
+     */
+    @JsonIgnore
+    public Set<String> getTopicsView() {
+        return topics == null ? null : Collections.unmodifiableSet(topics);
+    }
+
     public List<ServiceCallReference> getServiceCalls() {
         return serviceCalls == null ? null : new ArrayList<>(serviceCalls);
     }
 
     public void setServiceCalls(List<ServiceCallReference> serviceCalls) {
         this.serviceCalls = serviceCalls == null ? new ArrayList<>() : new ArrayList<>(serviceCalls);
+        this.serviceCallIndex = new HashSet<>(this.serviceCalls);
+    }
+
+    /**
+     * Returns an unmodifiable view of {@code serviceCalls}.
+     */
+    @JsonIgnore
+    public List<ServiceCallReference> getServiceCallsView() {
+        return serviceCalls == null ? null : Collections.unmodifiableList(serviceCalls);
     }
 
     public boolean isUsesLegacyGatewayHttpClient() {
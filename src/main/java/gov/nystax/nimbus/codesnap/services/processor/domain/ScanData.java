@@ -1,7 +1,9 @@
 package gov.nystax.nimbus.codesnap.services.processor.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -9,6 +11,10 @@ import java.util.Objects;
 /**
  * Root domain class for pre-processed scan data stored in SERVICE_SCAN.SCAN_DATA_JSON.
  * This structure is optimized for build-time tree construction.
+ *
+ * <p>The {@code get*} accessors return defensive copies for callers that modify the
+ * result. Read-only callers on the build path use the {@code get*View} accessors,
+ * which return unmodifiable views of the backing maps without copying them.</p>
  */
 public class ScanData {
 
@@ -67,6 +73,14 @@ public class ScanData {
         this.functionMappings = functionMappings == null ? null : new HashMap<>(functionMappings);
     }
 
+    /**
+     * Returns an unmodifiable view of {@code functionMappings}, or null if it is not set.
+     */
+    @JsonIgnore
+    public Map<String, String> getFunctionMappingsView() {
+        return functionMappings == null ? null : Collections.unmodifiableMap(functionMappings);
+    }
+
     public Map<String, String> getUiServiceMethodMappings() {
         return uiServiceMethodMappings == null ? null : new HashMap<>(uiServiceMethodMappings);
     }
@@ -75,6 +89,14 @@ public class ScanData {
         this.uiServiceMethodMappings = uiServiceMethodMappings == null ? null : new HashMap<>(uiServiceMethodMappings);
     }
 
+    /**
+     * Returns an unmodifiable view of {@code uiServiceMethodMappings}, or null if it is not set.
+     */
+    @JsonIgnore
+    public Map<String, String> getUiServiceMethodMappingsView() {
+        return uiServiceMethodMappings == null ? null : Collections.unmodifiableMap(uiServiceMethodMappings);
+    }
+
     public Map<String, String> getMethodImplementationMapping() {
         return methodImplementationMapping == null ? null : new HashMap<>(methodImplementationMapping);
     }
@@ -83,6 +105,14 @@ public class ScanData {
         this.methodImplementationMapping = methodImplementationMapping == null ? null : new HashMap<>(methodImplementationMapping);
     }
 
+    /**
+     * Returns an unmodifiable view of {@code methodImplementationMapping}, or null if it is not set.
+     */
+    @JsonIgnore
+    public Map<String, String> getMethodImplementationMappingView() {
+        return methodImplementationMapping == null ? null : Collections.unmodifiableMap(methodImplementationMapping);
+    }
+
     public Map<String, EntryPointDependencies> getEntryPointChildren() {
         return entryPointChildren == null ? null : new HashMap<>(entryPointChildren);
     }
@@ -91,6 +121,14 @@ public class ScanData {
         this.entryPointChildren = entryPointChildren == null ? null : new HashMap<>(entryPointChildren);
     }
 
+    /**
+     * Returns an unmodifiable view of {@code entryPointChildren}, or null if it is not set.
+     */
+    @JsonIgnore
+    public Map<String, EntryPointDependencies> getEntryPointChildrenView() {
+        return entryPointChildren == null ? null : Collections.unmodifiableMap(entryPointChildren);
+    }
+
     public Map<String, EntryPointDependencies> getPublicMethodDependencies() {
         return publicMethodDependencies == null ? null : new HashMap<>(publicMethodDependencies);
     }
@@ -99,6 +137,14 @@ public class ScanData {
         this.publicMethodDependencies = publicMethodDependencies == null ? null : new HashMap<>(publicMethodDependencies);
     }
 
+    /**
+     * Returns an unmodifiable view of {@code publicMethodDependencies}, or null if it is not set.
+     */
+    @JsonIgnore
+    public Map<String, EntryPointDependencies> getPublicMethodDependenciesView() {
+        return publicMethodDependencies == null ? null : Collections.unmodifiableMap(publicMethodDependencies);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,6 +1,7 @@
 package gov.nystax.nimbus.codesnap.services.processor.domain;
 
 import java.sql.Timestamp;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -18,6 +19,8 @@ public class ServiceScanRecord {
     private String version;
     private String serviceDependencies;  // Comma-separated service IDs
     private String scanDataJson;         // CLOB content as String
+    private String scanDataFormat = ScanDataFormat.JSON;
+    private byte[] scanDataBinary;       // BLOB content for compact formats
 
     public ServiceScanRecord() {
     }
@@ -101,6 +104,35 @@ public class ServiceScanRecord {
         this.scanDataJson = scanDataJson;
     }
 
+    /**
+     * Returns the SCAN_DATA_FORMAT column value, one of the {@link ScanDataFormat} constants.
+     */
+    public String getScanDataFormat() {
+        return scanDataFormat;
+    }
+
+    /**
+     * Sets the storage format. Null (rows written before the column existed) means JSON.
+     */
+    public void setScanDataFormat(String scanDataFormat) {
+        this.scanDataFormat = scanDataFormat == null ? ScanDataFormat.JSON : scanDataFormat;
+    }
+
+    public byte[] getScanDataBinary() {
+        return scanDataBinary == null ? null : scanDataBinary.clone();
+    }
+
+    public void setScanDataBinary(byte[] scanDataBinary) {
+        this.scanDataBinary = scanDataBinary == null ? null : scanDataBinary.clone();
+    }
+
+    /**
+     * Returns true if the scan data is stored in SCAN_DATA_BINARY rather than SCAN_DATA_JSON.
+     */
+    public boolean isCompactFormat() {
+        return ScanDataFormat.COMPACT_V1.equals(scanDataFormat);
+    }
+
     /**
      * Returns the IS_UI_SERVICE column value ('Y' or 'N').
      */
@@ -128,13 +160,16 @@ public class ServiceScanRecord {
                 Objects.equals(groupId, that.groupId) &&
                 Objects.equals(version, that.version) &&
                 Objects.equals(serviceDependencies, that.serviceDependencies) &&
-                Objects.equals(scanDataJson, that.scanDataJson);
+                Objects.equals(scanDataJson, that.scanDataJson) &&
+                Objects.equals(scanDataFormat, that.scanDataFormat) &&
+                Arrays.equals(scanDataBinary, that.scanDataBinary);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(scanId, serviceId, gitCommitHash, scanTimestamp,
-                isUiService, groupId, version, serviceDependencies, scanDataJson);
+        return 31 * Objects.hash(scanId, serviceId, gitCommitHash, scanTimestamp,
+                isUiService, groupId, version, serviceDependencies, scanDataJson, scanDataFormat)
+                + Arrays.hashCode(scanDataBinary);
     }
 
     @Override
@@ -149,6 +184,8 @@ public class ServiceScanRecord {
                 ", version='" + version + '\'' +
                 ", serviceDependencies='" + serviceDependencies + '\'' +
                 ", scanDataJson='" + (scanDataJson != null ? "[" + scanDataJson.length() + " chars]" : "null") + '\'' +
+                ", scanDataFormat='" + scanDataFormat + '\'' +
+                ", scanDataBinary=" + (scanDataBinary != null ? "[" + scanDataBinary.length + " bytes]" : "null") +
                 '}';
     }
 
@@ -203,8 +240,36 @@ public class ServiceScanRecord {
             return this;
         }
 
+        public Builder scanDataFormat(String scanDataFormat) {
+            record.setScanDataFormat(scanDataFormat);
+            return this;
+        }
+
+        public Builder scanDataBinary(byte[] scanDataBinary) {
+            record.setScanDataBinary(scanDataBinary);
+            return this;
+        }
+
         public ServiceScanRecord build() {
             return record;
         }
     }
+
+    /**
+     * Constants for the SCAN_DATA_FORMAT column.
+     */
+    public static final class ScanDataFormat {
+        /**
+         * Scan data is stored as JSON in SCAN_DATA_JSON.
+         */
+        public static final String JSON = "JSON";
+        /**
+         * Scan data is stored in SCAN_DATA_BINARY using the version 1 compact encoding.
+         */
+        public static final String COMPACT_V1 = "COMPACT_V1";
+
+        private ScanDataFormat() {
+            // Prevent instantiation
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package gov.nystax.nimbus.codesnap.services.scanner.domain;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.Objects;
@@ -14,7 +15,9 @@ public class MethodReference {
     @JsonProperty("accessModifier")
     private MethodAccessModifier accessModifier;
 
-    public MethodReference(String methodName, MethodAccessModifier accessModifier) {
+    @JsonCreator
+    public MethodReference(@JsonProperty("methodName") String methodName,
+                           @JsonProperty("accessModifier") MethodAccessModifier accessModifier) {
         this.methodName = methodName;
         this.accessModifier = accessModifier;
     }
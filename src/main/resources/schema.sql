@@ -19,6 +19,8 @@ CREATE TABLE SERVICE_SCAN (
     VERSION              VARCHAR(50),
     SERVICE_DEPENDENCIES VARCHAR(2000),
     SCAN_DATA_JSON       CLOB(10M),
+    SCAN_DATA_FORMAT     VARCHAR(16)     NOT NULL DEFAULT 'JSON',
+    SCAN_DATA_BINARY     BLOB(10M),
     
     CONSTRAINT PK_SERVICE_SCAN 
         PRIMARY KEY (SCAN_ID),
@@ -27,7 +29,10 @@ CREATE TABLE SERVICE_SCAN (
         UNIQUE (SERVICE_ID, GIT_COMMIT_HASH),
     
     CONSTRAINT CHK_UI_SERVICE 
-        CHECK (IS_UI_SERVICE IN ('Y', 'N'))
+        CHECK (IS_UI_SERVICE IN ('Y', 'N')),
+
+    CONSTRAINT CHK_SCAN_DATA_FORMAT
+        CHECK (SCAN_DATA_FORMAT IN ('JSON', 'COMPACT_V1'))
 );
 
 -- Index for the primary lookup pattern: service ID + git commit hash
@@ -69,6 +74,19 @@ COMMENT ON COLUMN SERVICE_SCAN.SERVICE_DEPENDENCIES IS
 COMMENT ON COLUMN SERVICE_SCAN.SCAN_DATA_JSON IS
     'Pre-processed scan data as JSON (entryPointChildren, publicMethodDependencies, etc.)';
 
+COMMENT ON COLUMN SERVICE_SCAN.SCAN_DATA_FORMAT IS
+    'Storage format of the scan data: JSON (SCAN_DATA_JSON) or COMPACT_V1 (SCAN_DATA_BINARY)';
+
+COMMENT ON COLUMN SERVICE_SCAN.SCAN_DATA_BINARY IS
+    'Pre-processed scan data in the compact binary encoding (string dictionary, varints, deflate)';
+
+-- Migration for databases created before SCAN_DATA_FORMAT existed.
+-- Existing rows default to JSON and keep working unchanged.
+-- ALTER TABLE SERVICE_SCAN ADD COLUMN SCAN_DATA_FORMAT VARCHAR(16) NOT NULL DEFAULT 'JSON';
+-- ALTER TABLE SERVICE_SCAN ADD COLUMN SCAN_DATA_BINARY BLOB(10M);
+-- ALTER TABLE SERVICE_SCAN ADD CONSTRAINT CHK_SCAN_DATA_FORMAT
+--     CHECK (SCAN_DATA_FORMAT IN ('JSON', 'COMPACT_V1'));
+
 
 -- ============================================================================
 -- TABLE: FAILED_SERVICE_SCAN
@@ -0,0 +1,87 @@
+package gov.nystax.nimbus.codesnap.services.benchmark;
+
+import gov.nystax.nimbus.codesnap.services.builder.domain.ChildReference;
+import gov.nystax.nimbus.codesnap.services.builder.domain.FunctionPoolEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Populates a function pool entry with a large fan-out of children, checking for an
+ * existing reference before every add as the builder does.
+ *
+ * <p>{@code linearScanBaseline} repeats the work with the list scan that
+ * {@link FunctionPoolEntry} used before it indexed its children.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FunctionPoolEntryBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    private int fanOut;
+
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        names = new String[fanOut];
+        for (int i = 0; i < fanOut; i++) {
+            names[i] = "function" + i;
+        }
+    }
+
+    @Benchmark
+    public FunctionPoolEntry indexedChildren() {
+        FunctionPoolEntry entry = new FunctionPoolEntry();
+        // Second pass only hits existing references, as transitive resolution often does
+        for (int pass = 0; pass < 2; pass++) {
+            for (String name : names) {
+                if (!entry.containsSyncRef(name)) {
+                    entry.addSyncRef(name);
+                }
+                if (!entry.containsAsyncRef(name)) {
+                    entry.addAsyncRef(name, "QUEUE");
+                }
+                if (!entry.containsTopicRef(name)) {
+                    entry.addTopicRef(name, "QUEUE");
+                }
+            }
+        }
+        return entry;
+    }
+
+    @Benchmark
+    public List<ChildReference> linearScanBaseline() {
+        List<ChildReference> children = new ArrayList<>();
+        for (int pass = 0; pass < 2; pass++) {
+            for (String name : names) {
+                if (children.stream().noneMatch(c -> c.isSyncRef() && name.equals(c.getRef()))) {
+                    children.add(ChildReference.syncRef(name));
+                }
+                if (children.stream().noneMatch(c -> c.isAsyncRef() && name.equals(c.getRef()))) {
+                    children.add(ChildReference.asyncRef(name, "QUEUE"));
+                }
+                if (children.stream().noneMatch(c -> c.isTopicRef() && name.equals(c.getTopicName()))) {
+                    children.add(ChildReference.topicPublishRef(name, "QUEUE"));
+                }
+            }
+        }
+        return children;
+    }
+}
@@ -0,0 +1,98 @@
+package gov.nystax.nimbus.codesnap.services.benchmark;
+
+import gov.nystax.nimbus.codesnap.services.processor.ScanDataProcessor;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ScanData;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.MethodReference;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.MethodReference.MethodAccessModifier;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.ProjectInfo;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.ServiceInvocation;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.ServiceUsage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processes a service whose single entry point calls many downstream service
+ * operations through a chain of public methods. Every public method in the chain
+ * records every call, so this exercises service-call de-duplication in
+ * {@code EntryPointDependencies}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ScanDataProcessorBenchmark {
+
+    private static final int CALL_CHAIN_DEPTH = 4;
+
+    @Param({"500", "2000"})
+    private int downstreamCalls;
+
+    private ScanDataProcessor processor;
+    private ProjectInfo projectInfo;
+
+    @Setup
+    public void setUp() {
+        processor = new ScanDataProcessor();
+
+        projectInfo = new ProjectInfo();
+        projectInfo.setArtifactId("BENCH_SERVICE");
+        projectInfo.setGroupId("gov.nystax.services");
+        projectInfo.setVersion("1.0.0");
+        projectInfo.setUIService(false);
+
+        Map<String, String> functionMappings = new HashMap<>();
+        functionMappings.put("entryPoint", "gov.bench.IService.entryPoint(...)");
+        projectInfo.setFunctionMappings(functionMappings);
+        projectInfo.setUIServiceMethodMappings(new HashMap<>());
+        Map<String, String> implMappings = new HashMap<>();
+        implMappings.put("gov.bench.IService.entryPoint(...)", "gov.bench.impl.ServiceImpl.entryPoint(...)");
+        projectInfo.setMethodImplementationMappings(implMappings);
+
+        List<MethodReference> callChain = new ArrayList<>();
+        callChain.add(new MethodReference("gov.bench.impl.ServiceImpl.entryPoint(...)", MethodAccessModifier.PUBLIC));
+        for (int depth = 1; depth < CALL_CHAIN_DEPTH; depth++) {
+            callChain.add(new MethodReference("gov.bench.impl.Helper" + depth + ".call(...)",
+                    MethodAccessModifier.PUBLIC));
+        }
+
+        // Each downstream operation is invoked twice so that half the adds are duplicates
+        List<ServiceUsage> serviceUsages = new ArrayList<>();
+        for (int i = 0; i < downstreamCalls; i++) {
+            String serviceId = "DS" + (i % 50);
+            ServiceUsage usage = new ServiceUsage(serviceId, "gov.nystax.services." + serviceId, "dep");
+            String invokedMethod = "gov.nystax.services.downstream.IService.operation" + i + "(...)";
+            List<ServiceInvocation> invocations = new ArrayList<>();
+            for (int site = 0; site < 2; site++) {
+                ServiceInvocation invocation = new ServiceInvocation(
+                        "Helper.java:" + (i * 2 + site), callChain.get(callChain.size() - 1), invokedMethod);
+                invocation.setCallChain(callChain);
+                invocations.add(invocation);
+            }
+            usage.setInvocations(invocations);
+            serviceUsages.add(usage);
+        }
+        projectInfo.setServiceUsages(serviceUsages);
+    }
+
+    @Benchmark
+    public ScanData processManyDownstreamCalls() {
+        return processor.process(projectInfo);
+    }
+}
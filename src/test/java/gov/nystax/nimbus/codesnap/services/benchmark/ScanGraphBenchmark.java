@@ -0,0 +1,174 @@
+package gov.nystax.nimbus.codesnap.services.benchmark;
+
+import gov.nystax.nimbus.codesnap.services.builder.AppSnapshotBuilder;
+import gov.nystax.nimbus.codesnap.services.builder.AppSnapshotService;
+import gov.nystax.nimbus.codesnap.services.builder.AppSnapshotService.BuildResultJson;
+import gov.nystax.nimbus.codesnap.services.builder.AppSnapshotService.JsonLayout;
+import gov.nystax.nimbus.codesnap.services.builder.QueueNameResolver;
+import gov.nystax.nimbus.codesnap.services.builder.TransitiveResolver;
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildRequest;
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildResult;
+import gov.nystax.nimbus.codesnap.services.builder.domain.FunctionPoolEntry;
+import gov.nystax.nimbus.codesnap.services.processor.ScanDataProcessor;
+import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService;
+import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.BuildScanSet;
+import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.ScanDataWithMetadata;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ServiceCommitPair;
+import gov.nystax.nimbus.codesnap.services.processor.domain.EntryPointDependencies;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceCallReference;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.ProjectInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs each stage of a build over a graph from {@link ScanGraphGenerator}: processing every
+ * service's scanner output, resolving every entry point's service calls transitively,
+ * building the app against an in-memory scan service, and serializing the result.
+ *
+ * <p>Queue names fall back to the default names, so no endpoint or database is involved.
+ * Logging below WARNING is turned off for the run so that it does not dominate the timings.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ScanGraphBenchmark {
+
+    private static final long SEED = 42L;
+    private static final String APP_NAME = "bench-app";
+
+    // Held so the level set in setUp is not lost to garbage collection
+    private static final Logger CODESNAP_LOGGER = Logger.getLogger("gov.nystax.nimbus.codesnap");
+
+    @Param({"20", "100"})
+    private int services;
+
+    @Param({"10"})
+    private int entryPointsPerService;
+
+    @Param({"6"})
+    private int callChainDepth;
+
+    @Param({"20"})
+    private int fanOut;
+
+    @Param({"0.2"})
+    private double crossServiceCallDensity;
+
+    private ScanDataProcessor processor;
+    private QueueNameResolver queueNameResolver;
+    private List<ProjectInfo> projectInfos;
+    private Map<String, ScanDataWithMetadata> scans;
+    private List<List<ServiceCallReference>> entryPointServiceCalls;
+    private BuildRequest request;
+    private AppSnapshotBuilder builder;
+    private AppSnapshotService snapshotService;
+    private BuildResult builtResult;
+
+    @Setup
+    public void setUp() throws SQLException {
+        CODESNAP_LOGGER.setLevel(Level.WARNING);
+
+        ScanGraphGenerator generator = new ScanGraphGenerator(new ScanGraphGenerator.Shape(
+                services, entryPointsPerService, callChainDepth, fanOut, crossServiceCallDensity), SEED);
+        processor = new ScanDataProcessor();
+        queueNameResolver = new QueueNameResolver(HttpClient.newHttpClient(), null, null);
+        projectInfos = generator.generateProjectInfos();
+        scans = generator.generateScans(processor);
+
+        entryPointServiceCalls = new ArrayList<>();
+        for (ScanDataWithMetadata scan : scans.values()) {
+            for (EntryPointDependencies deps : scan.scanData().getEntryPointChildrenView().values()) {
+                if (!deps.getServiceCallsView().isEmpty()) {
+                    entryPointServiceCalls.add(deps.getServiceCallsView());
+                }
+            }
+        }
+
+        request = generator.buildRequest(APP_NAME);
+        builder = new AppSnapshotBuilder(new InMemoryScanService(scans), queueNameResolver);
+        snapshotService = new AppSnapshotService(builder);
+        builtResult = builder.build(null, request);
+    }
+
+    @Benchmark
+    public void processScans(Blackhole blackhole) {
+        for (ProjectInfo projectInfo : projectInfos) {
+            blackhole.consume(processor.process(projectInfo));
+        }
+    }
+
+    @Benchmark
+    public void resolveTransitively(Blackhole blackhole) {
+        // A new resolver per operation, since closures are cached for the resolver's lifetime
+        TransitiveResolver resolver = new TransitiveResolver(scans, queueNameResolver);
+        for (List<ServiceCallReference> serviceCalls : entryPointServiceCalls) {
+            FunctionPoolEntry entry = new FunctionPoolEntry();
+            resolver.resolveServiceCalls(null, serviceCalls, entry);
+            blackhole.consume(entry);
+        }
+    }
+
+    @Benchmark
+    public BuildResult buildApp() throws SQLException {
+        return builder.build(null, request);
+    }
+
+    @Benchmark
+    public BuildResultJson serializeToStrings() {
+        return snapshotService.serializeToJson(builtResult);
+    }
+
+    @Benchmark
+    public void writeCompact() throws IOException {
+        snapshotService.writeBuildResult(builtResult, OutputStream.nullOutputStream(), JsonLayout.COMPACT);
+    }
+
+    /**
+     * Serves the generated scans as if they had been loaded from the database.
+     */
+    private static final class InMemoryScanService extends ServiceScanService {
+        private final Map<String, ScanDataWithMetadata> scans;
+
+        InMemoryScanService(Map<String, ScanDataWithMetadata> scans) {
+            this.scans = scans;
+        }
+
+        @Override
+        public BuildScanSet loadBuildScanSet(Connection connection, List<ServiceCommitPair> serviceCommits) {
+            Map<String, ScanDataWithMetadata> loaded = new HashMap<>();
+            for (ServiceCommitPair pair : serviceCommits) {
+                ScanDataWithMetadata scan = scans.get(pair.serviceId());
+                if (scan != null && scan.gitCommitHash().equals(pair.gitCommitHash())) {
+                    loaded.put(pair.serviceId(), scan);
+                }
+            }
+            return new BuildScanSet(loaded, List.of());
+        }
+    }
+}
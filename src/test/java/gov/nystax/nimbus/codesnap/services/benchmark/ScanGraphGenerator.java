@@ -0,0 +1,230 @@
+package gov.nystax.nimbus.codesnap.services.benchmark;
+
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildRequest;
+import gov.nystax.nimbus.codesnap.services.processor.ScanDataProcessor;
+import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.ScanDataWithMetadata;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.EventPublisherInvocation;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.FunctionInvocation;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.FunctionUsage;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.MethodReference;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.MethodReference.MethodAccessModifier;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.ProjectInfo;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.ServiceInvocation;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.ServiceUsage;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.TopicResolution;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates a seeded, synthetic graph of scanned services for the benchmarks.
+ *
+ * <p>Service {@code i} ({@link #serviceId(int)}) exposes {@link Shape#entryPointsPerService()}
+ * functions. Each entry point makes {@link Shape#fanOut()} invocations, each at the end of a
+ * call chain of {@link Shape#callChainDepth()} methods that starts at the entry point's
+ * implementation and continues through helper methods shared within the service, half of
+ * them public. With probability {@link Shape#crossServiceCallDensity()} an invocation calls
+ * an entry point of a lower-numbered service; otherwise it calls one of a pool of external
+ * functions, about one in four asynchronously, or about one time in ten publishes to a topic.</p>
+ *
+ * <p>Services only call lower-numbered services, so the graph is acyclic and sorts
+ * topologically. The same shape and seed always produce the same graph.</p>
+ */
+public final class ScanGraphGenerator {
+
+    private static final String GROUP_ID = "gov.nystax.services";
+    private static final int EXTERNAL_FUNCTIONS = 200;
+    private static final int TOPICS = 50;
+
+    private final Shape shape;
+    private final long seed;
+
+    public ScanGraphGenerator(Shape shape, long seed) {
+        if (shape == null) {
+            throw new IllegalArgumentException("Shape cannot be null");
+        }
+        this.shape = shape;
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the artifact ID of the service at the given index.
+     */
+    public static String serviceId(int index) {
+        return String.format("SVC%04d", index);
+    }
+
+    /**
+     * Returns the function name of an entry point; names are unique across services.
+     */
+    public static String functionName(int serviceIndex, int entryPointIndex) {
+        return "svc" + serviceIndex + "Function" + entryPointIndex;
+    }
+
+    /**
+     * Generates the scanner output of every service, in service index order.
+     */
+    public List<ProjectInfo> generateProjectInfos() {
+        Random random = new Random(seed);
+        List<ProjectInfo> projectInfos = new ArrayList<>(shape.services());
+        for (int service = 0; service < shape.services(); service++) {
+            projectInfos.add(generateProjectInfo(service, random));
+        }
+        return projectInfos;
+    }
+
+    /**
+     * Generates every service's scanner output and processes it into ScanData.
+     *
+     * @return the scans keyed by service ID, with the called services as dependencies
+     */
+    public Map<String, ScanDataWithMetadata> generateScans(ScanDataProcessor processor) {
+        Map<String, ScanDataWithMetadata> scans = new LinkedHashMap<>();
+        for (ProjectInfo projectInfo : generateProjectInfos()) {
+            List<String> calledServices = new ArrayList<>();
+            for (ServiceUsage usage : projectInfo.getServiceUsages()) {
+                calledServices.add(usage.getServiceId());
+            }
+            String serviceId = projectInfo.getArtifactId();
+            scans.put(serviceId, new ScanDataWithMetadata(serviceId, commitOf(serviceId), false,
+                    calledServices.isEmpty() ? null : String.join(",", calledServices),
+                    processor.process(projectInfo)));
+        }
+        return scans;
+    }
+
+    /**
+     * Returns a request building every generated service into one app.
+     */
+    public BuildRequest buildRequest(String appName) {
+        BuildRequest request = new BuildRequest();
+        request.setAppName(appName);
+        for (int service = 0; service < shape.services(); service++) {
+            request.addService(serviceId(service), commitOf(serviceId(service)));
+        }
+        return request;
+    }
+
+    private ProjectInfo generateProjectInfo(int service, Random random) {
+        String serviceId = serviceId(service);
+        String packageName = "gov.bench." + serviceId.toLowerCase(Locale.ROOT);
+
+        ProjectInfo projectInfo = new ProjectInfo("/bench/" + serviceId, GROUP_ID, serviceId, "1.0.0");
+        projectInfo.setUIService(false);
+        projectInfo.setUIServiceMethodMappings(new HashMap<>());
+
+        Map<String, String> functionMappings = new HashMap<>();
+        Map<String, String> implMappings = new HashMap<>();
+        List<MethodReference> entryMethods = new ArrayList<>();
+        for (int entryPoint = 0; entryPoint < shape.entryPointsPerService(); entryPoint++) {
+            String interfaceMethod = interfaceMethod(service, entryPoint);
+            String implMethod = packageName + ".impl.ServiceImpl.entryPoint" + entryPoint + "(...)";
+            functionMappings.put(functionName(service, entryPoint), interfaceMethod);
+            implMappings.put(interfaceMethod, implMethod);
+            entryMethods.add(new MethodReference(implMethod, MethodAccessModifier.PUBLIC));
+        }
+        projectInfo.setFunctionMappings(functionMappings);
+        projectInfo.setMethodImplementationMappings(implMappings);
+
+        int helperCount = Math.max(1, shape.entryPointsPerService() * (shape.callChainDepth() - 1));
+        List<MethodReference> helpers = new ArrayList<>(helperCount);
+        for (int helper = 0; helper < helperCount; helper++) {
+            helpers.add(new MethodReference(packageName + ".impl.Helper" + (helper % 16) + ".step" + helper + "(...)",
+                    helper % 2 == 0 ? MethodAccessModifier.PUBLIC : MethodAccessModifier.PRIVATE));
+        }
+
+        Map<String, List<FunctionInvocation>> functionInvocations = new LinkedHashMap<>();
+        Map<String, List<ServiceInvocation>> serviceInvocations = new LinkedHashMap<>();
+        List<EventPublisherInvocation> eventPublisherInvocations = new ArrayList<>();
+        int site = 0;
+        for (MethodReference entryMethod : entryMethods) {
+            for (int call = 0; call < shape.fanOut(); call++) {
+                List<MethodReference> callChain = new ArrayList<>(shape.callChainDepth());
+                callChain.add(entryMethod);
+                while (callChain.size() < shape.callChainDepth()) {
+                    callChain.add(helpers.get(random.nextInt(helperCount)));
+                }
+                MethodReference enclosingMethod = callChain.get(callChain.size() - 1);
+                String invocationSite = "Helper.java:" + site++;
+
+                if (service > 0 && random.nextDouble() < shape.crossServiceCallDensity()) {
+                    int target = random.nextInt(service);
+                    ServiceInvocation invocation = new ServiceInvocation(invocationSite, enclosingMethod,
+                            interfaceMethod(target, random.nextInt(shape.entryPointsPerService())));
+                    invocation.setCallChain(callChain);
+                    serviceInvocations.computeIfAbsent(serviceId(target), id -> new ArrayList<>()).add(invocation);
+                } else if (random.nextInt(10) == 0) {
+                    EventPublisherInvocation invocation = new EventPublisherInvocation(invocationSite, enclosingMethod,
+                            "BENCH.TOPIC." + random.nextInt(TOPICS), TopicResolution.RESOLVED);
+                    invocation.setCallChain(callChain);
+                    eventPublisherInvocations.add(invocation);
+                } else {
+                    String functionId = "externalFunction" + random.nextInt(EXTERNAL_FUNCTIONS);
+                    FunctionInvocation invocation = new FunctionInvocation(invocationSite, enclosingMethod,
+                            random.nextInt(4) == 0 ? "executeAsync" : "execute");
+                    invocation.setCallChain(callChain);
+                    functionInvocations.computeIfAbsent(functionId, id -> new ArrayList<>()).add(invocation);
+                }
+            }
+        }
+
+        List<FunctionUsage> functionUsages = new ArrayList<>();
+        functionInvocations.forEach((functionId, invocations) -> {
+            FunctionUsage usage = new FunctionUsage(functionId, "gov.bench.functions." + functionId, "functions");
+            usage.setInvocations(invocations);
+            functionUsages.add(usage);
+        });
+        List<ServiceUsage> serviceUsages = new ArrayList<>();
+        List<String> serviceDependencies = new ArrayList<>();
+        serviceInvocations.forEach((targetId, invocations) -> {
+            String dependency = GROUP_ID + ":" + targetId + ":1.0.0";
+            ServiceUsage usage = new ServiceUsage(targetId, GROUP_ID + "." + targetId, dependency);
+            usage.setInvocations(invocations);
+            serviceUsages.add(usage);
+            serviceDependencies.add(dependency);
+        });
+        projectInfo.setFunctionUsages(functionUsages);
+        projectInfo.setServiceUsages(serviceUsages);
+        projectInfo.setEventPublisherInvocations(eventPublisherInvocations);
+        projectInfo.setLegacyGatewayHttpClientInvocations(new ArrayList<>());
+        projectInfo.setServiceDependencies(serviceDependencies);
+        return projectInfo;
+    }
+
+    private static String interfaceMethod(int service, int entryPoint) {
+        return "gov.bench." + serviceId(service).toLowerCase(Locale.ROOT) + ".IService.entryPoint" + entryPoint + "(...)";
+    }
+
+    private static String commitOf(String serviceId) {
+        return "commit-" + serviceId.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The size and connectivity of a generated graph.
+     *
+     * @param services number of services
+     * @param entryPointsPerService functions exposed by each service
+     * @param callChainDepth methods in each invocation's call chain, including the entry point
+     * @param fanOut invocations made by each entry point
+     * @param crossServiceCallDensity probability, from 0 to 1, that an invocation calls another service
+     */
+    public record Shape(int services, int entryPointsPerService, int callChainDepth, int fanOut,
+                        double crossServiceCallDensity) {
+        public Shape {
+            if (services <= 0 || entryPointsPerService <= 0 || callChainDepth <= 0) {
+                throw new IllegalArgumentException("Services, entry points and call chain depth must be positive");
+            }
+            if (fanOut < 0) {
+                throw new IllegalArgumentException("Fan-out cannot be negative");
+            }
+            if (crossServiceCallDensity < 0 || crossServiceCallDensity > 1) {
+                throw new IllegalArgumentException("Cross-service call density must be between 0 and 1");
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package gov.nystax.nimbus.codesnap.services.benchmark;
+
+import gov.nystax.nimbus.codesnap.services.processor.ScanDataProcessor;
+import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService;
+import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.ScanDataWithMetadata;
+import gov.nystax.nimbus.codesnap.services.processor.domain.EntryPointDependencies;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceCallReference;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.ProjectInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScanGraphGeneratorTest {
+
+    private static final ScanGraphGenerator.Shape SHAPE = new ScanGraphGenerator.Shape(8, 3, 4, 5, 0.5);
+
+    @Test
+    void sameSeedGeneratesSameGraph() {
+        List<ProjectInfo> first = new ScanGraphGenerator(SHAPE, 7).generateProjectInfos();
+
+        assertEquals(first, new ScanGraphGenerator(SHAPE, 7).generateProjectInfos());
+        assertNotEquals(first, new ScanGraphGenerator(SHAPE, 8).generateProjectInfos());
+    }
+
+    @Test
+    void servicesOnlyCallLowerNumberedServices() {
+        Map<String, ScanDataWithMetadata> scans = new ScanGraphGenerator(SHAPE, 7)
+                .generateScans(new ScanDataProcessor());
+
+        int serviceCalls = 0;
+        for (int service = 0; service < SHAPE.services(); service++) {
+            ScanDataWithMetadata scan = scans.get(ScanGraphGenerator.serviceId(service));
+            Map<String, EntryPointDependencies> entryPoints = scan.scanData().getEntryPointChildrenView();
+            assertEquals(SHAPE.entryPointsPerService(), entryPoints.size());
+            for (EntryPointDependencies deps : entryPoints.values()) {
+                for (ServiceCallReference call : deps.getServiceCallsView()) {
+                    assertTrue(call.getServiceId().compareTo(scan.serviceId()) < 0, call.toString());
+                    serviceCalls++;
+                }
+            }
+        }
+        assertTrue(serviceCalls > 0);
+        assertEquals(SHAPE.services(), new ServiceScanService().topologicalSort(scans).size());
+    }
+}
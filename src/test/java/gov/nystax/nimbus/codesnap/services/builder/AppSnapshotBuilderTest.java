@@ -1,12 +1,15 @@
 package gov.nystax.nimbus.codesnap.services.builder;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import gov.nystax.nimbus.codesnap.services.builder.domain.AppTemplateNode;
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildMetrics;
 import gov.nystax.nimbus.codesnap.services.builder.domain.BuildRequest;
 import gov.nystax.nimbus.codesnap.services.builder.domain.BuildResult;
 import gov.nystax.nimbus.codesnap.services.builder.domain.BuildResult.FailedServiceInfo;
 import gov.nystax.nimbus.codesnap.services.builder.domain.ChildReference;
 import gov.nystax.nimbus.codesnap.services.builder.domain.FunctionPoolEntry;
 import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService;
+import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.BuildScanSet;
 import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.ScanDataWithMetadata;
 import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ServiceCommitPair;
 import gov.nystax.nimbus.codesnap.services.processor.domain.EntryPointDependencies;
@@ -18,14 +21,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.net.http.HttpClient;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -754,6 +761,416 @@ class AppSnapshotBuilderTest {
         }
     }
 
+    @Nested
+    @DisplayName("Parallel Build Tests")
+    class ParallelBuildTests {
+
+        @Test
+        @DisplayName("Parallel build should produce the same JSON as a serial build")
+        void parallelBuildMatchesSerialBuild() throws Exception {
+            BuildRequest request = new BuildRequest();
+            request.setAppName("parallel-app");
+
+            // Shared downstream service called by every regular service
+            ScanData common = new ScanData();
+            common.setFunctionMappings(new HashMap<>());
+            common.setMethodImplementationMapping(Map.of("gov.common.ICommon.lookup(...)",
+                    "gov.common.impl.CommonImpl.lookup(...)"));
+            EntryPointDependencies commonDeps = new EntryPointDependencies();
+            commonDeps.addFunction("commonLeaf");
+            commonDeps.addAsyncFunction("commonAsync");
+            commonDeps.addTopic("commonTopic");
+            common.setPublicMethodDependencies(Map.of("gov.common.impl.CommonImpl.lookup(...)", commonDeps));
+            mockScanService.addScan("COMMON", "c1", false, null, common);
+            request.addService("COMMON", "c1");
+
+            for (int i = 0; i < 12; i++) {
+                ScanData scanData = new ScanData();
+                Map<String, String> functionMappings = new HashMap<>();
+                Map<String, EntryPointDependencies> entryPoints = new HashMap<>();
+                for (int f = 0; f < 4; f++) {
+                    // Every service also exposes sharedFunc so pool entries are merged across services
+                    String functionName = f == 0 ? "sharedFunc" : "func" + i + "_" + f;
+                    functionMappings.put(functionName, "gov.svc" + i + ".ISvc." + functionName + "(...)");
+                    EntryPointDependencies deps = new EntryPointDependencies();
+                    deps.addFunction("direct" + i + "_" + f);
+                    deps.addAsyncFunction("async" + (i % 3));
+                    deps.addServiceCall("COMMON", "gov.common.ICommon.lookup(...)");
+                    entryPoints.put(functionName, deps);
+                }
+                scanData.setFunctionMappings(functionMappings);
+                scanData.setEntryPointChildren(entryPoints);
+                mockScanService.addScan("SVC" + i, "s" + i, false, "COMMON", scanData);
+                request.addService("SVC" + i, "s" + i);
+            }
+
+            ScanData uiScanData = new ScanData();
+            uiScanData.setUiServiceMethodMappings(Map.of("load", "gov.ui.IUI.load(...)"));
+            EntryPointDependencies uiDeps = new EntryPointDependencies();
+            uiDeps.addFunction("sharedFunc");
+            uiDeps.addServiceCall("COMMON", "gov.common.ICommon.lookup(...)");
+            uiScanData.setEntryPointChildren(Map.of("load", uiDeps));
+            mockScanService.addScan("UI", "u1", true, "COMMON", uiScanData);
+            request.addService("UI", "u1");
+
+            ObjectMapper mapper = new ObjectMapper();
+            String serialJson = mapper.writeValueAsString(builder.build(null, request));
+
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                AppSnapshotBuilder parallelBuilder =
+                        new AppSnapshotBuilder(mockScanService, new QueueNameResolver(), executor);
+                assertTrue(parallelBuilder.isParallel());
+                for (int run = 0; run < 5; run++) {
+                    String parallelJson = mapper.writeValueAsString(parallelBuilder.build(null, request));
+                    assertEquals(serialJson, parallelJson);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Failures while planning a service should propagate from a parallel build")
+        void parallelBuildPropagatesFailures() {
+            ScanData scanData = new ScanData();
+            scanData.setFunctionMappings(Map.of("func", "gov.IService.func(...)"));
+            mockScanService.addScan("SVC", "s1", false, null, scanData);
+
+            BuildRequest request = new BuildRequest();
+            request.setAppName("failing-app");
+            request.addService("SVC", "s1");
+
+            QueueNameResolver failingResolver = new QueueNameResolver() {
+                @Override
+                public String resolveForFunction(Connection connection, String functionName,
+                                                 LookupCounter counter) {
+                    throw new IllegalStateException("resolver down");
+                }
+            };
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                AppSnapshotBuilder parallelBuilder =
+                        new AppSnapshotBuilder(mockScanService, failingResolver, executor);
+                IllegalStateException e = assertThrows(IllegalStateException.class,
+                        () -> parallelBuilder.build(null, request));
+                assertEquals("resolver down", e.getMessage());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental Build Tests")
+    class IncrementalBuildTests {
+
+        private final ObjectMapper mapper = new ObjectMapper();
+
+        @Test
+        @DisplayName("Unchanged services should be reused and the result should match a full build")
+        void unchangedBuildReusesEveryPlan() throws Exception {
+            BuildRequest request = setUpCallGraph("c1");
+
+            AppSnapshotBuilder.BuildState first = builder.buildIncremental(null, request, null);
+            AppSnapshotBuilder.BuildState second = builder.buildIncremental(null, request, first);
+
+            assertEquals(Set.of("COMMON", "CALLER", "OTHER", "UI"), first.getReplannedServiceIds());
+            assertTrue(second.getReplannedServiceIds().isEmpty());
+            assertEquals(mapper.writeValueAsString(builder.build(null, request)),
+                    mapper.writeValueAsString(second.getResult()));
+
+            // Reused UI nodes are copies, so results do not share mutable nodes
+            AppTemplateNode firstUi = findUiServices(first.getResult());
+            AppTemplateNode secondUi = findUiServices(second.getResult());
+            assertEquals(firstUi, secondUi);
+            assertNotSame(firstUi, secondUi);
+        }
+
+        @Test
+        @DisplayName("A changed service should replan itself and its transitive callers only")
+        void changedServiceReplansReverseDependencies() throws Exception {
+            AppSnapshotBuilder.BuildState first = builder.buildIncremental(null, setUpCallGraph("c1"), null);
+
+            BuildRequest changedRequest = setUpCallGraph("c2");
+            AppSnapshotBuilder.BuildState second = builder.buildIncremental(null, changedRequest, first);
+
+            assertEquals(Set.of("COMMON", "CALLER", "UI"), second.getReplannedServiceIds());
+            assertEquals(mapper.writeValueAsString(builder.build(null, changedRequest)),
+                    mapper.writeValueAsString(second.getResult()));
+            assertTrue(second.getResult().getFunctionPool().get("callerfunc").containsSyncRef("leaf_c2"));
+        }
+
+        @Test
+        @DisplayName("A state from a different app should not be reused")
+        void otherAppStateIsNotReused() throws Exception {
+            BuildRequest request = setUpCallGraph("c1");
+            AppSnapshotBuilder.BuildState otherApp =
+                    builder.buildIncremental(null, copyWithAppName(request, "other-app"), null);
+
+            AppSnapshotBuilder.BuildState state = builder.buildIncremental(null, request, otherApp);
+
+            assertEquals(4, state.getReplannedServiceIds().size());
+            assertEquals("incremental-app", state.getResult().getAppTemplate().getName());
+        }
+
+        /**
+         * COMMON is called by CALLER (regular) and UI; OTHER calls nothing.
+         */
+        private BuildRequest setUpCallGraph(String commonCommit) {
+            ScanData common = new ScanData();
+            common.setMethodImplementationMapping(Map.of("gov.common.ICommon.lookup(...)",
+                    "gov.common.impl.CommonImpl.lookup(...)"));
+            EntryPointDependencies commonDeps = new EntryPointDependencies();
+            commonDeps.addFunction("leaf_" + commonCommit);
+            common.setPublicMethodDependencies(Map.of("gov.common.impl.CommonImpl.lookup(...)", commonDeps));
+            mockScanService.addScan("COMMON", commonCommit, false, null, common);
+
+            ScanData caller = new ScanData();
+            caller.setFunctionMappings(Map.of("callerFunc", "gov.caller.ICaller.run(...)"));
+            EntryPointDependencies callerDeps = new EntryPointDependencies();
+            callerDeps.addServiceCall("COMMON", "gov.common.ICommon.lookup(...)");
+            caller.setEntryPointChildren(Map.of("callerFunc", callerDeps));
+            mockScanService.addScan("CALLER", "a1", false, "COMMON", caller);
+
+            ScanData other = new ScanData();
+            other.setFunctionMappings(Map.of("otherFunc", "gov.other.IOther.run(...)"));
+            EntryPointDependencies otherDeps = new EntryPointDependencies();
+            otherDeps.addFunction("otherLeaf");
+            other.setEntryPointChildren(Map.of("otherFunc", otherDeps));
+            mockScanService.addScan("OTHER", "o1", false, null, other);
+
+            ScanData ui = new ScanData();
+            ui.setUiServiceMethodMappings(Map.of("load", "gov.ui.IUI.load(...)"));
+            EntryPointDependencies uiDeps = new EntryPointDependencies();
+            uiDeps.addServiceCall("COMMON", "gov.common.ICommon.lookup(...)");
+            ui.setEntryPointChildren(Map.of("load", uiDeps));
+            mockScanService.addScan("UI", "u1", true, "COMMON", ui);
+
+            BuildRequest request = new BuildRequest();
+            request.setAppName("incremental-app");
+            request.addService("COMMON", commonCommit);
+            request.addService("CALLER", "a1");
+            request.addService("OTHER", "o1");
+            request.addService("UI", "u1");
+            return request;
+        }
+
+        private BuildRequest copyWithAppName(BuildRequest request, String appName) {
+            BuildRequest copy = new BuildRequest();
+            copy.setAppName(appName);
+            request.getServices().forEach(service -> copy.addService(service.getServiceId(), service.getGitCommitHash()));
+            return copy;
+        }
+
+        private AppTemplateNode findUiServices(BuildResult result) {
+            for (AppTemplateNode child : result.getAppTemplate().getChildren()) {
+                if (AppTemplateNode.TYPE_UI_SERVICES.equals(child.getType())) {
+                    return child;
+                }
+            }
+            return fail("No UI services node");
+        }
+    }
+
+    @Nested
+    @DisplayName("Function Pool Sink Tests")
+    class FunctionPoolSinkTests {
+
+        @Test
+        @DisplayName("Sink should receive every pool entry once, after the last service exposing it")
+        void sinkReceivesFinalEntries() throws Exception {
+            BuildRequest request = setUpSharedFunction();
+            BuildResult fullResult = builder.build(null, request);
+
+            Map<String, FunctionPoolEntry> emitted = new LinkedHashMap<>();
+            BuildResult result = builder.build(null, request, (key, entry) ->
+                    assertNull(emitted.put(key, entry), "emitted twice: " + key));
+
+            assertEquals(fullResult.getFunctionPool(), emitted);
+            assertTrue(result.getFunctionPool().isEmpty());
+            assertEquals(fullResult.getAppTemplate(), result.getAppTemplate());
+
+            // PROVIDER is applied before CONSUMER, which also exposes sharedFunc
+            assertEquals("providerfunc", emitted.keySet().iterator().next());
+            assertEquals(Set.of("sync-provider", "sync-consumer"), syncRefs(emitted.get("sharedfunc")));
+        }
+
+        @Test
+        @DisplayName("Parallel build should emit the same entries as a serial build")
+        void parallelBuildEmitsSameEntries() throws Exception {
+            BuildRequest request = setUpSharedFunction();
+            Map<String, FunctionPoolEntry> serial = new LinkedHashMap<>();
+            builder.build(null, request, serial::put);
+
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                AppSnapshotBuilder parallelBuilder =
+                        new AppSnapshotBuilder(mockScanService, new QueueNameResolver(), executor);
+                Map<String, FunctionPoolEntry> parallel = new LinkedHashMap<>();
+                parallelBuilder.build(null, request, parallel::put);
+
+                assertEquals(new ArrayList<>(serial.keySet()), new ArrayList<>(parallel.keySet()));
+                assertEquals(serial, parallel);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        /**
+         * CONSUMER depends on PROVIDER; both expose sharedFunc with different dependencies.
+         */
+        private BuildRequest setUpSharedFunction() {
+            ScanData provider = new ScanData();
+            provider.setFunctionMappings(Map.of(
+                    "providerFunc", "gov.provider.IProvider.run(...)",
+                    "sharedFunc", "gov.provider.IProvider.shared(...)"));
+            EntryPointDependencies providerDeps = new EntryPointDependencies();
+            providerDeps.addFunction("sync-provider");
+            provider.setEntryPointChildren(Map.of("sharedFunc", providerDeps));
+            mockScanService.addScan("PROVIDER", "p1", false, null, provider);
+
+            ScanData consumer = new ScanData();
+            consumer.setFunctionMappings(Map.of(
+                    "consumerFunc", "gov.consumer.IConsumer.run(...)",
+                    "sharedFunc", "gov.consumer.IConsumer.shared(...)"));
+            EntryPointDependencies consumerDeps = new EntryPointDependencies();
+            consumerDeps.addFunction("sync-consumer");
+            consumer.setEntryPointChildren(Map.of("sharedFunc", consumerDeps));
+            mockScanService.addScan("CONSUMER", "c1", false, "PROVIDER", consumer);
+
+            BuildRequest request = new BuildRequest();
+            request.setAppName("sink-app");
+            request.addService("CONSUMER", "c1");
+            request.addService("PROVIDER", "p1");
+            return request;
+        }
+
+        private Set<String> syncRefs(FunctionPoolEntry entry) {
+            Set<String> refs = new HashSet<>();
+            for (ChildReference child : entry.getChildren()) {
+                if (child.isSyncRef()) {
+                    refs.add(child.getRef());
+                }
+            }
+            return refs;
+        }
+    }
+
+    @Nested
+    @DisplayName("Build Metrics Tests")
+    class BuildMetricsTests {
+
+        @Test
+        @DisplayName("Build should record every builder phase and the transitive resolution work")
+        void buildRecordsPhasesAndCounters() throws SQLException {
+            ScanData scanDataA = new ScanData();
+            scanDataA.setFunctionMappings(Map.of("funcA", "gov.a.IA.run(...)"));
+            EntryPointDependencies depsA = new EntryPointDependencies();
+            depsA.addServiceCall("SERVICE_B", "gov.b.IB.lookup(...)");
+            scanDataA.setEntryPointChildren(Map.of("funcA", depsA));
+
+            ScanData scanDataB = new ScanData();
+            scanDataB.setMethodImplementationMapping(Map.of("gov.b.IB.lookup(...)", "gov.b.impl.B.lookup(...)"));
+            EntryPointDependencies depsB = new EntryPointDependencies();
+            depsB.addFunction("leaf");
+            scanDataB.setPublicMethodDependencies(Map.of("gov.b.impl.B.lookup(...)", depsB));
+
+            mockScanService.addScan("SERVICE_A", "a1", false, "SERVICE_B", scanDataA);
+            mockScanService.addScan("SERVICE_B", "b1", false, null, scanDataB);
+
+            BuildRequest request = new BuildRequest();
+            request.setAppName("metrics-app");
+            request.addService("SERVICE_A", "a1");
+            request.addService("SERVICE_B", "b1");
+
+            BuildMetrics metrics = builder.build(null, request).getMetrics();
+
+            assertNotNull(metrics);
+            for (BuildMetrics.Phase phase : List.of(BuildMetrics.Phase.SCAN_LOAD, BuildMetrics.Phase.JSON_PARSE,
+                    BuildMetrics.Phase.TOPOLOGICAL_SORT, BuildMetrics.Phase.TRANSITIVE_MAP,
+                    BuildMetrics.Phase.QUEUE_PRELOAD, BuildMetrics.Phase.SERVICE_PROCESSING)) {
+                assertTrue(metrics.getPhases().containsKey(phase), "missing " + phase);
+            }
+            assertFalse(metrics.getPhases().containsKey(BuildMetrics.Phase.SERIALIZATION));
+            assertEquals(1, metrics.getTransitiveNodeVisits());
+            assertEquals(1, metrics.getSlowestEntryPoints().size());
+            assertEquals("funcA", metrics.getSlowestEntryPoints().get(0).entryPoint());
+            assertEquals(0, metrics.getQueueEndpointRequests());
+        }
+
+        @Test
+        @DisplayName("Only the slowest entry points should be kept, slowest first")
+        void slowestEntryPointsAreBounded() throws SQLException {
+            ScanData scanData = new ScanData();
+            Map<String, String> functionMappings = new HashMap<>();
+            for (int i = 0; i < BuildMetricsRecorder.SLOWEST_ENTRY_POINTS + 5; i++) {
+                functionMappings.put("func" + i, "gov.svc.ISvc.func" + i + "(...)");
+            }
+            scanData.setFunctionMappings(functionMappings);
+            mockScanService.addScan("SERVICE", "commit1", false, null, scanData);
+
+            BuildRequest request = new BuildRequest();
+            request.setAppName("metrics-app");
+            request.addService("SERVICE", "commit1");
+
+            List<BuildMetrics.EntryPointTiming> slowest =
+                    builder.build(null, request).getMetrics().getSlowestEntryPoints();
+
+            assertEquals(BuildMetricsRecorder.SLOWEST_ENTRY_POINTS, slowest.size());
+            for (int i = 1; i < slowest.size(); i++) {
+                assertTrue(slowest.get(i - 1).wallNanos() >= slowest.get(i).wallNanos());
+            }
+        }
+
+        @Test
+        @DisplayName("Queue counters should not include lookups made by others on the same resolver")
+        void queueCountersOnlyCoverTheBuild() throws SQLException {
+            ScanData scanData = new ScanData();
+            scanData.setFunctionMappings(Map.of("funcA", "gov.svc.ISvc.funcA(...)", "funcB", "gov.svc.ISvc.funcB(...)"));
+            mockScanService.addScan("SERVICE", "commit1", false, null, scanData);
+
+            // Every lookup made for the build is accompanied by one made for another caller
+            QueueNameResolver sharedResolver = new QueueNameResolver(HttpClient.newHttpClient(), null, null) {
+                @Override
+                public String resolveForFunction(Connection connection, String functionName,
+                                                 LookupCounter counter) {
+                    resolveForTopic(connection, "other-" + functionName);
+                    return super.resolveForFunction(connection, functionName, counter);
+                }
+            };
+
+            BuildRequest request = new BuildRequest();
+            request.setAppName("metrics-app");
+            request.addService("SERVICE", "commit1");
+
+            BuildMetrics metrics = new AppSnapshotBuilder(mockScanService, sharedResolver)
+                    .build(null, request).getMetrics();
+
+            // Preloading misses both names; planning then hits them
+            assertEquals(2, metrics.getQueueCacheMisses());
+            assertEquals(2, metrics.getQueueCacheHits());
+            assertEquals(4, sharedResolver.getQueueNameCache().stats().missCount());
+        }
+
+        @Test
+        @DisplayName("Serialization should be recorded on the result's metrics")
+        void serializationIsRecorded() throws SQLException {
+            ScanData scanData = new ScanData();
+            scanData.setFunctionMappings(Map.of("func", "gov.svc.ISvc.func(...)"));
+            mockScanService.addScan("SERVICE", "commit1", false, null, scanData);
+
+            BuildRequest request = new BuildRequest();
+            request.setAppName("metrics-app");
+            request.addService("SERVICE", "commit1");
+
+            BuildResult result = builder.build(null, request);
+            new AppSnapshotService(builder).serializeToJson(result);
+
+            assertTrue(result.getMetrics().getPhases().containsKey(BuildMetrics.Phase.SERIALIZATION));
+        }
+    }
+
     // Mock implementations for testing
 
     private static class MockServiceScanService extends ServiceScanService {
@@ -810,6 +1227,24 @@ class AppSnapshotBuilderTest {
             return result;
         }
 
+        @Override
+        public BuildScanSet loadBuildScanSet(
+                Connection connection, List<ServiceCommitPair> serviceCommits) {
+            List<FailedServiceScanRecord> failed = findFailedScans(connection, serviceCommits);
+            Set<String> failedServiceIds = new HashSet<>();
+            for (FailedServiceScanRecord failure : failed) {
+                failedServiceIds.add(failure.getServiceId());
+            }
+
+            List<ServiceCommitPair> valid = new ArrayList<>();
+            for (ServiceCommitPair pair : serviceCommits) {
+                if (!failedServiceIds.contains(pair.serviceId())) {
+                    valid.add(pair);
+                }
+            }
+            return new BuildScanSet(loadScansForBuild(connection, valid), failed);
+        }
+
         @Override
         public List<String> topologicalSort(Map<String, ScanDataWithMetadata> scansById) {
             // Simple implementation: services with no deps first
@@ -0,0 +1,125 @@
+package gov.nystax.nimbus.codesnap.services.builder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.nystax.nimbus.codesnap.services.builder.AppSnapshotService.JsonLayout;
+import gov.nystax.nimbus.codesnap.services.builder.domain.AppTemplateNode;
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildRequest;
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildResult;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppSnapshotServiceTest {
+
+    private final AppSnapshotService service = new AppSnapshotService(null);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void indentedStreamsMatchStringSerialization() throws Exception {
+        BuildResult result = createResult();
+
+        StringWriter appTemplate = new StringWriter();
+        service.writeAppTemplate(result.getAppTemplate(), appTemplate, JsonLayout.INDENTED);
+        ByteArrayOutputStream functionPool = new ByteArrayOutputStream();
+        service.writeFunctionPool(result.getFunctionPool(), functionPool, JsonLayout.INDENTED);
+
+        AppSnapshotService.BuildResultJson expected = service.serializeToJson(result);
+        assertEquals(expected.appTemplateJson(), appTemplate.toString());
+        assertEquals(expected.functionPoolJson(), functionPool.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void compactBuildResultHoldsBothDocuments() throws Exception {
+        BuildResult result = createResult();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeBuildResult(result, out, JsonLayout.COMPACT);
+
+        String json = out.toString(StandardCharsets.UTF_8);
+        assertFalse(json.contains("\n"));
+        AppSnapshotService.BuildResultJson expected = service.serializeToJson(result);
+        JsonNode tree = objectMapper.readTree(json);
+        assertEquals(objectMapper.readTree(expected.appTemplateJson()), tree.get("appTemplate"));
+        assertEquals(objectMapper.readTree(expected.functionPoolJson()), tree.get("functionPool"));
+    }
+
+    @Test
+    void destinationIsLeftOpen() throws Exception {
+        StringWriter writer = new StringWriter() {
+            @Override
+            public void close() {
+                fail("writer was closed");
+            }
+        };
+
+        service.writeBuildResult(createResult(), writer, JsonLayout.INDENTED);
+
+        assertTrue(writer.toString().startsWith("{"));
+    }
+
+    @Test
+    void buildAndWriteStreamsSinkEntriesBeforeAppTemplate() throws Exception {
+        BuildResult built = createResult();
+        AppSnapshotBuilder builder = new AppSnapshotBuilder(null, null) {
+            @Override
+            public BuildResult build(Connection connection, BuildRequest request, FunctionPoolSink sink) {
+                BuildResult result = new BuildResult();
+                result.setAppTemplate(built.getAppTemplate());
+                built.getFunctionPool().forEach(sink::accept);
+                return result;
+            }
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        BuildResult result = new AppSnapshotService(builder).buildAndWrite(null, new BuildRequest(), out,
+                JsonLayout.INDENTED);
+
+        JsonNode tree = objectMapper.readTree(out.toByteArray());
+        AppSnapshotService.BuildResultJson expected = service.serializeToJson(built);
+        assertEquals(objectMapper.readTree(expected.functionPoolJson()), tree.get("functionPool"));
+        assertEquals(objectMapper.readTree(expected.appTemplateJson()), tree.get("appTemplate"));
+        assertTrue(result.getFunctionPool().isEmpty());
+    }
+
+    @Test
+    void serializationEmitsBuildPhaseEventWhenEnabled(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("build-phase.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(BuildPhaseEvent.NAME);
+            recording.start();
+            service.serializeToJson(createResult());
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(BuildPhaseEvent.NAME))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals("SERIALIZATION", events.get(0).getString("phase"));
+        assertEquals("test-app", events.get(0).getString("appName"));
+    }
+
+    private BuildResult createResult() {
+        BuildResult result = new BuildResult();
+        AppTemplateNode app = AppTemplateNode.app("test-app");
+        app.addFunctionRef("func-a");
+        app.addAsyncFunctionRef("func-b", "FUNC.B.Q");
+        result.setAppTemplate(app);
+        result.getOrCreateFunction("func-a", "test-app").addSyncRef("func-b");
+        result.getOrCreateFunction("func-b", "test-app").addTopicRef("topic", "TOPIC.Q");
+        return result;
+    }
+}
@@ -0,0 +1,163 @@
+package gov.nystax.nimbus.codesnap.services.builder;
+
+import gov.nystax.nimbus.codesnap.services.builder.AppSnapshotService.BuildResultJson;
+import gov.nystax.nimbus.codesnap.services.builder.QueueNameCacheTest.MutableClock;
+import gov.nystax.nimbus.codesnap.services.builder.domain.BuildRequest;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuildResultCacheTest {
+
+    private static final BuildResultJson RESULT = new BuildResultJson("{\"name\":\"app\"}", "{}");
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void keyIgnoresServiceOrderButNotCommitsOrConfig() {
+        BuildRequest request = request("app", "SVC1", "aaa", "SVC2", "bbb");
+        String key = BuildResultCache.keyFor(request, "config");
+
+        assertEquals(key, BuildResultCache.keyFor(request("app", "SVC2", "bbb", "SVC1", "aaa"), "config"));
+        assertNotEquals(key, BuildResultCache.keyFor(request("app", "SVC1", "aaa", "SVC2", "ccc"), "config"));
+        assertNotEquals(key, BuildResultCache.keyFor(request("other", "SVC1", "aaa", "SVC2", "bbb"), "config"));
+        assertNotEquals(key, BuildResultCache.keyFor(request, "other-config"));
+    }
+
+    @Test
+    void cachedResultsExpireAfterTtl() throws SQLException {
+        BuildResultCache cache = new BuildResultCache(1024 * 1024, Duration.ofMinutes(5), clock);
+        AtomicInteger loads = new AtomicInteger();
+        BuildResultCache.Loader loader = () -> {
+            loads.incrementAndGet();
+            return new BuildResultCache.Loaded(RESULT, true);
+        };
+
+        assertSame(RESULT, cache.getOrLoad("key", loader));
+        assertSame(RESULT, cache.getOrLoad("key", loader));
+        assertEquals(1, loads.get());
+
+        clock.advance(Duration.ofMinutes(6));
+        cache.getOrLoad("key", loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void uncacheableResultsAreReturnedButNotStored() throws SQLException {
+        BuildResultCache cache = new BuildResultCache(1024 * 1024, Duration.ofMinutes(5), clock);
+
+        assertSame(RESULT, cache.getOrLoad("key", () -> new BuildResultCache.Loaded(RESULT, false)));
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvictedOverBudget() {
+        // Each entry weighs 256 bytes of overhead plus two bytes per character
+        long entryWeight = 256 + 2L * (RESULT.appTemplateJson().length() + RESULT.functionPoolJson().length());
+        BuildResultCache cache = new BuildResultCache(2 * entryWeight, Duration.ofMinutes(5), clock);
+        cache.put("a", RESULT);
+        cache.put("b", RESULT);
+        cache.get("a");
+        cache.put("c", RESULT);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.stats().evictionCount());
+        assertEquals(2 * entryWeight, cache.stats().weightBytes());
+    }
+
+    @Test
+    void concurrentRequestsShareOneLoad() throws Exception {
+        BuildResultCache cache = new BuildResultCache(1024 * 1024, Duration.ofMinutes(5), clock);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<BuildResultJson>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.getOrLoad("key", () -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new BuildResultCache.Loaded(RESULT, true);
+                })));
+            }
+
+            // Wait until every other caller is blocked on the first one's load
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cache.stats().sharedLoadCount() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<BuildResultJson> result : results) {
+                assertSame(RESULT, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void loadFinishedAfterMissIsReusedInsteadOfLoadingAgain() throws SQLException {
+        AtomicInteger loads = new AtomicInteger();
+        BuildResultCache.Loader loader = () -> {
+            loads.incrementAndGet();
+            return new BuildResultCache.Loaded(RESULT, true);
+        };
+        AtomicBoolean interleaved = new AtomicBoolean();
+        BuildResultCache cache = new BuildResultCache(1024 * 1024, Duration.ofMinutes(5), clock) {
+            @Override
+            public BuildResultJson get(String key) {
+                BuildResultJson result = super.get(key);
+                if (result == null && interleaved.compareAndSet(false, true)) {
+                    // Another caller runs its whole load between this miss and the in-flight check
+                    assertSame(RESULT, assertDoesNotThrow(() -> getOrLoad(key, loader)));
+                }
+                return result;
+            }
+        };
+
+        assertSame(RESULT, cache.getOrLoad("key", loader));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().sharedLoadCount());
+    }
+
+    @Test
+    void failedLoadIsNotCachedAndIsRetried() throws SQLException {
+        BuildResultCache cache = new BuildResultCache(1024 * 1024, Duration.ofMinutes(5), clock);
+
+        assertThrows(SQLException.class, () -> cache.getOrLoad("key", () -> {
+            throw new SQLException("database unavailable");
+        }));
+        assertSame(RESULT, cache.getOrLoad("key", () -> new BuildResultCache.Loaded(RESULT, true)));
+    }
+
+    private static BuildRequest request(String appName, String... serviceCommitPairs) {
+        BuildRequest request = new BuildRequest();
+        request.setAppName(appName);
+        for (int i = 0; i < serviceCommitPairs.length; i += 2) {
+            request.addService(serviceCommitPairs[i], serviceCommitPairs[i + 1]);
+        }
+        return request;
+    }
+}
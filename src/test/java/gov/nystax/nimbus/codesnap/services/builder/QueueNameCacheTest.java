@@ -0,0 +1,99 @@
+package gov.nystax.nimbus.codesnap.services.builder;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueueNameCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void resolvedNamesAreFreshThenStaleThenExpired() {
+        QueueNameCache cache = new QueueNameCache(Duration.ofMinutes(10), Duration.ofMinutes(1),
+                Duration.ofMinutes(5), 100, clock);
+        cache.put("FUNCTION", "func", "FUNC.Q", true);
+
+        assertEquals(new QueueNameCache.Lookup("FUNC.Q", false), cache.lookup("FUNCTION", "func"));
+
+        clock.advance(Duration.ofMinutes(12));
+        assertEquals(new QueueNameCache.Lookup("FUNC.Q", true), cache.lookup("FUNCTION", "func"));
+
+        clock.advance(Duration.ofMinutes(4));
+        assertNull(cache.lookup("FUNCTION", "func"));
+        assertEquals(0, cache.stats().entryCount());
+    }
+
+    @Test
+    void unresolvedNamesUseNegativeTtlAndAreNotServedStale() {
+        QueueNameCache cache = new QueueNameCache(Duration.ofMinutes(10), Duration.ofMinutes(1),
+                Duration.ofMinutes(5), 100, clock);
+        cache.put("TOPIC", "topic", "topic_queue", false);
+
+        assertNotNull(cache.lookup("TOPIC", "topic"));
+
+        clock.advance(Duration.ofMinutes(2));
+        assertNull(cache.lookup("TOPIC", "topic"));
+    }
+
+    @Test
+    void targetTypesAreCachedSeparately() {
+        QueueNameCache cache = new QueueNameCache();
+        cache.put("FUNCTION", "name", "FUNC.Q", true);
+
+        assertNull(cache.lookup("TOPIC", "name"));
+        assertEquals("FUNC.Q", cache.lookup("FUNCTION", "name").queueName());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvicted() {
+        QueueNameCache cache = new QueueNameCache(Duration.ofMinutes(10), Duration.ofMinutes(1),
+                Duration.ofMinutes(5), 2, clock);
+        cache.put("FUNCTION", "a", "A.Q", true);
+        cache.put("FUNCTION", "b", "B.Q", true);
+        cache.lookup("FUNCTION", "a");
+        cache.put("FUNCTION", "c", "C.Q", true);
+
+        assertNotNull(cache.lookup("FUNCTION", "a"));
+        assertNull(cache.lookup("FUNCTION", "b"));
+        assertNotNull(cache.lookup("FUNCTION", "c"));
+        assertEquals(1, cache.stats().evictionCount());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new QueueNameCache(Duration.ofMinutes(-1), Duration.ZERO, Duration.ZERO, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new QueueNameCache(Duration.ZERO, Duration.ZERO, Duration.ZERO, 0));
+    }
+
+    static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package gov.nystax.nimbus.codesnap.services.builder;
 
+import gov.nystax.nimbus.codesnap.services.processor.dao.QueueMappingDAO;
 import org.junit.jupiter.api.Test;
 
 import javax.net.ssl.SSLSession;
 import java.io.IOException;
+import java.lang.reflect.Proxy;
 import java.net.Authenticator;
 import java.net.CookieHandler;
 import java.net.ProxySelector;
@@ -12,15 +14,20 @@ import java.net.http.HttpClient;
 import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.sql.Connection;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class QueueNameResolverTest {
@@ -105,6 +112,235 @@ class QueueNameResolverTest {
         assertEquals(1, httpClient.getCallCount());
     }
 
+    @Test
+    void preloadMappings_resolvesAsynchronouslyAndCaches() {
+        ScriptedHttpClient httpClient = new ScriptedHttpClient(List.of(
+                new ScriptedHttpClient.ScriptedResponseData(200, "{\"async_url\":\"OCP.DEV.PRELOADED.Q\"}")
+        ));
+
+        QueueNameResolver resolver = new QueueNameResolver(
+                httpClient,
+                URI.create("http://resolver.local/function-queue"),
+                URI.create("http://resolver.local/topic-queue")
+        );
+
+        resolver.preloadMappings(null, List.of("funcA", "funcB"), List.of());
+        String queueName = resolver.resolveForFunction(null, "funcA");
+
+        assertEquals("PRELOADED.Q", queueName);
+        assertEquals(2, httpClient.getCallCount(), "Expected lookup to be served from the preloaded cache");
+    }
+
+    @Test
+    void preloadMappings_coalescesDuplicateNames() {
+        ScriptedHttpClient httpClient = new ScriptedHttpClient(List.of(
+                new ScriptedHttpClient.ScriptedResponseData(200, "{\"MQ_QUEUE\":\"TOPIC.Q\"}")
+        ), 50L);
+
+        QueueNameResolver resolver = new QueueNameResolver(
+                httpClient,
+                URI.create("http://resolver.local/function-queue"),
+                URI.create("http://resolver.local/topic-queue")
+        );
+
+        resolver.preloadMappings(null, List.of(), List.of("Payment", "PAYMENT", "payment"));
+
+        assertEquals(1, httpClient.getCallCount());
+        assertEquals("TOPIC.Q", resolver.resolveForTopic(null, "Payment"));
+    }
+
+    @Test
+    void preloadMappings_boundsRequestsInFlight() {
+        ScriptedHttpClient httpClient = new ScriptedHttpClient(List.of(
+                new ScriptedHttpClient.ScriptedResponseData(200, "{\"async_url\":\"Q\"}")
+        ), 20L);
+
+        QueueNameResolver resolver = new QueueNameResolver(
+                httpClient,
+                URI.create("http://resolver.local/function-queue"),
+                URI.create("http://resolver.local/topic-queue"),
+                2
+        );
+
+        List<String> functionNames = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            functionNames.add("func" + i);
+        }
+        resolver.preloadMappings(null, functionNames, List.of());
+
+        assertEquals(10, httpClient.getCallCount());
+        assertTrue(httpClient.getMaxAsyncInFlight() <= 2,
+                "Expected at most 2 requests in flight but saw " + httpClient.getMaxAsyncInFlight());
+    }
+
+    @Test
+    void resolveForFunctionAsync_retriesOnTransientError() {
+        ScriptedHttpClient httpClient = new ScriptedHttpClient(List.of(
+                new ScriptedHttpClient.ScriptedResponseData(503, "{\"error\":\"temporary\"}"),
+                new ScriptedHttpClient.ScriptedResponseData(200, "{\"async_url\":\"RETRY.Q\"}")
+        ));
+
+        QueueNameResolver resolver = new QueueNameResolver(
+                httpClient,
+                URI.create("http://resolver.local/function-queue"),
+                URI.create("http://resolver.local/topic-queue")
+        );
+
+        String queueName = resolver.resolveForFunctionAsync("retryFunc").join();
+
+        assertEquals("RETRY.Q", queueName);
+        assertEquals(2, httpClient.getCallCount());
+    }
+
+    @Test
+    void resolveForFunction_servesStaleNameWhileRefreshing() throws InterruptedException {
+        ScriptedHttpClient httpClient = new ScriptedHttpClient(List.of(
+                new ScriptedHttpClient.ScriptedResponseData(200, "{\"async_url\":\"OLD.Q\"}"),
+                new ScriptedHttpClient.ScriptedResponseData(200, "{\"async_url\":\"NEW.Q\"}")
+        ));
+        QueueNameCacheTest.MutableClock clock = new QueueNameCacheTest.MutableClock();
+        QueueNameCache cache = new QueueNameCache(Duration.ofMinutes(10), Duration.ofMinutes(1),
+                Duration.ofMinutes(10), 100, clock);
+
+        QueueNameResolver resolver = new QueueNameResolver(
+                httpClient,
+                URI.create("http://resolver.local/function-queue"),
+                URI.create("http://resolver.local/topic-queue"),
+                4,
+                cache,
+                null
+        );
+
+        assertEquals("OLD.Q", resolver.resolveForFunction(null, "func"));
+        clock.advance(Duration.ofMinutes(15));
+
+        assertEquals("OLD.Q", resolver.resolveForFunction(null, "func"), "Stale name should be served");
+
+        // The refresh completes in the background
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.lookup("FUNCTION", "func").stale() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("NEW.Q", resolver.resolveForFunction(null, "func"));
+        assertEquals(2, httpClient.getCallCount());
+    }
+
+    @Test
+    void lookupCounter_pinsNamesAcrossRefresh() throws InterruptedException {
+        ScriptedHttpClient httpClient = new ScriptedHttpClient(List.of(
+                new ScriptedHttpClient.ScriptedResponseData(200, "{\"async_url\":\"OLD.Q\"}"),
+                new ScriptedHttpClient.ScriptedResponseData(200, "{\"async_url\":\"NEW.Q\"}")
+        ));
+        QueueNameCacheTest.MutableClock clock = new QueueNameCacheTest.MutableClock();
+        QueueNameCache cache = new QueueNameCache(Duration.ofMinutes(10), Duration.ofMinutes(1),
+                Duration.ofMinutes(10), 100, clock);
+
+        QueueNameResolver resolver = new QueueNameResolver(
+                httpClient,
+                URI.create("http://resolver.local/function-queue"),
+                URI.create("http://resolver.local/topic-queue"),
+                4,
+                cache,
+                null
+        );
+        QueueNameResolver.LookupCounter build = new QueueNameResolver.LookupCounter();
+
+        resolver.preloadMappings(null, List.of("func"), List.of(), build);
+        clock.advance(Duration.ofMinutes(15));
+        resolver.resolveForFunction(null, "func");
+
+        // The refresh started by the stale lookup completes while the build is running
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.lookup("FUNCTION", "func").stale() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("NEW.Q", cache.lookup("FUNCTION", "func").queueName());
+
+        assertEquals("OLD.Q", resolver.resolveForFunction(null, "FUNC", build));
+        assertEquals("NEW.Q", resolver.resolveForFunction(null, "func", new QueueNameResolver.LookupCounter()));
+        assertEquals(1, build.cacheHits());
+    }
+
+    @Test
+    void resolveForTopic_readsQueueMappingTableBeforeEndpoint() {
+        ScriptedHttpClient httpClient = new ScriptedHttpClient(List.of(
+                new ScriptedHttpClient.ScriptedResponseData(200, "{\"MQ_QUEUE\":\"ENDPOINT.Q\"}")
+        ));
+        QueueMappingDAO queueMappingDAO = new QueueMappingDAO() {
+            @Override
+            public Optional<String> findQueueNameByTarget(Connection connection, String targetType,
+                                                          String targetName) {
+                return "PaymentPosting".equals(targetName) ? Optional.of("PAYMENT.POSTING.Q") : Optional.empty();
+            }
+        };
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> null);
+
+        QueueNameResolver resolver = new QueueNameResolver(
+                httpClient,
+                URI.create("http://resolver.local/function-queue"),
+                URI.create("http://resolver.local/topic-queue"),
+                4,
+                new QueueNameCache(),
+                queueMappingDAO
+        );
+
+        assertEquals("PAYMENT.POSTING.Q", resolver.resolveForTopic(connection, "PaymentPosting"));
+        assertEquals(0, httpClient.getCallCount());
+        assertEquals("ENDPOINT.Q", resolver.resolveForTopic(connection, "OtherTopic"));
+        assertEquals(1, httpClient.getCallCount());
+    }
+
+    @Test
+    void lookupCounter_countsOnlyItsOwnLookups() {
+        ScriptedHttpClient httpClient = new ScriptedHttpClient(List.of(
+                new ScriptedHttpClient.ScriptedResponseData(200, "{\"async_url\":\"OCP.DEV.FUNC.Q\"}")
+        ));
+        QueueNameResolver resolver = new QueueNameResolver(
+                httpClient,
+                URI.create("http://resolver.local/function-queue"),
+                URI.create("http://resolver.local/topic-queue")
+        );
+        QueueNameResolver.LookupCounter first = new QueueNameResolver.LookupCounter();
+        QueueNameResolver.LookupCounter second = new QueueNameResolver.LookupCounter();
+
+        resolver.preloadMappings(null, List.of("funcA", "funcB"), List.of(), first);
+        resolver.resolveForFunction(null, "funcA", second);
+        resolver.resolveForFunction(null, "funcC", second);
+        resolver.resolveForFunction(null, "funcD");
+
+        assertEquals(0, first.cacheHits());
+        assertEquals(2, first.cacheMisses());
+        assertEquals(2, first.endpointRequests());
+        assertEquals(1, second.cacheHits());
+        assertEquals(1, second.cacheMisses());
+        assertEquals(1, second.endpointRequests());
+        assertEquals(4, resolver.requestCounts().endpointRequests());
+    }
+
+    @Test
+    void preloadMappings_fallsBackToDefaultWhenSendAsyncThrows() {
+        ScriptedHttpClient httpClient = new ScriptedHttpClient(List.of(
+                new ScriptedHttpClient.ScriptedResponseData(200, "{\"async_url\":\"Q\"}")
+        ));
+        httpClient.rejectAsyncWith(new IllegalStateException("client is shut down"));
+
+        QueueNameResolver resolver = new QueueNameResolver(
+                httpClient,
+                URI.create("http://resolver.local/function-queue"),
+                URI.create("http://resolver.local/topic-queue"),
+                1
+        );
+
+        // With a single permit, a leaked permit or in-flight lookup would block here
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            resolver.preloadMappings(null, List.of("funcA", "funcB"), List.of());
+            assertEquals("funcA_queue", resolver.resolveForFunction(null, "funcA"));
+            assertEquals("funcB_queue", resolver.resolveForFunction(null, "funcB"));
+        });
+        assertEquals(2, httpClient.getCallCount());
+    }
+
     private static final class ScriptedHttpClient extends HttpClient {
 
         private final List<ScriptedResponseData> scriptedResponses;
@@ -112,11 +348,34 @@ class QueueNameResolverTest {
         private final List<URI> requestedUris;
         private final List<String> requestedMethods;
 
+        private final long asyncDelayMs;
+        private final AtomicInteger asyncInFlight;
+        private final AtomicInteger maxAsyncInFlight;
+        private volatile RuntimeException asyncRejection;
+
         private ScriptedHttpClient(List<ScriptedResponseData> scriptedResponses) {
+            this(scriptedResponses, 0L);
+        }
+
+        private ScriptedHttpClient(List<ScriptedResponseData> scriptedResponses, long asyncDelayMs) {
             this.scriptedResponses = new ArrayList<>(scriptedResponses);
             this.callCounter = new AtomicInteger(0);
-            this.requestedUris = new ArrayList<>();
-            this.requestedMethods = new ArrayList<>();
+            this.requestedUris = Collections.synchronizedList(new ArrayList<>());
+            this.requestedMethods = Collections.synchronizedList(new ArrayList<>());
+            this.asyncDelayMs = asyncDelayMs;
+            this.asyncInFlight = new AtomicInteger(0);
+            this.maxAsyncInFlight = new AtomicInteger(0);
+        }
+
+        /**
+         * Makes sendAsync throw the exception instead of returning a future.
+         */
+        void rejectAsyncWith(RuntimeException rejection) {
+            this.asyncRejection = rejection;
+        }
+
+        int getMaxAsyncInFlight() {
+            return maxAsyncInFlight.get();
         }
 
         int getCallCount() {
@@ -199,7 +458,22 @@ class QueueNameResolverTest {
         @Override
         public <T> CompletableFuture<HttpResponse<T>> sendAsync(
                 HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
-            throw new UnsupportedOperationException("sendAsync not used in tests");
+            if (asyncRejection != null) {
+                callCounter.incrementAndGet();
+                throw asyncRejection;
+            }
+            int inFlight = asyncInFlight.incrementAndGet();
+            maxAsyncInFlight.accumulateAndGet(inFlight, Math::max);
+            Executor delayed = CompletableFuture.delayedExecutor(asyncDelayMs, TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return send(request, responseBodyHandler);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                } finally {
+                    asyncInFlight.decrementAndGet();
+                }
+            }, delayed);
         }
 
         @Override
@@ -0,0 +1,131 @@
+package gov.nystax.nimbus.codesnap.services.builder;
+
+import gov.nystax.nimbus.codesnap.services.builder.domain.ChildReference;
+import gov.nystax.nimbus.codesnap.services.builder.domain.FunctionPoolEntry;
+import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.ScanDataWithMetadata;
+import gov.nystax.nimbus.codesnap.services.processor.domain.EntryPointDependencies;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ScanData;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceCallReference;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransitiveResolverTest {
+
+    private final Map<String, Map<String, String>> methodImplMappings = new HashMap<>();
+    private final Map<String, Map<String, EntryPointDependencies>> publicMethodDeps = new HashMap<>();
+
+    @Test
+    void sharedMethodIsResolvedOnceAndLeavesKeepDepthFirstOrder() {
+        // A.a -> B.b, C.c ; B.b -> D.d ; C.c -> D.d
+        addMethod("A", "a", deps("fa").call("B", "b").call("C", "c"));
+        addMethod("B", "b", deps("fb").call("D", "d"));
+        addMethod("C", "c", deps("fc").call("D", "d"));
+        addMethod("D", "d", deps("fd"));
+        TransitiveResolver resolver = resolver();
+
+        FunctionPoolEntry first = resolve(resolver, "A", "a");
+        FunctionPoolEntry second = resolve(resolver, "C", "c");
+
+        assertEquals(List.of("fa", "fb", "fd", "fc"), refs(first));
+        assertEquals(List.of("fc", "fd"), refs(second));
+        assertEquals(4, resolver.getClosureCount());
+    }
+
+    @Test
+    void cycleMembersShareLeavesInWalkOrder() {
+        // X.x -> Y.y -> X.x, Y.y -> Z.z
+        addMethod("X", "x", deps("fx").call("Y", "y"));
+        addMethod("Y", "y", deps("fy").call("X", "x").call("Z", "z"));
+        addMethod("Z", "z", deps("fz").legacy());
+        TransitiveResolver resolver = resolver();
+
+        FunctionPoolEntry fromX = resolve(resolver, "X", "x");
+        FunctionPoolEntry fromY = resolve(resolver, "Y", "y");
+
+        assertEquals(List.of("fx", "fy", "fz"), refs(fromX));
+        assertEquals(List.of("fy", "fx", "fz"), refs(fromY));
+        assertTrue(fromX.isUsesLegacyGatewayHttpClient());
+        assertTrue(fromY.isUsesLegacyGatewayHttpClient());
+    }
+
+    @Test
+    void existingChildrenAreNotDuplicated() {
+        addMethod("A", "a", deps("shared").call("B", "b"));
+        addMethod("B", "b", deps("shared", "fb"));
+        TransitiveResolver resolver = resolver();
+
+        FunctionPoolEntry target = new FunctionPoolEntry();
+        target.addSyncRef("fb");
+        resolver.resolveServiceCall(null, new ServiceCallReference("A", "a"), target);
+
+        assertEquals(List.of("fb", "shared"), refs(target));
+    }
+
+    @Test
+    void unknownMethodResolvesToNothing() {
+        TransitiveResolver resolver = resolver();
+
+        FunctionPoolEntry target = resolve(resolver, "MISSING", "m");
+
+        assertTrue(target.isEmpty());
+        assertFalse(target.isUsesLegacyGatewayHttpClient());
+    }
+
+    private void addMethod(String serviceId, String method, DepsBuilder deps) {
+        methodImplMappings.computeIfAbsent(serviceId, id -> new HashMap<>()).put(method, method + "Impl");
+        publicMethodDeps.computeIfAbsent(serviceId, id -> new HashMap<>()).put(method + "Impl", deps.deps);
+    }
+
+    private TransitiveResolver resolver() {
+        Map<String, ScanDataWithMetadata> scansById = new HashMap<>();
+        methodImplMappings.forEach((serviceId, mapping) -> {
+            ScanData scanData = new ScanData();
+            scanData.setMethodImplementationMapping(mapping);
+            scanData.setPublicMethodDependencies(publicMethodDeps.get(serviceId));
+            scansById.put(serviceId, new ScanDataWithMetadata(serviceId, "commit", false, null, scanData));
+        });
+        return new TransitiveResolver(scansById, new QueueNameResolver());
+    }
+
+    private static FunctionPoolEntry resolve(TransitiveResolver resolver, String serviceId, String method) {
+        FunctionPoolEntry target = new FunctionPoolEntry();
+        resolver.resolveServiceCall(null, new ServiceCallReference(serviceId, method), target);
+        return target;
+    }
+
+    private static List<String> refs(FunctionPoolEntry entry) {
+        List<String> refs = new ArrayList<>();
+        for (ChildReference child : entry.getChildren()) {
+            refs.add(child.getRef());
+        }
+        return refs;
+    }
+
+    private static DepsBuilder deps(String... functions) {
+        DepsBuilder builder = new DepsBuilder();
+        for (String function : functions) {
+            builder.deps.addFunction(function);
+        }
+        return builder;
+    }
+
+    private static final class DepsBuilder {
+        private final EntryPointDependencies deps = new EntryPointDependencies();
+
+        DepsBuilder call(String serviceId, String method) {
+            deps.addServiceCall(serviceId, method);
+            return this;
+        }
+
+        DepsBuilder legacy() {
+            deps.setUsesLegacyGatewayHttpClient(true);
+            return this;
+        }
+    }
+}
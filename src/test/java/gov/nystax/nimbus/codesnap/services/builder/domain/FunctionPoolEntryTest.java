@@ -0,0 +1,51 @@
+package gov.nystax.nimbus.codesnap.services.builder.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FunctionPoolEntryTest {
+
+    @Test
+    void containsChecksAreScopedToTheReferenceKind() {
+        FunctionPoolEntry entry = new FunctionPoolEntry("app");
+        entry.addSyncRef("shared");
+        entry.addTopicRef("event", "EVENT.Q");
+
+        assertTrue(entry.containsSyncRef("shared"));
+        assertFalse(entry.containsAsyncRef("shared"));
+        assertTrue(entry.containsTopicRef("event"));
+        assertFalse(entry.containsSyncRef("event"));
+
+        entry.addAsyncRef("shared", "SHARED.Q");
+        assertTrue(entry.containsAsyncRef("shared"));
+        assertEquals(3, entry.getChildren().size());
+    }
+
+    @Test
+    void setChildrenRebuildsIndexes() {
+        FunctionPoolEntry entry = new FunctionPoolEntry();
+        entry.addSyncRef("old");
+
+        entry.setChildren(List.of(ChildReference.asyncRef("new", "NEW.Q")));
+
+        assertFalse(entry.containsSyncRef("old"));
+        assertTrue(entry.containsAsyncRef("new"));
+    }
+
+    @Test
+    void indexesAreNotSerialized() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        FunctionPoolEntry entry = new FunctionPoolEntry("app", "func");
+        entry.addSyncRef("child");
+        entry.addAsyncRef("asyncChild", "ASYNC.Q");
+
+        String json = mapper.writeValueAsString(entry);
+        assertFalse(json.contains("syncRefs"));
+        assertFalse(json.contains("asyncRefs"));
+        assertFalse(json.contains("topicRefs"));
+    }
+}
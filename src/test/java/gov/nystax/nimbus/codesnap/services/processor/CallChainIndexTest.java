@@ -0,0 +1,68 @@
+package gov.nystax.nimbus.codesnap.services.processor;
+
+import gov.nystax.nimbus.codesnap.services.processor.domain.EntryPointDependencies;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.MethodReference;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.MethodReference.MethodAccessModifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallChainIndexTest {
+
+    private static final MethodReference ENTRY = new MethodReference("impl.Service.entry(...)", MethodAccessModifier.PUBLIC);
+    private static final MethodReference HELPER = new MethodReference("impl.Helper.help(...)", MethodAccessModifier.PRIVATE);
+    private static final MethodReference SHARED = new MethodReference("impl.Shared.work(...)", MethodAccessModifier.PUBLIC);
+
+    private Map<String, EntryPointDependencies> entryPointChildren;
+    private Map<String, EntryPointDependencies> publicMethodDeps;
+    private CallChainIndex index;
+
+    @BeforeEach
+    void setUp() {
+        entryPointChildren = new HashMap<>();
+        entryPointChildren.put("entry", new EntryPointDependencies());
+        publicMethodDeps = new HashMap<>();
+        MethodSymbolTable symbols = new MethodSymbolTable();
+        int entryId = symbols.intern("impl.Service.entry(...)");
+        int[] ownerOf = new int[symbols.size()];
+        ownerOf[entryId] = 0;
+        index = new CallChainIndex(symbols, ownerOf,
+                new EntryPointDependencies[]{entryPointChildren.get("entry")}, publicMethodDeps);
+    }
+
+    @Test
+    void resolvesOwnersAndPublicMethodsInChainOrder() {
+        List<EntryPointDependencies> targets = index.targetsOf(List.of(ENTRY, HELPER, SHARED));
+
+        assertEquals(3, targets.size());
+        assertSame(entryPointChildren.get("entry"), targets.get(0));
+        assertSame(publicMethodDeps.get("impl.Service.entry(...)"), targets.get(1));
+        assertSame(publicMethodDeps.get("impl.Shared.work(...)"), targets.get(2));
+        assertFalse(publicMethodDeps.containsKey("impl.Helper.help(...)"));
+    }
+
+    @Test
+    void distinguishesAccessModifiersOfTheSameSignature() {
+        MethodReference privateEntry = new MethodReference("impl.Service.entry(...)", MethodAccessModifier.PRIVATE);
+
+        List<EntryPointDependencies> targets = index.targetsOf(List.of(privateEntry));
+
+        assertEquals(List.of(entryPointChildren.get("entry")), targets);
+        assertTrue(publicMethodDeps.isEmpty());
+    }
+
+    @Test
+    void sharesPrefixesAndSkipsRepeatedMethods() {
+        index.targetsOf(List.of(ENTRY, HELPER));
+        List<EntryPointDependencies> recursive = index.targetsOf(List.of(ENTRY, HELPER, ENTRY, SHARED));
+
+        assertEquals(3, recursive.size());
+        assertEquals(3, index.getMethodCount());
+        assertEquals(4, index.getPrefixCount());
+    }
+}
@@ -0,0 +1,33 @@
+package gov.nystax.nimbus.codesnap.services.processor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodSymbolTableTest {
+
+    @Test
+    void assignsDenseIdsInFirstSeenOrder() {
+        MethodSymbolTable symbols = new MethodSymbolTable();
+
+        assertEquals(0, symbols.intern("a.A.run()"));
+        assertEquals(1, symbols.intern("b.B.run()"));
+        assertEquals(0, symbols.intern("a.A.run()"));
+        assertEquals(2, symbols.size());
+        assertEquals("b.B.run()", symbols.nameOf(1));
+        assertEquals(-1, symbols.find("c.C.run()"));
+    }
+
+    @Test
+    void copiesAreIndependent() {
+        MethodSymbolTable symbols = new MethodSymbolTable();
+        symbols.intern("a.A.run()");
+
+        MethodSymbolTable copy = symbols.copy();
+        copy.intern("b.B.run()");
+
+        assertEquals(1, symbols.size());
+        assertEquals(0, copy.find("a.A.run()"));
+        assertEquals(1, copy.find("b.B.run()"));
+    }
+}
@@ -0,0 +1,144 @@
+package gov.nystax.nimbus.codesnap.services.processor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import gov.nystax.nimbus.codesnap.services.processor.ProjectInfoStreamReader.StreamedScan;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.EventPublisherInvocation;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.FunctionInvocation;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.FunctionUsage;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.LegacyGatewayHttpClientInvocation;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.MethodReference;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.MethodReference.MethodAccessModifier;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.ProjectInfo;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.ServiceInvocation;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.ServiceUsage;
+import gov.nystax.nimbus.codesnap.services.scanner.domain.TopicResolution;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectInfoStreamReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    private final ScanDataProcessor processor = new ScanDataProcessor();
+    private final ProjectInfoStreamReader reader = new ProjectInfoStreamReader(processor, objectMapper);
+
+    @Test
+    void streamedScanMatchesProcessedProjectInfo() throws Exception {
+        for (long seed = 1; seed <= 3; seed++) {
+            ProjectInfo projectInfo = createProjectInfo(seed);
+            byte[] json = objectMapper.writeValueAsBytes(projectInfo);
+
+            StreamedScan streamed = reader.read(new ByteArrayInputStream(json));
+
+            assertEquals(objectMapper.writeValueAsString(processor.process(projectInfo)),
+                    objectMapper.writeValueAsString(streamed.scanData()), "seed " + seed);
+            assertEquals("TEST-SERVICE", streamed.projectInfo().getArtifactId());
+            assertEquals(projectInfo.getServiceDependencies(), streamed.projectInfo().getServiceDependencies());
+            assertNull(streamed.projectInfo().getFunctionUsages());
+        }
+    }
+
+    @Test
+    void usagesBeforeMappingsAreBuffered() throws Exception {
+        ProjectInfo projectInfo = createProjectInfo(7);
+        ObjectNode tree = objectMapper.valueToTree(projectInfo);
+
+        // Move the mappings to the end of the document
+        ObjectNode reordered = objectMapper.createObjectNode();
+        tree.fields().forEachRemaining(field -> {
+            if (!field.getKey().endsWith("Mappings") && !field.getKey().equals("methodImplementationMapping")) {
+                reordered.set(field.getKey(), field.getValue());
+            }
+        });
+        reordered.set("functionMappings", tree.get("functionMappings"));
+        reordered.set("uiServiceMethodMappings", tree.get("uiServiceMethodMappings"));
+        reordered.set("methodImplementationMapping", tree.get("methodImplementationMapping"));
+
+        StreamedScan streamed = reader.read(new ByteArrayInputStream(objectMapper.writeValueAsBytes(reordered)));
+
+        assertEquals(objectMapper.writeValueAsString(processor.process(projectInfo)),
+                objectMapper.writeValueAsString(streamed.scanData()));
+    }
+
+    private ProjectInfo createProjectInfo(long seed) {
+        Random random = new Random(seed);
+        ProjectInfo projectInfo = new ProjectInfo("/path/to/project", "gov.nystax", "TEST-SERVICE", "1.0.0");
+        projectInfo.setServiceDependencies(List.of("gov.nystax.services:SVC1:[1.0.0,)"));
+
+        Map<String, String> functionMappings = new HashMap<>();
+        Map<String, String> implMappings = new HashMap<>();
+        List<MethodReference> entryMethods = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            functionMappings.put("entry" + i, "gov.service.IService.entry" + i + "(...)");
+            implMappings.put("gov.service.IService.entry" + i + "(...)", "gov.service.impl.ServiceImpl.entry" + i + "(...)");
+            entryMethods.add(new MethodReference("gov.service.impl.ServiceImpl.entry" + i + "(...)", MethodAccessModifier.PUBLIC));
+        }
+        projectInfo.setFunctionMappings(functionMappings);
+        projectInfo.setMethodImplementationMappings(implMappings);
+
+        List<MethodReference> helpers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            helpers.add(new MethodReference("gov.service.impl.Helper.help" + i + "(...)",
+                    i % 3 == 0 ? MethodAccessModifier.PRIVATE : MethodAccessModifier.PUBLIC));
+        }
+
+        List<FunctionUsage> functionUsages = new ArrayList<>();
+        List<ServiceUsage> serviceUsages = new ArrayList<>();
+        List<EventPublisherInvocation> events = new ArrayList<>();
+        List<LegacyGatewayHttpClientInvocation> legacyInvocations = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            FunctionUsage functionUsage = new FunctionUsage("func" + random.nextInt(10), "gov.func", "dep");
+            FunctionInvocation functionInvocation = new FunctionInvocation("Impl.java:" + i, null,
+                    random.nextBoolean() ? "execute" : "executeAsync");
+            functionInvocation.setCallChain(randomCallChain(random, entryMethods, helpers));
+            functionUsage.setInvocations(List.of(functionInvocation));
+            functionUsages.add(functionUsage);
+
+            ServiceUsage serviceUsage = new ServiceUsage("SVC" + random.nextInt(4), "gov.svc", "dep");
+            ServiceInvocation serviceInvocation = new ServiceInvocation("Impl.java:" + i, null,
+                    "gov.svc.IRemote.op" + random.nextInt(6) + "(...)");
+            serviceInvocation.setCallChain(randomCallChain(random, entryMethods, helpers));
+            serviceUsage.setInvocations(List.of(serviceInvocation));
+            serviceUsages.add(serviceUsage);
+
+            EventPublisherInvocation event = new EventPublisherInvocation("Impl.java:" + i, null,
+                    "topic" + random.nextInt(5),
+                    random.nextInt(4) == 0 ? TopicResolution.UNKNOWN_VARIABLE : TopicResolution.RESOLVED);
+            event.setCallChain(randomCallChain(random, entryMethods, helpers));
+            events.add(event);
+
+            if (i % 5 == 0) {
+                LegacyGatewayHttpClientInvocation legacy = new LegacyGatewayHttpClientInvocation("Impl.java:" + i, null);
+                legacy.setCallChain(randomCallChain(random, entryMethods, helpers));
+                legacyInvocations.add(legacy);
+            }
+        }
+        projectInfo.setFunctionUsages(functionUsages);
+        projectInfo.setServiceUsages(serviceUsages);
+        projectInfo.setEventPublisherInvocations(events);
+        projectInfo.setLegacyGatewayHttpClientInvocations(legacyInvocations);
+        return projectInfo;
+    }
+
+    private List<MethodReference> randomCallChain(Random random,
+                                                  List<MethodReference> entryMethods,
+                                                  List<MethodReference> helpers) {
+        List<MethodReference> callChain = new ArrayList<>();
+        callChain.add(entryMethods.get(random.nextInt(entryMethods.size())));
+        int depth = random.nextInt(3);
+        for (int i = 0; i < depth; i++) {
+            callChain.add(helpers.get(random.nextInt(helpers.size())));
+        }
+        return callChain;
+    }
+}
@@ -0,0 +1,64 @@
+package gov.nystax.nimbus.codesnap.services.processor;
+
+import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.ScanDataWithMetadata;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ServiceCommitPair;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ScanData;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ScanDataCacheTest {
+
+    @Test
+    void put_evictsLeastRecentlyUsedWhenOverBudget() {
+        ScanDataCache cache = new ScanDataCache(300);
+        ServiceCommitPair a = new ServiceCommitPair("svc-a", "c1");
+        ServiceCommitPair b = new ServiceCommitPair("svc-b", "c1");
+        ServiceCommitPair c = new ServiceCommitPair("svc-c", "c1");
+
+        cache.put(a, scan("svc-a"), 100);
+        cache.put(b, scan("svc-b"), 100);
+        assertNotNull(cache.get(a), "Touch A so B becomes least recently used");
+        cache.put(c, scan("svc-c"), 150);
+
+        assertNull(cache.get(b));
+        assertNotNull(cache.get(a));
+        assertNotNull(cache.get(c));
+
+        ScanDataCache.CacheStats stats = cache.stats();
+        assertEquals(1, stats.evictionCount());
+        assertEquals(2, stats.entryCount());
+        assertEquals(250, stats.weightBytes());
+        assertEquals(3, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    @Test
+    void invalidate_removesEntryAndReleasesWeight() {
+        ScanDataCache cache = new ScanDataCache(1_000);
+        ServiceCommitPair a = new ServiceCommitPair("svc-a", "c1");
+        cache.put(a, scan("svc-a"), 100);
+
+        cache.invalidate("svc-a", "c1");
+
+        assertNull(cache.get(a));
+        assertEquals(0, cache.stats().weightBytes());
+    }
+
+    @Test
+    void put_skipsEntriesLargerThanBudget() {
+        ScanDataCache cache = new ScanDataCache(0);
+        ServiceCommitPair a = new ServiceCommitPair("svc-a", "c1");
+
+        cache.put(a, scan("svc-a"), ScanDataCache.estimateWeight(new ScanData()));
+
+        assertNull(cache.get(a));
+        assertEquals(0, cache.stats().entryCount());
+    }
+
+    private static ScanDataWithMetadata scan(String serviceId) {
+        return new ScanDataWithMetadata(serviceId, "c1", false, null, new ScanData());
+    }
+}
@@ -0,0 +1,117 @@
+package gov.nystax.nimbus.codesnap.services.processor;
+
+import gov.nystax.nimbus.codesnap.services.processor.domain.EntryPointDependencies;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ScanData;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScanDataCodecTest {
+
+    private static final String INTERFACE_METHOD =
+            "gov.nystax.services.wt0004j.IWTEmployeeDBService.insertEmployee(Employee)";
+    private static final String IMPL_METHOD =
+            "gov.nystax.services.wt0004j.WTEmployeeDBServiceImpl.insertEmployee(Employee)";
+
+    @Test
+    void roundTrip_preservesContentAndOrder() throws Exception {
+        EntryPointDependencies deps = new EntryPointDependencies();
+        deps.addFunction("funcB");
+        deps.addFunction("funcA");
+        deps.addAsyncFunction("asyncFunc");
+        deps.addTopic("topic.one");
+        deps.addServiceCall("WT0019J", INTERFACE_METHOD);
+        deps.setUsesLegacyGatewayHttpClient(true);
+
+        ScanData scanData = new ScanData();
+        scanData.setFunctionMappings(Map.of("insertEmployee", INTERFACE_METHOD));
+        scanData.setMethodImplementationMapping(Map.of(INTERFACE_METHOD, IMPL_METHOD));
+        scanData.setEntryPointChildren(Map.of("insertEmployee", deps));
+        scanData.setPublicMethodDependencies(Map.of(IMPL_METHOD, deps, "emptyMethod", new EntryPointDependencies()));
+        scanData.setUiServiceMethodMappings(null);
+
+        ScanData decoded = ScanDataCodec.decode(ScanDataCodec.encode(scanData));
+
+        assertEquals(scanData, decoded);
+        assertEquals(List.of("funcB", "funcA"),
+                List.copyOf(decoded.getEntryPointChildren().get("insertEmployee").getFunctions()));
+    }
+
+    @Test
+    void encode_isSmallerThanRepeatedSignatures() {
+        ScanData scanData = new ScanData();
+        Map<String, EntryPointDependencies> publicDeps = new java.util.HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            EntryPointDependencies deps = new EntryPointDependencies();
+            deps.addServiceCall("WT0019J", INTERFACE_METHOD);
+            publicDeps.put(IMPL_METHOD + i, deps);
+        }
+        scanData.setPublicMethodDependencies(publicDeps);
+
+        byte[] encoded = ScanDataCodec.encode(scanData);
+
+        assertTrue(encoded.length < 200 * INTERFACE_METHOD.length() / 10,
+                "Repeated signatures should be stored once, got " + encoded.length + " bytes");
+    }
+
+    @Test
+    void decode_rejectsCorruptData() {
+        byte[] encoded = ScanDataCodec.encode(new ScanData());
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 2);
+
+        assertThrows(ScanDataCodec.MalformedEncodingException.class,
+                () -> ScanDataCodec.decode(new byte[]{1, 2, 3, 4}));
+        assertThrows(ScanDataCodec.MalformedEncodingException.class,
+                () -> ScanDataCodec.decode(truncated));
+    }
+
+    @Test
+    void decode_rejectsOutOfRangeLengthsAndReferences() {
+        // Varints: {0xFF, 0xFF, 0xFF, 0xFF, 0x0F} is -1, {0xFF, 0xFF, 0xFF, 0xFF, 0x07} is Integer.MAX_VALUE
+        assertMalformed(0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+        assertMalformed(1, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+        assertMalformed(1, 0xFF, 0xFF, 0xFF, 0xFF, 0x07, 'a');
+        assertMalformed(0, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+        assertMalformed(0, 0xFF, 0xFF, 0xFF, 0xFF, 0x07, 0, 0);
+        assertMalformed(0, 2, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F, 0);
+    }
+
+    @Test
+    void decode_growsCollectionsBeyondPreallocation() throws Exception {
+        Map<String, String> functionMappings = new java.util.HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            functionMappings.put("function" + i, INTERFACE_METHOD + i);
+        }
+        ScanData scanData = new ScanData();
+        scanData.setFunctionMappings(functionMappings);
+
+        assertEquals(scanData, ScanDataCodec.decode(ScanDataCodec.encode(scanData)));
+    }
+
+    private static void assertMalformed(int... body) {
+        assertThrows(ScanDataCodec.MalformedEncodingException.class, () -> ScanDataCodec.decode(encodedBody(body)));
+    }
+
+    /**
+     * Returns the header followed by the given dictionary and body bytes, deflated.
+     */
+    private static byte[] encodedBody(int... body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(new byte[]{'S', 'D', 'C', 1});
+        try (DeflaterOutputStream deflated = new DeflaterOutputStream(out)) {
+            for (int b : body) {
+                deflated.write(b);
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -13,6 +13,8 @@ import gov.nystax.nimbus.codesnap.services.scanner.domain.ProjectInfo;
 import gov.nystax.nimbus.codesnap.services.scanner.domain.ServiceInvocation;
 import gov.nystax.nimbus.codesnap.services.scanner.domain.ServiceUsage;
 import gov.nystax.nimbus.codesnap.services.scanner.domain.TopicResolution;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -23,7 +25,9 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -879,6 +883,214 @@ class ScanDataProcessorTest {
         }
     }
 
+    @Nested
+    @DisplayName("Parallel Processing Tests")
+    class ParallelProcessingTests {
+
+        @Test
+        @DisplayName("Parallel processing should produce the serial result, including collection order")
+        void parallelMatchesSerial() throws Exception {
+            ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                ScanDataProcessor parallelProcessor = new ScanDataProcessor(pool, 0);
+                assertTrue(parallelProcessor.isParallel());
+
+                for (long seed = 1; seed <= 5; seed++) {
+                    ProjectInfo projectInfo = createLargeProjectInfo(seed);
+
+                    ScanData serial = processor.process(projectInfo);
+                    ScanData parallel = parallelProcessor.process(projectInfo);
+
+                    assertEquals(serial, parallel);
+                    assertEquals(mapper.writeValueAsString(serial), mapper.writeValueAsString(parallel));
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        @Test
+        @DisplayName("Inputs below the threshold should be processed serially")
+        void smallInputsStaySerial() {
+            ForkJoinPool pool = new ForkJoinPool(2);
+            try {
+                ProjectInfo projectInfo = createLargeProjectInfo(7);
+                ScanData result = new ScanDataProcessor(pool, Integer.MAX_VALUE).process(projectInfo);
+                assertEquals(processor.process(projectInfo), result);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        /**
+         * Builds a service with shared call-chain prefixes, repeated usages and every usage kind.
+         */
+        private ProjectInfo createLargeProjectInfo(long seed) {
+            Random random = new Random(seed);
+            ProjectInfo projectInfo = createBasicProjectInfo();
+
+            Map<String, String> functionMappings = new HashMap<>();
+            Map<String, String> implMappings = new HashMap<>();
+            List<MethodReference> entryMethods = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                functionMappings.put("entry" + i, "gov.service.IService.entry" + i + "(...)");
+                implMappings.put("gov.service.IService.entry" + i + "(...)", "gov.service.impl.ServiceImpl.entry" + i + "(...)");
+                entryMethods.add(new MethodReference("gov.service.impl.ServiceImpl.entry" + i + "(...)", MethodAccessModifier.PUBLIC));
+            }
+            projectInfo.setFunctionMappings(functionMappings);
+            projectInfo.setMethodImplementationMappings(implMappings);
+
+            List<MethodReference> helpers = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                helpers.add(new MethodReference("gov.service.impl.Helper.help" + i + "(...)",
+                        i % 3 == 0 ? MethodAccessModifier.PRIVATE : MethodAccessModifier.PUBLIC));
+            }
+
+            List<FunctionUsage> functionUsages = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                FunctionUsage usage = new FunctionUsage("func" + random.nextInt(25), "gov.func", "dep");
+                List<FunctionInvocation> invocations = new ArrayList<>();
+                for (int j = 0; j < 1 + random.nextInt(5); j++) {
+                    FunctionInvocation invocation = new FunctionInvocation("Impl.java:" + j, null,
+                            random.nextBoolean() ? "execute" : "executeAsync");
+                    invocation.setCallChain(randomCallChain(random, entryMethods, helpers));
+                    invocations.add(invocation);
+                }
+                usage.setInvocations(invocations);
+                functionUsages.add(usage);
+            }
+            projectInfo.setFunctionUsages(functionUsages);
+
+            List<ServiceUsage> serviceUsages = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                ServiceUsage usage = new ServiceUsage("SVC" + random.nextInt(8), "gov.svc", "dep");
+                List<ServiceInvocation> invocations = new ArrayList<>();
+                for (int j = 0; j < 1 + random.nextInt(5); j++) {
+                    ServiceInvocation invocation = new ServiceInvocation("Impl.java:" + j, null,
+                            "gov.svc.IRemote.op" + random.nextInt(15) + "(...)");
+                    invocation.setCallChain(randomCallChain(random, entryMethods, helpers));
+                    invocations.add(invocation);
+                }
+                usage.setInvocations(invocations);
+                serviceUsages.add(usage);
+            }
+            projectInfo.setServiceUsages(serviceUsages);
+
+            List<EventPublisherInvocation> events = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                EventPublisherInvocation invocation = new EventPublisherInvocation("Impl.java:" + i, null,
+                        "topic" + random.nextInt(12),
+                        random.nextInt(5) == 0 ? TopicResolution.UNKNOWN_VARIABLE : TopicResolution.RESOLVED);
+                invocation.setCallChain(randomCallChain(random, entryMethods, helpers));
+                events.add(invocation);
+            }
+            projectInfo.setEventPublisherInvocations(events);
+
+            List<LegacyGatewayHttpClientInvocation> legacyInvocations = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                LegacyGatewayHttpClientInvocation invocation =
+                        new LegacyGatewayHttpClientInvocation("Impl.java:" + i, null);
+                invocation.setCallChain(randomCallChain(random, entryMethods, helpers));
+                legacyInvocations.add(invocation);
+            }
+            projectInfo.setLegacyGatewayHttpClientInvocations(legacyInvocations);
+            return projectInfo;
+        }
+
+        private List<MethodReference> randomCallChain(Random random,
+                                                      List<MethodReference> entryMethods,
+                                                      List<MethodReference> helpers) {
+            List<MethodReference> callChain = new ArrayList<>();
+            callChain.add(entryMethods.get(random.nextInt(entryMethods.size())));
+            int depth = random.nextInt(4);
+            for (int i = 0; i < depth; i++) {
+                callChain.add(helpers.get(random.nextInt(helpers.size())));
+            }
+            return callChain;
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental Processing Tests")
+    class IncrementalProcessingTests {
+
+        @Test
+        @DisplayName("Should reuse the parent scan when no file changed")
+        void reusesParentWhenNoFileChanged() {
+            ProjectInfo projectInfo = createProjectInfoWithFunctionUsage(
+                    "MYFUNC", "gov.IService.doWork()", "gov.impl.ServiceImpl.doWork()", "CALLED_FUNC", "execute");
+            projectInfo.setSourceFiles(List.of("/work/repo/svc/src/main/java/gov/impl/ServiceImpl.java"));
+            ScanData parent = processor.process(projectInfo);
+
+            ScanData result = processor.processIncremental(parent, projectInfo, Set.of());
+
+            assertSame(parent, result);
+        }
+
+        @Test
+        @DisplayName("Should reprocess when any file changed, even one that is not scanned")
+        void reprocessesWhenBuildFileChanged() {
+            ProjectInfo projectInfo = createProjectInfoWithFunctionUsage(
+                    "MYFUNC", "gov.IService.doWork()", "gov.impl.ServiceImpl.doWork()", "CALLED_FUNC", "execute");
+            projectInfo.setSourceFiles(List.of("/work/repo/svc/src/main/java/gov/impl/ServiceImpl.java"));
+            ScanData parent = processor.process(projectInfo);
+
+            ScanData result = processor.processIncremental(parent, projectInfo, Set.of("svc/pom.xml"));
+
+            assertNotSame(parent, result);
+            assertEquals(parent, result);
+        }
+
+        @Test
+        @DisplayName("Should reprocess when a source file was deleted")
+        void reprocessesWhenSourceFileDeleted() {
+            ProjectInfo parentInfo = createProjectInfoWithFunctionUsage(
+                    "MYFUNC", "gov.IService.doWork()", "gov.impl.ServiceImpl.doWork()", "CALLED_FUNC", "execute");
+            ScanData parent = processor.process(parentInfo);
+
+            // The deleted helper contributed CALLED_FUNC; the new commit only scans ServiceImpl
+            ProjectInfo projectInfo = createBasicProjectInfo();
+            projectInfo.setFunctionMappings(parentInfo.getFunctionMappings());
+            projectInfo.setMethodImplementationMappings(parentInfo.getMethodImplementationMappings());
+            projectInfo.setSourceFiles(List.of("/work/repo/svc/src/main/java/gov/impl/ServiceImpl.java"));
+
+            ScanData result = processor.processIncremental(parent, projectInfo,
+                    Set.of("svc/src/main/java/gov/impl/WorkHelper.java"));
+
+            assertNotSame(parent, result);
+            assertFalse(result.getEntryPointChildren().get("MYFUNC").getFunctions().contains("CALLED_FUNC"));
+        }
+
+        @Test
+        @DisplayName("Should reprocess when a scanned source file changed")
+        void reprocessesWhenSourceChanged() {
+            ProjectInfo projectInfo = createProjectInfoWithFunctionUsage(
+                    "MYFUNC", "gov.IService.doWork()", "gov.impl.ServiceImpl.doWork()", "CALLED_FUNC", "execute");
+            projectInfo.setSourceFiles(List.of("/work/repo/svc/src/main/java/gov/impl/ServiceImpl.java"));
+            ScanData parent = processor.process(createBasicProjectInfo());
+
+            ScanData result = processor.processIncremental(parent, projectInfo,
+                    Set.of("svc\\src\\main\\java\\gov\\impl\\ServiceImpl.java"));
+
+            assertNotSame(parent, result);
+            assertTrue(result.getEntryPointChildren().get("MYFUNC").getFunctions().contains("CALLED_FUNC"));
+        }
+
+        @Test
+        @DisplayName("Should reprocess when the mappings changed or nothing is known about the change")
+        void reprocessesWhenParentMayNotApply() {
+            ProjectInfo projectInfo = createProjectInfoWithFunctionUsage(
+                    "MYFUNC", "gov.IService.doWork()", "gov.impl.ServiceImpl.doWork()", "CALLED_FUNC", "execute");
+            projectInfo.setSourceFiles(List.of("src/main/java/gov/impl/ServiceImpl.java"));
+            ScanData parent = processor.process(createBasicProjectInfo());
+
+            assertNotSame(parent, processor.processIncremental(parent, projectInfo, Set.of()));
+            assertNotSame(parent, processor.processIncremental(parent, projectInfo, null));
+            assertNotNull(processor.processIncremental(null, projectInfo, Set.of()));
+        }
+    }
+
     // Helper methods
 
     private ProjectInfo createBasicProjectInfo() {
@@ -0,0 +1,218 @@
+package gov.nystax.nimbus.codesnap.services.processor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.BuildScanSet;
+import gov.nystax.nimbus.codesnap.services.processor.ServiceScanService.MissingScanException;
+import gov.nystax.nimbus.codesnap.services.processor.dao.FailedServiceScanDAO;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.LoadedScan;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ScanDataReader;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ServiceCommitPair;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanStatusDAO;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanStatusDAO.ParsedScanStatusRecords;
+import gov.nystax.nimbus.codesnap.services.processor.domain.FailedServiceScanRecord;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ScanData;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ServiceScanRecord;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link ServiceScanService#loadBuildScanSet} against a stubbed combined status DAO.
+ */
+class ServiceScanServiceTest {
+
+    private final StubScanStatusDAO statusDAO = new StubScanStatusDAO();
+    private final StubFailedScanDAO failedScanDAO = new StubFailedScanDAO(statusDAO);
+    private final ScanDataCache cache = new ScanDataCache(1024 * 1024);
+    private final ServiceScanService service = new ServiceScanService(new ServiceScanRecordFactory(),
+            new ServiceScanDAO(), failedScanDAO, statusDAO, cache, new ObjectMapper());
+
+    @Test
+    void failedServicesAreReportedAndExcludedFromScans() throws Exception {
+        statusDAO.addScan("SVC_A", "a1", "SVC_B");
+        statusDAO.addScan("SVC_B", "b1", null);
+        statusDAO.addFailure("SVC_C", "c1");
+        statusDAO.roundTrips = 2;
+
+        BuildScanSet scanSet = service.loadBuildScanSet(null,
+                List.of(pair("SVC_A", "a1"), pair("SVC_B", "b1"), pair("SVC_C", "c1")));
+
+        assertEquals(2, scanSet.scansByServiceId().size());
+        assertEquals("SVC_B", scanSet.scansByServiceId().get("SVC_A").serviceDependencies());
+        assertEquals("b1", scanSet.scansByServiceId().get("SVC_B").gitCommitHash());
+        assertFalse(scanSet.scansByServiceId().containsKey("SVC_C"));
+        assertEquals(1, scanSet.failedScans().size());
+        assertEquals("SVC_C", scanSet.failedScans().get(0).getServiceId());
+        assertEquals(2, scanSet.loadStats().roundTrips());
+        assertEquals(0, scanSet.loadStats().cachedScans());
+    }
+
+    @Test
+    void failureRecordExcludesServiceEvenWithScan() throws Exception {
+        statusDAO.addScan("SVC_A", "a1", null);
+        statusDAO.addFailure("SVC_A", "a1");
+
+        BuildScanSet scanSet = service.loadBuildScanSet(null, List.of(pair("SVC_A", "a1")));
+
+        assertTrue(scanSet.scansByServiceId().isEmpty());
+        assertEquals(1, scanSet.failedScans().size());
+    }
+
+    @Test
+    void pairWithNeitherScanNorFailureIsMissing() {
+        statusDAO.addScan("SVC_A", "a1", null);
+
+        MissingScanException e = assertThrows(MissingScanException.class, () -> service.loadBuildScanSet(null,
+                List.of(pair("SVC_A", "a1"), pair("SVC_D", "d1"))));
+
+        assertTrue(e.getMessage().contains("SVC_D@d1"));
+    }
+
+    @Test
+    void loadedScansAreCachedForLaterBuilds() throws Exception {
+        statusDAO.addScan("SVC_A", "a1", null);
+        service.loadBuildScanSet(null, List.of(pair("SVC_A", "a1")));
+
+        assertNotNull(cache.get(pair("SVC_A", "a1")));
+    }
+
+    @Test
+    void cachedPairsSkipStatusQueryButNotFailureCheck() throws Exception {
+        statusDAO.addScan("SVC_A", "a1", null);
+        service.loadBuildScanSet(null, List.of(pair("SVC_A", "a1")));
+        statusDAO.requests.clear();
+
+        BuildScanSet scanSet = service.loadBuildScanSet(null, List.of(pair("SVC_A", "a1")));
+
+        assertTrue(statusDAO.requests.isEmpty());
+        assertEquals(List.of(List.of(pair("SVC_A", "a1"))), failedScanDAO.requests);
+        assertTrue(scanSet.scansByServiceId().containsKey("SVC_A"));
+        assertEquals(1, scanSet.loadStats().cachedScans());
+    }
+
+    @Test
+    void failureRecordedAfterCachingExcludesCachedScan() throws Exception {
+        statusDAO.addScan("SVC_A", "a1", null);
+        statusDAO.addScan("SVC_B", "b1", null);
+        service.loadBuildScanSet(null, List.of(pair("SVC_A", "a1"), pair("SVC_B", "b1")));
+
+        // Recorded by another process, so the cache is not invalidated
+        statusDAO.addFailure("SVC_A", "a1");
+        BuildScanSet scanSet = service.loadBuildScanSet(null, List.of(pair("SVC_A", "a1"), pair("SVC_B", "b1")));
+
+        assertEquals(List.of("SVC_B"), List.copyOf(scanSet.scansByServiceId().keySet()));
+        assertEquals(1, scanSet.failedScans().size());
+        assertEquals("SVC_A", scanSet.failedScans().get(0).getServiceId());
+    }
+
+    @Test
+    void defaultConstructedServicesShareCache() {
+        assertSame(ScanDataCache.shared(), new ServiceScanService().getScanDataCache());
+        assertSame(ScanDataCache.shared(), new ServiceScanService(new ServiceScanRecordFactory(),
+                new ServiceScanDAO(), new FailedServiceScanDAO(), new ObjectMapper()).getScanDataCache());
+    }
+
+    @Test
+    void servicesSharingCacheReuseEachOthersScans() throws Exception {
+        ScanDataCache sharedCache = new ScanDataCache(1024 * 1024);
+        ServiceScanService first = new ServiceScanService(new ServiceScanRecordFactory(),
+                new ServiceScanDAO(), failedScanDAO, statusDAO, sharedCache, new ObjectMapper());
+        ServiceScanService second = new ServiceScanService(new ServiceScanRecordFactory(),
+                new ServiceScanDAO(), failedScanDAO, statusDAO, sharedCache, new ObjectMapper());
+        statusDAO.addScan("SVC_A", "a1", null);
+
+        first.loadBuildScanSet(null, List.of(pair("SVC_A", "a1")));
+        statusDAO.requests.clear();
+        BuildScanSet scanSet = second.loadBuildScanSet(null, List.of(pair("SVC_A", "a1")));
+
+        assertTrue(statusDAO.requests.isEmpty());
+        assertEquals(1, scanSet.loadStats().cachedScans());
+    }
+
+    private static ServiceCommitPair pair(String serviceId, String commit) {
+        return new ServiceCommitPair(serviceId, commit);
+    }
+
+    /**
+     * Returns fixed rows for the combined status query and records the pairs it was asked for.
+     */
+    static final class StubScanStatusDAO extends ServiceScanStatusDAO {
+        final List<ServiceScanRecord> scans = new ArrayList<>();
+        final List<FailedServiceScanRecord> failures = new ArrayList<>();
+        final List<List<ServiceCommitPair>> requests = new ArrayList<>();
+        int roundTrips = 1;
+
+        void addScan(String serviceId, String commit, String serviceDependencies) {
+            ServiceScanRecord record = new ServiceScanRecord();
+            record.setScanId("scan-" + serviceId);
+            record.setServiceId(serviceId);
+            record.setGitCommitHash(commit);
+            record.setServiceDependencies(serviceDependencies);
+            scans.add(record);
+        }
+
+        void addFailure(String serviceId, String commit) {
+            failures.add(FailedServiceScanRecord.builder()
+                    .failureId("failure-" + serviceId)
+                    .serviceId(serviceId)
+                    .gitCommitHash(commit)
+                    .failureTimestamp(new Timestamp(0))
+                    .errorType(FailedServiceScanRecord.ErrorType.SCAN_ERROR)
+                    .errorMessage("scanner failed")
+                    .build());
+        }
+
+        @Override
+        public <T> ParsedScanStatusRecords<T> findParsedByServiceCommitPairs(Connection connection,
+                                                                             List<ServiceCommitPair> serviceCommitPairs,
+                                                                             ScanDataReader<T> scanDataReader) {
+            requests.add(List.copyOf(serviceCommitPairs));
+            List<LoadedScan<T>> loaded = new ArrayList<>();
+            for (ServiceScanRecord record : scans) {
+                if (serviceCommitPairs.contains(pair(record.getServiceId(), record.getGitCommitHash()))) {
+                    @SuppressWarnings("unchecked")
+                    T scanData = (T) new ScanData();
+                    loaded.add(new LoadedScan<>(record, scanData));
+                }
+            }
+            return new ParsedScanStatusRecords<>(loaded, failuresFor(serviceCommitPairs), roundTrips);
+        }
+
+        List<FailedServiceScanRecord> failuresFor(List<ServiceCommitPair> serviceCommitPairs) {
+            List<FailedServiceScanRecord> failed = new ArrayList<>();
+            for (FailedServiceScanRecord failure : failures) {
+                if (serviceCommitPairs.contains(pair(failure.getServiceId(), failure.getGitCommitHash()))) {
+                    failed.add(failure);
+                }
+            }
+            return failed;
+        }
+    }
+
+    /**
+     * Answers failure lookups from the status stub's failure records.
+     */
+    static final class StubFailedScanDAO extends FailedServiceScanDAO {
+        private final StubScanStatusDAO statusDAO;
+        final List<List<ServiceCommitPair>> requests = new ArrayList<>();
+
+        StubFailedScanDAO(StubScanStatusDAO statusDAO) {
+            this.statusDAO = statusDAO;
+        }
+
+        @Override
+        public List<FailedServiceScanRecord> findByServiceCommitPairs(Connection connection,
+                                                                       List<ServiceCommitPair> serviceCommitPairs) {
+            if (!serviceCommitPairs.isEmpty()) {
+                requests.add(List.copyOf(serviceCommitPairs));
+            }
+            return statusDAO.failuresFor(serviceCommitPairs);
+        }
+    }
+}
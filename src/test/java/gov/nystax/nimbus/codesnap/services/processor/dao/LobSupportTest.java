@@ -0,0 +1,76 @@
+package gov.nystax.nimbus.codesnap.services.processor.dao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ScanDataReader;
+import gov.nystax.nimbus.codesnap.services.processor.domain.ScanData;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LobSupportTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicBoolean freed = new AtomicBoolean();
+
+    @Test
+    void read_streamsClobIntoReaderAndFreesIt() throws Exception {
+        ScanData scanData = new ScanData();
+        scanData.setFunctionMappings(Map.of("fnA", "gov.example.FnA"));
+        scanData.setMethodImplementationMapping(Map.of("gov.example.Api.get", "gov.example.ApiImpl.get"));
+        String json = objectMapper.writeValueAsString(scanData);
+
+        ScanData read = LobSupport.read(stubClob(json, json.length()), new ScanDataReader<>() {
+            @Override
+            public ScanData readJson(Reader reader) throws IOException {
+                return objectMapper.readValue(reader, ScanData.class);
+            }
+
+            @Override
+            public ScanData readCompact(String format, InputStream compact) {
+                throw new UnsupportedOperationException();
+            }
+        });
+
+        assertEquals(json, objectMapper.writeValueAsString(read));
+        assertTrue(freed.get());
+    }
+
+    @Test
+    void readString_rejectsClobLongerThanAString() {
+        Clob clob = stubClob("", Integer.MAX_VALUE + 1L);
+
+        SQLException e = assertThrows(SQLException.class, () -> LobSupport.readString(clob));
+
+        assertTrue(e.getMessage().contains("too large"));
+        assertTrue(freed.get());
+    }
+
+    /**
+     * Returns a Clob that reports the given length and serves the content as its character stream.
+     */
+    private Clob stubClob(String content, long length) {
+        return (Clob) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Clob.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "length" -> length;
+                    case "getCharacterStream" -> new StringReader(content);
+                    case "getSubString" -> content;
+                    case "free" -> {
+                        freed.set(true);
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
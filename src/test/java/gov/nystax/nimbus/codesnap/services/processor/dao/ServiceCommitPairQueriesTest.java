@@ -0,0 +1,93 @@
+package gov.nystax.nimbus.codesnap.services.processor.dao;
+
+import gov.nystax.nimbus.codesnap.services.processor.dao.ServiceScanDAO.ServiceCommitPair;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ServiceCommitPairQueriesTest {
+
+    @Test
+    void rowValueInSql_appendsOneRowValuePerPair() {
+        String sql = ServiceCommitPairQueries.rowValueInSql(
+                "SELECT 1 FROM T WHERE (SERVICE_ID, GIT_COMMIT_HASH) IN (\n", 3);
+
+        assertEquals("SELECT 1 FROM T WHERE (SERVICE_ID, GIT_COMMIT_HASH) IN (\n"
+                + "    (?, ?), (?, ?), (?, ?)\n)", sql);
+    }
+
+    @Test
+    void orPredicateSql_joinsOnePredicatePerPairWithOr() {
+        String sql = ServiceCommitPairQueries.orPredicateSql("SELECT 1 FROM T WHERE\n", 2);
+
+        assertEquals("SELECT 1 FROM T WHERE\n"
+                + "    (SERVICE_ID = ? AND GIT_COMMIT_HASH = ?)\n"
+                + " OR (SERVICE_ID = ? AND GIT_COMMIT_HASH = ?)", sql);
+    }
+
+    @Test
+    void distinctAndPartition_collapseDuplicatesAndChunk() {
+        List<ServiceCommitPair> pairs = List.of(
+                new ServiceCommitPair("svc-a", "c1"),
+                new ServiceCommitPair("svc-b", "c2"),
+                new ServiceCommitPair("svc-a", "c1"),
+                new ServiceCommitPair("svc-c", "c3"),
+                new ServiceCommitPair("svc-d", "c4"));
+
+        List<ServiceCommitPair> distinct = ServiceCommitPairQueries.distinct(pairs);
+        List<List<ServiceCommitPair>> chunks = ServiceCommitPairQueries.partition(distinct, 3);
+
+        assertEquals(4, distinct.size());
+        assertEquals(2, chunks.size());
+        assertEquals(List.of(pairs.get(0), pairs.get(1), pairs.get(3)), chunks.get(0));
+        assertEquals(List.of(pairs.get(4)), chunks.get(1));
+    }
+
+    @Test
+    void loadKeysTempTable_emitsEventForFailedStatement(@TempDir Path tempDir) throws Exception {
+        Statement failingStatement = (Statement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Statement.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("execute")) {
+                        throw new SQLException("statement timed out");
+                    }
+                    return null;
+                });
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> failingStatement);
+
+        Path file = tempDir.resolve("dao-query.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(DaoQueryEvent.NAME);
+            recording.start();
+            assertThrows(SQLException.class, () -> ServiceCommitPairQueries.loadKeysTempTable(
+                    connection, List.of(new ServiceCommitPair("svc-a", "c1")), 10));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(DaoQueryEvent.NAME))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals("ServiceCommitPairQueries.DECLARE_KEYS_TEMP_TABLE", events.get(0).getString("sqlId"));
+        assertEquals(-1, events.get(0).getLong("rowCount"));
+    }
+
+    @Test
+    void partition_rejectsNonPositiveBatchSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ServiceCommitPairQueries.partition(List.of(), 0));
+    }
+}
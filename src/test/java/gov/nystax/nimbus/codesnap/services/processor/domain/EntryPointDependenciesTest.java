@@ -0,0 +1,40 @@
+package gov.nystax.nimbus.codesnap.services.processor.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntryPointDependenciesTest {
+
+    @Test
+    void serviceCallsKeepFirstInsertionOrderWithoutDuplicates() {
+        EntryPointDependencies deps = new EntryPointDependencies();
+        deps.addServiceCall("B", "b()");
+        deps.addServiceCall("A", "a()");
+        deps.addServiceCall("B", "b()");
+
+        EntryPointDependencies other = new EntryPointDependencies();
+        other.addServiceCall("A", "a()");
+        other.addServiceCall("C", "c()");
+        deps.merge(other);
+
+        assertEquals(List.of(new ServiceCallReference("B", "b()"), new ServiceCallReference("A", "a()"),
+                new ServiceCallReference("C", "c()")), deps.getServiceCalls());
+    }
+
+    @Test
+    void setServiceCallsAndCopyRebuildTheIndex() {
+        EntryPointDependencies deps = new EntryPointDependencies();
+        deps.setServiceCalls(List.of(new ServiceCallReference("A", "a()")));
+        deps.addServiceCall("A", "a()");
+        assertEquals(1, deps.getServiceCalls().size());
+
+        EntryPointDependencies copy = deps.copy();
+        copy.addServiceCall("A", "a()");
+        copy.addServiceCall("B", "b()");
+        assertEquals(2, copy.getServiceCalls().size());
+        assertEquals(1, deps.getServiceCalls().size());
+    }
+}
@@ -0,0 +1,48 @@
+package gov.nystax.nimbus.codesnap.services.processor.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScanDataTest {
+
+    @Test
+    void viewsAreUnmodifiableAndUncopied() {
+        EntryPointDependencies deps = new EntryPointDependencies();
+        deps.addFunction("fa");
+        deps.addServiceCall("svc", "method");
+        ScanData scanData = new ScanData();
+        scanData.setEntryPointChildren(Map.of("entry", deps));
+
+        Map<String, EntryPointDependencies> view = scanData.getEntryPointChildrenView();
+        assertSame(deps, view.get("entry"));
+        assertThrows(UnsupportedOperationException.class, () -> view.put("other", deps));
+
+        Set<String> functions = deps.getFunctionsView();
+        assertThrows(UnsupportedOperationException.class, () -> functions.add("fb"));
+        deps.addFunction("fb");
+        assertEquals(List.of("fa", "fb"), List.copyOf(functions));
+
+        List<ServiceCallReference> serviceCalls = deps.getServiceCallsView();
+        assertThrows(UnsupportedOperationException.class, serviceCalls::clear);
+    }
+
+    @Test
+    void viewsAreNotSerialized() throws Exception {
+        ScanData scanData = new ScanData();
+        EntryPointDependencies deps = new EntryPointDependencies();
+        deps.addTopic("topic");
+        scanData.setPublicMethodDependencies(Map.of("impl", deps));
+
+        ObjectMapper mapper = new ObjectMapper();
+        String json = mapper.writeValueAsString(scanData);
+
+        assertFalse(json.contains("View"));
+        assertEquals(scanData, mapper.readValue(json, ScanData.class));
+    }
+}